@@ -0,0 +1,141 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pi4j.io.i2c.I2CDevice;
+
+import raspi.hardware.i2c.ArduinoI2C;
+import raspi.hardware.i2c.MotorDriverHAT;
+
+/**
+ * ArduinoPlant - die reale Regelstrecke: Impulszaehler auf dem Arduino
+ * (ArduinoI2C) und die Motoren am MotorDriverHAT.
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class ArduinoPlant implements Plant
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ArduinoPlant.class);
+
+    /**
+     * arduinoI2C - Referenz auf Hilfsklasse zur Kommunikation
+     * mit dem Arduino.
+     */
+    private final ArduinoI2C arduinoI2C;
+
+    /**
+     * motorDriverHAT - Referenz auf den MotorDriverHAT (wird mit
+     * setPwmFrequency() im Takt neu instanziiert und erst vollstaendig
+     * initialisiert veroeffentlicht, volatile: Model.doFailSafe() gibt aus
+     * dem Thread des CycleWatchdog ohne Sperre aus)...
+     */
+    private volatile MotorDriverHAT motorDriverHAT;
+
+    /**
+     * hatDevice - I2CDevice des MotorDriverHAT (null: Frequenz nicht aenderbar)
+     */
+    private final I2CDevice hatDevice;
+
+    /**
+     * ArduinoPlant(ArduinoI2C arduinoI2C, MotorDriverHAT motorDriverHAT)
+     * @param arduinoI2C
+     * @param motorDriverHAT
+     */
+    public ArduinoPlant(ArduinoI2C arduinoI2C, MotorDriverHAT motorDriverHAT)
+    {
+        this.arduinoI2C = Objects.requireNonNull(arduinoI2C, "arduinoI2C must not be null!");
+        this.motorDriverHAT = Objects.requireNonNull(motorDriverHAT, "motorDriverHAT must not be null!");
+        this.hatDevice = null;
+    }
+
+    /**
+     * ArduinoPlant(ArduinoI2C arduinoI2C, I2CDevice hatDevice, int frequency) -
+     * MotorDriverHAT auf dem I2CDevice, Frequenz im Betrieb aenderbar...
+     * @param arduinoI2C
+     * @param hatDevice - I2CDevice des MotorDriverHAT
+     * @param frequency - PWM-Frequenz
+     * @throws IOException
+     */
+    public ArduinoPlant(ArduinoI2C arduinoI2C, I2CDevice hatDevice, int frequency) throws IOException
+    {
+        this.arduinoI2C = Objects.requireNonNull(arduinoI2C, "arduinoI2C must not be null!");
+        this.hatDevice = Objects.requireNonNull(hatDevice, "hatDevice must not be null!");
+        this.motorDriverHAT = new MotorDriverHAT(hatDevice, frequency);
+    }
+
+    /**
+     * exchange(long token, ArduinoI2C.Status status) - write() und read() zum/vom Arduino...
+     * <p>
+     * Der Arduino liefert (derzeit) keine Zeitstempel der Flanken, die Drehzahl
+     * wird dann im Model ueber die Impulszaehlung gemittelt.
+     * </p>
+     */
+    @Override
+    public Response exchange(long token, ArduinoI2C.Status status) throws IOException
+    {
+        this.arduinoI2C.write(token, status);
+        logger.debug("i2c-Bus: " + token + " gesendet...");
+
+        final ArduinoI2C.DataRequest request = this.arduinoI2C.read();
+        logger.debug("i2c-Bus: " + request.toString() + " gelesen...");
+
+        return new Response(request.getToken(),
+                            request.getStatus(),
+                            request.getValue(),
+                            request.getNumberMA(),
+                            request.getNumberMB());
+    }
+
+    /**
+     * setPwmMA(float speed) - Ausgabe an den MotorDriverHAT
+     */
+    @Override
+    public void setPwmMA(float speed) throws IOException
+    {
+        this.motorDriverHAT.setPwmMA(speed);
+    }
+
+    /**
+     * setPwmMB(float speed) - Ausgabe an den MotorDriverHAT
+     */
+    @Override
+    public void setPwmMB(float speed) throws IOException
+    {
+        this.motorDriverHAT.setPwmMB(speed);
+    }
+
+    /**
+     * setPwmFrequency(int frequency) - MotorDriverHAT mit der neuen Frequenz
+     * initialisieren (an der Taktgrenze, die Stellgroessen werden im Takt
+     * neu ausgegeben)...
+     */
+    @Override
+    public void setPwmFrequency(int frequency) throws IOException
+    {
+        if (this.hatDevice == null)
+        {
+            logger.warn("setPwmFrequency(): MotorDriverHAT ohne I2CDevice, Frequenz nicht aenderbar!");
+            return;
+        }
+        // Erst vollstaendig initialisieren, dann veroeffentlichen...
+        final MotorDriverHAT motorDriverHAT = new MotorDriverHAT(this.hatDevice, frequency);
+        this.motorDriverHAT = motorDriverHAT;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "gui.ArduinoPlant";
+    }
+}
@@ -0,0 +1,447 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ControlCheckpoint - Sicherung der Zustandsgroessen der Regelung (Lage,
+ * Lagesollwert, token, Odometrie) in einer kleinen, eingeblendeten Datei
+ * (MappedByteBuffer) fuer den Warmstart.
+ * <p>
+ * Die Datei hat zwei Plaetze (slot), geschrieben wird abwechselnd, jeder
+ * Platz traegt eine fortlaufende Nummer (sequence) und eine Pruefsumme
+ * (CRC32). Gelesen wird der gueltige Platz mit der hoechsten Nummer, ein
+ * beim Schreiben unterbrochener Platz wird an der Pruefsumme erkannt, es
+ * bleibt dann der vorige Stand.
+ * </p>
+ * <p>
+ * write() schreibt nur in die Einblendung (kein Systemaufruf, im Takt
+ * moeglich), der Stand ueberlebt damit das Ende des Prozesses (z.B. bei
+ * einem Update). Gegen Spannungsausfall sichert erst force() (msync),
+ * das nur beim Anhalten und Beenden beauftragt wird.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class ControlCheckpoint implements AutoCloseable
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ControlCheckpoint.class);
+
+    /**
+     * MAGIC = 0x43504B54 ("CPKT") - Kennung der Datei
+     */
+    public final static int MAGIC = 0x43504B54;
+
+    /**
+     * VERSION = 1 - Aufbau der Datei
+     */
+    public final static int VERSION = 1;
+
+    /**
+     * HEADER_SIZE = 16 - MAGIC, VERSION, reserviert
+     */
+    private final static int HEADER_SIZE = 16;
+
+    /**
+     * SLOT_SIZE = 96 - Groesse eines Platzes
+     */
+    private final static int SLOT_SIZE = 96;
+
+    /**
+     * FILE_SIZE - Groesse der Datei (Kopf und zwei Plaetze)
+     */
+    public final static int FILE_SIZE = HEADER_SIZE + 2 * SLOT_SIZE;
+
+    /**
+     * Offsets innerhalb eines Platzes...
+     */
+    private final static int SEQUENCE = 0;
+    private final static int TOKEN = 8;
+    private final static int NUMBER_MA = 16;
+    private final static int NUMBER_MB = 24;
+    private final static int DESTINATION_MA = 32;
+    private final static int DESTINATION_MB = 40;
+    private final static int POSE_X = 48;
+    private final static int POSE_Y = 56;
+    private final static int HEADING = 64;
+    private final static int SAVED_MILLIS = 72;
+    private final static int CRC = 80;
+
+    /**
+     * SCALE = Model.SCALE_INTERN - Genauigkeit der Lagesollwerte in der Datei
+     */
+    private final static int SCALE = Model.SCALE_INTERN;
+
+    /**
+     * file - die Datei
+     */
+    private final File file;
+
+    /**
+     * buffer - die eingeblendete Datei
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * sequence - Nummer des zuletzt geschriebenen Platzes
+     */
+    private long sequence;
+
+    /**
+     * ControlCheckpoint(File file) - Datei oeffnen, evtl. anlegen...
+     * @param file - Datei der Sicherung
+     * @throws IOException
+     */
+    public ControlCheckpoint(File file) throws IOException
+    {
+        this.file = Objects.requireNonNull(file, "file must not be null!");
+        // Die Einblendung bleibt auch nach dem Schliessen der Datei gueltig...
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"))
+        {
+            this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, FILE_SIZE);
+        }
+        if (this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != VERSION)
+        {
+            // Neue (oder fremde) Datei: Kopf schreiben, beide Plaetze ungueltig...
+            for (int index = 0; index < FILE_SIZE; index++)
+            {
+                this.buffer.put(index, (byte) 0);
+            }
+            this.buffer.putInt(0, MAGIC);
+            this.buffer.putInt(4, VERSION);
+            logger.info("ControlCheckpoint " + file + " angelegt.");
+        }
+        final State state = read();
+        this.sequence = (state != null)? state.getSequence() : 0L;
+    }
+
+    /**
+     * read() - der gueltige Platz mit der hoechsten Nummer...
+     * @return Stand oder null (keine gueltige Sicherung)
+     */
+    public synchronized State read()
+    {
+        State result = null;
+        for (int slot = 0; slot < 2; slot++)
+        {
+            final State state = readSlot(slot);
+            if (state != null && (result == null || state.getSequence() > result.getSequence()))
+            {
+                result = state;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * write(State state) - Stand in den aelteren Platz schreiben...
+     * @param state - Stand (die sequence des Standes wird nicht verwendet)
+     */
+    public synchronized void write(State state)
+    {
+        Objects.requireNonNull(state, "state must not be null!");
+        this.sequence++;
+        final int offset = offset((int) (this.sequence & 1L));
+        this.buffer.putLong(offset + SEQUENCE, this.sequence);
+        this.buffer.putLong(offset + TOKEN, state.getToken());
+        this.buffer.putLong(offset + NUMBER_MA, state.getNumberMA());
+        this.buffer.putLong(offset + NUMBER_MB, state.getNumberMB());
+        this.buffer.putLong(offset + DESTINATION_MA, toUnscaled(state.getValueDestinationMA()));
+        this.buffer.putLong(offset + DESTINATION_MB, toUnscaled(state.getValueDestinationMB()));
+        this.buffer.putDouble(offset + POSE_X, state.getPoseX());
+        this.buffer.putDouble(offset + POSE_Y, state.getPoseY());
+        this.buffer.putDouble(offset + HEADING, state.getHeading());
+        this.buffer.putLong(offset + SAVED_MILLIS, state.getSavedMillis());
+        this.buffer.putInt(offset + CRC, crc(offset));
+    }
+
+    /**
+     * force() - Einblendung auf den Datentraeger schreiben (msync)...
+     */
+    public synchronized void force()
+    {
+        this.buffer.force();
+    }
+
+    /**
+     * close() - force(), die Einblendung wird mit dem Objekt freigegeben...
+     */
+    @Override
+    public void close()
+    {
+        force();
+    }
+
+    /**
+     * readSlot(int slot) - Platz lesen und pruefen...
+     * @return Stand oder null (leer oder Pruefsumme falsch)
+     */
+    private State readSlot(int slot)
+    {
+        final int offset = offset(slot);
+        final long sequence = this.buffer.getLong(offset + SEQUENCE);
+        if (sequence <= 0L || this.buffer.getInt(offset + CRC) != crc(offset))
+        {
+            return null;
+        }
+        return new State(sequence,
+                         this.buffer.getLong(offset + TOKEN),
+                         this.buffer.getLong(offset + NUMBER_MA),
+                         this.buffer.getLong(offset + NUMBER_MB),
+                         new BigDecimal(BigInteger.valueOf(this.buffer.getLong(offset + DESTINATION_MA)), SCALE),
+                         new BigDecimal(BigInteger.valueOf(this.buffer.getLong(offset + DESTINATION_MB)), SCALE),
+                         this.buffer.getDouble(offset + POSE_X),
+                         this.buffer.getDouble(offset + POSE_Y),
+                         this.buffer.getDouble(offset + HEADING),
+                         this.buffer.getLong(offset + SAVED_MILLIS));
+    }
+
+    /**
+     * offset(int slot) - Beginn des Platzes in der Datei...
+     */
+    private static int offset(int slot)
+    {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * crc(int offset) - Pruefsumme ueber den Platz (ohne CRC)...
+     */
+    private int crc(int offset)
+    {
+        final byte[] bytes = new byte[CRC];
+        for (int index = 0; index < CRC; index++)
+        {
+            bytes[index] = this.buffer.get(offset + index);
+        }
+        final CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, CRC);
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * toUnscaled(BigDecimal value) - Lagesollwert mit SCALE Nachkommastellen
+     * als long (Bereich +/- 9.2E12 Impulse)...
+     */
+    private static long toUnscaled(BigDecimal value)
+    {
+        return value.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @return the file
+     */
+    public File getFile()
+    {
+        return this.file;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.file)
+                                  .append(" ")
+                                  .append(this.sequence)
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * State - gesicherter Stand der Zustandsgroessen (immutable)...
+     */
+    public static class State
+    {
+        /**
+         * sequence - Nummer des Platzes (0: noch nicht geschrieben)
+         */
+        private final long sequence;
+
+        /**
+         * token - zuletzt vom Arduino erhaltener token
+         */
+        private final long token;
+
+        /**
+         * numberMA/numberMB - absolute Lage der Motoren in Impulsen
+         */
+        private final long numberMA;
+        private final long numberMB;
+
+        /**
+         * valueDestinationMA/valueDestinationMB - Lagesollwerte als Zustandsgroessen
+         */
+        private final BigDecimal valueDestinationMA;
+        private final BigDecimal valueDestinationMB;
+
+        /**
+         * poseX/poseY in mm, heading in rad - Odometrie
+         */
+        private final double poseX;
+        private final double poseY;
+        private final double heading;
+
+        /**
+         * savedMillis - Zeitpunkt der Sicherung (System.currentTimeMillis())
+         */
+        private final long savedMillis;
+
+        /**
+         * State(...) - Stand zum Schreiben...
+         */
+        public State(long token, long numberMA, long numberMB, BigDecimal valueDestinationMA, BigDecimal valueDestinationMB,
+                     double poseX, double poseY, double heading, long savedMillis)
+        {
+            this(0L, token, numberMA, numberMB, valueDestinationMA, valueDestinationMB, poseX, poseY, heading, savedMillis);
+        }
+
+        /**
+         * State(...) - Stand aus der Datei...
+         */
+        State(long sequence, long token, long numberMA, long numberMB, BigDecimal valueDestinationMA, BigDecimal valueDestinationMB,
+              double poseX, double poseY, double heading, long savedMillis)
+        {
+            this.sequence = sequence;
+            this.token = token;
+            this.numberMA = numberMA;
+            this.numberMB = numberMB;
+            this.valueDestinationMA = Objects.requireNonNull(valueDestinationMA, "valueDestinationMA must not be null!");
+            this.valueDestinationMB = Objects.requireNonNull(valueDestinationMB, "valueDestinationMB must not be null!");
+            this.poseX = poseX;
+            this.poseY = poseY;
+            this.heading = heading;
+            this.savedMillis = savedMillis;
+        }
+
+        /**
+         * @return the sequence
+         */
+        public long getSequence()
+        {
+            return this.sequence;
+        }
+
+        /**
+         * @return the token
+         */
+        public long getToken()
+        {
+            return this.token;
+        }
+
+        /**
+         * @return the numberMA
+         */
+        public long getNumberMA()
+        {
+            return this.numberMA;
+        }
+
+        /**
+         * @return the numberMB
+         */
+        public long getNumberMB()
+        {
+            return this.numberMB;
+        }
+
+        /**
+         * @return the valueDestinationMA
+         */
+        public BigDecimal getValueDestinationMA()
+        {
+            return this.valueDestinationMA;
+        }
+
+        /**
+         * @return the valueDestinationMB
+         */
+        public BigDecimal getValueDestinationMB()
+        {
+            return this.valueDestinationMB;
+        }
+
+        /**
+         * @return the poseX
+         */
+        public double getPoseX()
+        {
+            return this.poseX;
+        }
+
+        /**
+         * @return the poseY
+         */
+        public double getPoseY()
+        {
+            return this.poseY;
+        }
+
+        /**
+         * @return the heading
+         */
+        public double getHeading()
+        {
+            return this.heading;
+        }
+
+        /**
+         * @return the savedMillis
+         */
+        public long getSavedMillis()
+        {
+            return this.savedMillis;
+        }
+
+        /**
+         * toString() - zu Protokollzwecken...
+         */
+        @Override
+        public String toString()
+        {
+            return new StringBuilder().append("[")
+                                      .append(this.sequence)
+                                      .append(" ")
+                                      .append(this.token)
+                                      .append(" ")
+                                      .append(this.numberMA)
+                                      .append(" ")
+                                      .append(this.numberMB)
+                                      .append(" ")
+                                      .append(this.valueDestinationMA)
+                                      .append(" ")
+                                      .append(this.valueDestinationMB)
+                                      .append(" ")
+                                      .append(this.poseX)
+                                      .append(" ")
+                                      .append(this.poseY)
+                                      .append(" ")
+                                      .append(this.heading)
+                                      .append(" ")
+                                      .append(java.time.Instant.ofEpochMilli(this.savedMillis))
+                                      .append("]")
+                                      .toString();
+        }
+    }
+}
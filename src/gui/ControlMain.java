@@ -0,0 +1,50 @@
+package gui;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * ControlMain - Prozess der Regelung ohne View (ohne Swing), die View
+ * laeuft in einem eigenen Prozess (SwingMain mit -Dgui.remote=true).
+ * <p>
+ * Das Model veroeffentlicht die Zustandsgroessen im Abbild
+ * (-Dgui.snapshot.file=...), Kommandos nimmt der ControlServer an
+ * (-Dgui.control.port=...), beide Angaben sind erforderlich. Ohne
+ * Swing und ohne Zeichnen genuegt ein kleiner Heap (z.B. -Xmx32m), die
+ * Garbage Collection der View stoert den Takt nicht mehr.
+ * </p>
+ * <p>
+ * Ein vorhandener Stand zum Warmstart (ControlCheckpoint, gui.restart=ASK)
+ * wird ueber das Kommando RESUME uebernommen, sonst START/RESET. Beendet
+ * wird der Prozess ueber ein Signal (z.B. SIGTERM), dabei wird
+ * Model.shutdown() beauftragt.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class ControlMain
+{
+    /** main()-Funktionalitaet... */
+    public static void main(String[] args) throws Exception
+    {
+        if (Model.SNAPSHOT_FILE == null || ControlServer.DEFAULT_PORT < 0)
+        {
+            System.err.println("ControlMain requires -Dgui.snapshot.file=... and -Dgui.control.port=...!");
+            System.exit(1);
+        }
+        final Model model = new Model();
+        final ControlServer controlServer = new ControlServer(model, ControlServer.DEFAULT_PORT);
+        controlServer.start();
+        if (model.getResumeState() != null)
+        {
+            System.out.println("Gesicherter Zustand: " + model.getResumeState() + " - RESUME, START oder RESET?");
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+        {
+            controlServer.stop();
+            model.shutdown();
+        }, "ControlMain-shutdown"));
+        // Warten bis zum Ende des Prozesses...
+        new CountDownLatch(1).await();
+    }
+}
@@ -0,0 +1,569 @@
+/**
+ *
+ */
+package gui;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ControlServer - Bedienung des Model ueber ein zeilenorientiertes TCP-Protokoll
+ * (z.B. aus Skripten der Pruefstaende, telnet, nc).
+ * <p>
+ * Wie der Controller reicht der ControlServer die Kommandos an das Model
+ * weiter (doStart(), doStop(), doReset(), setProperty()), ausgefuehrt werden
+ * sie an der naechsten Taktgrenze in doCycle() (Model.submit()), die View
+ * wird ueber das Model nachgezogen. Kommandos (je Zeile, Gross-/Kleinschreibung
+ * beliebig):
+ * <ul>
+ *  <li>START, STOP, RESET - wie die Buttons (mit Pruefung des GuiStatus)</li>
+ *  <li>RESUME - Warmstart aus der Sicherung (ControlCheckpoint, nur vor
+ *  START/RESET), RESUME ? - gesicherter Stand</li>
+ *  <li>SET &lt;key&gt; &lt;value&gt; - destinationMAKey, destinationMBKey (Bereich der
+ *  DESTINATION_VALUES), outputRelationKey, maxValueMAKey, maxValueMBKey,
+ *  enhancementKey, syncEnhancementKey (Eintrag der Liste), controlKey, syncKey,
+ *  destinationSimultanKey, observerKey, autoTuneKey (true/false)</li>
+ *  <li>GET &lt;key&gt; - aktueller Wert (auch dataKey, guiStatusKey)</li>
+ *  <li>GAIN - Tabelle der Verstaerkungen (GainSchedule), GAIN &lt;speedIndex&gt;
+ *  &lt;loadIndex&gt; &lt;gain&gt; - eine Stuetzstelle aendern, GAIN OFF - ohne Tabelle</li>
+ *  <li>DRIVE &lt;v&gt; &lt;omega&gt; - Fahrvorgabe in mm/s und Grad/s (DriveCommand),
+ *  DRIVE OFF - wieder Sollwerte je Motor, DRIVE - aktuelle Fahrvorgabe</li>
+ *  <li>STATS - Verzoegerung der Kommandos bis zur naechsten Taktgrenze</li>
+ *  <li>PING, QUIT</li>
+ * </ul>
+ * Antwort: "OK [Wert]" oder "ERR Meldung".
+ * </p>
+ * <p>
+ * Eine View in einem eigenen Prozess (RemoteController) sendet ihre
+ * Kommandos ebenfalls ueber den ControlServer, die Zustandsgroessen liest
+ * sie aus dem Abbild (StateSnapshot).
+ * </p>
+ * <p>
+ * Gemessen wird die Zeit vom Eingang eines Kommandos bis zum Beginn der
+ * Veroeffentlichung des naechsten Taktes (DATA_KEY aus doCycle()), ab dem
+ * das Kommando wirksam ist. Die Antwort wird sofort gegeben, Kommandos
+ * koennen also ohne Warten auf den Takt hintereinander gesendet werden.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class ControlServer implements PropertyChangeListener, Runnable
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ControlServer.class);
+
+    /**
+     * DEFAULT_PORT - Port, einstellbar ueber -Dgui.control.port=..., ohne Angabe (-1) kein Server
+     */
+    public final static int DEFAULT_PORT = Integer.getInteger("gui.control.port", -1).intValue();
+
+    /**
+     * DEFAULT_HOST = "localhost" - Adresse des Servers (nur lokal), einstellbar ueber -Dgui.control.host=...
+     */
+    public final static String DEFAULT_HOST = System.getProperty("gui.control.host", "localhost");
+
+    /**
+     * PENDING_CAPACITY = 1024 - Kommandos, die auf die naechste Taktgrenze warten
+     */
+    public final static int PENDING_CAPACITY = 1024;
+
+    /**
+     * model - Referenz auf das Model
+     */
+    private final Model model;
+
+    /**
+     * serverSocket
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * lastCounter - counter der letzten Data, nur ein neuer counter ist eine
+     * Taktgrenze (doStart()/doReset() veroeffentlichen den bisherigen)
+     */
+    private long lastCounter = -1L;
+
+    /**
+     * pending - Eingangszeitpunkte der Kommandos vor der naechsten Taktgrenze
+     */
+    private final long[] pending = new long[PENDING_CAPACITY];
+    private int pendingSize = 0;
+
+    /**
+     * Statistik der Verzoegerung bis zur Taktgrenze (in ns)...
+     */
+    private long commands = 0L;
+    private long latencySum = 0L;
+    private long latencyMax = 0L;
+    private long latencyLast = 0L;
+
+    /**
+     * isRunning
+     */
+    private volatile boolean isRunning = false;
+
+    /**
+     * ControlServer(Model model, int port) - Server auf DEFAULT_HOST...
+     * @param model - Referenz auf das Model
+     * @param port - Port (0: beliebig)
+     * @throws IOException
+     */
+    public ControlServer(Model model, int port) throws IOException
+    {
+        this.model = model;
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getByName(DEFAULT_HOST), port));
+        this.model.addPropertyChangeListener(this);
+    }
+
+    /**
+     * start() - Annahme der Verbindungen starten (Daemon)...
+     */
+    public void start()
+    {
+        this.isRunning = true;
+        final Thread thread = new Thread(this, "ControlServer");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("ControlServer gestartet: " + this.serverSocket.getLocalSocketAddress());
+    }
+
+    /**
+     * stop() - Server beenden...
+     */
+    public void stop()
+    {
+        this.isRunning = false;
+        this.model.removePropertyChangeListener(this);
+        try
+        {
+            this.serverSocket.close();
+        }
+        catch (IOException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+    }
+
+    /**
+     * @return Port des Servers
+     */
+    public int getPort()
+    {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * run() - Annahme der Verbindungen, je Verbindung ein Thread...
+     */
+    @Override
+    public void run()
+    {
+        while (this.isRunning)
+        {
+            try
+            {
+                final Socket socket = this.serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                final Thread thread = new Thread(() -> serve(socket), "ControlServer-" + socket.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            }
+            catch (IOException exception)
+            {
+                if (this.isRunning)
+                {
+                    logger.error(exception.toString(), exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * serve(Socket socket) - Kommandos einer Verbindung...
+     */
+    private void serve(Socket socket)
+    {
+        logger.debug("Verbindung: " + socket.getRemoteSocketAddress());
+        try (Socket client = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+             Writer writer = new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                final String command = line.trim();
+                if (command.isEmpty())
+                {
+                    continue;
+                }
+                if ("QUIT".equalsIgnoreCase(command))
+                {
+                    writer.write("OK\n");
+                    writer.flush();
+                    break;
+                }
+                writer.write(execute(command));
+                writer.write('\n');
+                // Bei mehreren Kommandos in Folge erst nach dem letzten senden...
+                if (!reader.ready())
+                {
+                    writer.flush();
+                }
+            }
+        }
+        catch (IOException exception)
+        {
+            logger.debug(exception.toString());
+        }
+    }
+
+    /**
+     * execute(String command) - ein Kommando pruefen und an das Model uebergeben...
+     * <p>
+     * Abfragen (PING, STATS, GET, ...) werden sofort beantwortet. Kommandos,
+     * die den Zustand aendern, fuehrt das Model an der naechsten Taktgrenze
+     * unter seiner Sperre aus (Model.submit()), nie aus dem Thread der
+     * Verbindung. Der GuiStatus wird beim Eingang (Antwort ERR) und bei der
+     * Ausfuehrung erneut geprueft.
+     * </p>
+     * @param command - Kommandozeile
+     * @return Antwort (ohne Zeilenende)
+     */
+    String execute(String command)
+    {
+        final long received = System.nanoTime();
+        final String[] parts = command.split("\\s+");
+        final String verb = parts[0].toUpperCase(Locale.ROOT);
+        final Runnable action;
+        try
+        {
+            switch (verb)
+            {
+                case "PING":
+                    return "OK";
+                case "STATS":
+                    return "OK " + getStatistics();
+                case "GET":
+                    if (parts.length != 2)
+                    {
+                        return "ERR GET <key>";
+                    }
+                    return "OK " + this.model.getProperty(parts[1]);
+                case "START":
+                    if (!isStatus(Model.GuiStatus.INIT, Model.GuiStatus.STOP))
+                    {
+                        return "ERR " + this.model.getProperty(Model.GUI_STATUS_KEY);
+                    }
+                    action = guarded(verb, this.model::doStart, Model.GuiStatus.INIT, Model.GuiStatus.STOP);
+                    break;
+                case "STOP":
+                    if (!isStatus(Model.GuiStatus.START))
+                    {
+                        return "ERR " + this.model.getProperty(Model.GUI_STATUS_KEY);
+                    }
+                    action = guarded(verb, this.model::doStop, Model.GuiStatus.START);
+                    break;
+                case "RESET":
+                    if (!isStatus(Model.GuiStatus.INIT, Model.GuiStatus.STOP))
+                    {
+                        return "ERR " + this.model.getProperty(Model.GUI_STATUS_KEY);
+                    }
+                    action = guarded(verb, this.model::doReset, Model.GuiStatus.INIT, Model.GuiStatus.STOP);
+                    break;
+                case "RESUME":
+                    if (parts.length == 2 && "?".equals(parts[1]))
+                    {
+                        return "OK " + this.model.getResumeState();
+                    }
+                    if (!isStatus(Model.GuiStatus.INIT, Model.GuiStatus.STOP))
+                    {
+                        return "ERR " + this.model.getProperty(Model.GUI_STATUS_KEY);
+                    }
+                    if (this.model.getResumeState() == null)
+                    {
+                        return "ERR no checkpoint to resume";
+                    }
+                    action = guarded(verb, () ->
+                    {
+                        if (!this.model.doResume())
+                        {
+                            logger.warn("RESUME: no checkpoint to resume");
+                        }
+                    }, Model.GuiStatus.INIT, Model.GuiStatus.STOP);
+                    break;
+                case "GAIN":
+                    if (parts.length == 1)
+                    {
+                        return "OK " + this.model.getPositionController().getGainSchedule();
+                    }
+                    if (parts.length == 2 && "OFF".equalsIgnoreCase(parts[1]))
+                    {
+                        action = () -> this.model.getPositionController().setGainSchedule(null);
+                        break;
+                    }
+                    if (parts.length != 4)
+                    {
+                        return "ERR GAIN [<speedIndex> <loadIndex> <gain> | OFF]";
+                    }
+                    final GainSchedule schedule = this.model.getPositionController().getGainSchedule();
+                    if (schedule == null)
+                    {
+                        return "ERR no gain table (model.properties: gainTable)";
+                    }
+                    final GainSchedule changed;
+                    try
+                    {
+                        changed = schedule.with(Integer.parseInt(parts[1]),
+                                                Integer.parseInt(parts[2]),
+                                                Double.parseDouble(parts[3]));
+                    }
+                    catch (IllegalArgumentException exception)
+                    {
+                        return "ERR " + exception.getMessage();
+                    }
+                    action = () -> this.model.getPositionController().setGainSchedule(changed);
+                    break;
+                case "DRIVE":
+                    if (parts.length == 1)
+                    {
+                        return "OK " + this.model.getProperty(Model.DRIVE_KEY);
+                    }
+                    if (parts.length == 2 && "OFF".equalsIgnoreCase(parts[1]))
+                    {
+                        action = () -> this.model.setProperty(Model.DRIVE_KEY, null);
+                        break;
+                    }
+                    if (parts.length != 3)
+                    {
+                        return "ERR DRIVE [<v> <omega> | OFF]";
+                    }
+                    final DriveCommand drive;
+                    try
+                    {
+                        drive = new DriveCommand(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                    }
+                    catch (IllegalArgumentException exception)
+                    {
+                        return "ERR " + exception.getMessage();
+                    }
+                    action = () -> this.model.setProperty(Model.DRIVE_KEY, drive);
+                    break;
+                case "SET":
+                    if (parts.length != 3)
+                    {
+                        return "ERR SET <key> <value>";
+                    }
+                    final String key = parts[1];
+                    final Object value = toValue(key, parts[2]);
+                    if (value == null)
+                    {
+                        return "ERR invalid " + key + " " + parts[2];
+                    }
+                    action = () -> this.model.setProperty(key, value);
+                    break;
+                default:
+                    return "ERR unknown command " + parts[0];
+            }
+            addPending(received);
+            this.model.submit(action);
+        }
+        catch (RuntimeException exception)
+        {
+            logger.error(exception.toString(), exception);
+            return "ERR " + exception.toString();
+        }
+        return "OK";
+    }
+
+    /**
+     * guarded(String verb, Runnable action, Model.GuiStatus... states) - action
+     * nur, wenn der GuiStatus bei der Ausfuehrung (Taktgrenze) noch passt...
+     */
+    private Runnable guarded(String verb, Runnable action, Model.GuiStatus... states)
+    {
+        return () ->
+        {
+            if (isStatus(states))
+            {
+                action.run();
+            }
+            else
+            {
+                logger.warn(verb + " skipped, status " + this.model.getProperty(Model.GUI_STATUS_KEY));
+            }
+        };
+    }
+
+    /**
+     * isStatus(Model.GuiStatus... states) - wie die Freigabe der Buttons in der View...
+     */
+    private boolean isStatus(Model.GuiStatus... states)
+    {
+        final Object guiStatus = this.model.getProperty(Model.GUI_STATUS_KEY);
+        return Arrays.asList(states).contains(guiStatus);
+    }
+
+    /**
+     * toValue(String key, String text) - Pruefung und Umwandlung des Wertes...
+     * @return Wert oder null, wenn key oder Wert unzulaessig
+     */
+    static Object toValue(String key, String text)
+    {
+        try
+        {
+            if (Model.CONTROL_KEY.equals(key) || Model.SYNC_KEY.equals(key)
+             || Model.DESTINATION_SIMULTAN_KEY.equals(key) || Model.OBSERVER_KEY.equals(key) || Model.AUTO_TUNE_KEY.equals(key))
+            {
+                if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text))
+                {
+                    return Boolean.valueOf(text);
+                }
+                return null;
+            }
+            if (Model.DESTINATION_MA_KEY.equals(key) || Model.DESTINATION_MB_KEY.equals(key))
+            {
+                // Beliebiger Sollwert im Bereich der Liste...
+                final BigDecimal value = new BigDecimal(text).setScale(Model.SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
+                BigDecimal min = Model.DESTINATION_VALUES[0];
+                BigDecimal max = Model.DESTINATION_VALUES[0];
+                for (BigDecimal entry: Model.DESTINATION_VALUES)
+                {
+                    min = min.min(entry);
+                    max = max.max(entry);
+                }
+                return (value.compareTo(min) >= 0 && value.compareTo(max) <= 0)? value : null;
+            }
+            if (Model.OUTPUT_RELATION_KEY.equals(key))
+            {
+                return findEntry(Model.OUTPUT_RELATION_VALUES, new BigDecimal(text));
+            }
+            if (Model.MAX_VALUE_MA_KEY.equals(key) || Model.MAX_VALUE_MB_KEY.equals(key))
+            {
+                return findEntry(Model.MX_MAX_VALUES, new BigDecimal(text));
+            }
+            if (Model.ENHANCEMENT_KEY.equals(key) || Model.SYNC_ENHANCEMENT_KEY.equals(key))
+            {
+                return findEntry(Model.ENHANCEMENTS, new BigDecimal(text));
+            }
+        }
+        catch (NumberFormatException exception)
+        {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * findEntry(BigDecimal[] entries, BigDecimal value) - Eintrag der Liste
+     * (mit deren Genauigkeit, vgl. SwingWindow: setSelectedItem())...
+     */
+    private static BigDecimal findEntry(BigDecimal[] entries, BigDecimal value)
+    {
+        for (BigDecimal entry: entries)
+        {
+            if (entry.compareTo(value) == 0)
+            {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * addPending(long received) - Kommando wartet auf die naechste Taktgrenze...
+     */
+    private synchronized void addPending(long received)
+    {
+        if (this.pendingSize < PENDING_CAPACITY)
+        {
+            this.pending[this.pendingSize++] = received;
+        }
+    }
+
+    /**
+     * propertyChange(PropertyChangeEvent event) - Taktgrenze (DATA_KEY aus doCycle())...
+     */
+    @Override
+    public void propertyChange(PropertyChangeEvent event)
+    {
+        if (!Model.DATA_KEY.equals(event.getPropertyName()) || !(event.getNewValue() instanceof Data))
+        {
+            return;
+        }
+        final long now = System.nanoTime();
+        final long counter = ((Data) event.getNewValue()).getCounter().longValue();
+        synchronized (this)
+        {
+            if (counter == this.lastCounter)
+            {
+                return;
+            }
+            this.lastCounter = counter;
+            for (int index = 0; index < this.pendingSize; index++)
+            {
+                final long latency = now - this.pending[index];
+                this.commands++;
+                this.latencySum += latency;
+                this.latencyLast = latency;
+                if (latency > this.latencyMax)
+                {
+                    this.latencyMax = latency;
+                }
+            }
+            this.pendingSize = 0;
+        }
+    }
+
+    /**
+     * getStatistics() - Anzahl, Verzoegerung mittel/max/letzte in us...
+     */
+    public synchronized String getStatistics()
+    {
+        return new StringBuilder().append("commands=")
+                                  .append(this.commands)
+                                  .append(" meanUs=")
+                                  .append((this.commands > 0L)? this.latencySum / this.commands / 1000L : 0L)
+                                  .append(" maxUs=")
+                                  .append(this.latencyMax / 1000L)
+                                  .append(" lastUs=")
+                                  .append(this.latencyLast / 1000L)
+                                  .append(" pending=")
+                                  .append(this.pendingSize)
+                                  .toString();
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.serverSocket.getLocalSocketAddress())
+                                  .append(" ")
+                                  .append(getStatistics())
+                                  .append("]")
+                                  .toString();
+    }
+}
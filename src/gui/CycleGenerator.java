@@ -0,0 +1,414 @@
+/**
+ *
+ */
+package gui;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CycleGenerator - Taktgeber auf dem Raspi (alternativ oder als Reserve
+ * zum Takt durch den Arduino am GPIO_CYCLE_PIN).
+ * <p>
+ * Die Takte liegen auf einem festen Raster (Start + k * Periode, keine
+ * Drift). Bis kurz vor der Frist wird geschlafen (LockSupport.parkNanos),
+ * die letzten spinNanos wird aktiv auf System.nanoTime() gewartet. Damit
+ * bleibt die Verspaetung im Bereich einiger Mikrosekunden, ohne dass der
+ * Thread die gesamte Periode die CPU belegt.
+ * </p>
+ * <p>
+ * <ul>
+ *  <li><b>EXTERNAL</b> - nur der Arduino taktet (kein CycleGenerator)</li>
+ *  <li><b>INTERNAL</b> - nur der CycleGenerator taktet</li>
+ *  <li><b>FAILOVER</b> - der CycleGenerator taktet nur, wenn die Flanken des
+ *  Arduino laenger als failoverNanos ausbleiben, und gibt wieder ab, sobald
+ *  sie zurueckkehren (notifyExternal())</li>
+ * </ul>
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class CycleGenerator implements Runnable
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(CycleGenerator.class);
+
+    /**
+     * DEFAULT_PERIOD_NANOS - Taktzeit (20ms)
+     */
+    public final static long DEFAULT_PERIOD_NANOS = 20000000L;
+
+    /**
+     * DEFAULT_SPIN_NANOS - aktives Warten vor der Frist (200us)
+     */
+    public final static long DEFAULT_SPIN_NANOS = 200000L;
+
+    /**
+     * DEFAULT_FAILOVER_PERIODS = 2 - Anzahl ausgebliebener Perioden bis zur Uebernahme
+     */
+    public final static int DEFAULT_FAILOVER_PERIODS = 2;
+
+    /**
+     * Mode - Quelle des Taktes
+     */
+    public enum Mode
+    {
+        /**
+         * EXTERNAL - Takt durch den Arduino
+         */
+        EXTERNAL,
+        /**
+         * INTERNAL - Takt durch den CycleGenerator
+         */
+        INTERNAL,
+        /**
+         * FAILOVER - Takt durch den Arduino, Reserve durch den CycleGenerator
+         */
+        FAILOVER
+    }
+
+    /**
+     * cycle - Beauftragung eines Taktes (z.B. Model.doCycle(Instant now))
+     */
+    private final Consumer<Instant> cycle;
+
+    /**
+     * mode - INTERNAL oder FAILOVER
+     */
+    private final Mode mode;
+
+    /**
+     * periodNanos - Taktzeit in ns
+     */
+    private final long periodNanos;
+
+    /**
+     * spinNanos - aktives Warten vor der Frist in ns
+     */
+    private final long spinNanos;
+
+    /**
+     * failoverNanos - Zeit ohne Flanke des Arduino bis zur Uebernahme in ns
+     */
+    private final long failoverNanos;
+
+    /**
+     * lastExternalNanos - Zeitpunkt (System.nanoTime()) der letzten Flanke des Arduino
+     */
+    private volatile long lastExternalNanos;
+
+    /**
+     * isRunning - Thread laeuft
+     */
+    private volatile boolean isRunning = false;
+
+    /**
+     * isFailedOver - in FAILOVER: der CycleGenerator hat den Takt uebernommen
+     */
+    private volatile boolean isFailedOver = false;
+
+    /**
+     * cycles - Anzahl der durch den CycleGenerator beauftragten Takte
+     */
+    private volatile long cycles = 0L;
+
+    /**
+     * failovers - Anzahl der Uebernahmen (FAILOVER)
+     */
+    private volatile long failovers = 0L;
+
+    /**
+     * skipped - Anzahl uebersprungener Fristen (Beauftragung dauerte laenger als eine Periode)
+     */
+    private volatile long skipped = 0L;
+
+    /**
+     * maxLatenessNanos/sumLatenessNanos - Verspaetung gegenueber der Frist
+     */
+    private volatile long maxLatenessNanos = 0L;
+    private volatile long sumLatenessNanos = 0L;
+
+    /**
+     * thread - der Taktgeber-Thread
+     */
+    private Thread thread = null;
+
+    /**
+     * CycleGenerator(Consumer&lt;Instant&gt; cycle, Mode mode, long periodNanos) - mit
+     * den DEFAULT-Parametern fuer das aktive Warten und die Uebernahme...
+     * @param cycle - Beauftragung eines Taktes
+     * @param mode - INTERNAL oder FAILOVER
+     * @param periodNanos - Taktzeit in ns
+     */
+    public CycleGenerator(Consumer<Instant> cycle, Mode mode, long periodNanos)
+    {
+        this(cycle, mode, periodNanos, DEFAULT_SPIN_NANOS, DEFAULT_FAILOVER_PERIODS * periodNanos);
+    }
+
+    /**
+     * CycleGenerator(...) - Konstruktor aus allen Parametern...
+     * @param cycle - Beauftragung eines Taktes
+     * @param mode - INTERNAL oder FAILOVER
+     * @param periodNanos - Taktzeit in ns
+     * @param spinNanos - aktives Warten vor der Frist in ns
+     * @param failoverNanos - Zeit ohne Flanke bis zur Uebernahme in ns
+     */
+    public CycleGenerator(Consumer<Instant> cycle, Mode mode, long periodNanos, long spinNanos, long failoverNanos)
+    {
+        this.cycle = Objects.requireNonNull(cycle, "cycle must not be null!");
+        this.mode = Objects.requireNonNull(mode, "mode must not be null!");
+        if (Mode.EXTERNAL == mode)
+        {
+            throw new IllegalArgumentException("mode must be INTERNAL or FAILOVER!");
+        }
+        this.periodNanos = (periodNanos > 0L)? periodNanos : DEFAULT_PERIOD_NANOS;
+        this.spinNanos = Math.max(0L, Math.min(spinNanos, this.periodNanos));
+        this.failoverNanos = (failoverNanos > 0L)? failoverNanos : DEFAULT_FAILOVER_PERIODS * this.periodNanos;
+        this.lastExternalNanos = System.nanoTime();
+    }
+
+    /**
+     * start() - Taktgeber-Thread starten (Daemon, hohe Prioritaet)...
+     */
+    public synchronized void start()
+    {
+        if (this.thread != null)
+        {
+            return;
+        }
+        this.isRunning = true;
+        this.lastExternalNanos = System.nanoTime();
+        this.thread = new Thread(this, "CycleGenerator");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+        this.thread.start();
+    }
+
+    /**
+     * stop() - Taktgeber-Thread beenden...
+     */
+    public synchronized void stop()
+    {
+        this.isRunning = false;
+        if (this.thread != null)
+        {
+            this.thread.interrupt();
+            this.thread = null;
+        }
+    }
+
+    /**
+     * notifyExternal(long nanos) - eine Flanke des Arduino ist eingetroffen...
+     * @param nanos - System.nanoTime() der Flanke
+     */
+    public void notifyExternal(long nanos)
+    {
+        this.lastExternalNanos = nanos;
+    }
+
+    /**
+     * isExternalActive() - taktet der Arduino (noch)?
+     * <p>
+     * In INTERNAL immer false: die Flanken des Arduino werden nicht verarbeitet.
+     * </p>
+     * @return true, wenn die Flanken des Arduino zu verarbeiten sind
+     */
+    public boolean isExternalActive()
+    {
+        return (Mode.FAILOVER == this.mode) && !this.isFailedOver;
+    }
+
+    /**
+     * run() - Takte auf dem festen Raster...
+     */
+    @Override
+    public void run()
+    {
+        long deadline = System.nanoTime() + this.periodNanos;
+        while (this.isRunning)
+        {
+            waitUntil(deadline);
+            if (!this.isRunning)
+            {
+                break;
+            }
+            final long fired = System.nanoTime();
+            final long lateness = fired - deadline;
+
+            if (Mode.INTERNAL == this.mode || (fired - this.lastExternalNanos > this.failoverNanos))
+            {
+                if (Mode.FAILOVER == this.mode && !this.isFailedOver)
+                {
+                    this.isFailedOver = true;
+                    this.failovers++;
+                    logger.warn("CycleGenerator: keine Flanke seit " + (fired - this.lastExternalNanos) / 1000000L + "ms, Uebernahme des Taktes!");
+                }
+                this.cycles++;
+                this.sumLatenessNanos += lateness;
+                this.maxLatenessNanos = Math.max(this.maxLatenessNanos, lateness);
+                try
+                {
+                    this.cycle.accept(Instant.now());
+                }
+                catch (RuntimeException exception)
+                {
+                    logger.error(exception.toString(), exception);
+                }
+            }
+            else if (this.isFailedOver)
+            {
+                this.isFailedOver = false;
+                logger.info("CycleGenerator: Flanken des Arduino wieder vorhanden, Abgabe des Taktes.");
+            }
+
+            deadline += this.periodNanos;
+            final long behind = System.nanoTime() - deadline;
+            if (behind >= 0L)
+            {
+                // Die Beauftragung hat laenger als eine Periode gedauert, die
+                // verpassten Fristen werden uebersprungen (Raster bleibt erhalten)...
+                final long periods = behind / this.periodNanos + 1L;
+                this.skipped += periods;
+                deadline += periods * this.periodNanos;
+            }
+        }
+    }
+
+    /**
+     * waitUntil(long deadline) - schlafen bis kurz vor der Frist, dann aktiv warten...
+     * @param deadline - Frist (System.nanoTime())
+     */
+    private void waitUntil(long deadline)
+    {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > this.spinNanos && this.isRunning)
+        {
+            LockSupport.parkNanos(this, remaining - this.spinNanos);
+            remaining = deadline - System.nanoTime();
+        }
+        while (deadline - System.nanoTime() > 0L)
+        {
+            // aktives Warten...
+        }
+    }
+
+    /**
+     * @return Mode
+     */
+    public Mode getMode()
+    {
+        return this.mode;
+    }
+
+    /**
+     * @return Taktzeit in ns
+     */
+    public long getPeriodNanos()
+    {
+        return this.periodNanos;
+    }
+
+    /**
+     * @return true, wenn der CycleGenerator (in FAILOVER) den Takt uebernommen hat
+     */
+    public boolean isFailedOver()
+    {
+        return this.isFailedOver;
+    }
+
+    /**
+     * @return Anzahl der durch den CycleGenerator beauftragten Takte
+     */
+    public long getCycles()
+    {
+        return this.cycles;
+    }
+
+    /**
+     * @return Anzahl der Uebernahmen
+     */
+    public long getFailovers()
+    {
+        return this.failovers;
+    }
+
+    /**
+     * @return Anzahl uebersprungener Fristen
+     */
+    public long getSkipped()
+    {
+        return this.skipped;
+    }
+
+    /**
+     * @return groesste Verspaetung gegenueber der Frist in ns
+     */
+    public long getMaxLatenessNanos()
+    {
+        return this.maxLatenessNanos;
+    }
+
+    /**
+     * @return mittlere Verspaetung gegenueber der Frist in ns
+     */
+    public long getMeanLatenessNanos()
+    {
+        final long count = this.cycles;
+        return (count > 0L)? this.sumLatenessNanos / count : 0L;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.mode)
+                                  .append(" ")
+                                  .append(this.periodNanos)
+                                  .append(" ")
+                                  .append(this.cycles)
+                                  .append(" ")
+                                  .append(this.skipped)
+                                  .append(" ")
+                                  .append(getMeanLatenessNanos())
+                                  .append(" ")
+                                  .append(this.maxLatenessNanos)
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * main() - Messung der Verspaetung bei vorgegebener Taktzeit...
+     * <p>
+     * Aufruf: java gui.CycleGenerator [Taktzeit in us] [Dauer in s]
+     * </p>
+     * @param args
+     * @throws InterruptedException
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        final long periodMicros = (args.length > 0)? Long.parseLong(args[0]) : DEFAULT_PERIOD_NANOS / 1000L;
+        final long seconds = (args.length > 1)? Long.parseLong(args[1]) : 5L;
+
+        final CycleGenerator cycleGenerator = new CycleGenerator(now -> {}, Mode.INTERNAL, periodMicros * 1000L);
+        cycleGenerator.start();
+        Thread.sleep(seconds * 1000L);
+        cycleGenerator.stop();
+
+        System.out.println("Taktzeit (us): " + periodMicros
+                         + ", Takte: " + cycleGenerator.getCycles()
+                         + ", uebersprungen: " + cycleGenerator.getSkipped()
+                         + ", Verspaetung mittel/max (us): " + cycleGenerator.getMeanLatenessNanos() / 1000L
+                         + "/" + cycleGenerator.getMaxLatenessNanos() / 1000L);
+    }
+}
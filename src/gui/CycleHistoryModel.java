@@ -0,0 +1,303 @@
+/**
+ *
+ */
+package gui;
+
+import java.math.BigDecimal;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * CycleHistoryModel - TableModel ueber die zurueckliegenden Takte.
+ * <p>
+ * Die Werte der Takte werden beim Eintreffen der Data-Instanz in einen
+ * SampleRing (primitive Arrays) uebernommen, die Data-Instanz selbst wird
+ * nicht aufgehoben. Die JTable fragt ueber getValueAt() nur die sichtbaren
+ * Zeilen ab, erst dann wird der Wert der Zelle aufbereitet.
+ * </p>
+ * <p>
+ * Zeile 0 ist der juengste Takt. Im eingefrorenen Zustand (setFrozen(true))
+ * wird der Inhalt des Ringpuffers einmalig in einen zweiten, vorab angelegten
+ * Ringpuffer kopiert und die Tabelle zeigt diesen Stand, waehrend die
+ * Aufzeichnung weiterlaeuft.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class CycleHistoryModel extends AbstractTableModel
+{
+    /**
+     * serialVersionUID = 1L
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * DEFAULT_CAPACITY - Anzahl der aufgehobenen Takte
+     */
+    public final static int DEFAULT_CAPACITY = Integer.getInteger("gui.history.capacity", 5000).intValue();
+
+    /**
+     * Kanaele im SampleRing (Counter wird als Taktzaehler des SampleRing gefuehrt)...
+     */
+    private final static int CYCLE_TIME = 0;
+    private final static int TOKEN = 1;
+    private final static int DESTINATION_MA = 2;
+    private final static int DESTINATION_MB = 3;
+    private final static int NUMBER_MA = 4;
+    private final static int NUMBER_MB = 5;
+    private final static int OUTPUT_MA = 6;
+    private final static int OUTPUT_MB = 7;
+    private final static int REAL_VALUE_MA = 8;
+    private final static int REAL_VALUE_MB = 9;
+    private final static int CHANNELS = 10;
+
+    /**
+     * COLUMN_NAMES - Spaltenueberschriften (Spalte 0: Counter, dann die Kanaele)
+     */
+    private final static String[] COLUMN_NAMES = new String[]
+    {
+        "Counter",
+        "Zyklus (s)",
+        "Token",
+        "Soll A",
+        "Soll B",
+        "Pos. A",
+        "Pos. B",
+        "Stell A",
+        "Stell B",
+        "Ist A",
+        "Ist B"
+    };
+
+    /**
+     * live - laufende Aufzeichnung
+     */
+    private final SampleRing live;
+
+    /**
+     * frozen - eingefrorener Stand
+     */
+    private final SampleRing frozen;
+
+    /**
+     * sample - wiederverwendeter Satz fuer addData()
+     */
+    private final double[] sample = new double[CHANNELS];
+
+    /**
+     * isFrozen - Darstellung eingefroren?
+     */
+    private boolean isFrozen = false;
+
+    /**
+     * first/written - dargestellter Bereich der Indizes (nur EDT), Stand bei refresh()
+     */
+    private long first = 0L;
+    private long written = 0L;
+
+    /**
+     * CycleHistoryModel() - mit DEFAULT_CAPACITY...
+     */
+    public CycleHistoryModel()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * CycleHistoryModel(int capacity)
+     * @param capacity - Anzahl der aufgehobenen Takte
+     */
+    public CycleHistoryModel(int capacity)
+    {
+        this.live = new SampleRing(capacity, CHANNELS);
+        this.frozen = new SampleRing(capacity, CHANNELS);
+    }
+
+    /**
+     * addData(Data data) - Werte eines Taktes uebernehmen (im Takt)...
+     * @param data
+     */
+    public void addData(Data data)
+    {
+        synchronized (this.sample)
+        {
+            this.sample[CYCLE_TIME] = toDouble(data.getCycleTime());
+            this.sample[TOKEN] = toToken(data.getToken());
+            this.sample[DESTINATION_MA] = toDouble(data.getNumberDestinationMA());
+            this.sample[DESTINATION_MB] = toDouble(data.getNumberDestinationMB());
+            this.sample[NUMBER_MA] = toDouble(data.getNumberMA());
+            this.sample[NUMBER_MB] = toDouble(data.getNumberMB());
+            this.sample[OUTPUT_MA] = toDouble(data.getOutputMA());
+            this.sample[OUTPUT_MB] = toDouble(data.getOutputMB());
+            this.sample[REAL_VALUE_MA] = toDouble(data.getRealValueMA());
+            this.sample[REAL_VALUE_MB] = toDouble(data.getRealValueMB());
+            this.live.add(data.getCounter().longValue(), this.sample);
+        }
+    }
+
+    /**
+     * toDouble(Number value)
+     */
+    private static double toDouble(Number value)
+    {
+        return (value != null)? value.doubleValue() : 0.0;
+    }
+
+    /**
+     * toToken(String token) - token (hex-String, vgl. Data.getTokenAsString()) als Zahl...
+     */
+    private static double toToken(String token)
+    {
+        try
+        {
+            return (token != null)? Long.parseLong(token, 16) : 0.0;
+        }
+        catch (NumberFormatException exception)
+        {
+            return 0.0;
+        }
+    }
+
+    /**
+     * refresh() - dargestellten Bereich nachziehen (EDT, zyklisch durch die View)...
+     * <p>
+     * Im eingefrorenen Zustand aendert sich nichts. Sonst wird die Tabelle
+     * nur dann benachrichtigt, wenn neue Takte hinzugekommen sind.
+     * </p>
+     */
+    public void refresh()
+    {
+        if (this.isFrozen)
+        {
+            return;
+        }
+        final long written = this.live.getWritten();
+        if (written == this.written)
+        {
+            return;
+        }
+        this.written = written;
+        this.first = this.live.getFirst();
+        fireTableDataChanged();
+    }
+
+    /**
+     * setFrozen(boolean isFrozen) - Darstellung einfrieren/freigeben (EDT)...
+     * @param isFrozen
+     */
+    public void setFrozen(boolean isFrozen)
+    {
+        if (this.isFrozen == isFrozen)
+        {
+            return;
+        }
+        if (isFrozen)
+        {
+            this.live.copyTo(this.frozen);
+            this.written = this.frozen.getWritten();
+            this.first = this.frozen.getFirst();
+            this.isFrozen = true;
+            fireTableDataChanged();
+        }
+        else
+        {
+            this.isFrozen = false;
+            this.written = -1L;
+            refresh();
+        }
+    }
+
+    /**
+     * @return true, wenn die Darstellung eingefroren ist
+     */
+    public boolean isFrozen()
+    {
+        return this.isFrozen;
+    }
+
+    /**
+     * getRow(long counter) - Zeile des Taktes mit dem Zaehler counter...
+     * @param counter - Taktzaehler
+     * @return Zeile des Taktes (bzw. des naechstjuengeren), -1 wenn nicht (mehr) vorhanden
+     */
+    public int getRow(long counter)
+    {
+        final SampleRing ring = current();
+        final long index = ring.find(counter);
+        if (index < this.first || index >= this.written || ring.getCounter(this.first) > counter)
+        {
+            return -1;
+        }
+        return (int) (this.written - 1L - index);
+    }
+
+    /**
+     * current() - der dargestellte Ringpuffer
+     */
+    private SampleRing current()
+    {
+        return this.isFrozen? this.frozen : this.live;
+    }
+
+    @Override
+    public int getRowCount()
+    {
+        return (int) (this.written - this.first);
+    }
+
+    @Override
+    public int getColumnCount()
+    {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column)
+    {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column)
+    {
+        return String.class;
+    }
+
+    /**
+     * getValueAt(int row, int column) - Aufbereitung einer (sichtbaren) Zelle...
+     */
+    @Override
+    public Object getValueAt(int row, int column)
+    {
+        final long index = this.written - 1L - row;
+        final SampleRing ring = current();
+        if (column == 0)
+        {
+            final long counter = ring.getCounter(index);
+            return (counter >= 0L)? Long.toString(counter) : null;
+        }
+        final int channel = column - 1;
+        final double value = ring.get(index, channel);
+        if (Double.isNaN(value))
+        {
+            // Der Satz wurde inzwischen ueberschrieben...
+            return null;
+        }
+        switch (channel)
+        {
+            case CYCLE_TIME:
+                return BigDecimal.valueOf(value).setScale(Data.SCALE_CYCLE_TIME, BigDecimal.ROUND_DOWN).toString();
+            case TOKEN:
+                return Data.getTokenAsString((long) value);
+            case OUTPUT_MA:
+            case OUTPUT_MB:
+                return BigDecimal.valueOf(value).setScale(Data.SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP).toString();
+            case REAL_VALUE_MA:
+            case REAL_VALUE_MB:
+                return BigDecimal.valueOf(value).setScale(Data.SCALE_REAL_VALUE, BigDecimal.ROUND_HALF_UP).toString();
+            default:
+                return Long.toString((long) value);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ *
+ */
+package gui;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CycleHistoryPanel - Tabelle der zurueckliegenden Takte (vgl. CycleHistoryModel)
+ * mit Einfrieren und Sprung zu einem Counter.
+ * <p>
+ * Die Tabelle wird hoechstens REFRESH_RATE mal je Sekunde nachgezogen.
+ * Der Sprung zu einem Counter friert die Darstellung ein, damit die
+ * gesuchte Zeile nicht sofort wieder weiterwandert.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class CycleHistoryPanel extends JPanel
+{
+    /**
+     * serialVersionUID = 1L
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(CycleHistoryPanel.class);
+
+    /**
+     * REFRESH_RATE = 5 - hoechstens 5 Aktualisierungen je Sekunde
+     */
+    public final static int REFRESH_RATE = 5;
+
+    /**
+     * tableModel - die Daten
+     */
+    private final CycleHistoryModel tableModel = new CycleHistoryModel();
+
+    /**
+     * table - die Tabelle
+     */
+    private final JTable table = new JTable(this.tableModel);
+
+    /**
+     * frozenCheckBox - Darstellung eingefroren?
+     */
+    private final JCheckBox frozenCheckBox = new JCheckBox("Einfrieren");
+
+    /**
+     * counterTextField - Eingabe des Counters fuer den Sprung
+     */
+    private final JTextField counterTextField = new JTextField(8);
+
+    /**
+     * timer - begrenzt die Aktualisierung
+     */
+    private final Timer timer;
+
+    /**
+     * CycleHistoryPanel()
+     */
+    public CycleHistoryPanel()
+    {
+        super(new BorderLayout());
+        {   // NORTH - Bedienung...
+            final JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            final JButton jumpButton = new JButton("Gehe zu");
+            controlPanel.add(this.frozenCheckBox);
+            controlPanel.add(new JLabel("Counter"));
+            controlPanel.add(this.counterTextField);
+            controlPanel.add(jumpButton);
+            this.frozenCheckBox.addActionListener(new ActionListener()
+            {
+                @Override
+                public void actionPerformed(ActionEvent event)
+                {
+                    tableModel.setFrozen(frozenCheckBox.isSelected());
+                }
+            });
+            final ActionListener jumpListener = new ActionListener()
+            {
+                @Override
+                public void actionPerformed(ActionEvent event)
+                {
+                    jumpTo(counterTextField.getText());
+                }
+            };
+            jumpButton.addActionListener(jumpListener);
+            this.counterTextField.addActionListener(jumpListener);
+            add(controlPanel, BorderLayout.NORTH);
+        }
+        {   // CENTER - Tabelle...
+            this.table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            this.table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+            this.table.setFillsViewportHeight(true);
+            final JScrollPane scrollPane = new JScrollPane(this.table);
+            scrollPane.setPreferredSize(new Dimension(400, 260));
+            add(scrollPane, BorderLayout.CENTER);
+        }
+        this.timer = new Timer(1000 / REFRESH_RATE, new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent event)
+            {
+                if (isShowing())
+                {
+                    tableModel.refresh();
+                }
+            }
+        });
+        this.timer.start();
+    }
+
+    /**
+     * addData(Data data) - Werte eines Taktes uebernehmen (im Takt)...
+     * @param data
+     */
+    public void addData(Data data)
+    {
+        this.tableModel.addData(data);
+    }
+
+    /**
+     * jumpTo(String text) - Darstellung einfrieren und zum Counter springen (EDT)...
+     * @param text - Counter
+     */
+    private void jumpTo(String text)
+    {
+        final long counter;
+        try
+        {
+            counter = Long.parseLong(text.trim());
+        }
+        catch (NumberFormatException exception)
+        {
+            logger.debug("Counter ungueltig: " + text);
+            return;
+        }
+        this.frozenCheckBox.setSelected(true);
+        this.tableModel.setFrozen(true);
+        final int row = this.tableModel.getRow(counter);
+        if (row < 0)
+        {
+            logger.debug("Counter nicht (mehr) vorhanden: " + counter);
+            return;
+        }
+        this.table.setRowSelectionInterval(row, row);
+        this.table.scrollRectToVisible(this.table.getCellRect(row, 0, true));
+    }
+
+    /**
+     * stop() - Timer anhalten...
+     */
+    public void stop()
+    {
+        this.timer.stop();
+    }
+}
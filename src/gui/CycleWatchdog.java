@@ -0,0 +1,260 @@
+/**
+ *
+ */
+package gui;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CycleWatchdog - Ueberwachung des Taktes auf einem eigenen Thread.
+ * <p>
+ * Mit jedem Takt wird der Watchdog ueber notifyCycle() nachgezogen. Aus der
+ * gemessenen Taktzeit (gleitend gemittelt) ergibt sich die erwartete Frist
+ * fuer den naechsten Takt:
+ * </p>
+ * <p>
+ *   Frist = letzter Takt + (1 + tolerance) * Taktzeit * (verpasste Fristen + 1)
+ * </p>
+ * <p>
+ * Jede ueberschrittene Frist wird gezaehlt. Nach maxMisses aufeinanderfolgend
+ * verpassten Fristen (Arduino taktet nicht mehr, Handler haengt...) wird
+ * einmalig die Fail-Safe-Aktion (Motoren aus) ausgeloest. Die Reaktionszeit
+ * ist damit auf etwa maxMisses Taktzeiten begrenzt.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class CycleWatchdog implements Runnable
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(CycleWatchdog.class);
+
+    /**
+     * DEFAULT_MAX_MISSES = 3 - Anzahl verpasster Fristen bis zur Fail-Safe-Aktion
+     */
+    public final static int DEFAULT_MAX_MISSES = 3;
+
+    /**
+     * DEFAULT_TOLERANCE = 0.5 - zulaessige Verspaetung eines Taktes (50%)
+     */
+    public final static double DEFAULT_TOLERANCE = 0.5;
+
+    /**
+     * DEFAULT_CYCLE_NANOS - angenommene Taktzeit, solange noch keine gemessen wurde (100ms)
+     */
+    public final static long DEFAULT_CYCLE_NANOS = 100000000L;
+
+    /**
+     * failSafe - Fail-Safe-Aktion (Motoren aus...)
+     */
+    private final Runnable failSafe;
+
+    /**
+     * maxMisses - Anzahl verpasster Fristen bis zur Fail-Safe-Aktion
+     */
+    private final int maxMisses;
+
+    /**
+     * tolerance - zulaessige Verspaetung eines Taktes (Anteil der Taktzeit)
+     */
+    private final double tolerance;
+
+    /**
+     * lastCycleNanos - Zeitpunkt (System.nanoTime()) des letzten Taktes
+     */
+    private volatile long lastCycleNanos = 0L;
+
+    /**
+     * cycleNanos - gemittelte Taktzeit in ns
+     */
+    private volatile long cycleNanos = DEFAULT_CYCLE_NANOS;
+
+    /**
+     * isArmed - Ueberwachung aktiv (zwischen Start und Stop)
+     */
+    private volatile boolean isArmed = false;
+
+    /**
+     * isRunning - Thread laeuft
+     */
+    private volatile boolean isRunning = false;
+
+    /**
+     * missedDeadlines - Anzahl aller verpassten Fristen
+     */
+    private final AtomicLong missedDeadlines = new AtomicLong();
+
+    /**
+     * trips - Anzahl der ausgeloesten Fail-Safe-Aktionen
+     */
+    private final AtomicLong trips = new AtomicLong();
+
+    /**
+     * thread - der Watchdog-Thread
+     */
+    private Thread thread = null;
+
+    /**
+     * CycleWatchdog(Runnable failSafe) - mit den DEFAULT-Parametern...
+     * @param failSafe - Fail-Safe-Aktion
+     */
+    public CycleWatchdog(Runnable failSafe)
+    {
+        this(failSafe, DEFAULT_MAX_MISSES, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * CycleWatchdog(Runnable failSafe, int maxMisses, double tolerance)
+     * @param failSafe - Fail-Safe-Aktion
+     * @param maxMisses - Anzahl verpasster Fristen bis zur Fail-Safe-Aktion (mind. 1)
+     * @param tolerance - zulaessige Verspaetung eines Taktes (Anteil der Taktzeit)
+     */
+    public CycleWatchdog(Runnable failSafe, int maxMisses, double tolerance)
+    {
+        this.failSafe = Objects.requireNonNull(failSafe, "failSafe must not be null!");
+        this.maxMisses = (maxMisses > 1)? maxMisses : 1;
+        this.tolerance = Math.max(0.0, tolerance);
+    }
+
+    /**
+     * start() - Watchdog-Thread starten (Daemon, hohe Prioritaet)...
+     */
+    public synchronized void start()
+    {
+        if (this.thread != null)
+        {
+            return;
+        }
+        this.isRunning = true;
+        this.thread = new Thread(this, "CycleWatchdog");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+        this.thread.start();
+    }
+
+    /**
+     * stop() - Watchdog-Thread beenden...
+     */
+    public synchronized void stop()
+    {
+        this.isRunning = false;
+        this.isArmed = false;
+        if (this.thread != null)
+        {
+            this.thread.interrupt();
+            this.thread = null;
+        }
+    }
+
+    /**
+     * arm() - Ueberwachung einschalten (Start)...
+     */
+    public void arm()
+    {
+        this.lastCycleNanos = System.nanoTime();
+        this.isArmed = true;
+        LockSupport.unpark(this.thread);
+    }
+
+    /**
+     * disarm() - Ueberwachung ausschalten (Stop)...
+     */
+    public void disarm()
+    {
+        this.isArmed = false;
+    }
+
+    /**
+     * notifyCycle(long nanos, double cycleTime) - ein Takt ist eingetroffen...
+     * @param nanos - System.nanoTime() des Taktes
+     * @param cycleTime - gemessene Taktzeit in s (0.0 wenn unbekannt)
+     */
+    public void notifyCycle(long nanos, double cycleTime)
+    {
+        if (cycleTime > 0.0)
+        {
+            // Gleitender Mittelwert (Gewicht 1/8) der Taktzeit...
+            final long measured = (long) (cycleTime * 1.0E9);
+            this.cycleNanos = this.cycleNanos + ((measured - this.cycleNanos) >> 3);
+        }
+        this.lastCycleNanos = nanos;
+    }
+
+    /**
+     * run() - Ueberwachung der Fristen...
+     */
+    @Override
+    public void run()
+    {
+        int misses = 0;
+        long last = this.lastCycleNanos;
+        boolean isTripped = false;
+        while (this.isRunning)
+        {
+            if (!this.isArmed)
+            {
+                misses = 0;
+                isTripped = false;
+                LockSupport.parkNanos(this, this.cycleNanos);
+                last = this.lastCycleNanos;
+                continue;
+            }
+            final long deadline = last + (long) ((1.0 + this.tolerance) * this.cycleNanos * (misses + 1));
+            final long wait = deadline - System.nanoTime();
+            if (wait > 0L)
+            {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            final long current = this.lastCycleNanos;
+            if (current != last)
+            {
+                // Takt rechtzeitig eingetroffen...
+                last = current;
+                misses = 0;
+                isTripped = false;
+                continue;
+            }
+            misses++;
+            this.missedDeadlines.incrementAndGet();
+            if (misses >= this.maxMisses && !isTripped)
+            {
+                isTripped = true;
+                this.trips.incrementAndGet();
+                logger.error("CycleWatchdog: " + misses + " Fristen verpasst, Fail-Safe!");
+                try
+                {
+                    this.failSafe.run();
+                }
+                catch (RuntimeException exception)
+                {
+                    logger.error(exception.toString(), exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Anzahl aller verpassten Fristen
+     */
+    public long getMissedDeadlines()
+    {
+        return this.missedDeadlines.get();
+    }
+
+    /**
+     * @return Anzahl der ausgeloesten Fail-Safe-Aktionen
+     */
+    public long getTrips()
+    {
+        return this.trips.get();
+    }
+}
@@ -71,6 +71,21 @@ public class Data implements Comparable<Data>
      * REAL_VALUE_MB_KEY = "realValueMBKey" - Realer Drehzahl-Wert Motor B in 1/min
      */
     public final static String REAL_VALUE_MB_KEY = "realValueMBKey";
+
+    /**
+     * POSE_X_KEY = "poseXKey" - Lage x des Fahrzeuges in mm (Odometrie)
+     */
+    public final static String POSE_X_KEY = "poseXKey";
+
+    /**
+     * POSE_Y_KEY = "poseYKey" - Lage y des Fahrzeuges in mm (Odometrie)
+     */
+    public final static String POSE_Y_KEY = "poseYKey";
+
+    /**
+     * HEADING_KEY = "headingKey" - Richtung des Fahrzeuges in Grad (Odometrie, -180 ... +180)
+     */
+    public final static String HEADING_KEY = "headingKey";
     
     /**
      * Long counter - Zaehler
@@ -127,6 +142,17 @@ public class Data implements Comparable<Data>
      */
     private final BigDecimal realValueMB;
 
+    /**
+     * poseX/poseY - Lage des Fahrzeuges in mm (Odometrie)...
+     */
+    private final BigDecimal poseX;
+    private final BigDecimal poseY;
+
+    /**
+     * heading - Richtung des Fahrzeuges in Grad (Odometrie)...
+     */
+    private final BigDecimal heading;
+
     /**
      * SCALE_CYCLE_TIME = 3 - Genauigikeit bei der Darstellung der Zeit 
      * (z.B. Taktzeit, derzeit 3 Nachkommastellen)... 
@@ -145,6 +171,16 @@ public class Data implements Comparable<Data>
      * SCALE_REAL_VALUE = 1 - Genauigkeit der Messwerte Drehzahl (realValueMA/realValueMB)...
      */
     public final static int SCALE_REAL_VALUE = 2;
+
+    /**
+     * SCALE_POSE = 1 - Genauigkeit der Lage x/y in mm (Odometrie)...
+     */
+    public final static int SCALE_POSE = 1;
+
+    /**
+     * SCALE_HEADING = 1 - Genauigkeit der Richtung in Grad (Odometrie)...
+     */
+    public final static int SCALE_HEADING = 1;
     
     /**
      * Data() - Defaultkonstruktor...
@@ -161,7 +197,41 @@ public class Data implements Comparable<Data>
              BigDecimal.ZERO.setScale(SCALE_OUTPUT),  
              BigDecimal.ZERO.setScale(SCALE_OUTPUT),
              BigDecimal.ZERO.setScale(SCALE_REAL_VALUE),
-             BigDecimal.ZERO.setScale(SCALE_REAL_VALUE));
+             BigDecimal.ZERO.setScale(SCALE_REAL_VALUE),
+             BigDecimal.ZERO.setScale(SCALE_POSE),
+             BigDecimal.ZERO.setScale(SCALE_POSE),
+             BigDecimal.ZERO.setScale(SCALE_HEADING));
+    }
+
+    /**
+     * Data(...) - Konstruktor ohne Odometrie (Lage im Ursprung)...
+     */
+    public Data(long counter, 
+                BigDecimal cycleTime, 
+                long token,
+                long numberDestinationMA,
+                long numberDestinationMB,
+                long numberMA, 
+                long numberMB,
+                BigDecimal outputMA,
+                BigDecimal outputMB,
+                BigDecimal realValueMA,
+                BigDecimal realValueMB)
+    {
+        this(counter, 
+             cycleTime, 
+             token, 
+             numberDestinationMA, 
+             numberDestinationMB, 
+             numberMA, 
+             numberMB, 
+             outputMA, 
+             outputMB, 
+             realValueMA, 
+             realValueMB,
+             null,
+             null,
+             null);
     }
     
     /**
@@ -175,6 +245,11 @@ public class Data implements Comparable<Data>
      * @param numberMB - Lageinformation Motor B (Istwert)
      * @param outputMA - Stellgroesse zum Motor A
      * @param outputMB - Stellgroesse zum Motor B
+     * @param realValueMA - Drehzahl-Istwert Motor A
+     * @param realValueMB - Drehzahl-Istwert Motor B
+     * @param poseX - Lage x in mm (Odometrie)
+     * @param poseY - Lage y in mm (Odometrie)
+     * @param heading - Richtung in Grad (Odometrie)
      */
     public Data(long counter, 
                 BigDecimal cycleTime, 
@@ -186,7 +261,10 @@ public class Data implements Comparable<Data>
                 BigDecimal outputMA,
                 BigDecimal outputMB,
                 BigDecimal realValueMA,
-                BigDecimal realValueMB)
+                BigDecimal realValueMB,
+                BigDecimal poseX,
+                BigDecimal poseY,
+                BigDecimal heading)
     {
         this.counter = Long.valueOf(counter);
         this.cycleTime = (cycleTime != null)? cycleTime.setScale(SCALE_CYCLE_TIME, BigDecimal.ROUND_DOWN) 
@@ -204,6 +282,12 @@ public class Data implements Comparable<Data>
                                                 : BigDecimal.ZERO.setScale(SCALE_REAL_VALUE);
         this.realValueMB = (realValueMB != null)? realValueMB.setScale(SCALE_REAL_VALUE, BigDecimal.ROUND_FLOOR) 
                                                 : BigDecimal.ZERO.setScale(SCALE_REAL_VALUE);
+        this.poseX = (poseX != null)? poseX.setScale(SCALE_POSE, BigDecimal.ROUND_HALF_UP) 
+                                    : BigDecimal.ZERO.setScale(SCALE_POSE);
+        this.poseY = (poseY != null)? poseY.setScale(SCALE_POSE, BigDecimal.ROUND_HALF_UP) 
+                                    : BigDecimal.ZERO.setScale(SCALE_POSE);
+        this.heading = (heading != null)? heading.setScale(SCALE_HEADING, BigDecimal.ROUND_HALF_UP) 
+                                        : BigDecimal.ZERO.setScale(SCALE_HEADING);
     }
     
     /**
@@ -230,6 +314,22 @@ public class Data implements Comparable<Data>
         return this.token;
     }
 
+    /**
+     * @return the numberDestinationMA
+     */
+    public final Long getNumberDestinationMA()
+    {
+        return this.numberDestinationMA;
+    }
+
+    /**
+     * @return the numberDestinationMB
+     */
+    public final Long getNumberDestinationMB()
+    {
+        return this.numberDestinationMB;
+    }
+
     /**
      * @return the numberMA
      */
@@ -278,6 +378,30 @@ public class Data implements Comparable<Data>
         return this.realValueMB;
     }
 
+    /**
+     * @return the poseX
+     */
+    public final BigDecimal getPoseX()
+    {
+        return this.poseX;
+    }
+
+    /**
+     * @return the poseY
+     */
+    public final BigDecimal getPoseY()
+    {
+        return this.poseY;
+    }
+
+    /**
+     * @return the heading
+     */
+    public final BigDecimal getHeading()
+    {
+        return this.heading;
+    }
+
     /**
      * getKeys() - liefert den Zugriff auf alle Attribute.
      * <p>
@@ -297,7 +421,10 @@ public class Data implements Comparable<Data>
                              Data.OUTPUT_MA_KEY,
                              Data.OUTPUT_MB_KEY,
                              Data.REAL_VALUE_MA_KEY,
-                             Data.REAL_VALUE_MB_KEY};
+                             Data.REAL_VALUE_MB_KEY,
+                             Data.POSE_X_KEY,
+                             Data.POSE_Y_KEY,
+                             Data.HEADING_KEY};
     }    
 
     /**
@@ -351,6 +478,18 @@ public class Data implements Comparable<Data>
         {
             return (this.realValueMB != null)? this.realValueMB.toString() : null;
         }
+        if (Data.POSE_X_KEY.equals(key))
+        {
+            return (this.poseX != null)? this.poseX.toString() : null;
+        }
+        if (Data.POSE_Y_KEY.equals(key))
+        {
+            return (this.poseY != null)? this.poseY.toString() : null;
+        }
+        if (Data.HEADING_KEY.equals(key))
+        {
+            return (this.heading != null)? this.heading.toString() : null;
+        }
         return null;
     }
 
@@ -445,6 +584,12 @@ public class Data implements Comparable<Data>
                                   .append(this.realValueMA)
                                   .append(" ")
                                   .append(this.realValueMB)
+                                  .append(" ")
+                                  .append(this.poseX)
+                                  .append(" ")
+                                  .append(this.poseY)
+                                  .append(" ")
+                                  .append(this.heading)
                                   .append("]")
                                   .toString();
     }
@@ -0,0 +1,370 @@
+/**
+ *
+ */
+package gui;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * @author Detlef Tribius
+ *
+ * <p>
+ * Die Klasse Diagnostics beinhaltet die Zaehler zur Ueberwachung des
+ * Taktes (Watchdog) und der Kommunikation (I2CResync), die in der View
+ * dargestellt werden. Im Gegensatz zu Data werden die Diagnosedaten nur
+ * bei einer Aenderung neu abgelegt.
+ * </p>
+ *
+ */
+public class Diagnostics
+{
+    /**
+     * MISSED_DEADLINES_KEY = "missedDeadlinesKey" - Anzahl verpasster Fristen (Watchdog)
+     */
+    public final static String MISSED_DEADLINES_KEY = "missedDeadlinesKey";
+
+    /**
+     * WATCHDOG_TRIPS_KEY = "watchdogTripsKey" - Anzahl der Abschaltungen durch den Watchdog
+     */
+    public final static String WATCHDOG_TRIPS_KEY = "watchdogTripsKey";
+
+    /**
+     * ERROR_EPISODES_KEY = "errorEpisodesKey" - Anzahl der Fehler-Episoden der Kommunikation
+     */
+    public final static String ERROR_EPISODES_KEY = "errorEpisodesKey";
+
+    /**
+     * RETRIES_KEY = "retriesKey" - Anzahl der Wiederholungen innerhalb der Takte
+     */
+    public final static String RETRIES_KEY = "retriesKey";
+
+    /**
+     * RECOVERY_TIME_KEY = "recoveryTimeKey" - Dauer der letzten Wiederherstellung in s
+     */
+    public final static String RECOVERY_TIME_KEY = "recoveryTimeKey";
+
+    /**
+     * CYCLE_JITTER_KEY = "cycleJitterKey" - groesste Abweichung der gemessenen Taktzeit vom Mittel in us
+     */
+    public final static String CYCLE_JITTER_KEY = "cycleJitterKey";
+
+    /**
+     * SYNC_ERROR_KEY = "syncErrorKey" - groesster Gleichlauffehler Motor A/B in Impulsen (seit Reset)
+     */
+    public final static String SYNC_ERROR_KEY = "syncErrorKey";
+
+    /**
+     * OVERRUNS_KEY = "overrunsKey" - Anzahl der Takte laenger als die Periode (EdgeCoalescer)
+     */
+    public final static String OVERRUNS_KEY = "overrunsKey";
+
+    /**
+     * SKIPPED_CYCLES_KEY = "skippedCyclesKey" - Anzahl verworfener Flanken/uebersprungener Fristen
+     * (EdgeCoalescer, CycleGenerator)
+     */
+    public final static String SKIPPED_CYCLES_KEY = "skippedCyclesKey";
+
+    /**
+     * SCALE_RECOVERY_TIME = 3 - Genauigkeit der Anzeige der Wiederherstellungsdauer
+     */
+    public final static int SCALE_RECOVERY_TIME = 3;
+
+    /**
+     * Long missedDeadlines, MISSED_DEADLINES_KEY => missedDeadlines
+     */
+    private final Long missedDeadlines;
+
+    /**
+     * Long watchdogTrips, WATCHDOG_TRIPS_KEY => watchdogTrips
+     */
+    private final Long watchdogTrips;
+
+    /**
+     * Long errorEpisodes, ERROR_EPISODES_KEY => errorEpisodes
+     */
+    private final Long errorEpisodes;
+
+    /**
+     * Long retries, RETRIES_KEY => retries
+     */
+    private final Long retries;
+
+    /**
+     * BigDecimal recoveryTime, RECOVERY_TIME_KEY => recoveryTime
+     */
+    private final BigDecimal recoveryTime;
+
+    /**
+     * Long cycleJitter, CYCLE_JITTER_KEY => cycleJitter (in us)
+     */
+    private final Long cycleJitter;
+
+    /**
+     * Long syncError, SYNC_ERROR_KEY => syncError (in Impulse)
+     */
+    private final Long syncError;
+
+    /**
+     * Long overruns, OVERRUNS_KEY => overruns
+     */
+    private final Long overruns;
+
+    /**
+     * Long skippedCycles, SKIPPED_CYCLES_KEY => skippedCycles
+     */
+    private final Long skippedCycles;
+
+    /**
+     * Diagnostics() - Defaultkonstruktor (alle Zaehler 0)...
+     */
+    public Diagnostics()
+    {
+        this(0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+    }
+
+    /**
+     * Diagnostics(...) - Konstruktor ohne Gleichlauffehler...
+     */
+    public Diagnostics(long missedDeadlines, long watchdogTrips, long errorEpisodes, long retries, long recoveryNanos, long cycleJitterNanos)
+    {
+        this(missedDeadlines, watchdogTrips, errorEpisodes, retries, recoveryNanos, cycleJitterNanos, 0L);
+    }
+
+    /**
+     * Diagnostics(...) - Konstruktor ohne Ueberlauf-Zaehler...
+     */
+    public Diagnostics(long missedDeadlines, long watchdogTrips, long errorEpisodes, long retries, long recoveryNanos, long cycleJitterNanos,
+                       long syncError)
+    {
+        this(missedDeadlines, watchdogTrips, errorEpisodes, retries, recoveryNanos, cycleJitterNanos, syncError, 0L, 0L);
+    }
+
+    /**
+     * Diagnostics(...) - Konstruktor aus allen Attributen...
+     * @param missedDeadlines - Anzahl verpasster Fristen
+     * @param watchdogTrips - Anzahl der Abschaltungen durch den Watchdog
+     * @param errorEpisodes - Anzahl der Fehler-Episoden der Kommunikation
+     * @param retries - Anzahl der Wiederholungen innerhalb der Takte
+     * @param recoveryNanos - Dauer der letzten Wiederherstellung in ns
+     * @param cycleJitterNanos - groesste Abweichung der Taktzeit vom Mittel in ns
+     * @param syncError - groesster Gleichlauffehler Motor A/B in Impulsen
+     * @param overruns - Anzahl der Takte laenger als die Periode
+     * @param skippedCycles - Anzahl verworfener Flanken/uebersprungener Fristen
+     */
+    public Diagnostics(long missedDeadlines, long watchdogTrips, long errorEpisodes, long retries, long recoveryNanos, long cycleJitterNanos,
+                       long syncError, long overruns, long skippedCycles)
+    {
+        this.missedDeadlines = Long.valueOf(missedDeadlines);
+        this.watchdogTrips = Long.valueOf(watchdogTrips);
+        this.errorEpisodes = Long.valueOf(errorEpisodes);
+        this.retries = Long.valueOf(retries);
+        this.recoveryTime = BigDecimal.valueOf(recoveryNanos, 9).setScale(SCALE_RECOVERY_TIME, BigDecimal.ROUND_HALF_UP);
+        this.cycleJitter = Long.valueOf(cycleJitterNanos / 1000L);
+        this.syncError = Long.valueOf(syncError);
+        this.overruns = Long.valueOf(overruns);
+        this.skippedCycles = Long.valueOf(skippedCycles);
+    }
+
+    /**
+     * @return the missedDeadlines
+     */
+    public final Long getMissedDeadlines()
+    {
+        return this.missedDeadlines;
+    }
+
+    /**
+     * @return the watchdogTrips
+     */
+    public final Long getWatchdogTrips()
+    {
+        return this.watchdogTrips;
+    }
+
+    /**
+     * @return the errorEpisodes
+     */
+    public final Long getErrorEpisodes()
+    {
+        return this.errorEpisodes;
+    }
+
+    /**
+     * @return the retries
+     */
+    public final Long getRetries()
+    {
+        return this.retries;
+    }
+
+    /**
+     * @return the recoveryTime (in s)
+     */
+    public final BigDecimal getRecoveryTime()
+    {
+        return this.recoveryTime;
+    }
+
+    /**
+     * @return the cycleJitter (in us)
+     */
+    public final Long getCycleJitter()
+    {
+        return this.cycleJitter;
+    }
+
+    /**
+     * @return the syncError (in Impulse)
+     */
+    public final Long getSyncError()
+    {
+        return this.syncError;
+    }
+
+    /**
+     * @return the overruns
+     */
+    public final Long getOverruns()
+    {
+        return this.overruns;
+    }
+
+    /**
+     * @return the skippedCycles
+     */
+    public final Long getSkippedCycles()
+    {
+        return this.skippedCycles;
+    }
+
+    /**
+     * getKeys() - liefert den Zugriff auf alle Attribute.
+     * <p>
+     * Auf alle Attribute muss zugreifbar sein mit <code>getValue(String key)</code>.
+     * </p>
+     * @return String[] mit den Keys
+     */
+    public String[] getKeys()
+    {
+        return new String[] {Diagnostics.MISSED_DEADLINES_KEY,
+                             Diagnostics.WATCHDOG_TRIPS_KEY,
+                             Diagnostics.ERROR_EPISODES_KEY,
+                             Diagnostics.RETRIES_KEY,
+                             Diagnostics.RECOVERY_TIME_KEY,
+                             Diagnostics.CYCLE_JITTER_KEY,
+                             Diagnostics.SYNC_ERROR_KEY,
+                             Diagnostics.OVERRUNS_KEY,
+                             Diagnostics.SKIPPED_CYCLES_KEY};
+    }
+
+    /**
+     * getValue(String key) - Bereitstellung der Anzeige...
+     * @param key
+     * @return String-Anzeige
+     */
+    public final String getValue(String key)
+    {
+        if (Diagnostics.MISSED_DEADLINES_KEY.equals(key))
+        {
+            return (this.missedDeadlines != null)? this.missedDeadlines.toString() : null;
+        }
+        if (Diagnostics.WATCHDOG_TRIPS_KEY.equals(key))
+        {
+            return (this.watchdogTrips != null)? this.watchdogTrips.toString() : null;
+        }
+        if (Diagnostics.ERROR_EPISODES_KEY.equals(key))
+        {
+            return (this.errorEpisodes != null)? this.errorEpisodes.toString() : null;
+        }
+        if (Diagnostics.RETRIES_KEY.equals(key))
+        {
+            return (this.retries != null)? this.retries.toString() : null;
+        }
+        if (Diagnostics.RECOVERY_TIME_KEY.equals(key))
+        {
+            return (this.recoveryTime != null)? this.recoveryTime.toString() : null;
+        }
+        if (Diagnostics.CYCLE_JITTER_KEY.equals(key))
+        {
+            return (this.cycleJitter != null)? this.cycleJitter.toString() : null;
+        }
+        if (Diagnostics.SYNC_ERROR_KEY.equals(key))
+        {
+            return (this.syncError != null)? this.syncError.toString() : null;
+        }
+        if (Diagnostics.OVERRUNS_KEY.equals(key))
+        {
+            return (this.overruns != null)? this.overruns.toString() : null;
+        }
+        if (Diagnostics.SKIPPED_CYCLES_KEY.equals(key))
+        {
+            return (this.skippedCycles != null)? this.skippedCycles.toString() : null;
+        }
+        return null;
+    }
+
+    /**
+     * hashCode() - auf Basis aller Attribute...
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(this.missedDeadlines, this.watchdogTrips, this.errorEpisodes, this.retries, this.recoveryTime, this.cycleJitter, this.syncError,
+                            this.overruns, this.skippedCycles);
+    }
+
+    /**
+     * equals(Object obj) - auf Basis aller Attribute (Ablage nur bei einer Aenderung)...
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (!(obj instanceof Diagnostics))
+        {
+            return false;
+        }
+        final Diagnostics other = (Diagnostics) obj;
+        return Objects.equals(this.missedDeadlines, other.missedDeadlines)
+            && Objects.equals(this.watchdogTrips, other.watchdogTrips)
+            && Objects.equals(this.errorEpisodes, other.errorEpisodes)
+            && Objects.equals(this.retries, other.retries)
+            && Objects.equals(this.recoveryTime, other.recoveryTime)
+            && Objects.equals(this.cycleJitter, other.cycleJitter)
+            && Objects.equals(this.syncError, other.syncError)
+            && Objects.equals(this.overruns, other.overruns)
+            && Objects.equals(this.skippedCycles, other.skippedCycles);
+    }
+
+    /**
+     * toString() - zu Protokollzwecken... (z.B. Logging)
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.missedDeadlines)
+                                  .append(" ")
+                                  .append(this.watchdogTrips)
+                                  .append(" ")
+                                  .append(this.errorEpisodes)
+                                  .append(" ")
+                                  .append(this.retries)
+                                  .append(" ")
+                                  .append(this.recoveryTime)
+                                  .append(" ")
+                                  .append(this.cycleJitter)
+                                  .append(" ")
+                                  .append(this.syncError)
+                                  .append(" ")
+                                  .append(this.overruns)
+                                  .append(" ")
+                                  .append(this.skippedCycles)
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * DriveCommand - Fahrvorgabe als Geschwindigkeit v und Drehrate omega eines
+ * Fahrzeuges mit Differentialantrieb (vgl. Odometry).
+ * <p>
+ * Die Umrechnung in die Solldrehzahlen der Raeder (Motor A links, Motor B
+ * rechts) erfolgt im Takt des Model:
+ * </p>
+ * <p>
+ *   vA = v - omega*trackWidth/2, vB = v + omega*trackWidth/2<br>
+ *   U = v/(2*PI*wheelRadius) * 60 (in 1/min)
+ * </p>
+ * <p>
+ * Ueberschreitet ein Rad die maximale Drehzahl, werden beide Raeder im
+ * gleichen Verhaeltnis reduziert. Die Kruemmung der Bahn (omega/v) bleibt
+ * damit erhalten, das Fahrzeug faehrt langsamer, aber auf derselben Bahn.
+ * </p>
+ * <p>
+ * Die Vorgabe ist unveraenderlich, v und omega werden also immer gemeinsam
+ * (im selben Takt) uebernommen.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public final class DriveCommand
+{
+    /**
+     * velocity - Geschwindigkeit in mm/s (positiv: vorwaerts)
+     */
+    private final double velocity;
+
+    /**
+     * turnRate - Drehrate in Grad/s (positiv: links herum)
+     */
+    private final double turnRate;
+
+    /**
+     * DriveCommand(double velocity, double turnRate)
+     * @param velocity - Geschwindigkeit in mm/s
+     * @param turnRate - Drehrate in Grad/s
+     * @throws IllegalArgumentException bei ungueltigen Werten
+     */
+    public DriveCommand(double velocity, double turnRate)
+    {
+        if (Double.isNaN(velocity) || Double.isInfinite(velocity))
+        {
+            throw new IllegalArgumentException("invalid velocity: " + velocity);
+        }
+        if (Double.isNaN(turnRate) || Double.isInfinite(turnRate))
+        {
+            throw new IllegalArgumentException("invalid turnRate: " + turnRate);
+        }
+        this.velocity = velocity;
+        this.turnRate = turnRate;
+    }
+
+    /**
+     * toWheelRpm(double wheelRadius, double trackWidth, double maxRpm, double[] rpm) -
+     * Solldrehzahlen der Raeder...
+     * @param wheelRadius - Radius der Raeder in mm
+     * @param trackWidth - Spurweite in mm
+     * @param maxRpm - maximale Drehzahl eines Rades in 1/min
+     * @param rpm - nimmt die Drehzahlen auf: rpm[0] Motor A, rpm[1] Motor B (in 1/min)
+     * @return true, wenn die Drehzahlen begrenzt wurden
+     */
+    public boolean toWheelRpm(double wheelRadius, double trackWidth, double maxRpm, double[] rpm)
+    {
+        final double halfTrack = 0.5 * trackWidth * Math.toRadians(this.turnRate);
+        final double factor = 60.0 / (2.0 * Math.PI * wheelRadius);
+        rpm[0] = (this.velocity - halfTrack) * factor;
+        rpm[1] = (this.velocity + halfTrack) * factor;
+        final double max = Math.max(Math.abs(rpm[0]), Math.abs(rpm[1]));
+        if (max > maxRpm)
+        {
+            // Beide Raeder im gleichen Verhaeltnis, die Kruemmung bleibt erhalten...
+            final double scale = maxRpm / max;
+            rpm[0] *= scale;
+            rpm[1] *= scale;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Geschwindigkeit in mm/s
+     */
+    public double getVelocity()
+    {
+        return this.velocity;
+    }
+
+    /**
+     * @return Drehrate in Grad/s
+     */
+    public double getTurnRate()
+    {
+        return this.turnRate;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (!(object instanceof DriveCommand))
+        {
+            return false;
+        }
+        final DriveCommand other = (DriveCommand) object;
+        return this.velocity == other.velocity && this.turnRate == other.turnRate;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Double.hashCode(this.velocity) + Double.hashCode(this.turnRate);
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.velocity)
+                                  .append(" ")
+                                  .append(this.turnRate)
+                                  .append("]")
+                                  .toString();
+    }
+}
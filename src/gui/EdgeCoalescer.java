@@ -0,0 +1,324 @@
+/**
+ *
+ */
+package gui;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * EdgeCoalescer - Behandlung des Rueckstaus der Flanken am GPIO_CYCLE_PIN
+ * (Ueberlauf des Taktes).
+ * <p>
+ * Dauert ein Takt (z.B. der Austausch ueber I2C) laenger als die Periode des
+ * Arduino, stellt pi4j die folgenden Flanken in eine Warteschlange, die
+ * Listener laufen dann verspaetet, direkt hintereinander und evtl. in
+ * mehreren Threads gleichzeitig. Der EdgeCoalescer liegt vor
+ * Model.doExternalCycle():
+ * <ul>
+ *  <li>Es laeuft hoechstens ein Takt, eine Flanke waehrend eines Taktes wird
+ *  nur vorgemerkt, der Listener kehrt sofort zurueck (kein Warten auf den
+ *  Monitor des Model)</li>
+ *  <li>Nach dem Takt wird nur die neueste vorgemerkte Flanke verarbeitet,
+ *  aeltere werden verworfen (coalesced)</li>
+ *  <li>Eine Flanke, die weniger als eine halbe Periode nach der zuletzt
+ *  verarbeiteten Flanke eintrifft, stammt aus dem Rueckstau und wird
+ *  verworfen (stale). Massgeblich ist der Zeitpunkt des Eintreffens in
+ *  onEdge(), nicht der der Verarbeitung: der Rueckstau von pi4j trifft
+ *  direkt hintereinander ein, eine Flanke, die nur waehrend eines zu
+ *  langen Taktes vorgemerkt war, dagegen im Abstand der Periode</li>
+ * </ul>
+ * Die Verzoegerung bleibt so auf hoechstens einen Takt begrenzt. Verworfene
+ * Flanken verkuerzen die Integration der Sollwerte nicht: das Model rechnet
+ * mit der Zeit seit dem letzten verarbeiteten Takt (cycleTime = now - past),
+ * die uebersprungene Zeit geht also im naechsten Takt ein.
+ * </p>
+ * <p>
+ * Die Periode ist die des Arduino, nicht die des CycleGenerator: vorgegeben
+ * wird ein Ausgangswert (Model.EXTERNAL_PERIOD_NANOS), danach gilt das
+ * gleitende Mittel der Abstaende der verarbeiteten Flanken. Gemittelt werden
+ * nur Abstaende ohne verworfene Flanke dazwischen und im Bereich halbe bis
+ * doppelte Periode, ein Rueckstau oder eine Pause des Taktes verschiebt die
+ * Periode also nicht. Ein Takt laenger als die Periode wird als Ueberlauf
+ * (overrun) gezaehlt.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class EdgeCoalescer
+{
+    /**
+     * cycle - Beauftragung eines Taktes (Model.doExternalCycle())
+     */
+    private final Consumer<Instant> cycle;
+
+    /**
+     * SETTLING_EDGES = 16 - Gewicht eines neuen Abstandes im Mittel der Periode (1/16)
+     */
+    private final static int SETTLING_EDGES = 16;
+
+    /**
+     * periodNanos - Periode des Arduino in ns (Ausgangswert)
+     */
+    private final long periodNanos;
+
+    /**
+     * meanPeriodNanos - gemessene Periode des Arduino in ns (gleitendes Mittel)
+     */
+    private volatile double meanPeriodNanos;
+
+    /**
+     * lastEdge/lastSkipped - zuletzt verarbeitete Flanke, verworfene Flanken bis dahin
+     * (nur im laufenden Takt veraendert)
+     */
+    private Instant lastEdge = null;
+    private long lastSkipped = 0L;
+
+    /**
+     * clock - Zeitbasis in ns (System.nanoTime())
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Edge - Flanke und Zeitpunkt des Eintreffens in onEdge() (clock)...
+     */
+    private final static class Edge
+    {
+        private final Instant instant;
+        private final long arrivalNanos;
+
+        private Edge(Instant instant, long arrivalNanos)
+        {
+            this.instant = instant;
+            this.arrivalNanos = arrivalNanos;
+        }
+    }
+
+    /**
+     * pending - neueste noch nicht verarbeitete Flanke (null: keine)
+     */
+    private final AtomicReference<Edge> pending = new AtomicReference<>();
+
+    /**
+     * isBusy - ein Takt laeuft
+     */
+    private final AtomicBoolean isBusy = new AtomicBoolean(false);
+
+    /**
+     * lastArrivalNanos - Eintreffen der zuletzt verarbeiteten Flanke, nur im
+     * laufenden Takt veraendert
+     */
+    private volatile long lastArrivalNanos = 0L;
+    private volatile boolean isStarted = false;
+
+    /**
+     * Zaehler: Flanken, Takte, verworfene Flanken (coalesced/stale), Ueberlaeufe
+     */
+    private final AtomicLong edges = new AtomicLong();
+    private final AtomicLong cycles = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+
+    /**
+     * maxCycleNanos - laengster Takt
+     */
+    private volatile long maxCycleNanos = 0L;
+
+    /**
+     * EdgeCoalescer(Consumer&lt;Instant&gt; cycle, long periodNanos)
+     * @param cycle - Beauftragung eines Taktes
+     * @param periodNanos - Periode des Arduino in ns (Ausgangswert)
+     */
+    public EdgeCoalescer(Consumer<Instant> cycle, long periodNanos)
+    {
+        this(cycle, periodNanos, System::nanoTime);
+    }
+
+    /**
+     * EdgeCoalescer(Consumer&lt;Instant&gt; cycle, long periodNanos, LongSupplier clock) - mit
+     * vorgegebener Zeitbasis (Test)...
+     * @param cycle - Beauftragung eines Taktes
+     * @param periodNanos - Periode des Arduino in ns (Ausgangswert)
+     * @param clock - Zeitbasis in ns
+     */
+    EdgeCoalescer(Consumer<Instant> cycle, long periodNanos, LongSupplier clock)
+    {
+        this.cycle = Objects.requireNonNull(cycle, "cycle must not be null!");
+        if (periodNanos <= 0L)
+        {
+            throw new IllegalArgumentException("periodNanos must be > 0!");
+        }
+        this.periodNanos = periodNanos;
+        this.meanPeriodNanos = periodNanos;
+        this.clock = Objects.requireNonNull(clock, "clock must not be null!");
+    }
+
+    /**
+     * onEdge(Instant now) - steigende Flanke (Listener von pi4j, GpioMemPoller, beliebiger Thread)...
+     * @param now - Zeitpunkt der Flanke
+     */
+    public void onEdge(Instant now)
+    {
+        this.edges.incrementAndGet();
+        if (this.pending.getAndSet(new Edge(now, this.clock.getAsLong())) != null)
+        {
+            // Die vorgemerkte Flanke wird durch die neuere ersetzt...
+            this.coalesced.incrementAndGet();
+        }
+        // Nur ein Thread verarbeitet, die anderen kehren sofort zurueck. Nach der
+        // Freigabe erneut pruefen, eine Flanke kann zwischenzeitlich eingetroffen sein...
+        while (this.pending.get() != null && this.isBusy.compareAndSet(false, true))
+        {
+            try
+            {
+                Edge edge;
+                while ((edge = this.pending.getAndSet(null)) != null)
+                {
+                    process(edge);
+                }
+            }
+            finally
+            {
+                this.isBusy.set(false);
+            }
+        }
+    }
+
+    /**
+     * process(Edge pendingEdge) - ein Takt, sofern die Flanke nicht aus dem Rueckstau stammt...
+     */
+    private void process(Edge pendingEdge)
+    {
+        final Instant edge = pendingEdge.instant;
+        final long period = (long) this.meanPeriodNanos;
+        if (this.isStarted && (pendingEdge.arrivalNanos - this.lastArrivalNanos < period / 2L))
+        {
+            this.stale.incrementAndGet();
+            return;
+        }
+        // Periode aus dem Abstand der Flanken, nur ohne verworfene Flanke dazwischen...
+        final long skipped = getSkipped();
+        if (this.lastEdge != null && skipped == this.lastSkipped)
+        {
+            final long interval = Duration.between(this.lastEdge, edge).toNanos();
+            if (interval >= period / 2L && interval <= 2L * period)
+            {
+                this.meanPeriodNanos += (interval - this.meanPeriodNanos) / SETTLING_EDGES;
+            }
+        }
+        this.lastEdge = edge;
+        this.lastSkipped = skipped;
+        this.isStarted = true;
+        this.lastArrivalNanos = pendingEdge.arrivalNanos;
+        final long startNanos = this.clock.getAsLong();
+        this.cycle.accept(edge);
+        this.cycles.incrementAndGet();
+        final long durationNanos = this.clock.getAsLong() - startNanos;
+        if (durationNanos > period)
+        {
+            this.overruns.incrementAndGet();
+        }
+        if (durationNanos > this.maxCycleNanos)
+        {
+            this.maxCycleNanos = durationNanos;
+        }
+    }
+
+    /**
+     * @return gemessene Periode des Arduino in ns (zu Beginn der Ausgangswert)
+     */
+    public long getPeriodNanos()
+    {
+        return (long) this.meanPeriodNanos;
+    }
+
+    /**
+     * @return Anzahl der Flanken
+     */
+    public long getEdges()
+    {
+        return this.edges.get();
+    }
+
+    /**
+     * @return Anzahl der verarbeiteten Takte
+     */
+    public long getCycles()
+    {
+        return this.cycles.get();
+    }
+
+    /**
+     * @return Anzahl der durch eine neuere Flanke ersetzten Flanken
+     */
+    public long getCoalesced()
+    {
+        return this.coalesced.get();
+    }
+
+    /**
+     * @return Anzahl der Flanken aus dem Rueckstau (weniger als eine halbe Periode nach der zuletzt verarbeiteten Flanke eingetroffen)
+     */
+    public long getStale()
+    {
+        return this.stale.get();
+    }
+
+    /**
+     * @return Anzahl aller verworfenen Flanken (coalesced und stale)
+     */
+    public long getSkipped()
+    {
+        return this.coalesced.get() + this.stale.get();
+    }
+
+    /**
+     * @return Anzahl der Takte laenger als die Periode
+     */
+    public long getOverruns()
+    {
+        return this.overruns.get();
+    }
+
+    /**
+     * @return laengster Takt in ns
+     */
+    public long getMaxCycleNanos()
+    {
+        return this.maxCycleNanos;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.periodNanos)
+                                  .append(" ")
+                                  .append(getPeriodNanos())
+                                  .append(" ")
+                                  .append(getEdges())
+                                  .append(" ")
+                                  .append(getCycles())
+                                  .append(" ")
+                                  .append(getCoalesced())
+                                  .append(" ")
+                                  .append(getStale())
+                                  .append(" ")
+                                  .append(getOverruns())
+                                  .append(" ")
+                                  .append(this.maxCycleNanos)
+                                  .append("]")
+                                  .toString();
+    }
+}
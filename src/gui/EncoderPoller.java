@@ -0,0 +1,229 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * EncoderPoller - Abfrage der Spuren A/B der Drehgeber im Level-Register
+ * (GPLEV0) und Weitergabe an die QuadratureCounter.
+ * <p>
+ * Wie der GpioMemPoller fragt ein eigener Thread das Level-Register ohne
+ * Pause ab, eine Abfrage liefert die Pegel aller Spuren zugleich. Nur bei
+ * einer Aenderung werden die Zaehler nachgezogen. Die hoechste Rate der
+ * Flanken ohne Verlust ist durch den Abstand der Abfragen begrenzt (eine
+ * Abfrage je Flanke einer Spur), vgl. getMaxPollGapNanos() und
+ * EncoderCapacityTest.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class EncoderPoller implements Runnable
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(EncoderPoller.class);
+
+    /**
+     * levels - Level-Register (GPLEV0 oder Nachbildung)
+     */
+    private final IntSupplier levels;
+
+    /**
+     * counters - die Zaehler je Achse
+     */
+    private final QuadratureCounter[] counters;
+
+    /**
+     * mask - Spuren aller Zaehler im Level-Register
+     */
+    private final int mask;
+
+    /**
+     * isRunning - Thread laeuft
+     */
+    private volatile boolean isRunning = false;
+
+    /**
+     * polls/changes - Anzahl der Abfragen, davon mit Aenderung der Pegel
+     */
+    private volatile long polls = 0L;
+    private volatile long changes = 0L;
+
+    /**
+     * maxPollGapNanos - groesster Abstand zweier Abfragen
+     */
+    private volatile long maxPollGapNanos = 0L;
+
+    /**
+     * last - Pegel der letzten Abfrage (nur im Abfrage-Thread)
+     */
+    private int last;
+
+    /**
+     * thread - der Abfrage-Thread
+     */
+    private Thread thread = null;
+
+    /**
+     * EncoderPoller(IntSupplier levels, List&lt;QuadratureCounter&gt; counters)
+     * @param levels - Level-Register (GPLEV0 oder Nachbildung)
+     * @param counters - die Zaehler je Achse
+     */
+    public EncoderPoller(IntSupplier levels, List<QuadratureCounter> counters)
+    {
+        this.levels = Objects.requireNonNull(levels, "levels must not be null!");
+        if (counters == null || counters.isEmpty())
+        {
+            throw new IllegalArgumentException("counters must not be empty!");
+        }
+        this.counters = counters.toArray(new QuadratureCounter[counters.size()]);
+        int mask = 0;
+        for (QuadratureCounter counter: this.counters)
+        {
+            mask |= counter.getMask();
+        }
+        this.mask = mask;
+        this.last = this.levels.getAsInt() & this.mask;
+        for (QuadratureCounter counter: this.counters)
+        {
+            counter.init(this.last);
+        }
+    }
+
+    /**
+     * gpioMem(Path path) - Level-Register GPLEV0 aus /dev/gpiomem (oder Datei),
+     * eingeblendet wie beim GpioMemPoller ueber GpioRegisters...
+     * @param path - /dev/gpiomem oder Datei (Nachbildung)
+     * @return Zugriff auf das Level-Register
+     * @throws IOException
+     */
+    public static IntSupplier gpioMem(Path path) throws IOException
+    {
+        return GpioRegisters.map(path)::getLevels;
+    }
+
+    /**
+     * start() - Abfrage-Thread starten (Daemon, hohe Prioritaet)...
+     */
+    public synchronized void start()
+    {
+        if (this.thread != null)
+        {
+            return;
+        }
+        this.isRunning = true;
+        this.thread = new Thread(this, "EncoderPoller");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+        this.thread.start();
+    }
+
+    /**
+     * stop() - Abfrage-Thread beenden...
+     */
+    public synchronized void stop()
+    {
+        this.isRunning = false;
+        this.thread = null;
+    }
+
+    /**
+     * run() - Abfrage bis stop()...
+     */
+    @Override
+    public void run()
+    {
+        long previous = System.nanoTime();
+        long polls = 0L;
+        while (this.isRunning)
+        {
+            poll();
+            final long now = System.nanoTime();
+            if (now - previous > this.maxPollGapNanos)
+            {
+                this.maxPollGapNanos = now - previous;
+            }
+            previous = now;
+            if ((++polls & 0xffffL) == 0L)
+            {
+                this.polls += 0x10000L;
+            }
+        }
+        logger.info("EncoderPoller beendet: " + toString());
+    }
+
+    /**
+     * poll() - eine Abfrage, bei Aenderung die Zaehler nachziehen...
+     * <p>
+     * Ausfuehrung nur in einem Thread (run() oder Messung).
+     * </p>
+     * @return Pegel der Spuren
+     */
+    int poll()
+    {
+        final int levels = this.levels.getAsInt() & this.mask;
+        if (levels != this.last)
+        {
+            this.last = levels;
+            this.changes++;
+            for (QuadratureCounter counter: this.counters)
+            {
+                counter.sample(levels);
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * @return Anzahl der Abfragen (in Schritten von 65536 nachgezogen)
+     */
+    public long getPolls()
+    {
+        return this.polls;
+    }
+
+    /**
+     * @return Anzahl der Abfragen mit Aenderung der Pegel
+     */
+    public long getChanges()
+    {
+        return this.changes;
+    }
+
+    /**
+     * @return groesster Abstand zweier Abfragen in ns
+     */
+    public long getMaxPollGapNanos()
+    {
+        return this.maxPollGapNanos;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(java.util.Arrays.toString(this.counters))
+                                  .append(" ")
+                                  .append(this.polls)
+                                  .append(" ")
+                                  .append(this.changes)
+                                  .append(" ")
+                                  .append(this.maxPollGapNanos)
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ *
+ */
+package gui;
+
+import java.util.Arrays;
+
+/**
+ * GainSchedule - Tabelle der Reglerverstaerkungen (enhancement) ueber der
+ * Solldrehzahl und optional der Last.
+ * <p>
+ * Die Stuetzstellen der Drehzahl liegen aequidistant bei 0, speedStep,
+ * 2*speedStep, ... (Betrag der Solldrehzahl in 1/min), die der Last bei
+ * 0.0 ... 1.0 (Betrag der Stellgroesse des vorigen Taktes). Zwischen den
+ * Stuetzstellen wird linear (bilinear) interpoliert, ausserhalb gilt der
+ * Randwert. Die Suche ist damit unabhaengig von der Groesse der Tabelle
+ * (Division statt Suche).
+ * </p>
+ * <p>
+ * Die Tabelle ist unveraenderlich, Aenderungen im Betrieb (with(), ModelConfig,
+ * ControlServer) erzeugen eine neue Tabelle, die im PositionController
+ * als Ganzes ausgetauscht wird.
+ * </p>
+ * <p>
+ * Textform (vgl. model.properties): je Last eine Zeile, Zeilen durch ';',
+ * Verstaerkungen durch ',' getrennt, z.B. "0.5, 0.3, 0.2; 0.6, 0.4, 0.25".
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public final class GainSchedule
+{
+    /**
+     * speedStep - Abstand der Drehzahl-Stuetzstellen (1/min)
+     */
+    private final double speedStep;
+
+    /**
+     * gains - Verstaerkungen [Last][Drehzahl]
+     */
+    private final double[][] gains;
+
+    /**
+     * GainSchedule(double speedStep, double[][] gains)
+     * @param speedStep - Abstand der Drehzahl-Stuetzstellen (&gt; 0)
+     * @param gains - Verstaerkungen [Last][Drehzahl], mind. ein Wert, alle Zeilen gleich lang
+     * @throws IllegalArgumentException bei ungueltiger Tabelle
+     */
+    public GainSchedule(double speedStep, double[][] gains)
+    {
+        if (!(speedStep > 0.0) || Double.isInfinite(speedStep))
+        {
+            throw new IllegalArgumentException("speedStep must be > 0!");
+        }
+        if (gains == null || gains.length == 0 || gains[0].length == 0)
+        {
+            throw new IllegalArgumentException("gains must not be empty!");
+        }
+        this.speedStep = speedStep;
+        this.gains = new double[gains.length][];
+        for (int load = 0; load < gains.length; load++)
+        {
+            if (gains[load].length != gains[0].length)
+            {
+                throw new IllegalArgumentException("all rows of gains must have the same length!");
+            }
+            for (double gain: gains[load])
+            {
+                if (!(gain >= 0.0) || Double.isInfinite(gain))
+                {
+                    throw new IllegalArgumentException("gain must be >= 0: " + gain);
+                }
+            }
+            this.gains[load] = gains[load].clone();
+        }
+    }
+
+    /**
+     * parse(String speedStep, String table) - Tabelle aus der Textform...
+     * @param speedStep - Abstand der Drehzahl-Stuetzstellen
+     * @param table - Zeilen (Last) durch ';', Werte (Drehzahl) durch ',' getrennt
+     * @return Tabelle oder null, wenn table leer ist (keine Tabelle)
+     * @throws IllegalArgumentException bei ungueltigen Eintraegen
+     */
+    public static GainSchedule parse(String speedStep, String table)
+    {
+        if (table == null || table.trim().isEmpty())
+        {
+            return null;
+        }
+        final String[] rows = table.split(";");
+        final double[][] gains = new double[rows.length][];
+        try
+        {
+            for (int load = 0; load < rows.length; load++)
+            {
+                final String[] texts = rows[load].split(",");
+                gains[load] = new double[texts.length];
+                for (int speed = 0; speed < texts.length; speed++)
+                {
+                    gains[load][speed] = Double.parseDouble(texts[speed].trim());
+                }
+            }
+            return new GainSchedule(Double.parseDouble(speedStep.trim()), gains);
+        }
+        catch (NumberFormatException exception)
+        {
+            throw new IllegalArgumentException("invalid gain table: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * getGain(double speed, double load) - interpolierte Verstaerkung...
+     * @param speed - Solldrehzahl (1/min, Vorzeichen ohne Bedeutung)
+     * @param load - Last (0.0 ... 1.0, Vorzeichen ohne Bedeutung)
+     * @return Verstaerkung
+     */
+    public double getGain(double speed, double load)
+    {
+        final int speeds = this.gains[0].length;
+        final double x = Math.min(Math.abs(speed) / this.speedStep, speeds - 1);
+        final double y = Math.min(Math.abs(load), 1.0) * (this.gains.length - 1);
+        final int i = Math.min((int) x, speeds - 1);
+        final int j = Math.min((int) y, this.gains.length - 1);
+        final int i1 = Math.min(i + 1, speeds - 1);
+        final int j1 = Math.min(j + 1, this.gains.length - 1);
+        final double fx = x - i;
+        final double fy = y - j;
+        final double lower = this.gains[j][i] + fx * (this.gains[j][i1] - this.gains[j][i]);
+        final double upper = this.gains[j1][i] + fx * (this.gains[j1][i1] - this.gains[j1][i]);
+        return lower + fy * (upper - lower);
+    }
+
+    /**
+     * with(int speedIndex, int loadIndex, double gain) - Tabelle mit einer
+     * geaenderten Stuetzstelle...
+     * @param speedIndex - Index der Drehzahl (0: 0 1/min)
+     * @param loadIndex - Index der Last (0: Last 0.0)
+     * @param gain - Verstaerkung (&gt;= 0)
+     * @return neue Tabelle
+     * @throws IllegalArgumentException bei ungueltigem Index oder Wert
+     */
+    public GainSchedule with(int speedIndex, int loadIndex, double gain)
+    {
+        if (loadIndex < 0 || loadIndex >= this.gains.length || speedIndex < 0 || speedIndex >= this.gains[0].length)
+        {
+            throw new IllegalArgumentException("index out of range: " + speedIndex + " " + loadIndex);
+        }
+        final double[][] copy = new double[this.gains.length][];
+        for (int load = 0; load < this.gains.length; load++)
+        {
+            copy[load] = this.gains[load].clone();
+        }
+        copy[loadIndex][speedIndex] = gain;
+        return new GainSchedule(this.speedStep, copy);
+    }
+
+    /**
+     * @return Abstand der Drehzahl-Stuetzstellen (1/min)
+     */
+    public double getSpeedStep()
+    {
+        return this.speedStep;
+    }
+
+    /**
+     * @return Anzahl der Drehzahl-Stuetzstellen
+     */
+    public int getSpeeds()
+    {
+        return this.gains[0].length;
+    }
+
+    /**
+     * @return Anzahl der Last-Stuetzstellen
+     */
+    public int getLoads()
+    {
+        return this.gains.length;
+    }
+
+    /**
+     * format() - Textform der Tabelle (vgl. parse())...
+     */
+    public String format()
+    {
+        final StringBuilder builder = new StringBuilder();
+        for (int load = 0; load < this.gains.length; load++)
+        {
+            builder.append((load > 0)? "; " : "");
+            for (int speed = 0; speed < this.gains[load].length; speed++)
+            {
+                builder.append((speed > 0)? ", " : "").append(this.gains[load][speed]);
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (!(object instanceof GainSchedule))
+        {
+            return false;
+        }
+        final GainSchedule other = (GainSchedule) object;
+        return this.speedStep == other.speedStep && Arrays.deepEquals(this.gains, other.gains);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Double.hashCode(this.speedStep) + Arrays.deepHashCode(this.gains);
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.speedStep)
+                                  .append(" ")
+                                  .append(format())
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * GpioEncoderPlant - Regelstrecke mit Zaehlung der Drehgeber direkt am
+ * Raspi (QuadratureCounter), die Ausgabe der Stellgroessen erfolgt ueber
+ * eine andere Regelstrecke (z.B. ArduinoPlant, MultiModulePlant).
+ * <p>
+ * exchange() liest nur die Zaehler (keine Transaktion am Bus) und
+ * beantwortet den token wie der Arduino (token + 1, SUCCESS). Die
+ * Zaehlerstaende sind vorzeichenbehaftet (isSigned()), das Model
+ * uebernimmt die Drehrichtung aus der Zaehlung statt aus dem Vorzeichen
+ * der Stellgroesse. Mit countsPerPulse wird die vierfache Aufloesung der
+ * Quadratur auf die Impulse je Umdrehung des Model (CIRCUMFERENCE)
+ * zurueckgefuehrt.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class GpioEncoderPlant implements Plant
+{
+    /**
+     * output - Ausgabe der Stellgroessen
+     */
+    private final Plant output;
+
+    /**
+     * counterA/counterB - Zaehler Motor A/Motor B
+     */
+    private final QuadratureCounter counterA;
+    private final QuadratureCounter counterB;
+
+    /**
+     * countsPerPulse - Flanken je Impuls des Model (4: Quadratur, 1: jede Flanke)
+     */
+    private final int countsPerPulse;
+
+    /**
+     * GpioEncoderPlant(Plant output, QuadratureCounter counterA, QuadratureCounter counterB, int countsPerPulse)
+     * @param output - Ausgabe der Stellgroessen
+     * @param counterA - Zaehler Motor A
+     * @param counterB - Zaehler Motor B
+     * @param countsPerPulse - Flanken je Impuls (1 ... 4)
+     */
+    public GpioEncoderPlant(Plant output, QuadratureCounter counterA, QuadratureCounter counterB, int countsPerPulse)
+    {
+        this.output = Objects.requireNonNull(output, "output must not be null!");
+        this.counterA = Objects.requireNonNull(counterA, "counterA must not be null!");
+        this.counterB = Objects.requireNonNull(counterB, "counterB must not be null!");
+        if (countsPerPulse < 1 || countsPerPulse > 4)
+        {
+            throw new IllegalArgumentException("countsPerPulse must be 1 ... 4!");
+        }
+        this.countsPerPulse = countsPerPulse;
+    }
+
+    /**
+     * exchange(long token, ArduinoI2C.Status status) - Zaehlerstaende ohne Buszugriff...
+     */
+    @Override
+    public Response exchange(long token, ArduinoI2C.Status status) throws IOException
+    {
+        return new Response(token + 1L,
+                            ArduinoI2C.Status.SUCCESS,
+                            0,
+                            (int) Math.floorDiv(this.counterA.getCount(), this.countsPerPulse),
+                            (int) Math.floorDiv(this.counterB.getCount(), this.countsPerPulse));
+    }
+
+    /**
+     * isSigned() - Drehrichtung aus der Quadratur...
+     */
+    @Override
+    public boolean isSigned()
+    {
+        return true;
+    }
+
+    @Override
+    public void setPwmMA(float speed) throws IOException
+    {
+        this.output.setPwmMA(speed);
+    }
+
+    @Override
+    public void setPwmMB(float speed) throws IOException
+    {
+        this.output.setPwmMB(speed);
+    }
+
+    @Override
+    public void setPwmFrequency(int frequency) throws IOException
+    {
+        this.output.setPwmFrequency(frequency);
+    }
+
+    @Override
+    public void endCycle() throws IOException
+    {
+        this.output.endCycle();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "gui.GpioEncoderPlant";
+    }
+}
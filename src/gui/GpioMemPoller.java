@@ -0,0 +1,282 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * GpioMemPoller - Erkennung der steigenden Flanke am GPIO_CYCLE_PIN durch
+ * Abfrage des GPIO-Level-Registers (GPLEV0) ueber /dev/gpiomem.
+ * <p>
+ * Die Register des GPIO-Blockes werden ueber GpioRegisters eingeblendet,
+ * ein eigener Thread fragt das Level-Register ununterbrochen ab (aktives
+ * Warten, belegt einen Kern). Damit entfaellt der Weg ueber den Interrupt
+ * und den Listener von pi4j, die Verzoegerung bis zur Beauftragung ist
+ * durch die Dauer eines Schleifendurchlaufs begrenzt.
+ * </p>
+ * <p>
+ * Anstelle von /dev/gpiomem kann eine gewoehnliche Datei angegeben werden
+ * (Nachbildung, z.B. fuer Tests), der Pegel wird dann mit setLevel()
+ * vorgegeben. Vgl. main() zur Messung der Verzoegerung Flanke - Beauftragung.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class GpioMemPoller implements Runnable
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(GpioMemPoller.class);
+
+    /**
+     * registers - der eingeblendete Registerblock
+     */
+    private final GpioRegisters registers;
+
+    /**
+     * mask - Bit des Pins im Level-Register
+     */
+    private final int mask;
+
+    /**
+     * risingEdge - Beauftragung an der steigenden Flanke (z.B. Model.doExternalCycle())
+     */
+    private final Consumer<Instant> risingEdge;
+
+    /**
+     * isRunning - Thread laeuft
+     */
+    private volatile boolean isRunning = false;
+
+    /**
+     * edges - Anzahl der erkannten steigenden Flanken
+     */
+    private volatile long edges = 0L;
+
+    /**
+     * polls - Anzahl der Abfragen
+     */
+    private volatile long polls = 0L;
+
+    /**
+     * maxPollGapNanos - groesster Abstand zweier Abfragen (ohne Beauftragung),
+     * obere Grenze der Verzoegerung der Erkennung
+     */
+    private volatile long maxPollGapNanos = 0L;
+
+    /**
+     * thread - der Abfrage-Thread
+     */
+    private Thread thread = null;
+
+    /**
+     * GpioMemPoller(Path path, int bcmPin, Consumer&lt;Instant&gt; risingEdge)
+     * @param path - /dev/gpiomem oder Datei (Nachbildung)
+     * @param bcmPin - Pin in BCM-Nummerierung (0 ... 31)
+     * @param risingEdge - Beauftragung an der steigenden Flanke
+     * @throws IOException
+     */
+    public GpioMemPoller(Path path, int bcmPin, Consumer<Instant> risingEdge) throws IOException
+    {
+        Objects.requireNonNull(path, "path must not be null!");
+        if (bcmPin < 0 || bcmPin > 31)
+        {
+            throw new IllegalArgumentException("bcmPin must be 0 ... 31!");
+        }
+        this.risingEdge = Objects.requireNonNull(risingEdge, "risingEdge must not be null!");
+        this.mask = 1 << bcmPin;
+        this.registers = GpioRegisters.map(path);
+    }
+
+    /**
+     * start() - Abfrage-Thread starten (Daemon, hohe Prioritaet)...
+     */
+    public synchronized void start()
+    {
+        if (this.thread != null)
+        {
+            return;
+        }
+        this.isRunning = true;
+        this.thread = new Thread(this, "GpioMemPoller");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+        this.thread.start();
+    }
+
+    /**
+     * stop() - Abfrage-Thread beenden...
+     */
+    public synchronized void stop()
+    {
+        this.isRunning = false;
+        this.thread = null;
+    }
+
+    /**
+     * isHigh() - aktueller Pegel des Pins...
+     * @return true bei HIGH
+     */
+    public boolean isHigh()
+    {
+        return (this.registers.getLevels() & this.mask) != 0;
+    }
+
+    /**
+     * setLevel(boolean isHigh) - Pegel vorgeben, nur fuer die Nachbildung
+     * (Datei), auf /dev/gpiomem ist das Level-Register nur lesbar...
+     * @param isHigh
+     */
+    void setLevel(boolean isHigh)
+    {
+        final int value = this.registers.getLevels();
+        this.registers.setLevels(isHigh? (value | this.mask) : (value & ~this.mask));
+    }
+
+    /**
+     * run() - Abfrage des Level-Registers...
+     * <p>
+     * Die Abfrage von isRunning (volatile) in jedem Durchlauf verhindert,
+     * dass der Zugriff auf den Registerblock aus der Schleife gezogen wird.
+     * </p>
+     */
+    @Override
+    public void run()
+    {
+        boolean level = isHigh();
+        long last = System.nanoTime();
+        long polls = 0L;
+        while (this.isRunning)
+        {
+            final boolean high = isHigh();
+            final long now = System.nanoTime();
+            polls++;
+            if (now - last > this.maxPollGapNanos)
+            {
+                this.maxPollGapNanos = now - last;
+            }
+            if (high && !level)
+            {
+                this.edges++;
+                try
+                {
+                    this.risingEdge.accept(Instant.now());
+                }
+                catch (RuntimeException exception)
+                {
+                    logger.error(exception.toString(), exception);
+                }
+                // Die Dauer der Beauftragung zaehlt nicht als Abstand der Abfragen...
+                last = System.nanoTime();
+            }
+            else
+            {
+                last = now;
+            }
+            level = high;
+            if ((polls & 0xffffL) == 0L)
+            {
+                this.polls = polls;
+            }
+        }
+        this.polls = polls;
+    }
+
+    /**
+     * @return Anzahl der erkannten steigenden Flanken
+     */
+    public long getEdges()
+    {
+        return this.edges;
+    }
+
+    /**
+     * @return Anzahl der Abfragen (in Schritten von 65536 nachgezogen)
+     */
+    public long getPolls()
+    {
+        return this.polls;
+    }
+
+    /**
+     * @return groesster Abstand zweier Abfragen in ns
+     */
+    public long getMaxPollGapNanos()
+    {
+        return this.maxPollGapNanos;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(Integer.numberOfTrailingZeros(this.mask))
+                                  .append(" ")
+                                  .append(this.edges)
+                                  .append(" ")
+                                  .append(this.polls)
+                                  .append(" ")
+                                  .append(this.maxPollGapNanos)
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * main() - Messung der Verzoegerung Flanke - Beauftragung an der Nachbildung...
+     * <p>
+     * Aufruf: java gui.GpioMemPoller [Anzahl Flanken] [Abstand in us]
+     * </p>
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception
+    {
+        final int count = (args.length > 0)? Integer.parseInt(args[0]) : 1000;
+        final long periodMicros = (args.length > 1)? Long.parseLong(args[1]) : 1000L;
+
+        final Path path = Files.createTempFile("gpiomem", ".bin");
+        path.toFile().deleteOnExit();
+
+        final AtomicLong edgeNanos = new AtomicLong();
+        final long[] latency = new long[] {0L, 0L};  // Summe, Maximum
+        final GpioMemPoller poller = new GpioMemPoller(path, 23, now ->
+        {
+            final long value = System.nanoTime() - edgeNanos.get();
+            latency[0] += value;
+            latency[1] = Math.max(latency[1], value);
+        });
+        poller.start();
+        for (int index = 0; index < count; index++)
+        {
+            Thread.sleep(periodMicros / 1000L, (int) (periodMicros % 1000L) * 1000);
+            edgeNanos.set(System.nanoTime());
+            poller.setLevel(true);
+            Thread.sleep(periodMicros / 1000L, (int) (periodMicros % 1000L) * 1000);
+            poller.setLevel(false);
+        }
+        Thread.sleep(10L);
+        poller.stop();
+
+        final long edges = poller.getEdges();
+        System.out.println("Flanken: " + count
+                         + ", erkannt: " + edges
+                         + ", Verzoegerung mittel/max (us): " + ((edges > 0L)? latency[0] / edges / 1000L : 0L)
+                         + "/" + latency[1] / 1000L
+                         + ", max. Abstand der Abfragen (us): " + poller.getMaxPollGapNanos() / 1000L);
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+
+/**
+ * GpioRegisters - der eingeblendete GPIO-Registerblock (/dev/gpiomem),
+ * gemeinsam genutzt von GpioMemPoller und EncoderPoller.
+ * <p>
+ * Ein Geraet (/dev/gpiomem) laesst sich nicht ueber FileChannel.map()
+ * einblenden: die Groesse eines zeichenorientierten Geraetes ist 0,
+ * map() versucht die "Datei" zu verlaengern und scheitert mit EINVAL.
+ * Fuer ein Geraet wird der Block daher direkt ueber mmap() der libc
+ * eingeblendet (JNA), die Register sind dann ein direkter ByteBuffer.
+ * </p>
+ * <p>
+ * Eine gewoehnliche Datei dient als Nachbildung (z.B. fuer Tests), sie
+ * wird wie bisher ueber FileChannel.map() eingeblendet und der Pegel mit
+ * setLevels() vorgegeben. Ein fehlender Pfad wird nicht als Datei angelegt,
+ * map() scheitert dann mit NoSuchFileException.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public final class GpioRegisters
+{
+    /**
+     * GPIOMEM_PATH = "/dev/gpiomem" - GPIO-Registerblock ohne root-Rechte
+     */
+    public final static String GPIOMEM_PATH = "/dev/gpiomem";
+
+    /**
+     * BLOCK_SIZE = 4096 - Groesse des eingeblendeten Registerblockes
+     */
+    public final static int BLOCK_SIZE = 4096;
+
+    /**
+     * GPLEV0_OFFSET = 0x34 - Offset des Level-Registers GPIO 0 ... 31 (BCM2835 ff.)
+     */
+    public final static int GPLEV0_OFFSET = 0x34;
+
+    /**
+     * O_RDWR/O_SYNC, PROT_READ/PROT_WRITE, MAP_SHARED - Konstanten der libc (Linux)
+     */
+    private final static int O_RDWR = 02;
+    private final static int O_SYNC = 04010000;
+    private final static int PROT_READ = 0x1;
+    private final static int PROT_WRITE = 0x2;
+    private final static int MAP_SHARED = 0x01;
+
+    /**
+     * LibC - die benoetigten Funktionen der libc...
+     */
+    private interface LibC extends Library
+    {
+        int open(String path, int flags);
+
+        Pointer mmap(Pointer address, NativeLong length, int protection, int flags, int fd, NativeLong offset);
+
+        int close(int fd);
+    }
+
+    /**
+     * LibCHolder - libc erst beim ersten Einblenden eines Geraetes laden
+     * (die Nachbildung kommt ohne JNA aus)...
+     */
+    private final static class LibCHolder
+    {
+        private final static LibC LIBC = Native.load("c", LibC.class);
+    }
+
+    /**
+     * path - /dev/gpiomem oder Datei (Nachbildung)
+     */
+    private final Path path;
+
+    /**
+     * isDevice - Geraet (mmap() der libc) oder Nachbildung (Datei)
+     */
+    private final boolean isDevice;
+
+    /**
+     * registers - der eingeblendete Registerblock
+     */
+    private final ByteBuffer registers;
+
+    /**
+     * GpioRegisters(Path path, boolean isDevice, ByteBuffer registers)
+     */
+    private GpioRegisters(Path path, boolean isDevice, ByteBuffer registers)
+    {
+        this.path = path;
+        this.isDevice = isDevice;
+        this.registers = registers.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * map(Path path) - Registerblock einblenden...
+     * <p>
+     * Scheitert die Einblendung, wird eine IOException mit Pfad und errno
+     * geworfen (Abbruch beim Start, kein stiller Lauf ohne Register).
+     * </p>
+     * @param path - /dev/gpiomem oder Datei (Nachbildung)
+     * @return der eingeblendete Registerblock
+     * @throws IOException
+     */
+    public static GpioRegisters map(Path path) throws IOException
+    {
+        Objects.requireNonNull(path, "path must not be null!");
+        if (Files.isRegularFile(path))
+        {
+            // Nachbildung: die Einblendung bleibt auch nach dem Schliessen der Datei gueltig...
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw"))
+            {
+                return new GpioRegisters(path, false, file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, BLOCK_SIZE));
+            }
+        }
+        if (!Files.exists(path))
+        {
+            throw new NoSuchFileException(path.toString(), null, "GPIO register block not found");
+        }
+        return new GpioRegisters(path, true, mapDevice(path));
+    }
+
+    /**
+     * mapDevice(Path path) - Geraet ueber open()/mmap() der libc einblenden...
+     * <p>
+     * Die Einblendung bleibt nach close() gueltig, sie wird bis zum Ende
+     * des Prozesses nicht aufgehoben.
+     * </p>
+     */
+    private static ByteBuffer mapDevice(Path path) throws IOException
+    {
+        final LibC libc;
+        try
+        {
+            libc = LibCHolder.LIBC;
+        }
+        catch (LinkageError error)
+        {
+            throw new IOException(path + ": libc not available via JNA (" + error + ")", error);
+        }
+        final int fd = libc.open(path.toString(), O_RDWR | O_SYNC);
+        if (fd < 0)
+        {
+            throw new IOException(path + ": open() failed, errno " + Native.getLastError());
+        }
+        try
+        {
+            final Pointer address = libc.mmap(null, new NativeLong(BLOCK_SIZE), PROT_READ | PROT_WRITE, MAP_SHARED, fd, new NativeLong(0L));
+            final long value = Pointer.nativeValue(address);
+            // MAP_FAILED = (void *) -1...
+            if (address == null || value == -1L || (Native.POINTER_SIZE == 4 && value == 0xffffffffL))
+            {
+                throw new IOException(path + ": mmap() of " + BLOCK_SIZE + " bytes failed, errno " + Native.getLastError());
+            }
+            return address.getByteBuffer(0L, BLOCK_SIZE);
+        }
+        finally
+        {
+            libc.close(fd);
+        }
+    }
+
+    /**
+     * getLevels() - Level-Register GPLEV0 (GPIO 0 ... 31)...
+     * @return Pegel aller Pins, Bit n entspricht GPIO n (BCM)
+     */
+    public int getLevels()
+    {
+        return this.registers.getInt(GPLEV0_OFFSET);
+    }
+
+    /**
+     * setLevels(int levels) - Pegel vorgeben, nur fuer die Nachbildung
+     * (Datei), auf /dev/gpiomem ist das Level-Register nur lesbar...
+     * @param levels
+     */
+    void setLevels(int levels)
+    {
+        if (this.isDevice)
+        {
+            throw new IllegalStateException(this.path + ": GPLEV0 is read-only!");
+        }
+        this.registers.putInt(GPLEV0_OFFSET, levels);
+    }
+
+    /**
+     * @return true bei einem Geraet (mmap() der libc), false bei der Nachbildung
+     */
+    public boolean isDevice()
+    {
+        return this.isDevice;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.path)
+                                  .append(" ")
+                                  .append(this.isDevice)
+                                  .append(" ")
+                                  .append(this.registers.capacity())
+                                  .append("]")
+                                  .toString();
+    }
+}
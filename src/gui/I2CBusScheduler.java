@@ -0,0 +1,529 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * I2CBusScheduler - Ablaufplan der Transaktionen auf dem I2C-Bus innerhalb eines Taktes.
+ * <p>
+ * Jede Transaktion (Adresse, Anzahl der Bytes, Prioritaet) wird einmal im
+ * Plan angemeldet. Die Dauer auf dem Bus wird aus der Anzahl der Bytes
+ * geschaetzt (9 Bit je Byte einschliesslich Adresse, Start/Stop, zuzueglich
+ * eines festen Anteils fuer den Treiber). Die Transaktionen der Prioritaet
+ * CONTROL muessen in jedem Takt innerhalb des Budgets (budget * Taktzeit)
+ * liegen, sonst wird die Konfiguration mit checkBudget() abgelehnt.
+ * </p>
+ * <p>
+ * runCycle() fuehrt zuerst alle CONTROL-Transaktionen in der Reihenfolge der
+ * Anmeldung aus, danach DIAGNOSTIC-Transaktionen reihum, solange die bisher
+ * verstrichene Zeit zzgl. der Schaetzung im Budget bleibt. Mit reserve()
+ * angemeldete Transaktionen werden ausserhalb ausgefuehrt (z.B. im Model),
+ * zaehlen aber zum Budget.
+ * </p>
+ * <p>
+ * Ein Fehler (IOException) einer Transaktion wird gezaehlt, die uebrigen
+ * Transaktionen des Taktes werden trotzdem ausgefuehrt.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class I2CBusScheduler
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(I2CBusScheduler.class);
+
+    /**
+     * DEFAULT_BUS_HZ = 100000 - Standard-Takt des I2C-Busses (100 kHz)
+     */
+    public final static int DEFAULT_BUS_HZ = Integer.getInteger("gui.i2c.busHz", 100000).intValue();
+
+    /**
+     * DEFAULT_BUDGET = 0.5 - Anteil der Taktzeit fuer den Bus
+     */
+    public final static double DEFAULT_BUDGET = 0.5;
+
+    /**
+     * DEFAULT_OVERHEAD_NANOS - fester Anteil je Transaktion (Treiber, ioctl), 100us
+     */
+    public final static long DEFAULT_OVERHEAD_NANOS = 100000L;
+
+    /**
+     * Priority - Prioritaet einer Transaktion
+     */
+    public enum Priority
+    {
+        /**
+         * CONTROL - Regelung, in jedem Takt
+         */
+        CONTROL,
+        /**
+         * DIAGNOSTIC - Diagnose, nur im verbleibenden Budget
+         */
+        DIAGNOSTIC
+    }
+
+    /**
+     * Action - die eigentliche Transaktion
+     */
+    public interface Action
+    {
+        /**
+         * run() - Transaktion ausfuehren...
+         * @throws IOException
+         */
+        void run() throws IOException;
+    }
+
+    /**
+     * Transaction - eine Transaktion im Plan mit ihrer Statistik...
+     */
+    public final static class Transaction
+    {
+        /**
+         * name - Bezeichnung (Protokoll)
+         */
+        private final String name;
+
+        /**
+         * address - Bus-Adresse
+         */
+        private final int address;
+
+        /**
+         * priority
+         */
+        private final Priority priority;
+
+        /**
+         * bytes - Anzahl der uebertragenen Bytes (ohne Adresse)
+         */
+        private final int bytes;
+
+        /**
+         * estimateNanos - geschaetzte Dauer auf dem Bus
+         */
+        private final long estimateNanos;
+
+        /**
+         * action - Ausfuehrung, null wenn ausserhalb ausgefuehrt (reserve())
+         */
+        private final Action action;
+
+        /**
+         * Statistik...
+         */
+        private long runs = 0L;
+        private long errors = 0L;
+        private long skipped = 0L;
+        private long maxNanos = 0L;
+
+        /**
+         * Transaction(...)
+         */
+        private Transaction(String name, int address, Priority priority, int bytes, long estimateNanos, Action action)
+        {
+            this.name = name;
+            this.address = address;
+            this.priority = priority;
+            this.bytes = bytes;
+            this.estimateNanos = estimateNanos;
+            this.action = action;
+        }
+
+        /**
+         * @return Bezeichnung
+         */
+        public String getName()
+        {
+            return this.name;
+        }
+
+        /**
+         * @return Bus-Adresse
+         */
+        public int getAddress()
+        {
+            return this.address;
+        }
+
+        /**
+         * @return Prioritaet
+         */
+        public Priority getPriority()
+        {
+            return this.priority;
+        }
+
+        /**
+         * @return Anzahl der Bytes (ohne Adresse)
+         */
+        public int getBytes()
+        {
+            return this.bytes;
+        }
+
+        /**
+         * @return geschaetzte Dauer auf dem Bus (ns)
+         */
+        public long getEstimateNanos()
+        {
+            return this.estimateNanos;
+        }
+
+        /**
+         * @return Anzahl der Ausfuehrungen
+         */
+        public long getRuns()
+        {
+            return this.runs;
+        }
+
+        /**
+         * @return Anzahl der Fehler
+         */
+        public long getErrors()
+        {
+            return this.errors;
+        }
+
+        /**
+         * @return Anzahl der wegen des Budgets ausgelassenen Takte
+         */
+        public long getSkipped()
+        {
+            return this.skipped;
+        }
+
+        /**
+         * @return laengste gemessene Dauer (ns)
+         */
+        public long getMaxNanos()
+        {
+            return this.maxNanos;
+        }
+
+        /**
+         * toString() - zu Protokollzwecken...
+         */
+        @Override
+        public String toString()
+        {
+            return new StringBuilder().append("[")
+                                      .append(this.name)
+                                      .append(" 0x")
+                                      .append(Integer.toHexString(this.address))
+                                      .append(" ")
+                                      .append(this.priority)
+                                      .append(" ")
+                                      .append(this.bytes)
+                                      .append(" ")
+                                      .append(this.estimateNanos / 1000L)
+                                      .append("us ")
+                                      .append(this.runs)
+                                      .append(" ")
+                                      .append(this.errors)
+                                      .append(" ")
+                                      .append(this.skipped)
+                                      .append(" ")
+                                      .append(this.maxNanos / 1000L)
+                                      .append("us]")
+                                      .toString();
+        }
+    }
+
+    /**
+     * busHz - Takt des Busses
+     */
+    private final int busHz;
+
+    /**
+     * budget - Anteil der Taktzeit fuer den Bus
+     */
+    private final double budget;
+
+    /**
+     * overheadNanos - fester Anteil je Transaktion
+     */
+    private final long overheadNanos;
+
+    /**
+     * plan - alle Transaktionen in der Reihenfolge der Anmeldung
+     */
+    private final List<Transaction> plan = new ArrayList<>();
+
+    /**
+     * control/diagnostic - ausfuehrbare Transaktionen nach Prioritaet
+     */
+    private final List<Transaction> control = new ArrayList<>();
+    private final List<Transaction> diagnostic = new ArrayList<>();
+
+    /**
+     * diagnosticCursor - naechste DIAGNOSTIC-Transaktion (reihum)
+     */
+    private int diagnosticCursor = 0;
+
+    /**
+     * cycles/overruns - Anzahl der Takte, davon mit Ueberschreitung des Budgets
+     */
+    private long cycles = 0L;
+    private long overruns = 0L;
+
+    /**
+     * I2CBusScheduler() - mit den DEFAULT-Parametern...
+     */
+    public I2CBusScheduler()
+    {
+        this(DEFAULT_BUS_HZ, DEFAULT_BUDGET, DEFAULT_OVERHEAD_NANOS);
+    }
+
+    /**
+     * I2CBusScheduler(int busHz, double budget, long overheadNanos)
+     * @param busHz - Takt des Busses
+     * @param budget - Anteil der Taktzeit fuer den Bus (0 ... 1)
+     * @param overheadNanos - fester Anteil je Transaktion
+     */
+    public I2CBusScheduler(int busHz, double budget, long overheadNanos)
+    {
+        if (busHz <= 0)
+        {
+            throw new IllegalArgumentException("busHz must be > 0!");
+        }
+        this.busHz = busHz;
+        this.budget = Math.max(0.0, Math.min(1.0, budget));
+        this.overheadNanos = Math.max(0L, overheadNanos);
+    }
+
+    /**
+     * estimateNanos(int bytes) - Dauer einer Transaktion auf dem Bus...
+     * <p>
+     * (Adresse + bytes) * 9 Bit (8 Daten, 1 ACK), zzgl. 2 Bit Start/Stop
+     * und overheadNanos.
+     * </p>
+     * @param bytes - Anzahl der Bytes (ohne Adresse)
+     * @return Dauer in ns
+     */
+    public long estimateNanos(int bytes)
+    {
+        final long bits = (1L + bytes) * 9L + 2L;
+        return bits * 1000000000L / this.busHz + this.overheadNanos;
+    }
+
+    /**
+     * add(...) - Transaktion anmelden, wird in runCycle() ausgefuehrt...
+     * @param name - Bezeichnung
+     * @param address - Bus-Adresse (0x03 ... 0x77)
+     * @param priority - Prioritaet
+     * @param bytes - Anzahl der Bytes (ohne Adresse)
+     * @param action - Ausfuehrung
+     * @return die Transaktion (Statistik)
+     */
+    public synchronized Transaction add(String name, int address, Priority priority, int bytes, Action action)
+    {
+        Objects.requireNonNull(action, "action must not be null!");
+        final Transaction transaction = create(name, address, priority, bytes, action);
+        if (priority == Priority.CONTROL)
+        {
+            this.control.add(transaction);
+        }
+        else
+        {
+            this.diagnostic.add(transaction);
+        }
+        return transaction;
+    }
+
+    /**
+     * reserve(...) - Transaktion anmelden, die ausserhalb ausgefuehrt wird
+     * (zaehlt zum Budget)...
+     * @param name - Bezeichnung
+     * @param address - Bus-Adresse (0x03 ... 0x77)
+     * @param priority - Prioritaet
+     * @param bytes - Anzahl der Bytes (ohne Adresse)
+     * @return die Transaktion
+     */
+    public synchronized Transaction reserve(String name, int address, Priority priority, int bytes)
+    {
+        return create(name, address, priority, bytes, null);
+    }
+
+    /**
+     * create(...) - Pruefung und Aufnahme in den Plan...
+     */
+    private Transaction create(String name, int address, Priority priority, int bytes, Action action)
+    {
+        Objects.requireNonNull(name, "name must not be null!");
+        Objects.requireNonNull(priority, "priority must not be null!");
+        if (address < 0x03 || address > 0x77)
+        {
+            throw new IllegalArgumentException("address 0x" + Integer.toHexString(address) + " out of range 0x03 ... 0x77!");
+        }
+        if (bytes < 0)
+        {
+            throw new IllegalArgumentException("bytes must be >= 0!");
+        }
+        final Transaction transaction = new Transaction(name, address, priority, bytes, estimateNanos(bytes), action);
+        this.plan.add(transaction);
+        return transaction;
+    }
+
+    /**
+     * getControlNanos() - geschaetzte Dauer aller CONTROL-Transaktionen je Takt...
+     */
+    public synchronized long getControlNanos()
+    {
+        long nanos = 0L;
+        for (Transaction transaction: this.plan)
+        {
+            if (transaction.priority == Priority.CONTROL)
+            {
+                nanos += transaction.estimateNanos;
+            }
+        }
+        return nanos;
+    }
+
+    /**
+     * getBudgetNanos(long cycleNanos) - Budget des Busses je Takt...
+     */
+    public long getBudgetNanos(long cycleNanos)
+    {
+        return (long) (this.budget * cycleNanos);
+    }
+
+    /**
+     * checkBudget(long cycleNanos) - Pruefung der Konfiguration...
+     * @param cycleNanos - Taktzeit
+     * @throws IllegalArgumentException wenn die CONTROL-Transaktionen das Budget ueberschreiten
+     */
+    public void checkBudget(long cycleNanos)
+    {
+        final long controlNanos = getControlNanos();
+        final long budgetNanos = getBudgetNanos(cycleNanos);
+        if (controlNanos > budgetNanos)
+        {
+            throw new IllegalArgumentException("I2C bus time " + controlNanos / 1000L + "us exceeds budget "
+                                             + budgetNanos / 1000L + "us (cycle " + cycleNanos / 1000L + "us)!");
+        }
+        logger.info("I2C-Bus: " + controlNanos / 1000L + "us von " + budgetNanos / 1000L + "us je Takt");
+    }
+
+    /**
+     * runCycle(long startNanos, long cycleNanos) - die Transaktionen eines Taktes...
+     * @param startNanos - Beginn der Buszugriffe des Taktes (System.nanoTime(),
+     * einschliesslich der bereits ausserhalb ausgefuehrten)
+     * @param cycleNanos - Taktzeit
+     */
+    public synchronized void runCycle(long startNanos, long cycleNanos)
+    {
+        final long budgetNanos = getBudgetNanos(cycleNanos);
+        this.cycles++;
+        for (Transaction transaction: this.control)
+        {
+            execute(transaction);
+        }
+        // DIAGNOSTIC reihum, solange das Budget reicht...
+        final int count = this.diagnostic.size();
+        int executed = 0;
+        while (executed < count)
+        {
+            final Transaction transaction = this.diagnostic.get(this.diagnosticCursor);
+            if (System.nanoTime() - startNanos + transaction.estimateNanos > budgetNanos)
+            {
+                break;
+            }
+            execute(transaction);
+            this.diagnosticCursor = (this.diagnosticCursor + 1) % count;
+            executed++;
+        }
+        for (int index = executed; index < count; index++)
+        {
+            this.diagnostic.get((this.diagnosticCursor + index - executed) % count).skipped++;
+        }
+        if (System.nanoTime() - startNanos > budgetNanos)
+        {
+            this.overruns++;
+        }
+    }
+
+    /**
+     * execute(Transaction transaction)...
+     */
+    private void execute(Transaction transaction)
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            transaction.action.run();
+        }
+        catch (IOException exception)
+        {
+            transaction.errors++;
+            if (transaction.errors == 1L)
+            {
+                logger.error(transaction.name + ": " + exception.toString(), exception);
+            }
+        }
+        final long nanos = System.nanoTime() - start;
+        transaction.runs++;
+        if (nanos > transaction.maxNanos)
+        {
+            transaction.maxNanos = nanos;
+        }
+    }
+
+    /**
+     * @return alle Transaktionen (nur lesen)
+     */
+    public synchronized List<Transaction> getPlan()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(this.plan));
+    }
+
+    /**
+     * @return Anzahl der Takte
+     */
+    public synchronized long getCycles()
+    {
+        return this.cycles;
+    }
+
+    /**
+     * @return Anzahl der Takte mit Ueberschreitung des Budgets
+     */
+    public synchronized long getOverruns()
+    {
+        return this.overruns;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public synchronized String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.busHz)
+                                  .append(" ")
+                                  .append(this.budget)
+                                  .append(" ")
+                                  .append(this.cycles)
+                                  .append(" ")
+                                  .append(this.overruns)
+                                  .append(" ")
+                                  .append(this.plan)
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * I2CResync - Zustandsautomat zur automatischen Wiederherstellung der
+ * Kommunikation mit dem Arduino nach einem Fehler (token, Status oder
+ * IOException).
+ * <p>
+ * <ul>
+ *  <li><b>SYNCHRONIZED</b> - Kommunikation in Ordnung. Ein Fehler wird innerhalb
+ *  des Taktes wiederholt, solange das Zeitbudget des Taktes (budget * Taktzeit)
+ *  und die Anzahl der Wiederholungen (maxRetries) reichen.</li>
+ *  <li><b>RESYNC</b> - Fehler-Episode: der token wird ab INITIAL neu ausgehandelt,
+ *  die Versuche erfolgen mit begrenztem, exponentiell wachsendem Abstand
+ *  (minBackoff ... maxBackoff). Bis zum Erfolg bleiben die Motoren aus.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Gezaehlt werden die Fehler-Episoden und die Wiederholungen, festgehalten
+ * wird die Dauer der letzten Wiederherstellung (erster Fehler bis Erfolg).
+ * Die Zeitpunkte werden in ns uebergeben (reale oder virtuelle Uhr).
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class I2CResync
+{
+    /**
+     * DEFAULT_MAX_RETRIES = 2 - Wiederholungen innerhalb eines Taktes
+     */
+    public final static int DEFAULT_MAX_RETRIES = 2;
+
+    /**
+     * DEFAULT_BUDGET = 0.5 - Anteil der Taktzeit, der fuer Wiederholungen genutzt werden darf
+     */
+    public final static double DEFAULT_BUDGET = 0.5;
+
+    /**
+     * DEFAULT_MIN_BACKOFF_NANOS - erster Abstand der Versuche in RESYNC (20ms)
+     */
+    public final static long DEFAULT_MIN_BACKOFF_NANOS = 20000000L;
+
+    /**
+     * DEFAULT_MAX_BACKOFF_NANOS - groesster Abstand der Versuche in RESYNC (250ms)
+     */
+    public final static long DEFAULT_MAX_BACKOFF_NANOS = 250000000L;
+
+    /**
+     * State - Zustaende der Kommunikation
+     */
+    public enum State
+    {
+        /**
+         * SYNCHRONIZED - Kommunikation in Ordnung
+         */
+        SYNCHRONIZED,
+        /**
+         * RESYNC - Fehler-Episode, Neuaushandlung ab INITIAL
+         */
+        RESYNC
+    }
+
+    /**
+     * maxRetries - Wiederholungen innerhalb eines Taktes
+     */
+    private final int maxRetries;
+
+    /**
+     * budget - Anteil der Taktzeit fuer Wiederholungen
+     */
+    private final double budget;
+
+    /**
+     * minBackoffNanos/maxBackoffNanos - Grenzen des Abstandes der Versuche in RESYNC
+     */
+    private final long minBackoffNanos;
+    private final long maxBackoffNanos;
+
+    /**
+     * state - aktueller Zustand
+     */
+    private volatile State state = State.SYNCHRONIZED;
+
+    /**
+     * retriesInCycle - Wiederholungen im laufenden Takt
+     */
+    private int retriesInCycle = 0;
+
+    /**
+     * backoffNanos - aktueller Abstand der Versuche
+     */
+    private long backoffNanos;
+
+    /**
+     * nextAttemptNanos - fruehester Zeitpunkt des naechsten Versuches
+     */
+    private long nextAttemptNanos = 0L;
+
+    /**
+     * episodeStartNanos - Zeitpunkt des ersten Fehlers der Episode
+     */
+    private long episodeStartNanos = 0L;
+
+    /**
+     * errorEpisodes - Anzahl der Fehler-Episoden
+     */
+    private volatile long errorEpisodes = 0L;
+
+    /**
+     * retries - Anzahl aller Wiederholungen
+     */
+    private volatile long retries = 0L;
+
+    /**
+     * lastRecoveryNanos - Dauer der letzten Wiederherstellung in ns
+     */
+    private volatile long lastRecoveryNanos = 0L;
+
+    /**
+     * I2CResync() - mit den DEFAULT-Parametern...
+     */
+    public I2CResync()
+    {
+        this(DEFAULT_MAX_RETRIES, DEFAULT_BUDGET, DEFAULT_MIN_BACKOFF_NANOS, DEFAULT_MAX_BACKOFF_NANOS);
+    }
+
+    /**
+     * I2CResync(...) - Konstruktor aus allen Parametern...
+     * @param maxRetries - Wiederholungen innerhalb eines Taktes
+     * @param budget - Anteil der Taktzeit fuer Wiederholungen (0 ... 1)
+     * @param minBackoffNanos - erster Abstand der Versuche in RESYNC
+     * @param maxBackoffNanos - groesster Abstand der Versuche in RESYNC
+     */
+    public I2CResync(int maxRetries, double budget, long minBackoffNanos, long maxBackoffNanos)
+    {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.budget = Math.max(0.0, Math.min(1.0, budget));
+        this.minBackoffNanos = Math.max(0L, minBackoffNanos);
+        this.maxBackoffNanos = Math.max(this.minBackoffNanos, maxBackoffNanos);
+        this.backoffNanos = this.minBackoffNanos;
+    }
+
+    /**
+     * beginCycle() - zu Beginn der Kommunikation eines Taktes...
+     */
+    public void beginCycle()
+    {
+        this.retriesInCycle = 0;
+    }
+
+    /**
+     * isAttemptDue(long nowNanos) - ist in RESYNC der naechste Versuch faellig?
+     * @param nowNanos - aktueller Zeitpunkt
+     * @return true, wenn SYNCHRONIZED oder der Abstand abgelaufen ist
+     */
+    public boolean isAttemptDue(long nowNanos)
+    {
+        return (this.state == State.SYNCHRONIZED) || (nowNanos - this.nextAttemptNanos >= 0L);
+    }
+
+    /**
+     * canRetry(long elapsedNanos, long cycleNanos) - darf im laufenden Takt wiederholt werden?
+     * @param elapsedNanos - seit Beginn der Kommunikation des Taktes verstrichene Zeit
+     * @param cycleNanos - (gemessene) Taktzeit, 0L wenn noch unbekannt
+     * @return true, wenn wiederholt werden darf (Wiederholung wird gezaehlt)
+     */
+    public boolean canRetry(long elapsedNanos, long cycleNanos)
+    {
+        if (this.retriesInCycle >= this.maxRetries)
+        {
+            return false;
+        }
+        if (cycleNanos > 0L && elapsedNanos > (long) (this.budget * cycleNanos))
+        {
+            return false;
+        }
+        this.retriesInCycle++;
+        this.retries++;
+        return true;
+    }
+
+    /**
+     * onError(long nowNanos) - die Kommunikation im Takt ist (auch nach den
+     * Wiederholungen) gescheitert...
+     * @param nowNanos - aktueller Zeitpunkt
+     */
+    public void onError(long nowNanos)
+    {
+        if (this.state == State.SYNCHRONIZED)
+        {
+            // Beginn einer neuen Fehler-Episode...
+            this.state = State.RESYNC;
+            this.errorEpisodes++;
+            this.episodeStartNanos = nowNanos;
+            this.backoffNanos = this.minBackoffNanos;
+        }
+        else
+        {
+            // Erneuter Fehler in RESYNC: Abstand verdoppeln (begrenzt)...
+            this.backoffNanos = Math.min(this.maxBackoffNanos, Math.max(1L, 2L * this.backoffNanos));
+        }
+        this.nextAttemptNanos = nowNanos + this.backoffNanos;
+    }
+
+    /**
+     * onSuccess(long nowNanos) - die Kommunikation im Takt war erfolgreich...
+     * @param nowNanos - aktueller Zeitpunkt
+     * @return true, wenn damit eine Fehler-Episode beendet wurde
+     */
+    public boolean onSuccess(long nowNanos)
+    {
+        if (this.state == State.SYNCHRONIZED)
+        {
+            return false;
+        }
+        this.state = State.SYNCHRONIZED;
+        this.lastRecoveryNanos = nowNanos - this.episodeStartNanos;
+        this.backoffNanos = this.minBackoffNanos;
+        return true;
+    }
+
+    /**
+     * reset() - Zuruecksetzen (z.B. mit Start-Button), die Zaehler bleiben erhalten...
+     */
+    public void reset()
+    {
+        this.state = State.SYNCHRONIZED;
+        this.retriesInCycle = 0;
+        this.backoffNanos = this.minBackoffNanos;
+        this.nextAttemptNanos = 0L;
+    }
+
+    /**
+     * @return aktueller Zustand
+     */
+    public State getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * @return Anzahl der Fehler-Episoden
+     */
+    public long getErrorEpisodes()
+    {
+        return this.errorEpisodes;
+    }
+
+    /**
+     * @return Anzahl aller Wiederholungen innerhalb der Takte
+     */
+    public long getRetries()
+    {
+        return this.retries;
+    }
+
+    /**
+     * @return Dauer der letzten Wiederherstellung in ns
+     */
+    public long getLastRecoveryNanos()
+    {
+        return this.lastRecoveryNanos;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.state)
+                                  .append(" ")
+                                  .append(this.errorEpisodes)
+                                  .append(" ")
+                                  .append(this.retries)
+                                  .append(" ")
+                                  .append(this.lastRecoveryNanos)
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -4,16 +4,17 @@ import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.pi4j.io.gpio.GpioController;
 import com.pi4j.io.gpio.GpioFactory;
-import com.pi4j.io.gpio.GpioPin;
 import com.pi4j.io.gpio.GpioPinDigitalInput;
 import com.pi4j.io.gpio.GpioPinDigitalOutput;
 import com.pi4j.io.gpio.Pin;
@@ -29,7 +30,6 @@ import com.pi4j.io.i2c.I2CFactory.UnsupportedBusNumberException;
 
 import gui.Model.GuiStatus;
 import raspi.hardware.i2c.ArduinoI2C;
-import raspi.hardware.i2c.MotorDriverHAT;
 
 // Vgl. https://www.baeldung.com/java-observer-pattern
 // auch https://wiki.swechsler.de/doku.php?id=java:allgemein:mvc-beispiel
@@ -87,19 +87,54 @@ public class Model
      * <p>
      * Vergleiche "MotorDriver HAT User Manual": ...The address range from 0x40 to 0x5F. 
      *  </p>
+     * <p>
+     * Aus der Konfiguration (ModelConfig, mdHatAddress).
+     * </p>
      */
-    public final static int MD_HAT_ADDRESS = 0x40; 
+    public final static int MD_HAT_ADDRESS = ModelConfig.STARTUP.getMdHatAddress(); 
     
     /**
-     * MD_HAT_FREQUENCY = 100
+     * MD_HAT_FREQUENCY = 100 - PWM-Frequenz beim Start (ModelConfig,
+     * mdHatFrequency, im Betrieb aenderbar)
      */
-    public final static int MD_HAT_FREQUENCY = 100;
+    public final static int MD_HAT_FREQUENCY = ModelConfig.STARTUP.getMdHatFrequency();
 
     /**
-     * motorDriverHAT - Referenz auf den MotorDriverHAT...
+     * I2C_MODULES - weitere Module (Arduino/MotorDriverHAT) am I2C-Bus,
+     * einstellbar ueber -Dgui.i2c.modules=0x09/0x41,0x0A/0x42 (Standard: keine).
+     * <p>
+     * Mit weiteren Modulen wird die Regelstrecke eine MultiModulePlant, der
+     * Ablaufplan des Busses (I2CBusScheduler) wird gegen die Taktzeit
+     * geprueft, eine Ueberschreitung fuehrt zum Abbruch (bei 100 kHz und
+     * 20ms Takt reicht das Budget nur fuer Modul 0, vgl. -Dgui.i2c.busHz=400000).
+     * </p>
      */
-    private final MotorDriverHAT motorDriverHAT;
-    
+    public final static String I2C_MODULES = System.getProperty("gui.i2c.modules", "").trim();
+
+    /**
+     * MOTOR_AXES - gemeinsame Ausgabe der Stellgroessen aller Module (MotorFanOut),
+     * Zuordnung der Achsen zu (Adresse, Kanal), einstellbar ueber
+     * -Dgui.motor.axes=0x40:A,0x40:B,0x41:A,0x41:B (Standard: keine, Ausgabe je Modul).
+     * <p>
+     * Je Modul (Modul 0 und I2C_MODULES) zwei Achsen in der Reihenfolge der
+     * Module: Motor A, Motor B.
+     * </p>
+     */
+    public final static String MOTOR_AXES = System.getProperty("gui.motor.axes", "").trim();
+
+    /**
+     * ENCODER_PINS - Zaehlung der Drehgeber direkt am Raspi (GpioEncoderPlant),
+     * Spuren in BCM-Nummerierung, einstellbar ueber -Dgui.encoder.pins=A1,B1,A2,B2
+     * (z.B. 5,6,13,19, Standard: keine, Zaehlung auf dem Arduino).
+     */
+    public final static String ENCODER_PINS = System.getProperty("gui.encoder.pins", "").trim();
+
+    /**
+     * ENCODER_COUNTS_PER_PULSE - Flanken der Quadratur je Impuls (CIRCUMFERENCE),
+     * einstellbar ueber -Dgui.encoder.countsPerPulse=... (Standard 4)
+     */
+    public final static int ENCODER_COUNTS_PER_PULSE = Integer.getInteger("gui.encoder.countsPerPulse", 4).intValue();
+
     /**
      * counter - Taktzaehler (keine weitere funktionale Bedeutung)
      * <p>
@@ -137,13 +172,13 @@ public class Model
 
     /**
      * ARDUINO_ADDRESS - Bus-Adresse des ArduinoI2C, 
-     * festgelegt durch Software auf dem ArduinoI2C... 
+     * festgelegt durch Software auf dem ArduinoI2C (ModelConfig, arduinoAddress)... 
      */
-    public final static int ARDUINO_ADDRESS = 0x08; 
+    public final static int ARDUINO_ADDRESS = ModelConfig.STARTUP.getArduinoAddress(); 
        
     /**
-     * arduinoI2C - Referenz auf Hilfsklasse zur Kommunikation 
-     * mit dem Arduino. 
+     * plant - Referenz auf die Regelstrecke (ArduinoPlant: Arduino und
+     * MotorDriverHAT, SimulatedPlant: Simulation). 
      * <p>
      * Raspberry ist der I2C-Master, Arduino der
      * I2C-Slave, angestossen wird die Kommunikation aber durch
@@ -151,7 +186,7 @@ public class Model
      * einstellbar).
      * </p>
      */
-    private final ArduinoI2C arduinoI2C;
+    private final Plant plant;
     
     /**
      * i2cStatus - Status der Kommunikation mit dem Arduino
@@ -164,7 +199,7 @@ public class Model
      * </ul>
      * </p>
      */
-    private ArduinoI2C.Status i2cStatus = ArduinoI2C.Status.NOP;
+    private volatile ArduinoI2C.Status i2cStatus = ArduinoI2C.Status.NOP;
     
     /**
      * token - Kennung zur Identifizierung von Nachrichten zwischen
@@ -218,6 +253,16 @@ public class Model
      */
     public final static String OUTPUT_RELATION_KEY = "outputRelationKey";
     
+    /**
+     * DRIVE_KEY = "driveKey" - Key zum Zugriff auf die Fahrvorgabe (DriveCommand, v und omega)
+     * <p>
+     * Mit einer Fahrvorgabe werden die Sollwerte Motor A/B in jedem Takt aus v und omega
+     * ermittelt (Vorrang vor DESTINATION_MA_KEY/DESTINATION_MB_KEY), null beendet die 
+     * Fahrvorgabe, es gelten wieder die Sollwerte je Motor.
+     * </p>
+     */
+    public final static String DRIVE_KEY = "driveKey";
+    
     /**
      * totalMA[] - totale Impuls-Zaehler-Staende Motor A
      * <p>
@@ -316,6 +361,21 @@ public class Model
      */
     private BigDecimal outputRelation = OUTPUT_RELATION_VALUES[SELECTED_OUTPUT_RELATION_INDEX];
     
+    /**
+     * driveCommand - Fahrvorgabe (v, omega), null: Sollwerte je Motor
+     */
+    private volatile DriveCommand driveCommand = null;
+    
+    /**
+     * isDriveApplied - Sollwerte stammen aus der Fahrvorgabe (nur in doCycle())
+     */
+    private boolean isDriveApplied = false;
+    
+    /**
+     * driveRpm - Solldrehzahlen Motor A/B aus der Fahrvorgabe (wird wiederverwendet)
+     */
+    private final double[] driveRpm = new double[2];
+    
     /**
      * maxValueMA - Maximalwert des Sollwertes fuer
      * Motor A, Vorgabe durch die GUI
@@ -339,6 +399,21 @@ public class Model
      */
     private boolean isControlled = false;
     
+    /**
+     * boolean isAutoTune - boolsche Kennung: Autotuning (Relais-Versuch) laeuft...
+     */
+    private boolean isAutoTune = false;
+    
+    /**
+     * autoTunerMA - Relais-Versuch Motor A (nur waehrend des Autotunings)
+     */
+    private RelayAutoTuner autoTunerMA = null;
+    
+    /**
+     * autoTunerMB - Relais-Versuch Motor B (nur waehrend des Autotunings)
+     */
+    private RelayAutoTuner autoTunerMB = null;
+    
     /**
      * outputMA - Stellgroesse Motor A
      * <p>
@@ -357,24 +432,75 @@ public class Model
     
     /**
      * SIZES_DIFF_VALUES - Anzahl der Messwerte zur Feststellung der 
-     * Drehzahl Motor A/Motor B
+     * Drehzahl Motor A/Motor B beim Start (ModelConfig, sizesDiffValues)
+     */
+    public final static int SIZES_DIFF_VALUES = ModelConfig.STARTUP.getSizesDiffValues();
+    
+    /**
+     * sizesDiffValues - Anzahl der Messwerte zur Feststellung der Drehzahl
+     * dieser Instanz (Standard: SIZES_DIFF_VALUES, abweichend z.B. in der
+     * ParameterSweep-Simulation, im Betrieb aenderbar ueber ModelConfig.Watcher)
+     */
+    private int sizesDiffValues;
+    
+    /**
+     * cycleTimeValues - Array mit den sizesDiffValues (=Anzahl) Taktzeiten...
+     */
+    private BigDecimal[] cycleTimeValues;
+    
+    /**
+     * diffValuesMA - Array mit den sizesDiffValues (=Anzahl) Impulsen Motor A
+     */
+    private long[] diffValuesMA; 
+    
+    /**
+     * diffValuesMB - Array mit den sizesDiffValues (=Anzahl) Impulsen Motor B
+     */
+    private long[] diffValuesMB; 
+    
+    /**
+     * speedEstimatorMA - Drehzahlermittlung Motor A aus den Zeitstempeln der Flanken (M/T-Verfahren)
+     */
+    private final SpeedEstimator speedEstimatorMA = new SpeedEstimator(CIRCUMFERENCE);
+    
+    /**
+     * speedEstimatorMB - Drehzahlermittlung Motor B aus den Zeitstempeln der Flanken (M/T-Verfahren)
+     */
+    private final SpeedEstimator speedEstimatorMB = new SpeedEstimator(CIRCUMFERENCE);
+    
+    /**
+     * isEdgeTimed - die Regelstrecke liefert Zeitstempel der Flanken (Plant.hasEdgeTimes()),
+     * nur dann Drehzahl nach dem M/T-Verfahren (SpeedEstimator)
+     */
+    private final boolean isEdgeTimed;
+    
+    /**
+     * observerMA - Zustandsbeobachter (Lage und Drehzahl) Motor A
      */
-    public final static int SIZES_DIFF_VALUES = 20;
+    private final StateObserver observerMA = new StateObserver(CIRCUMFERENCE, OUTPUT_RELATION_VALUES[SELECTED_OUTPUT_RELATION_INDEX].doubleValue());
     
     /**
-     * cycleTimeValues - Array mit den SIZES_DIFF_VALUES (=Anzahl) Taktzeiten...
+     * observerMB - Zustandsbeobachter (Lage und Drehzahl) Motor B
      */
-    private final BigDecimal[] cycleTimeValues = new BigDecimal[SIZES_DIFF_VALUES];
+    private final StateObserver observerMB = new StateObserver(CIRCUMFERENCE, OUTPUT_RELATION_VALUES[SELECTED_OUTPUT_RELATION_INDEX].doubleValue());
     
     /**
-     * diffValuesMA - Array mit den SIZES_DIFF_VALUES (=Anzahl) Impulsen Motor A
+     * boolean isObserved - boolsche Kennung: Drehzahl und Lage der Regelung aus dem Zustandsbeobachter...
      */
-    private final long[] diffValuesMA = new long[SIZES_DIFF_VALUES]; 
+    private boolean isObserved = false;
     
     /**
-     * diffValuesMB - Array mit den SIZES_DIFF_VALUES (=Anzahl) Impulsen Motor B
+     * maxSyncError - groesster Gleichlauffehler Motor A/B (Betrag, in Impulse) seit doReset()
      */
-    private final long[] diffValuesMB = new long[SIZES_DIFF_VALUES]; 
+    private long maxSyncError = 0L;
+    
+    /**
+     * odometry - Lage (x, y, Richtung) des Fahrzeuges aus den Zuwaechsen numberMA/numberMB,
+     * Abmessungen aus der Konfiguration (wheelRadius, trackWidth)
+     */
+    private final Odometry odometry = new Odometry(CIRCUMFERENCE, 
+                                                   ModelConfig.STARTUP.getWheelRadius(), 
+                                                   ModelConfig.STARTUP.getTrackWidth());
     
     /**
      * realValueMA - Messwert Drehzahl Motor A
@@ -399,8 +525,10 @@ public class Model
      * 
      *   U = I * 1/CIRCUMFERENCE * 60/T
      *   U = (I/T) * (60/CIRCUMFERENCE) 
+     * 
+     * Aus der Konfiguration (ModelConfig, circumference).
      */
-    public final static int CIRCUMFERENCE = 6;
+    public final static int CIRCUMFERENCE = ModelConfig.STARTUP.getCircumference();
     
     /**
      * SCALE_INTERN = 6 - Genauigkeit interner Daten.
@@ -417,6 +545,73 @@ public class Model
      */
     private final PositionController positionController = new PositionController(CIRCUMFERENCE);
     
+    /**
+     * WATCHDOG_MAX_MISSES - Anzahl verpasster Fristen bis zur Abschaltung der 
+     * Motoren durch den CycleWatchdog, einstellbar ueber die Systemvariable
+     * -Dgui.watchdog.maxMisses=...
+     */
+    public final static int WATCHDOG_MAX_MISSES = Integer.getInteger("gui.watchdog.maxMisses", CycleWatchdog.DEFAULT_MAX_MISSES).intValue();
+    
+    /**
+     * watchdog - Ueberwachung des Taktes durch den Arduino (nur auf dem Raspi, 
+     * in der Simulation mit virtueller Uhr gibt es keine Fristen)...
+     */
+    private final CycleWatchdog watchdog;
+    
+    /**
+     * JITTER_SETTLING_CYCLES = 16 - Anzahl der Takte zur Mittelung der Taktzeit,
+     * erst danach wird die Abweichung (Jitter) erfasst
+     */
+    public final static int JITTER_SETTLING_CYCLES = 16;
+    
+    /**
+     * cycleMeanNanos - gleitend gemittelte Taktzeit in ns
+     */
+    private double cycleMeanNanos = 0.0;
+    
+    /**
+     * cycleSamples - Anzahl der Taktzeiten in cycleMeanNanos (bis JITTER_SETTLING_CYCLES)
+     */
+    private int cycleSamples = 0;
+    
+    /**
+     * maxCycleJitterNanos - groesste Abweichung der Taktzeit vom Mittel in ns
+     */
+    private long maxCycleJitterNanos = 0L;
+    
+    /**
+     * resync - Zustandsautomat zur Wiederherstellung der Kommunikation mit
+     * der Regelstrecke (Wiederholung im Takt, Neuaushandlung ab INITIAL)...
+     */
+    private final I2CResync resync = new I2CResync();
+    
+    /**
+     * CYCLE_MODE - Quelle des Taktes (EXTERNAL: Arduino, INTERNAL: CycleGenerator, 
+     * FAILOVER: Arduino mit CycleGenerator als Reserve), einstellbar ueber die 
+     * Systemvariable -Dgui.cycle.mode=...
+     */
+    public final static CycleGenerator.Mode CYCLE_MODE = CycleGenerator.Mode.valueOf(System.getProperty("gui.cycle.mode", CycleGenerator.Mode.EXTERNAL.name()));
+    
+    /**
+     * CYCLE_PERIOD_NANOS - Taktzeit des CycleGenerator in ns, einstellbar ueber
+     * die Systemvariable -Dgui.cycle.periodMicros=... (in us)
+     */
+    public final static long CYCLE_PERIOD_NANOS = Long.getLong("gui.cycle.periodMicros", CycleGenerator.DEFAULT_PERIOD_NANOS / 1000L).longValue() * 1000L;
+    
+    /**
+     * EXTERNAL_PERIOD_NANOS - Periode des Taktes durch den Arduino in ns (Ausgangswert
+     * des EdgeCoalescer, danach gilt die gemessene Periode), einstellbar ueber die
+     * Systemvariable -Dgui.cycle.externalPeriodMicros=... (in us), unabhaengig
+     * von gui.cycle.periodMicros (CycleGenerator)
+     */
+    public final static long EXTERNAL_PERIOD_NANOS = Long.getLong("gui.cycle.externalPeriodMicros", CycleGenerator.DEFAULT_PERIOD_NANOS / 1000L).longValue() * 1000L;
+    
+    /**
+     * cycleGenerator - Taktgeber auf dem Raspi (null bei CYCLE_MODE EXTERNAL
+     * oder vorgegebener Regelstrecke/Simulation)...
+     */
+    private final CycleGenerator cycleGenerator;
+    
     /**
      * Pull-Up/Pull-Down-Einstellung...
      * <p>
@@ -434,6 +629,153 @@ public class Model
      */
     private final static Pin GPIO_CYCLE_PIN = RaspiPin.GPIO_04;    // GPIO23 (GPIO_GEN4), Board-Nr=16
     
+    /**
+     * GPIO_CYCLE_PIN_BCM - GPIO_CYCLE_PIN in BCM-Nummerierung (fuer GpioMemPoller)
+     */
+    private final static int GPIO_CYCLE_PIN_BCM = 23;
+    
+    /**
+     * CYCLE_BACKEND_PI4J = "pi4j" - Flankenerkennung durch den Listener von pi4j (Interrupt)
+     */
+    public final static String CYCLE_BACKEND_PI4J = "pi4j";
+    
+    /**
+     * CYCLE_BACKEND_GPIOMEM = "gpiomem" - Flankenerkennung durch Abfrage des Level-Registers
+     * ueber /dev/gpiomem (GpioMemPoller, belegt einen Kern)
+     */
+    public final static String CYCLE_BACKEND_GPIOMEM = "gpiomem";
+    
+    /**
+     * CYCLE_BACKEND - Flankenerkennung am GPIO_CYCLE_PIN, einstellbar ueber die 
+     * Systemvariable -Dgui.cycle.backend=pi4j|gpiomem
+     */
+    public final static String CYCLE_BACKEND = System.getProperty("gui.cycle.backend", CYCLE_BACKEND_PI4J);
+    
+    /**
+     * gpioMemPoller - Flankenerkennung ueber /dev/gpiomem (nur mit CYCLE_BACKEND_GPIOMEM)
+     */
+    private final GpioMemPoller gpioMemPoller;
+    
+    /**
+     * encoderPoller - Abfrage der Drehgeber (nur mit ENCODER_PINS)
+     */
+    private final EncoderPoller encoderPoller;
+    
+    /**
+     * isFailSafePending - Fail-Safe des CycleWatchdog vorgemerkt, ausgefuehrt
+     * von doCycle() unter der Sperre (applyFailSafe())
+     */
+    private volatile boolean isFailSafePending = false;
+    
+    /**
+     * COMMAND_IDLE_NANOS = 250 ms - ohne Takt seit dieser Zeit fuehrt submit()
+     * die Kommandos selbst aus (z.B. ohne Taktquelle oder vor dem ersten Takt)
+     */
+    private final static long COMMAND_IDLE_NANOS = 250000000L;
+    
+    /**
+     * commands - Kommandos anderer Threads (ControlServer), ausgefuehrt an der
+     * Taktgrenze in doCycle() unter der Sperre (runCommands())
+     */
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    
+    /**
+     * lastCycleNanos - Beginn des letzten Taktes (System.nanoTime()), 0L: noch kein Takt
+     */
+    private volatile long lastCycleNanos = 0L;
+    
+    /**
+     * edgeCoalescer - Flanken des Arduino (pi4j-Listener oder GpioMemPoller) an doExternalCycle(),
+     * bei Ueberlauf des Taktes nur die neueste Flanke
+     */
+    private final EdgeCoalescer edgeCoalescer = new EdgeCoalescer(this::doExternalCycle, EXTERNAL_PERIOD_NANOS);
+    
+    /**
+     * ARCHIVE_DIR - Verzeichnis der Langzeitaufzeichnung (TelemetryArchive), 
+     * einstellbar ueber die Systemvariable -Dgui.archive.dir=..., ohne Angabe keine Aufzeichnung
+     */
+    public final static String ARCHIVE_DIR = System.getProperty("gui.archive.dir");
+    
+    /**
+     * telemetryArchive - Langzeitaufzeichnung der Takte (nur mit ARCHIVE_DIR, nicht in der Simulation)
+     */
+    private final TelemetryArchive telemetryArchive;
+    
+    /**
+     * TELEMETRY - Versand der Takte als UDP-Datagramme (TelemetrySender), einschalten 
+     * ueber die Systemvariable -Dgui.telemetry=true (Empfaenger: -Dgui.telemetry.host/port)
+     */
+    public final static boolean TELEMETRY = Boolean.getBoolean("gui.telemetry");
+    
+    /**
+     * telemetrySender - Versand der Takte (nur mit TELEMETRY, nicht in der Simulation)
+     */
+    private final TelemetrySender telemetrySender;
+    
+    /**
+     * SNAPSHOT_FILE - Datei des Abbildes der Zustandsgroessen fuer eine View in einem
+     * eigenen Prozess (StateSnapshot, z.B. /dev/shm/lego.snapshot), einstellbar ueber
+     * die Systemvariable -Dgui.snapshot.file=..., ohne Angabe kein Abbild
+     */
+    public final static String SNAPSHOT_FILE = System.getProperty("gui.snapshot.file");
+    
+    /**
+     * snapshot - Abbild der Zustandsgroessen (nur mit SNAPSHOT_FILE, nicht in der Simulation)
+     */
+    private final StateSnapshot snapshot;
+    
+    /**
+     * CHECKPOINT_FILE - Datei der Sicherung der Zustandsgroessen fuer den Warmstart
+     * (ControlCheckpoint), einstellbar ueber die Systemvariable -Dgui.checkpoint.file=...,
+     * ohne Angabe keine Sicherung
+     */
+    public final static String CHECKPOINT_FILE = System.getProperty("gui.checkpoint.file");
+    
+    /**
+     * CHECKPOINT_CYCLES - Sicherung alle CHECKPOINT_CYCLES Takte (Standard 50, also 1s),
+     * einstellbar ueber -Dgui.checkpoint.cycles=...
+     */
+    public final static int CHECKPOINT_CYCLES = Math.max(1, Integer.getInteger("gui.checkpoint.cycles", 50).intValue());
+    
+    /**
+     * RESTART - Verhalten beim Start mit vorhandener Sicherung, einstellbar ueber
+     * -Dgui.restart=ASK|WARM|COLD (Standard ASK: Auswahl durch den Bediener)
+     */
+    public final static Restart RESTART = Restart.valueOf(System.getProperty("gui.restart", Restart.ASK.name()).toUpperCase(java.util.Locale.ROOT));
+    
+    /**
+     * checkpoint - Sicherung der Zustandsgroessen (nur mit CHECKPOINT_FILE, nicht in der Simulation)
+     */
+    private final ControlCheckpoint checkpoint;
+    
+    /**
+     * resumeState - gesicherter Stand, ueber den der Bediener noch entscheidet
+     * (Warmstart: doResume(), Kaltstart: doReset() oder doStart()), sonst null
+     */
+    private volatile ControlCheckpoint.State resumeState = null;
+    
+    /**
+     * isCheckpointArmed - Sicherung aktiv, erst nach der Entscheidung Warm-/Kaltstart,
+     * damit der gesicherte Stand nicht vorher ueberschrieben wird
+     */
+    private volatile boolean isCheckpointArmed = false;
+    
+    /**
+     * configWatcher - Ueberwachung der externen Konfiguration (nur mit
+     * -Dgui.config=..., nicht in der Simulation), Uebernahme in doCycle()
+     */
+    private final ModelConfig.Watcher configWatcher;
+    
+    /**
+     * pwmFrequency - aktuelle PWM-Frequenz des MotorDriverHAT
+     */
+    private int pwmFrequency = MD_HAT_FREQUENCY;
+    
+    /**
+     * configGainSchedule - zuletzt aus der Konfiguration uebernommene Tabelle der Verstaerkungen
+     */
+    private GainSchedule configGainSchedule = ModelConfig.STARTUP.getGainSchedule();
+    
     /**
      * GPIO_CYCLE_PIN_NAME - Name des GPIO_CYCLE_PIN
      */
@@ -565,6 +907,48 @@ public class Model
      */
     public final static String ENHANCEMENT_KEY = "enhancementKey";
     
+    /**
+     * AUTO_TUNE_KEY = "autoTuneKey" - Boolscher Schalter 'Autotuning'
+     * <p>
+     * Startet den Relais-Versuch (RelayAutoTuner) fuer Motor A und Motor B, 
+     * das Ergebnis wird ueber ENHANCEMENT_KEY gesetzt.
+     * </p>
+     */
+    public final static String AUTO_TUNE_KEY = "autoTuneKey";
+    
+    /**
+     * OBSERVER_KEY = "observerKey" - Boolscher Schalter 'Mit Beobachter'
+     * <p>
+     * Drehzahl (realValueMA/realValueMB) und Lage fuer die Regelung werden
+     * aus dem Zustandsbeobachter (StateObserver) uebernommen.
+     * </p>
+     */
+    public final static String OBSERVER_KEY = "observerKey";
+    
+    /**
+     * SYNC_KEY = "syncKey" - Boolscher Schalter 'Gleichlaufregelung A/B'
+     * <p>
+     * Die Differenz der Lageabweichungen Motor A/Motor B wird im selben Takt
+     * auf beide Motoren aufgeschaltet (PositionController, Verstaerkung
+     * ueber SYNC_ENHANCEMENT_KEY).
+     * </p>
+     */
+    public final static String SYNC_KEY = "syncKey";
+    
+    /**
+     * SYNC_ENHANCEMENT_KEY = "syncEnhancementKey" - Combobox mit der Verstaerkung 
+     * der Gleichlaufregelung (Liste ENHANCEMENTS)
+     */
+    public final static String SYNC_ENHANCEMENT_KEY = "syncEnhancementKey";
+    
+    /**
+     * DIAGNOSTICS_KEY = "diagnosticsKey" - Key unter dem die Diagnostics in der dataMap abgelegt werden...
+     * <p>
+     * Diagnostics umfasst die Zaehler der Taktueberwachung (CycleWatchdog).
+     * </p>
+     */
+    public final static String DIAGNOSTICS_KEY = "diagnosticsKey";
+    
     /**
      * GUI_STATUS_KEY = "guiStatusKey" - Im GuiStatus wird abgelegt im welchem
      * "Bedienungszustand" die Gui ist.
@@ -581,12 +965,18 @@ public class Model
         DESTINATION_MA_KEY,
         DESTINATION_MB_KEY,
         OUTPUT_RELATION_KEY,
+        DRIVE_KEY,
         MAX_VALUE_MA_KEY,
         MAX_VALUE_MB_KEY,
         OUTPUT_MA_KEY,
         OUTPUT_MB_KEY,
         CONTROL_KEY,
         ENHANCEMENT_KEY,
+        AUTO_TUNE_KEY,
+        OBSERVER_KEY,
+        SYNC_KEY,
+        SYNC_ENHANCEMENT_KEY,
+        DIAGNOSTICS_KEY,
         GUI_STATUS_KEY
     };
     
@@ -602,40 +992,20 @@ public class Model
     
     /**
      * DESTINATION_VALUES - Vorgaben fuer die ComboBoxen DESTINATION_MA_KEY, DESTINATION_MB_KEY
+     * (ModelConfig, destinationValues)
      */
-    public final static BigDecimal[] DESTINATION_VALUES = new BigDecimal[]
-    {
-        BigDecimal.valueOf(120.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),
-        BigDecimal.valueOf(110.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(100.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(90.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(80.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(70.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(60.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(50.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(40.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(30.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(20.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),
-        BigDecimal.valueOf(10.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),
-        BigDecimal.valueOf(0.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),
-        BigDecimal.valueOf(-10.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),
-        BigDecimal.valueOf(-20.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),
-        BigDecimal.valueOf(-30.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(-40.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(-50.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(-60.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(-70.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(-80.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(-90.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(-100.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(-110.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),                    
-        BigDecimal.valueOf(-120.0).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP)        
-    };
+    public final static BigDecimal[] DESTINATION_VALUES = ModelConfig.STARTUP.getDestinationValues();
     
     /**
-     * Index zur Auswahl der Sollwert-Selektion...
+     * Index zur Auswahl der Sollwert-Selektion (Sollwert 0)...
      */
-    public final static int SELECTED_DESTINATION_INDEX = 12;
+    public final static int SELECTED_DESTINATION_INDEX = ModelConfig.STARTUP.getDestinationIndex();
+    
+    /**
+     * MAX_DESTINATION - groesster Betrag der DESTINATION_VALUES, Begrenzung der Raddrehzahl
+     * bei der Fahrvorgabe (DRIVE_KEY)
+     */
+    public final static double MAX_DESTINATION = maxAbs(DESTINATION_VALUES);
    
     /**
      * 
@@ -643,32 +1013,15 @@ public class Model
     public final static int SCALE_OUTPUT_RELATION = 2;
     
     /**
-     * 
+     * OUTPUT_RELATION_VALUES - Vorgaben fuer die ComboBox der Uebersetzung
+     * (ModelConfig, outputRelationValues)
      */
-    public final static BigDecimal[] OUTPUT_RELATION_VALUES = new BigDecimal[]
-    {
-        BigDecimal.valueOf(200.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(190.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(180.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(170.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(160.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(150.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(140.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(130.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(120.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(110.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(100.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(90.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(80.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(70.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(60.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN ),
-        BigDecimal.valueOf(50.00).setScale(SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN )
-    };
+    public final static BigDecimal[] OUTPUT_RELATION_VALUES = ModelConfig.STARTUP.getOutputRelationValues();
      
     /**
-     * 
+     * SELECTED_OUTPUT_RELATION_INDEX - Vorbelegung der Uebersetzung (ModelConfig, outputRelationIndex)
      */
-    public final static int SELECTED_OUTPUT_RELATION_INDEX = 9;
+    public final static int SELECTED_OUTPUT_RELATION_INDEX = ModelConfig.STARTUP.getOutputRelationIndex();
     
     /**
      * SCALE_MX_MAX_VALUE = 2 - Genauigkeit der Limit-Vorgabe Mx_Max_Value (2 Nachkommastellen)
@@ -747,433 +1100,1310 @@ public class Model
     private final PropertyChangeSupport support = new PropertyChangeSupport(this);
     
     /**
-     * Default-Konstruktor 
+     * Default-Konstruktor
+     * <p>
+     * Die Regelstrecke (ArduinoPlant) wird auf dem Raspi ueber den I2C-Bus
+     * instanziiert, getaktet wird ueber den GPIO_CYCLE_PIN...
+     * </p>
      */
     public Model()
     {
+        this(null);
+    }
+
+    /**
+     * Model(Plant plant) - Konstruktor mit vorgegebener Regelstrecke
+     * <p>
+     * Mit plant != null (z.B. SimulatedPlant) erfolgt kein Zugriff auf die
+     * Raspi-Hardware, die Taktung erfolgt dann durch den Aufrufer ueber
+     * doCycle(Instant now), vgl. Simulation.
+     * </p>
+     * @param plant - Regelstrecke oder null (Regelstrecke auf dem Raspi)
+     */
+    Model(Plant plant)
+    {
+        this(plant, SIZES_DIFF_VALUES);
+    }
+    
+    /**
+     * Model(Plant plant, int sizesDiffValues) - Konstruktor mit vorgegebener
+     * Regelstrecke und Anzahl der Messwerte zur Feststellung der Drehzahl...
+     * @param plant - Regelstrecke oder null (Regelstrecke auf dem Raspi)
+     * @param sizesDiffValues - Anzahl der Messwerte (mind. 1)
+     */
+    Model(Plant plant, int sizesDiffValues)
+    {
+        this.sizesDiffValues = (sizesDiffValues > 1)? sizesDiffValues : 1;
+        this.positionController.setGainSchedule(this.configGainSchedule);
+        this.cycleTimeValues = new BigDecimal[this.sizesDiffValues];
+        this.diffValuesMA = new long[this.sizesDiffValues];
+        this.diffValuesMB = new long[this.sizesDiffValues];
+        
         // Zuallererst: Wo erfolgt der Lauf, auf einem Raspi?
         final String os_name = System.getProperty("os.name").toLowerCase();
         final String os_arch = System.getProperty("os.arch").toLowerCase();
         logger.debug("Betriebssytem: " + os_name + " " + os_arch);
-        // Kennung isRaspi setzen...
-        this.isRaspi = OS_NAME_RASPI.equals(os_name) && OS_ARCH_RASPI.equals(os_arch);
-        
+        // Kennung isRaspi setzen (bei vorgegebener Regelstrecke kein Zugriff auf die Hardware)...
+        this.isRaspi = (plant == null) && OS_NAME_RASPI.equals(os_name) && OS_ARCH_RASPI.equals(os_arch);
+
         // ...den gpioController anlegen...
         this.gpioController = isRaspi? GpioFactory.getInstance() : null;
-        
+
         // *** Befuellen der dataMap... ***
-        // Die dataMap muss mit allen Key-Eintraegen befuellt werden, sonst 
+        // Die dataMap muss mit allen Key-Eintraegen befuellt werden, sonst
         // ist setProperty(String key, Object newValue) unwirksam!
         for (String key: Model.DATA_KEYS)
         {
             this.dataMap.put(key, null);
         }
-        
-        {
-            ArduinoI2C arduinoLoc = null;
-            MotorDriverHAT motorDriverHATLoc = null;
-            try
-            {
-                // i2cBus wird nicht in Instanzvariable abgelegt, da ueber I2CFactory erreichbar!
-                final I2CBus i2cBus = isRaspi? I2CFactory.getInstance(I2CBus.BUS_1) : null;
-                // Verbindung zum Arduino instanziieren...
-                arduinoLoc = isRaspi? (new ArduinoI2C((i2cBus != null)? i2cBus.getDevice(ARDUINO_ADDRESS) : null)) 
-                                     : null;
-                
-                // MotorDriverHAT instanziieren (auf der Adresse und mit der Frequenz)...
-                motorDriverHATLoc = isRaspi? (new MotorDriverHAT(((i2cBus != null)? i2cBus.getDevice(MD_HAT_ADDRESS) : null),
-                                                                 MD_HAT_FREQUENCY))
-                                            : null;
-            }
-            catch (UnsupportedBusNumberException | IOException exception)
-            {
-                logger.error(exception.toString(), exception);
-                System.err.println(exception.toString());
-                System.exit(0);
-            }
-            this.arduinoI2C = arduinoLoc;
-            // Status der Kommunikation auf NOP und token auf 0L...
-            this.i2cStatus = ArduinoI2C.Status.NOP;
-            this.token = 0L;
-            
-            this.motorDriverHAT = motorDriverHATLoc;
-        }
-        
+
         {
-            //////////////////////////////////////////////////////////////////////////
-            // Input-Pins einstellen (plus Eventhandling)...
+            Plant plantLoc = plant;
+            EncoderPoller encoderPollerLoc = null;
             if (isRaspi)
             {
-                // *** Zugriff auf die Input-Pin nur wenn Lauf auf dem Raspi... ***
-                GpioPinDigitalInput gpioInputPin = this.gpioController.provisionDigitalInputPin(Model.GPIO_CYCLE_PIN, 
-                                                                                                Model.GPIO_CYCLE_PIN_NAME, 
-                                                                                                Model.PIN_PULL_RESISTANCE);
-                // Event-Handler (Listener) instanziieren...
-                gpioInputPin.addListener(new GpioPinListenerDigital() 
+                try
                 {
-                    /**
-                     * Event-Verarbeitung angestossen durch den  ArduinoI2C-Uno...
-                     * <p>
-                     * Der Handler wird in einem festen Takt durch den Arduino beauftragt.
-                     * Innerhalb des Handlers ist die Kommunikation mit dem Arduino und die
-                     * Berechnung der Regelalgorithmen vorzunehmen.
-                     * </p>
-                     */
-                    @Override
-                    public void handleGpioPinDigitalStateChangeEvent(GpioPinDigitalStateChangeEvent event)
+                    // i2cBus wird nicht in Instanzvariable abgelegt, da ueber I2CFactory erreichbar!
+                    final I2CBus i2cBus = I2CFactory.getInstance(I2CBus.BUS_1);
+                    // Verbindung zum Arduino instanziieren...
+                    final ArduinoI2C arduinoLoc = new ArduinoI2C(i2cBus.getDevice(ARDUINO_ADDRESS));
+
+                    // MotorDriverHAT instanziieren (auf der Adresse und mit der Frequenz)...
+                    // (ueber das I2CDevice, damit die Frequenz im Betrieb geaendert werden kann)...
+                    plantLoc = new ArduinoPlant(arduinoLoc, i2cBus.getDevice(MD_HAT_ADDRESS), MD_HAT_FREQUENCY);
+                    if (!I2C_MODULES.isEmpty() || !MOTOR_AXES.isEmpty())
                     {
-                        final GpioPin gpioPin = event.getPin();
-                        final String pinName = gpioPin.getName();
-                        final PinEdge pinEdge = event.getEdge();
-                        // Reaktion erfolgt an der steigenden Flanke...
-                        if (PinEdge.RISING == pinEdge)
+                        final java.util.List<MultiModulePlant.Module> modules = new java.util.ArrayList<>();
+                        modules.add(new MultiModulePlant.Module(ARDUINO_ADDRESS, MD_HAT_ADDRESS, plantLoc));
+                        for (String module: (I2C_MODULES.isEmpty()? new String[0] : I2C_MODULES.split(",")))
                         {
-                            //////////////////////////////////////////////////////////////////////////
-                            // Die Taktung durch den ArduinoI2C hat einen Referenzpunkt 
-                            // erreicht.
-                            // Variable now dient zur zeitlichen Einordnung des Ereignisses...
-                            // Jetzt werden die Kenngroesse der Taktung ermittelt:
-                            // - now: der jetzige Zeitpunkt, 
-                            // -      die Zeitdauer ergibt sich dann
-                            //        durch Differenzbildung zu Model.this.past...
-                            // now wird im weiteren Verlauf im Zustand Model.this.past 
-                            // abgelegt. 
-                            final Instant now = Instant.now();
-                            
-                            // Model.this.past: Zeitpunkt der letzten Taktung...
-                            if (Model.this.past == null)
-                            {
-                                // Erste Beauftragung: Model.this.past = null...
-                                Model.this.past = now;
-                            }
-                            // Model.this.cycleTime: Taktzeit aus der Differenz now - past.
-                            // Ablage der aktuell gemessenen Taktzeit in der Zustandsgroesse cycleTime...
-                            Model.this.cycleTime = toBigDecimalSeconds(Duration.between(Model.this.past, now), 
-                                                                       Model.SCALE_INTERN); 
-                            
-                            // ...und Ablage des aktuelle Zeitpunktes...
-                            Model.this.past = now;
-                            //////////////////////////////////////////////////////////////////////////
-                            
-                            final Object statusObject = Model.this.dataMap.get(Model.GUI_STATUS_KEY);
-                            final Model.GuiStatus guiStatus = (statusObject instanceof Model.GuiStatus)? (Model.GuiStatus) statusObject 
-                                                                                                        : null;
-                            final boolean isStarted = (guiStatus != null) && (guiStatus == GuiStatus.START); 
-                            
-                            //////////////////////////////////////////////////////////////////////////
-                            // Berechnung des Zuwachses an Lage Motor A und Motor B:
-                            //
-                            final BigDecimal rpm_const_cycleTime = Model.RPM_CONST.multiply(Model.this.cycleTime);
-
-                            // deltaA - Zuwachs Motor A (nur wenn Status START ist, sonst Zuwachs gleich ZERO)...
-                            final BigDecimal deltaA = isStarted? Model.this.destinationMA.multiply(rpm_const_cycleTime) 
-                                                               : BigDecimal.ZERO.setScale(SCALE_INTERN);
-                            Model.this.valueDestinationMA = Model.this.valueDestinationMA.add(deltaA);
-                            Model.this.numberDestinationMA =  Model.this.valueDestinationMA.longValue();
-                            
-                            // deltaB - Zuwachs Motor B (nur wenn Status START ist, sonst Zuwachs gleich ZERO)...
-                            final BigDecimal deltaB = isStarted? Model.this.destinationMB.multiply(rpm_const_cycleTime)
-                                                               : BigDecimal.ZERO.setScale(SCALE_INTERN);
-                            Model.this.valueDestinationMB = Model.this.valueDestinationMB.add(deltaB); 
-                            Model.this.numberDestinationMB = Model.this.valueDestinationMB.longValue();
-                            
-                            if (Model.this.dataMap.containsKey(Model.DATA_KEY))
+                            final String[] addresses = module.trim().split("/");
+                            if (addresses.length != 2)
                             {
-                                // Die Beauftragung durch Inkrementierung des Zaehlers 
-                                // Model.this.counter 'dokumentieren'...
-                                // Die dataMap haelt die Daten zur Anzeige in der View, hier DATA_KEY => Data(),
-                                // und Data() beinhaltet den aktuellen counter (und weiteres...)
-                                
-                                // Model.this.counter inkrementieren oder zu 1L setzen...
-                                Model.this.counter = ((Model.this.counter + 1L) > 0L)? (Model.this.counter + 1L) : 1L;  
-                                
-                                final Data data = new Data(Model.this.counter, 
-                                                           Model.this.cycleTime,
-                                                           Model.this.token,
-                                                           Model.this.numberDestinationMA,
-                                                           Model.this.numberDestinationMB,
-                                                           Model.this.numberMA,
-                                                           Model.this.numberMB,
-                                                           Model.this.outputMA,
-                                                           Model.this.outputMB,
-                                                           Model.this.realValueMA,
-                                                           Model.this.realValueMB); 
-                                setProperty(Model.DATA_KEY, data);
+                                throw new IllegalArgumentException("gui.i2c.modules: invalid module " + module);
                             }
-                            else
+                            final int arduinoAddress = Integer.decode(addresses[0].trim()).intValue();
+                            final int hatAddress = Integer.decode(addresses[1].trim()).intValue();
+                            modules.add(new MultiModulePlant.Module(arduinoAddress,
+                                                                    hatAddress,
+                                                                    new ArduinoPlant(new ArduinoI2C(i2cBus.getDevice(arduinoAddress)),
+                                                                                     i2cBus.getDevice(hatAddress),
+                                                                                     MD_HAT_FREQUENCY)));
+                        }
+                        MotorFanOut fanOut = null;
+                        if (!MOTOR_AXES.isEmpty())
+                        {
+                            final java.util.List<MotorFanOut.Axis> axes = new java.util.ArrayList<>();
+                            for (String axis: MOTOR_AXES.split(","))
                             {
-                                
+                                axes.add(MotorFanOut.Axis.parse(axis));
                             }
-                            label:
-                            {
-                                //////////////////////////////////////////////////////////////////////////////
-                                // Es folgt die Beauftragung der Kommunikation mit dem Arduino...
-                                // 1.) Wenn statusI2C == NOP, dann keine Beauftragung...
-                                //
-                                if (ArduinoI2C.Status.NOP == Model.this.i2cStatus)
-                                {
-                                    break label;
-                                }
-                                if (ArduinoI2C.Status.INITIAL == Model.this.i2cStatus)
-                                {
-                                    // INITIAL wurde durch den Start-Button gesetzt.
-                                    // 1.) Als token 0L einstellen...
-                                    Model.this.token = 0L;
-                                    // 2.) Kommunikation beginnen...
-                                }
-                                try
-                                {
-                                    //////////////////////////////////////////////////////////////////////////
-                                    // tokenToArduino: Lokale Variable, die vier unteren Bytes 
-                                    //                 der long-Instanzvariable this.token...
-                                    final long tokenToArduino = (Model.this.token & 0xffffffff);
-                                    Model.this.arduinoI2C.write(tokenToArduino, Model.this.i2cStatus);
-                                    logger.debug("i2c-Bus: " + tokenToArduino + " gesendet...");
-                                    
-                                    ArduinoI2C.DataRequest request = Model.this.arduinoI2C.read();
-                                    logger.debug("i2c-Bus: " + request.toString() + " gelesen...");
-                                    final long tokenFromArduino = request.getToken();
-                                    final ArduinoI2C.Status statusFromArduino = request.getStatus();
-                                    // valueFromArduino beinhaltet die 4 Byte-Variante der Daten vom Arduino...
-                                    final int valueFromArduino = request.getValue();
-                                    // numberMAFromArduino: Anzahl Impulse Motor A...
-                                    final int numberMAFromArduino = request.getNumberMA();
-                                    // numberMBFromArduino: Anzahl Impulse Motor B...
-                                    final int numberMBFromArduino = request.getNumberMB();
-                                    // Der Arduino wird den token inkrementieren und als
-                                    // neuen Token zurueckschicken. Wenn die Differenz
-                                    // gleich 1L ist, kann man davon ausgehen, dass auf
-                                    // dem Arduino alles korrekt laeuft...
-                                    if ((tokenFromArduino - tokenToArduino == 1L) 
-                                     && (ArduinoI2C.Status.SUCCESS == statusFromArduino))
-                                    {
-                                        Model.this.i2cStatus = ArduinoI2C.Status.SUCCESS;
-                                        Model.this.token = (tokenFromArduino & 0xffffffff);
-                                        
-                                        // "Umschiften..."
-                                        Model.this.totalMA[0] = Model.this.totalMA[1];
-                                        Model.this.totalMA[1] = numberMAFromArduino;
-                                        Model.this.controlMA[0] = Model.this.controlMA[1];
-                                        // diffMA => Zuwachs Motor A:
-                                        final long diffMA = Model.this.totalMA[1] - Model.this.totalMA[0];
-                                                
-                                        Model.this.totalMB[0] = Model.this.totalMB[1];
-                                        Model.this.totalMB[1] = numberMBFromArduino;
-                                        Model.this.controlMB[0] = Model.this.controlMB[1];
-                                        // diffMB => Zuwachs Motor B:
-                                        final long diffMB = Model.this.totalMB[1] - Model.this.totalMB[0];
-                                        
-                                        final int signumMA = Model.this.controlMA[0].signum();
-                                        final int signumMB = Model.this.controlMB[0].signum();
-                                        
-                                        // numberMA/numberMB - absolute Lage der Motoren in Impulse:
-                                        Model.this.numberMA += signumMA * diffMA;
-                                        Model.this.numberMB += signumMB * diffMB;
-                                        
-                                        //////////////////////////////////////////////////////////////////
-                                        // Berechnung der gemittelten Drehzahlen Motor A und Motor B
-                                        // und Ablage der Werte in realValueMA und realValueMB...
-                                        calculateRealValues(Model.this.cycleTime, diffMA, diffMB);
-                                        //////////////////////////////////////////////////////////////////
-                                        
-                                        final String msg = new StringBuilder().append("Sollwerte: ")
-                                                                              .append(Model.this.numberDestinationMA)
-                                                                              .append(" ")
-                                                                              .append(Model.this.numberDestinationMB)
-                                                                              .append(", Istwerte: ")
-                                                                              .append(Model.this.numberMA)
-                                                                              .append(" ")
-                                                                              .append(Model.this.numberMB)
-                                                                              .append(", Limitierungen: ")
-                                                                              .append(Model.this.maxValueMA)
-                                                                              .append(" ")
-                                                                              .append(Model.this.maxValueMB)
-                                                                              .toString();
-                                        
-                                        logger.debug(msg);
-                                        
-                                        //
-                                        // Stellgroessen ohne Reglereingriff:
-                                        // - destinationOutputMA (BigDecimal)
-                                        // - destinationOutputMB (BigDecimal)
-                                        // Sollwerte der Lage
-                                        // - numberDestinationMA (long)
-                                        // - numberDestinationMB (long)
-                                        // Istwerte der Lage
-                                        // - numberMA (long)
-                                        // - numberMB (long)
-                                        
-                                        final PositionController.Output output = Model.this.getPositionController().doControl(Model.this.numberDestinationMA, Model.this.numberMA,
-                                                                                                                              Model.this.numberDestinationMB, Model.this.numberMB,
-                                                                                                                              Model.this.destinationOutputMA, 
-                                                                                                                              Model.this.destinationOutputMB,
-                                                                                                                              Model.this.maxValueMA, 
-                                                                                                                              Model.this.maxValueMB);
-                                        
-                                        logger.debug("doControl(): " + output.toString());
-                                        
-                                        Model.this.outputMA = Model.this.isControlled? output.getOutputMA() : Model.this.destinationOutputMA.setScale(SCALE_OUTPUT, BigDecimal.ROUND_FLOOR);
-                                        Model.this.outputMB = Model.this.isControlled? output.getOutputMB() : Model.this.destinationOutputMB.setScale(SCALE_OUTPUT, BigDecimal.ROUND_FLOOR);
-                                        
-                                        // outputMA und outputMB merken...
-                                        Model.this.controlMA[1] = Model.this.outputMA;
-                                        Model.this.controlMB[1] = Model.this.outputMB;
-                                        
-                                        //
-                                        final float speedMA = ((Model.this.outputMA != null)? Model.this.outputMA.floatValue() : 0.0F);
-                                        final float speedMB = ((Model.this.outputMB != null)? Model.this.outputMB.floatValue() : 0.0F);
-                                        
-                                        Model.this.motorDriverHAT.setPwmMA(speedMA);
-                                        Model.this.motorDriverHAT.setPwmMB(speedMB);
-                                        
-                                    }
-                                    else
-                                    {
-                                        Model.this.i2cStatus = ArduinoI2C.Status.ERROR;
-                                        
-                                        Model.this.motorDriverHAT.setPwmMA(0.0F);
-                                        Model.this.motorDriverHAT.setPwmMB(0.0F);
-                                    }
-                                } 
-                                catch (IOException exception)
-                                {
-                                    logger.error(exception.toString(), exception);
-                                    System.err.println(exception.toString());
-                                }
-                            }
-                            //
-                            //////////////////////////////////////////////////////////////////////////
-                            
-                            {
-                                //////////////////////////////////////////////////////////////////////////////////////////////////
-                                // Testausgabe: Dauer der Bearbeitung von handleGpioPinDigitalStateChangeEvent() von 0.001 ... 0.006s
-                                // final BigDecimal duration = toBigDecimalSeconds(Duration.between(Model.this.past, Instant.now()), 
-                                //                                                 Model.SCALE_CYCLE_TIME); 
-                                // Evtl. Log-Ausgabe...
-                                // logger.debug("Dauer handleGpioPinDigitalStateChangeEvent() in s: " + duration);
-                                //////////////////////////////////////////////////////////////////////////////////////////////////
-                            }
-                        } // end() - (PinEdge.RISING == pinEdge).
+                            fanOut = new MotorFanOut(MotorFanOut.toBus(i2cBus, axes), axes);
+                        }
+                        plantLoc = new MultiModulePlant(new I2CBusScheduler(), modules, CYCLE_PERIOD_NANOS, fanOut);
+                        if (fanOut != null)
+                        {
+                            fanOut.setPwmFrequency(MD_HAT_FREQUENCY);
+                        }
                     }
-                    
-                    /**
-                     * toBigDecimalSeconds(Duration duration) - liefert die Anzahl der Sekunden
-                     * <p>
-                     * Vgl. toBigDecimalSeconds() aus Duration in Java 11.
-                     * </p<
-                     * @param duration
-                     * @return
-                     */
-                    private BigDecimal toBigDecimalSeconds(Duration duration, int scale)
+                    if (!ENCODER_PINS.isEmpty())
                     {
-                        Objects.requireNonNull(duration, "duration must not be null!");
-                        final BigDecimal result = BigDecimal.valueOf(duration.getSeconds()).add(BigDecimal.valueOf(duration.getNano(), 9)).setScale(scale,  BigDecimal.ROUND_HALF_UP);
-                        return (result.compareTo(BigDecimal.ONE.movePointLeft(scale)) < 0)? BigDecimal.ZERO : result;   
+                        // Zaehlung am Raspi, der Arduino bleibt Taktgeber, exchange() ohne Buszugriff...
+                        final String[] pins = ENCODER_PINS.split(",");
+                        if (pins.length != 4)
+                        {
+                            throw new IllegalArgumentException("gui.encoder.pins: A1,B1,A2,B2 expected, found " + ENCODER_PINS);
+                        }
+                        final QuadratureCounter counterA = new QuadratureCounter(Integer.parseInt(pins[0].trim()), Integer.parseInt(pins[1].trim()));
+                        final QuadratureCounter counterB = new QuadratureCounter(Integer.parseInt(pins[2].trim()), Integer.parseInt(pins[3].trim()));
+                        encoderPollerLoc = new EncoderPoller(EncoderPoller.gpioMem(Paths.get(GpioRegisters.GPIOMEM_PATH)),
+                                                             java.util.Arrays.asList(counterA, counterB));
+                        plantLoc = new GpioEncoderPlant(plantLoc, counterA, counterB, ENCODER_COUNTS_PER_PULSE);
                     }
-                    
-                    
-                    /**
-                     * calculateRealValues(BigDecimal cycleTime, long diffValueMA, long diffValueMB) - Ermittlung
-                     * der gemittelten Drehzahlen (in 1/min) Motor A und Motor B...
-                     */
-                    private void calculateRealValues(BigDecimal cycleTime, long diffValueMA, long diffValueMB)
+                }
+                catch (UnsupportedBusNumberException | IOException | IllegalArgumentException exception)
+                {
+                    logger.error(exception.toString(), exception);
+                    System.err.println(exception.toString());
+                    System.exit(0);
+                }
+            }
+            this.plant = plantLoc;
+            this.encoderPoller = encoderPollerLoc;
+            // M/T-Verfahren nur mit Zeitstempeln der Flanken (nicht mit ArduinoPlant)...
+            this.isEdgeTimed = (this.plant != null) && this.plant.hasEdgeTimes();
+            if ((this.plant != null) && !this.isEdgeTimed)
+            {
+                logger.warn("Regelstrecke " + this.plant + " liefert keine Zeitstempel der Flanken: "
+                          + "Drehzahl nur aus der Impulszaehlung (SpeedEstimator/M/T-Verfahren aus).");
+            }
+            // Taktueberwachung: Thread laeuft, scharf geschaltet wird mit doStart()...
+            this.watchdog = isRaspi? new CycleWatchdog(this::doFailSafe, WATCHDOG_MAX_MISSES, CycleWatchdog.DEFAULT_TOLERANCE) : null;
+            if (this.watchdog != null)
+            {
+                this.watchdog.start();
+            }
+            // Status der Kommunikation auf NOP und token auf 0L...
+            this.i2cStatus = ArduinoI2C.Status.NOP;
+            this.token = 0L;
+        }
+
+        {
+            //////////////////////////////////////////////////////////////////////////
+            // Input-Pins einstellen (plus Eventhandling)...
+            if (isRaspi)
+            {
+                // *** Zugriff auf die Input-Pin nur wenn Lauf auf dem Raspi... ***
+                GpioPinDigitalInput gpioInputPin = this.gpioController.provisionDigitalInputPin(Model.GPIO_CYCLE_PIN,
+                                                                                                Model.GPIO_CYCLE_PIN_NAME,
+                                                                                                Model.PIN_PULL_RESISTANCE);
+                if (CYCLE_BACKEND_GPIOMEM.equals(CYCLE_BACKEND))
+                {
+                    // Flankenerkennung durch Abfrage des Level-Registers (/dev/gpiomem)...
+                    GpioMemPoller gpioMemPollerLoc = null;
+                    try
+                    {
+                        gpioMemPollerLoc = new GpioMemPoller(Paths.get(GpioRegisters.GPIOMEM_PATH),
+                                                             Model.GPIO_CYCLE_PIN_BCM,
+                                                             this.edgeCoalescer::onEdge);
+                    }
+                    catch (IOException exception)
+                    {
+                        logger.error(exception.toString(), exception);
+                        System.err.println(exception.toString());
+                        System.exit(0);
+                    }
+                    this.gpioMemPoller = gpioMemPollerLoc;
+                }
+                else
+                {
+                    this.gpioMemPoller = null;
+                    // Event-Handler (Listener) instanziieren...
+                    gpioInputPin.addListener(new GpioPinListenerDigital()
                     {
-                        // folgende Partialsummen...
-                        BigDecimal summCycleTime = cycleTime.setScale(SCALE_INTERN, BigDecimal.ROUND_HALF_UP);
-                        long summValuesMA = diffValueMA;
-                        long summValuesMB = diffValueMB;
-                        
-                        // Einsortieren an Position index = 0, 
-                        // Verschieben von index nach index+1
-                        // Verwerfen von index = Model.SIZES_DIFF_VALUES
-                        
-                        int index = Model.SIZES_DIFF_VALUES-1;
-                        while (index > 0)
+                        /**
+                         * Event-Verarbeitung angestossen durch den  ArduinoI2C-Uno...
+                         * <p>
+                         * Der Handler wird in einem festen Takt durch den Arduino beauftragt.
+                         * Die Kommunikation mit dem Arduino und die Berechnung der
+                         * Regelalgorithmen erfolgt in doCycle(Instant now).
+                         * </p>
+                         */
+                        @Override
+                        public void handleGpioPinDigitalStateChangeEvent(GpioPinDigitalStateChangeEvent event)
                         {
-                            Model.this.cycleTimeValues[index] = Model.this.cycleTimeValues[index-1];
-                            summCycleTime = summCycleTime.add((Model.this.cycleTimeValues[index] != null)? Model.this.cycleTimeValues[index]
-                                                                                                         : BigDecimal.ZERO);
-                            
-                            Model.this.diffValuesMA[index] = Model.this.diffValuesMA[index-1];
-                            summValuesMA += Model.this.diffValuesMA[index];
-                            
-                            Model.this.diffValuesMB[index] = Model.this.diffValuesMB[index-1];
-                            summValuesMB += Model.this.diffValuesMB[index];
-                            
-                            index--;
+                            final PinEdge pinEdge = event.getEdge();
+                            // Reaktion erfolgt an der steigenden Flanke...
+                            if (PinEdge.RISING == pinEdge)
+                            {
+                                // Die Taktung durch den ArduinoI2C hat einen Referenzpunkt
+                                // erreicht, now dient zur zeitlichen Einordnung des Ereignisses.
+                                // Bei Rueckstau nur die neueste Flanke (EdgeCoalescer)...
+                                Model.this.edgeCoalescer.onEdge(Instant.now());
+                            }
                         }
-                        // Jeweils Element (index = 0) in das Array setzen und addieren...
-                        Model.this.cycleTimeValues[0] = cycleTime.setScale(SCALE_INTERN, BigDecimal.ROUND_HALF_UP);
-                        summCycleTime = summCycleTime.add(Model.this.cycleTimeValues[0]);
-                        
-                        Model.this.diffValuesMA[0] = diffValueMA;
-                        summValuesMA += Model.this.diffValuesMA[0];
-                        
-                        Model.this.diffValuesMB[0] = diffValueMB;
-                        summValuesMB += Model.this.diffValuesMB[0];
-                        
-                        // Jetzt ist bestimmt worden:
-                        // 1.) Zeitdauer: summCycleTime
-                        // 2.) Impulssumme A: summValuesMA
-                        // 3.) Impulssumme B: summValuesMB
-                        
-                        // Berechnung:
-                        // realValue = (Anzahl Impulse) *  (60/Impulse pro Umdrehung) / Zeitdauer
-                        // mit: RPM_CONST = BigDecimal.valueOf(CIRCUMFERENCE).divide(BigDecimal.valueOf(60L), SCALE_INTERN, BigDecimal.ROUND_DOWN);
-                        // folgt:
-                        // realValue = {Anzahl Impulse} / {Zeitdauer * RPM_CONST}
-                        
-                        final BigDecimal divisor = summCycleTime.multiply(Model.RPM_CONST);
-                        
-                        Model.this.realValueMA = BigDecimal.valueOf(summValuesMA).divide(divisor, SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
-                        Model.this.realValueMB = BigDecimal.valueOf(summValuesMB).divide(divisor, SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
-                    }
-                });
+                    });
+                }
                 this.gpioPinDigitalInputCyclePin = gpioInputPin;
                 // Ablage eines "leeren (Default-)" Data-Objektes in der dataMap...
                 // Dem Key Model.DATA_KEY wird beispielsweise das Value Long.valueOf(0L) zugeordnet.
                 setProperty(Model.DATA_KEY, new Data());
-                logger.debug(Model.DATA_KEY + " in dataMap gesetzt.");                
+                logger.debug(Model.DATA_KEY + " in dataMap gesetzt.");
+            }
+            else
+            {
+                this.gpioMemPoller = null;
+                this.gpioPinDigitalInputCyclePin = null;
+                setProperty(Model.DATA_KEY, new Data());
+                logger.debug(Model.DATA_KEY + " in dataMap mit value=null aufgenommen.");
+            }
+            //////////////////////////////////////////////////////////////////////////
+        }
+
+        //////////////////////////////////////////////////////////////////////////
+        // Output-pins beruecksichtigen...
+        // Wenn Output, dann wird jeder Pin entsprechend konfiguriert
+        // und ein Boolsche Wert (als Datenhaltung) zugeordnet...
+        for (Pin pin: Model.GPIO_PINS)
+        {
+            final String key = pin.getName();
+            this.dataMap.put(key, Boolean.FALSE);
+            logger.debug(key + " in dataMap aufgenommen.");
+            if (isRaspi)
+            {
+                // Zugriff auf die Pin nur wenn Lauf auf dem Raspi...
+                GpioPinDigitalOutput gpioPin = this.gpioController.provisionDigitalOutputPin(pin, key, PinState.LOW);
+                gpioPin.setShutdownOptions(true, PinState.LOW, PinPullResistance.OFF);
+                this.gpioPinOutputMap.put(key, gpioPin);
+            }
+            else
+            {
+                // Der Lauf erfolgt nicht auf dem Raspi...
+                this.gpioPinOutputMap.put(key, null);
+            }
+        }
+        //////////////////////////////////////////////////////////////////////////
+
+        // Einige Daten initial setzen...
+        setProperty(DESTINATION_SIMULTAN_KEY, Boolean.FALSE);
+        setProperty(CONTROL_KEY, Boolean.FALSE);
+        setProperty(AUTO_TUNE_KEY, Boolean.FALSE);
+        setProperty(OBSERVER_KEY, Boolean.FALSE);
+        setProperty(SYNC_KEY, Boolean.FALSE);
+        setProperty(DIAGNOSTICS_KEY, new Diagnostics());
+        setProperty(GUI_STATUS_KEY, GuiStatus.INIT);
+        
+        // Langzeitaufzeichnung als Listener (DATA_KEY)...
+        TelemetryArchive telemetryArchive = null;
+        if ((plant == null) && (ARCHIVE_DIR != null))
+        {
+            try
+            {
+                telemetryArchive = new TelemetryArchive(new java.io.File(ARCHIVE_DIR));
+                addPropertyChangeListener(telemetryArchive);
+                telemetryArchive.start();
+                logger.info("TelemetryArchive gestartet: " + telemetryArchive.toString());
+            }
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+                telemetryArchive = null;
+            }
+        }
+        this.telemetryArchive = telemetryArchive;
+        
+        // Versand der Takte als Listener (DATA_KEY)...
+        TelemetrySender telemetrySender = null;
+        if ((plant == null) && TELEMETRY)
+        {
+            try
+            {
+                telemetrySender = new TelemetrySender();
+                addPropertyChangeListener(telemetrySender);
+                logger.info("TelemetrySender gestartet: " + telemetrySender.toString());
+            }
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+                telemetrySender = null;
+            }
+        }
+        this.telemetrySender = telemetrySender;
+        
+        // Abbild fuer eine View in einem eigenen Prozess als Listener (DATA_KEY, ...)...
+        StateSnapshot snapshot = null;
+        if ((plant == null) && (SNAPSHOT_FILE != null))
+        {
+            try
+            {
+                snapshot = new StateSnapshot(new java.io.File(SNAPSHOT_FILE), true);
+                for (String key: StateSnapshot.KEYS)
+                {
+                    snapshot.put(key, getProperty(key));
+                }
+                addPropertyChangeListener(snapshot);
+                logger.info("StateSnapshot gestartet: " + snapshot.toString());
+            }
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+                snapshot = null;
+            }
+        }
+        this.snapshot = snapshot;
+        
+        // Sicherung der Zustandsgroessen fuer den Warmstart (nicht in der Simulation)...
+        ControlCheckpoint checkpoint = null;
+        if ((plant == null) && (CHECKPOINT_FILE != null))
+        {
+            try
+            {
+                checkpoint = new ControlCheckpoint(new java.io.File(CHECKPOINT_FILE));
+                this.resumeState = checkpoint.read();
+                logger.info("ControlCheckpoint: " + checkpoint.toString() + " Stand: " + this.resumeState);
+            }
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+                checkpoint = null;
+            }
+        }
+        this.checkpoint = checkpoint;
+        if (this.checkpoint != null)
+        {
+            if ((this.resumeState != null) && (RESTART == Restart.WARM))
+            {
+                doResume();
+            }
+            else if ((this.resumeState == null) || (RESTART == Restart.COLD))
+            {
+                this.resumeState = null;
+                this.isCheckpointArmed = true;
+            }
+        }
+        
+        // Evtl. Ueberwachung der externen Konfiguration (nicht in der Simulation)...
+        if ((plant == null) && (ModelConfig.EXTERNAL_FILE != null))
+        {
+            this.configWatcher = new ModelConfig.Watcher(new java.io.File(ModelConfig.EXTERNAL_FILE), ModelConfig.STARTUP);
+            this.configWatcher.start();
+            logger.info("Konfiguration " + ModelConfig.EXTERNAL_FILE + " wird ueberwacht: " + ModelConfig.STARTUP);
+        }
+        else
+        {
+            this.configWatcher = null;
+        }
+        
+        // Flankenerkennung ueber /dev/gpiomem erst nach vollstaendiger Initialisierung...
+        if (this.gpioMemPoller != null)
+        {
+            this.gpioMemPoller.start();
+            logger.info("GpioMemPoller gestartet: " + this.gpioMemPoller.toString());
+        }
+        if (this.encoderPoller != null)
+        {
+            this.encoderPoller.start();
+            logger.info("EncoderPoller gestartet: " + this.encoderPoller.toString());
+        }
+        
+        // Evtl. Taktgeber auf dem Raspi (nicht in der Simulation)...
+        if ((plant == null) && (CYCLE_MODE != CycleGenerator.Mode.EXTERNAL))
+        {
+            this.cycleGenerator = new CycleGenerator(this::doCycle, CYCLE_MODE, CYCLE_PERIOD_NANOS);
+            this.cycleGenerator.start();
+            logger.info("CycleGenerator gestartet: " + this.cycleGenerator.toString());
+        }
+        else
+        {
+            this.cycleGenerator = null;
+        }
+    }
+
+    /**
+     * doExternalCycle(Instant now) - Takt durch den Arduino (GPIO_CYCLE_PIN)...
+     * <p>
+     * Mit CycleGenerator wird die Flanke nur gemeldet (FAILOVER) und nur
+     * verarbeitet, solange der CycleGenerator den Takt nicht uebernommen hat.
+     * </p>
+     * @param now - Zeitpunkt der Flanke
+     */
+    private void doExternalCycle(Instant now)
+    {
+        if (this.cycleGenerator == null)
+        {
+            doCycle(now);
+            return;
+        }
+        this.cycleGenerator.notifyExternal(System.nanoTime());
+        if (this.cycleGenerator.isExternalActive())
+        {
+            doCycle(now);
+        }
+    }
+
+    /**
+     * doCycle(Instant now) - ein Takt der Regelung...
+     * <p>
+     * Die Beauftragung erfolgt an der steigenden Flanke des GPIO_CYCLE_PIN
+     * (Takt durch den Arduino), durch den CycleGenerator oder durch eine 
+     * Simulation mit virtueller Uhr. Bei FAILOVER koennen beide Taktquellen
+     * kurzzeitig gleichzeitig beauftragen, daher synchronized.
+     * Innerhalb des Taktes ist die Kommunikation mit der Regelstrecke und die
+     * Berechnung der Regelalgorithmen vorzunehmen.
+     * </p>
+     * @param now - Zeitpunkt des Taktes
+     */
+    synchronized void doCycle(Instant now)
+    {
+        //////////////////////////////////////////////////////////////////////////
+        // Jetzt werden die Kenngroesse der Taktung ermittelt:
+        // - now: der jetzige Zeitpunkt,
+        // -      die Zeitdauer ergibt sich dann
+        //        durch Differenzbildung zu this.past...
+        // now wird im weiteren Verlauf im Zustand this.past
+        // abgelegt.
+
+        // this.past: Zeitpunkt der letzten Taktung...
+        if (this.past == null)
+        {
+            // Erste Beauftragung: this.past = null...
+            this.past = now;
+        }
+        // this.cycleTime: Taktzeit aus der Differenz now - past.
+        // Ablage der aktuell gemessenen Taktzeit in der Zustandsgroesse cycleTime...
+        this.cycleTime = toBigDecimalSeconds(Duration.between(this.past, now),
+                                             Model.SCALE_INTERN);
+
+        // ...und Ablage des aktuelle Zeitpunktes...
+        this.past = now;
+
+        // Evtl. geaenderte Konfiguration an der Taktgrenze uebernehmen...
+        if (this.configWatcher != null)
+        {
+            final ModelConfig config = this.configWatcher.poll();
+            if (config != null)
+            {
+                applyConfig(config);
+            }
+        }
+        // Kommandos anderer Threads (ControlServer) an der Taktgrenze...
+        this.lastCycleNanos = System.nanoTime();
+        runCommands();
+
+        // Der Takt ist eingetroffen, Frist des Watchdog nachziehen...
+        if (this.watchdog != null)
+        {
+            this.watchdog.notifyCycle(System.nanoTime(), this.cycleTime.doubleValue());
+        }
+        // Abweichung der Taktzeit vom Mittel (Vergleich der Flankenerkennung pi4j/gpiomem)...
+        updateCycleJitter(this.cycleTime);
+        publishDiagnostics();
+        //////////////////////////////////////////////////////////////////////////
+
+        final Object statusObject = this.dataMap.get(Model.GUI_STATUS_KEY);
+        final Model.GuiStatus guiStatus = (statusObject instanceof Model.GuiStatus)? (Model.GuiStatus) statusObject
+                                                                                    : null;
+        final boolean isStarted = (guiStatus != null) && (guiStatus == GuiStatus.START);
+
+        // Fahrvorgabe (v, omega): Sollwerte beider Motoren aus einer Vorgabe,
+        // nach deren Ende wieder die Sollwerte je Motor...
+        final DriveCommand drive = this.driveCommand;
+        if (drive != null)
+        {
+            applyDriveCommand(drive);
+            this.isDriveApplied = true;
+        }
+        else if (this.isDriveApplied)
+        {
+            restoreDestinations();
+            this.isDriveApplied = false;
+        }
+
+        // Fail-Safe des CycleWatchdog: die Taktzeit ueberspannt die Ausfallzeit,
+        // in diesem Takt daher kein Zuwachs des Lagesollwertes (kein Aufholen)...
+        final boolean isFailSafe = this.isFailSafePending;
+        if (isFailSafe)
+        {
+            applyFailSafe(toNanos(now));
+        }
+
+        //////////////////////////////////////////////////////////////////////////
+        // Berechnung des Zuwachses an Lage Motor A und Motor B:
+        //
+        final BigDecimal rpm_const_cycleTime = Model.RPM_CONST.multiply(this.cycleTime);
+
+        // deltaA - Zuwachs Motor A (nur wenn Status START ist, sonst Zuwachs gleich ZERO)...
+        final BigDecimal deltaA = (isStarted && !isFailSafe)? this.destinationMA.multiply(rpm_const_cycleTime)
+                                                            : BigDecimal.ZERO.setScale(SCALE_INTERN);
+        this.valueDestinationMA = this.valueDestinationMA.add(deltaA);
+        this.numberDestinationMA =  this.valueDestinationMA.longValue();
+
+        // deltaB - Zuwachs Motor B (nur wenn Status START ist, sonst Zuwachs gleich ZERO)...
+        final BigDecimal deltaB = (isStarted && !isFailSafe)? this.destinationMB.multiply(rpm_const_cycleTime)
+                                                            : BigDecimal.ZERO.setScale(SCALE_INTERN);
+        this.valueDestinationMB = this.valueDestinationMB.add(deltaB);
+        this.numberDestinationMB = this.valueDestinationMB.longValue();
+
+        if (this.dataMap.containsKey(Model.DATA_KEY))
+        {
+            // Die Beauftragung durch Inkrementierung des Zaehlers
+            // this.counter 'dokumentieren'...
+            // Die dataMap haelt die Daten zur Anzeige in der View, hier DATA_KEY => Data(),
+            // und Data() beinhaltet den aktuellen counter (und weiteres...)
+
+            // this.counter inkrementieren oder zu 1L setzen...
+            this.counter = ((this.counter + 1L) > 0L)? (this.counter + 1L) : 1L;
+
+            final Data data = new Data(this.counter,
+                                       this.cycleTime,
+                                       this.token,
+                                       this.numberDestinationMA,
+                                       this.numberDestinationMB,
+                                       this.numberMA,
+                                       this.numberMB,
+                                       this.outputMA,
+                                       this.outputMB,
+                                       this.realValueMA,
+                                       this.realValueMB,
+                                       BigDecimal.valueOf(this.odometry.getX()),
+                                       BigDecimal.valueOf(this.odometry.getY()),
+                                       BigDecimal.valueOf(Math.toDegrees(this.odometry.getHeading())));
+            setProperty(Model.DATA_KEY, data);
+            
+            // Sicherung fuer den Warmstart (nur in die Einblendung, ohne force())...
+            if ((this.counter % CHECKPOINT_CYCLES) == 0L)
+            {
+                writeCheckpoint();
+            }
+        }
+        else
+        {
+
+        }
+        label:
+        {
+            //////////////////////////////////////////////////////////////////////////////
+            // Es folgt die Beauftragung der Kommunikation mit dem Arduino...
+            // 1.) Wenn statusI2C == NOP, dann keine Beauftragung...
+            //
+            if ((ArduinoI2C.Status.NOP == this.i2cStatus) || (this.plant == null))
+            {
+                break label;
+            }
+            final long nowNanos = toNanos(now);
+            if (ArduinoI2C.Status.ERROR == this.i2cStatus)
+            {
+                // Fehler-Episode: der token wird nach Ablauf des Backoff ab INITIAL
+                // neu ausgehandelt, bis dahin bleiben die Motoren aus...
+                if (!this.resync.isAttemptDue(nowNanos))
+                {
+                    break label;
+                }
+                logger.info("Resynchronisation ab INITIAL: " + this.resync.toString());
+                this.i2cStatus = ArduinoI2C.Status.INITIAL;
+            }
+            if (ArduinoI2C.Status.INITIAL == this.i2cStatus)
+            {
+                // INITIAL wurde durch den Start-Button oder die Resynchronisation gesetzt.
+                // 1.) Als token 0L einstellen...
+                this.token = 0L;
+                // 2.) Kommunikation beginnen...
+            }
+            try
+            {
+                //////////////////////////////////////////////////////////////////////////
+                // tokenToArduino: Lokale Variable, die vier unteren Bytes
+                //                 der long-Instanzvariable this.token...
+                final long tokenToArduino = (this.token & 0xffffffff);
+                final boolean isInitial = (ArduinoI2C.Status.INITIAL == this.i2cStatus);
+                // Austausch mit Wiederholung im Zeitbudget des Taktes, null bei Fehler...
+                final Plant.Response response = exchange(tokenToArduino);
+
+                if (response != null)
+                {
+                    final long tokenFromArduino = response.getToken();
+                    // numberMAFromArduino: Anzahl Impulse Motor A...
+                    final int numberMAFromArduino = response.getNumberMA();
+                    // numberMBFromArduino: Anzahl Impulse Motor B...
+                    final int numberMBFromArduino = response.getNumberMB();
+
+                    this.i2cStatus = ArduinoI2C.Status.SUCCESS;
+                    this.token = (tokenFromArduino & 0xffffffff);
+
+                    if (isInitial)
+                    {
+                        // Nach INITIAL beginnt die Zaehlung auf dem Arduino neu,
+                        // der Zuwachs in diesem Takt ist dann 0...
+                        this.totalMA[1] = numberMAFromArduino;
+                        this.totalMB[1] = numberMBFromArduino;
+                    }
+                    if (this.resync.onSuccess(nowNanos))
+                    {
+                        // Ende einer Fehler-Episode: Lagesollwert auf die Istlage setzen,
+                        // damit die Motoren die Ausfallzeit nicht schlagartig aufholen...
+                        this.valueDestinationMA = BigDecimal.valueOf(this.numberMA);
+                        this.valueDestinationMB = BigDecimal.valueOf(this.numberMB);
+                        this.numberDestinationMA = this.numberMA;
+                        this.numberDestinationMB = this.numberMB;
+                        logger.info("Resynchronisation erfolgreich: " + this.resync.toString());
+                        publishDiagnostics();
+                    }
+
+                    // "Umschiften..."
+                    this.totalMA[0] = this.totalMA[1];
+                    this.totalMA[1] = numberMAFromArduino;
+                    this.controlMA[0] = this.controlMA[1];
+                    // diffMA => Zuwachs Motor A:
+                    final long diffMA = this.totalMA[1] - this.totalMA[0];
+
+                    this.totalMB[0] = this.totalMB[1];
+                    this.totalMB[1] = numberMBFromArduino;
+                    this.controlMB[0] = this.controlMB[1];
+                    // diffMB => Zuwachs Motor B:
+                    final long diffMB = this.totalMB[1] - this.totalMB[0];
+
+                    // Drehrichtung aus dem Vorzeichen der Stellgroesse, bei
+                    // vorzeichenbehafteter Zaehlung (Quadratur) aus dem Zuwachs...
+                    final boolean isSigned = this.plant.isSigned();
+                    final long deltaMA = isSigned? diffMA : this.controlMA[0].signum() * diffMA;
+                    final long deltaMB = isSigned? diffMB : this.controlMB[0].signum() * diffMB;
+                    final long pulsesMA = isSigned? Math.abs(diffMA) : diffMA;
+                    final long pulsesMB = isSigned? Math.abs(diffMB) : diffMB;
+
+                    // numberMA/numberMB - absolute Lage der Motoren in Impulse:
+                    this.numberMA += deltaMA;
+                    this.numberMB += deltaMB;
+                    // Lage des Fahrzeuges aus den Zuwaechsen (mit Vorzeichen)...
+                    this.odometry.update(deltaMA, deltaMB);
+
+                    //////////////////////////////////////////////////////////////////
+                    // Berechnung der gemittelten Drehzahlen Motor A und Motor B
+                    // und Ablage der Werte in realValueMA und realValueMB...
+                    calculateRealValues(this.cycleTime, pulsesMA, pulsesMB);
+                    // Liefert die Regelstrecke Zeitstempel der Flanken, dann
+                    // Drehzahl nach dem M/T-Verfahren (geringere Verzoegerung)...
+                    if (this.isEdgeTimed)
+                    {
+                        calculateEdgeValues(this.cycleTime, pulsesMA, pulsesMB, response);
+                    }
+                    // Zustandsbeobachter nachziehen (Eingang: im letzten Takt ausgegebene
+                    // Stellgroesse controlMA[0]/controlMB[0], Messung: numberMA/numberMB)...
+                    calculateObservedValues(this.cycleTime);
+                    //////////////////////////////////////////////////////////////////
+
+                    final String msg = new StringBuilder().append("Sollwerte: ")
+                                                          .append(this.numberDestinationMA)
+                                                          .append(" ")
+                                                          .append(this.numberDestinationMB)
+                                                          .append(", Istwerte: ")
+                                                          .append(this.numberMA)
+                                                          .append(" ")
+                                                          .append(this.numberMB)
+                                                          .append(", Limitierungen: ")
+                                                          .append(this.maxValueMA)
+                                                          .append(" ")
+                                                          .append(this.maxValueMB)
+                                                          .toString();
+
+                    logger.debug(msg);
+
+                    //
+                    // Stellgroessen ohne Reglereingriff:
+                    // - destinationOutputMA (BigDecimal)
+                    // - destinationOutputMB (BigDecimal)
+                    // Sollwerte der Lage
+                    // - numberDestinationMA (long)
+                    // - numberDestinationMB (long)
+                    // Istwerte der Lage
+                    // - numberMA (long)
+                    // - numberMB (long)
+
+                    // Mit Beobachter wird die geschaetzte Lage geregelt...
+                    final long controlNumberMA = this.isObserved? Math.round(this.observerMA.getPosition()) : this.numberMA;
+                    final long controlNumberMB = this.isObserved? Math.round(this.observerMB.getPosition()) : this.numberMB;
+
+                    // Gain-Scheduling: Solldrehzahl und Last (Stellgroesse des vorigen Taktes)...
+                    final PositionController.Output output = this.getPositionController().doControl(this.numberDestinationMA, controlNumberMA,
+                                                                                                    this.numberDestinationMB, controlNumberMB,
+                                                                                                    this.destinationOutputMA,
+                                                                                                    this.destinationOutputMB,
+                                                                                                    this.maxValueMA,
+                                                                                                    this.maxValueMB,
+                                                                                                    this.destinationMA.doubleValue(),
+                                                                                                    this.destinationMB.doubleValue(),
+                                                                                                    (this.outputMA != null)? this.outputMA.doubleValue() : 0.0,
+                                                                                                    (this.outputMB != null)? this.outputMB.doubleValue() : 0.0);
+
+                    logger.debug("doControl(): " + output.toString());
+                    
+                    // Gleichlauffehler (auch ohne Gleichlaufregelung) als Kennzahl...
+                    if (Math.abs(output.getSyncError()) > this.maxSyncError)
+                    {
+                        this.maxSyncError = Math.abs(output.getSyncError());
+                        publishDiagnostics();
+                    }
+
+                    if (this.isAutoTune)
+                    {
+                        // Relais-Versuch anstelle des P-Reglers...
+                        doAutoTune();
+                    }
+                    else
+                    {
+                        this.outputMA = this.isControlled? output.getOutputMA() : this.destinationOutputMA.setScale(SCALE_OUTPUT, BigDecimal.ROUND_FLOOR);
+                        this.outputMB = this.isControlled? output.getOutputMB() : this.destinationOutputMB.setScale(SCALE_OUTPUT, BigDecimal.ROUND_FLOOR);
+                    }
+
+                    // outputMA und outputMB merken...
+                    this.controlMA[1] = this.outputMA;
+                    this.controlMB[1] = this.outputMB;
+
+                    //
+                    final float speedMA = ((this.outputMA != null)? this.outputMA.floatValue() : 0.0F);
+                    final float speedMB = ((this.outputMB != null)? this.outputMB.floatValue() : 0.0F);
+
+                    this.plant.setPwmMA(speedMA);
+                    this.plant.setPwmMB(speedMB);
+
+                }
+                else
+                {
+                    // Auch die Wiederholungen sind gescheitert: Motoren aus,
+                    // Neuaushandlung in den folgenden Takten (I2CResync)...
+                    this.i2cStatus = ArduinoI2C.Status.ERROR;
+                    this.resync.onError(nowNanos);
+                    publishDiagnostics();
+
+                    this.outputMA = BigDecimal.ZERO.setScale(SCALE_OUTPUT);
+                    this.outputMB = BigDecimal.ZERO.setScale(SCALE_OUTPUT);
+                    this.controlMA[1] = this.outputMA;
+                    this.controlMB[1] = this.outputMB;
+                    this.plant.setPwmMA(0.0F);
+                    this.plant.setPwmMB(0.0F);
+                }
+            }
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+                System.err.println(exception.toString());
+            }
+        }
+        //
+        //////////////////////////////////////////////////////////////////////////
+
+        // Fail-Safe waehrend des Taktes (doCycle() war nur verzoegert): die Ausgabe
+        // dieses Taktes wird verworfen, die Motoren bleiben aus...
+        if (this.isFailSafePending)
+        {
+            applyFailSafe(toNanos(now));
+        }
+
+        if ((this.plant != null) && (ArduinoI2C.Status.NOP != this.i2cStatus))
+        {
+            // Weitere Transaktionen am Bus (z.B. weitere Module)...
+            try
+            {
+                this.plant.endCycle();
+            }
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+            }
+        }
+
+        {
+            //////////////////////////////////////////////////////////////////////////////////////////////////
+            // Testausgabe: Dauer der Bearbeitung von doCycle() von 0.001 ... 0.006s
+            // final BigDecimal duration = toBigDecimalSeconds(Duration.between(this.past, Instant.now()),
+            //                                                 Model.SCALE_CYCLE_TIME);
+            // Evtl. Log-Ausgabe...
+            // logger.debug("Dauer doCycle() in s: " + duration);
+            //////////////////////////////////////////////////////////////////////////////////////////////////
+        }
+    }
+
+    /**
+     * toBigDecimalSeconds(Duration duration) - liefert die Anzahl der Sekunden
+     * <p>
+     * Vgl. toBigDecimalSeconds() aus Duration in Java 11.
+     * </p<
+     * @param duration
+     * @return
+     */
+    private static BigDecimal toBigDecimalSeconds(Duration duration, int scale)
+    {
+        Objects.requireNonNull(duration, "duration must not be null!");
+        final BigDecimal result = BigDecimal.valueOf(duration.getSeconds()).add(BigDecimal.valueOf(duration.getNano(), 9)).setScale(scale,  BigDecimal.ROUND_HALF_UP);
+        return (result.compareTo(BigDecimal.ONE.movePointLeft(scale)) < 0)? BigDecimal.ZERO : result;
+    }
+
+    /**
+     * updateCycleJitter(BigDecimal cycleTime) - Abweichung der gemessenen Taktzeit
+     * vom gleitenden Mittel...
+     * <p>
+     * Bei festem Takt durch den Arduino ist die Abweichung die Schwankung der
+     * Verzoegerung Flanke - Beauftragung (pi4j-Listener oder GpioMemPoller).
+     * </p>
+     */
+    private void updateCycleJitter(BigDecimal cycleTime)
+    {
+        final double nanos = cycleTime.doubleValue() * 1.0E9;
+        if (nanos <= 0.0)
+        {
+            return;
+        }
+        if (this.cycleSamples < JITTER_SETTLING_CYCLES)
+        {
+            this.cycleSamples++;
+            this.cycleMeanNanos += (nanos - this.cycleMeanNanos) / this.cycleSamples;
+            return;
+        }
+        this.maxCycleJitterNanos = Math.max(this.maxCycleJitterNanos, (long) Math.abs(nanos - this.cycleMeanNanos));
+        this.cycleMeanNanos += (nanos - this.cycleMeanNanos) / JITTER_SETTLING_CYCLES;
+    }
+
+    /**
+     * toNanos(Instant instant) - Zeitpunkt in ns (fuer Zeitdifferenzen)...
+     * @param instant
+     * @return ns seit 1970-01-01T00:00:00Z
+     */
+    private static long toNanos(Instant instant)
+    {
+        return instant.getEpochSecond() * 1000000000L + instant.getNano();
+    }
+
+    /**
+     * exchange(long tokenToArduino) - Austausch mit der Regelstrecke...
+     * <p>
+     * Der Arduino wird den token inkrementieren und als neuen Token
+     * zurueckschicken. Wenn die Differenz gleich 1L ist (und der Status
+     * SUCCESS), kann man davon ausgehen, dass auf dem Arduino alles korrekt
+     * laeuft. Sonst (oder bei einer IOException) wird der Austausch im 
+     * Zeitbudget des Taktes wiederholt (vgl. I2CResync).
+     * </p>
+     * @param tokenToArduino
+     * @return Antwort der Regelstrecke oder null, wenn auch die Wiederholungen scheitern
+     */
+    private Plant.Response exchange(long tokenToArduino)
+    {
+        final long startNanos = System.nanoTime();
+        final long cycleNanos = this.cycleTime.movePointRight(9).longValue();
+        this.resync.beginCycle();
+        while (true)
+        {
+            try
+            {
+                final Plant.Response response = this.plant.exchange(tokenToArduino, this.i2cStatus);
+                logger.debug("Regelstrecke: " + tokenToArduino + " gesendet, " + response.toString() + " gelesen...");
+
+                if ((response.getToken() - tokenToArduino == 1L)
+                 && (ArduinoI2C.Status.SUCCESS == response.getStatus()))
+                {
+                    return response;
+                }
+                logger.warn("Regelstrecke: " + tokenToArduino + " gesendet, fehlerhafte Antwort " + response.toString());
+            }
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+            }
+            if (!this.resync.canRetry(System.nanoTime() - startNanos, cycleNanos))
+            {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * applyDriveCommand(DriveCommand drive) - Sollwerte Motor A/B aus der
+     * Fahrvorgabe (Abmessungen wie bei der Odometrie)...
+     */
+    private void applyDriveCommand(DriveCommand drive)
+    {
+        final boolean isLimited = drive.toWheelRpm(this.odometry.getWheelRadius(), 
+                                                   this.odometry.getTrackWidth(), 
+                                                   MAX_DESTINATION, 
+                                                   this.driveRpm);
+        setDestinations(BigDecimal.valueOf(this.driveRpm[0]).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP),
+                        BigDecimal.valueOf(this.driveRpm[1]).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP));
+        if (isLimited)
+        {
+            logger.debug("Fahrvorgabe " + drive + " begrenzt: " + this.destinationMA + " " + this.destinationMB);
+        }
+    }
+
+    /**
+     * restoreDestinations() - Ende der Fahrvorgabe, es gelten wieder die
+     * Sollwerte je Motor (DESTINATION_MA_KEY, DESTINATION_MB_KEY)...
+     */
+    private void restoreDestinations()
+    {
+        final Object valueMA = this.dataMap.get(Model.DESTINATION_MA_KEY);
+        final Object valueMB = this.dataMap.get(Model.DESTINATION_MB_KEY);
+        setDestinations((valueMA instanceof BigDecimal)? (BigDecimal) valueMA : DESTINATION_VALUES[SELECTED_DESTINATION_INDEX],
+                        (valueMB instanceof BigDecimal)? (BigDecimal) valueMB : DESTINATION_VALUES[SELECTED_DESTINATION_INDEX]);
+        logger.debug("Ende der Fahrvorgabe: " + this.destinationMA + " " + this.destinationMB);
+    }
+
+    /**
+     * setDestinations(BigDecimal destinationMA, BigDecimal destinationMB) - 
+     * Solldrehzahlen und Ausgabe ohne Reglereingriff Motor A/B...
+     */
+    private void setDestinations(BigDecimal destinationMA, BigDecimal destinationMB)
+    {
+        this.destinationMA = destinationMA;
+        this.destinationOutputMA = destinationMA.divide(this.outputRelation,
+                                                        SCALE_INTERN, 
+                                                        BigDecimal.ROUND_DOWN);
+        this.destinationMB = destinationMB;
+        this.destinationOutputMB = destinationMB.divide(this.outputRelation,
+                                                        SCALE_INTERN, 
+                                                        BigDecimal.ROUND_DOWN);
+    }
+
+    /**
+     * maxAbs(BigDecimal[] values) - groesster Betrag...
+     */
+    private static double maxAbs(BigDecimal[] values)
+    {
+        double max = 0.0;
+        for (BigDecimal value: values)
+        {
+            max = Math.max(max, value.abs().doubleValue());
+        }
+        return max;
+    }
+
+    /**
+     * applyConfig(ModelConfig config) - im Betrieb aenderbare Werte uebernehmen
+     * (an der Taktgrenze, vgl. ModelConfig.Watcher)...
+     */
+    private void applyConfig(ModelConfig config)
+    {
+        setSizesDiffValues(config.getSizesDiffValues());
+        // Nur eine in der Datei geaenderte Tabelle uebernehmen (Aenderungen ueber
+        // den ControlServer bleiben sonst erhalten)...
+        if (!Objects.equals(config.getGainSchedule(), this.configGainSchedule))
+        {
+            this.configGainSchedule = config.getGainSchedule();
+            this.positionController.setGainSchedule(this.configGainSchedule);
+            logger.info("GainSchedule: " + this.configGainSchedule);
+        }
+        if ((config.getWheelRadius() != this.odometry.getWheelRadius()) 
+         || (config.getTrackWidth() != this.odometry.getTrackWidth()))
+        {
+            this.odometry.setGeometry(config.getWheelRadius(), config.getTrackWidth());
+            logger.info("Odometrie: Radius " + config.getWheelRadius() + " mm, Spurweite " + config.getTrackWidth() + " mm");
+        }
+        if ((config.getMdHatFrequency() != this.pwmFrequency) && (this.plant != null))
+        {
+            try
+            {
+                this.plant.setPwmFrequency(config.getMdHatFrequency());
+                this.pwmFrequency = config.getMdHatFrequency();
+                logger.info("PWM-Frequenz: " + this.pwmFrequency + " Hz");
+            }
+            catch (IOException exception)
+            {
+                logger.error(exception.toString(), exception);
+            }
+        }
+    }
+
+    /**
+     * setSizesDiffValues(int sizesDiffValues) - Anzahl der Messwerte zur
+     * Drehzahlermittlung aendern...
+     * <p>
+     * Die juengsten Messwerte (Index 0 ...) bleiben erhalten, bei einer
+     * Vergroesserung werden die neuen Plaetze erst in den folgenden Takten
+     * gefuellt (Taktzeit null, keine Impulse).
+     * </p>
+     * @param sizesDiffValues - Anzahl der Messwerte (mind. 1)
+     */
+    private void setSizesDiffValues(int sizesDiffValues)
+    {
+        final int size = (sizesDiffValues > 1)? sizesDiffValues : 1;
+        if (size == this.sizesDiffValues)
+        {
+            return;
+        }
+        this.cycleTimeValues = java.util.Arrays.copyOf(this.cycleTimeValues, size);
+        this.diffValuesMA = java.util.Arrays.copyOf(this.diffValuesMA, size);
+        this.diffValuesMB = java.util.Arrays.copyOf(this.diffValuesMB, size);
+        logger.info("sizesDiffValues: " + this.sizesDiffValues + " -> " + size);
+        this.sizesDiffValues = size;
+    }
+
+    /**
+     * calculateRealValues(BigDecimal cycleTime, long diffValueMA, long diffValueMB) - Ermittlung
+     * der gemittelten Drehzahlen (in 1/min) Motor A und Motor B...
+     */
+    private void calculateRealValues(BigDecimal cycleTime, long diffValueMA, long diffValueMB)
+    {
+        // folgende Partialsummen...
+        BigDecimal summCycleTime = cycleTime.setScale(SCALE_INTERN, BigDecimal.ROUND_HALF_UP);
+        long summValuesMA = diffValueMA;
+        long summValuesMB = diffValueMB;
+
+        // Einsortieren an Position index = 0,
+        // Verschieben von index nach index+1
+        // Verwerfen von index = this.sizesDiffValues
+
+        int index = this.sizesDiffValues-1;
+        while (index > 0)
+        {
+            this.cycleTimeValues[index] = this.cycleTimeValues[index-1];
+            summCycleTime = summCycleTime.add((this.cycleTimeValues[index] != null)? this.cycleTimeValues[index]
+                                                                                   : BigDecimal.ZERO);
+
+            this.diffValuesMA[index] = this.diffValuesMA[index-1];
+            summValuesMA += this.diffValuesMA[index];
+
+            this.diffValuesMB[index] = this.diffValuesMB[index-1];
+            summValuesMB += this.diffValuesMB[index];
+
+            index--;
+        }
+        // Jeweils Element (index = 0) in das Array setzen und addieren...
+        this.cycleTimeValues[0] = cycleTime.setScale(SCALE_INTERN, BigDecimal.ROUND_HALF_UP);
+        summCycleTime = summCycleTime.add(this.cycleTimeValues[0]);
+
+        this.diffValuesMA[0] = diffValueMA;
+        summValuesMA += this.diffValuesMA[0];
+
+        this.diffValuesMB[0] = diffValueMB;
+        summValuesMB += this.diffValuesMB[0];
+
+        // Jetzt ist bestimmt worden:
+        // 1.) Zeitdauer: summCycleTime
+        // 2.) Impulssumme A: summValuesMA
+        // 3.) Impulssumme B: summValuesMB
+
+        // Berechnung:
+        // realValue = (Anzahl Impulse) *  (60/Impulse pro Umdrehung) / Zeitdauer
+        // mit: RPM_CONST = BigDecimal.valueOf(CIRCUMFERENCE).divide(BigDecimal.valueOf(60L), SCALE_INTERN, BigDecimal.ROUND_DOWN);
+        // folgt:
+        // realValue = {Anzahl Impulse} / {Zeitdauer * RPM_CONST}
+
+        final BigDecimal divisor = summCycleTime.multiply(Model.RPM_CONST);
+        if (divisor.signum() == 0)
+        {
+            // Noch keine Zeitdauer (erster Takt), keine Drehzahl...
+            this.realValueMA = BigDecimal.ZERO;
+            this.realValueMB = BigDecimal.ZERO;
+            return;
+        }
+
+        this.realValueMA = BigDecimal.valueOf(summValuesMA).divide(divisor, SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
+        this.realValueMB = BigDecimal.valueOf(summValuesMB).divide(divisor, SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
+    }
+
+    /**
+     * calculateEdgeValues(BigDecimal cycleTime, long diffValueMA, long diffValueMB, Plant.Response response) - 
+     * Ermittlung der Drehzahlen (in 1/min) aus Impulszaehlung und Zeitstempel
+     * der Flanken (M/T-Verfahren, vgl. SpeedEstimator)...
+     * <p>
+     * Ohne Zeitstempel (Plant.Response.NO_EDGE_TIME) bleiben die gemittelten 
+     * Drehzahlen aus calculateRealValues() erhalten.
+     * </p>
+     */
+    private void calculateEdgeValues(BigDecimal cycleTime, long diffValueMA, long diffValueMB, Plant.Response response)
+    {
+        final double cycleTimeSeconds = cycleTime.doubleValue();
+        
+        final double rpmMA = this.speedEstimatorMA.update(cycleTimeSeconds, diffValueMA, response.getEdgeAgeMA());
+        if (!Double.isNaN(rpmMA))
+        {
+            this.realValueMA = BigDecimal.valueOf(rpmMA).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
+        }
+        
+        final double rpmMB = this.speedEstimatorMB.update(cycleTimeSeconds, diffValueMB, response.getEdgeAgeMB());
+        if (!Double.isNaN(rpmMB))
+        {
+            this.realValueMB = BigDecimal.valueOf(rpmMB).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
+        }
+    }
+
+    /**
+     * calculateObservedValues(BigDecimal cycleTime) - Zustandsbeobachter Motor A
+     * und Motor B nachziehen...
+     * <p>
+     * Mit Beobachter (isObserved) werden die Drehzahlen aus dem Beobachter 
+     * uebernommen (Betrag, wie die gemessenen Drehzahlen).
+     * </p>
+     */
+    private void calculateObservedValues(BigDecimal cycleTime)
+    {
+        final double cycleTimeSeconds = cycleTime.doubleValue();
+        
+        this.observerMA.update(cycleTimeSeconds, this.controlMA[0].doubleValue(), this.numberMA);
+        this.observerMB.update(cycleTimeSeconds, this.controlMB[0].doubleValue(), this.numberMB);
+        
+        if (this.isObserved)
+        {
+            this.realValueMA = BigDecimal.valueOf(Math.abs(this.observerMA.getRpm())).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
+            this.realValueMB = BigDecimal.valueOf(Math.abs(this.observerMB.getRpm())).setScale(SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
+        }
+    }
+
+    /**
+     * doAutoTune() - ein Takt des Relais-Versuchs Motor A und Motor B...
+     * <p>
+     * Die Relaisamplitude ist die jeweilige Limitierung (maxValueMA/maxValueMB),
+     * die Sollwertvorgabe (destinationOutputMA/destinationOutputMB) wird
+     * vorgesteuert. Sind beide Versuche beendet, wird der Vorschlag fuer die
+     * Reglerverstaerkung ueber ENHANCEMENT_KEY gesetzt und das Autotuning
+     * beendet.
+     * </p>
+     */
+    private void doAutoTune()
+    {
+        final double cycleTimeSeconds = this.cycleTime.doubleValue();
+
+        final double relayMA = this.autoTunerMA.doCycle(cycleTimeSeconds, this.numberDestinationMA - this.numberMA);
+        final double relayMB = this.autoTunerMB.doCycle(cycleTimeSeconds, this.numberDestinationMB - this.numberMB);
+
+        this.outputMA = limit(this.destinationOutputMA.add(BigDecimal.valueOf(relayMA)), this.maxValueMA);
+        this.outputMB = limit(this.destinationOutputMB.add(BigDecimal.valueOf(relayMB)), this.maxValueMB);
+
+        if (this.autoTunerMA.isDone() && this.autoTunerMB.isDone())
+        {
+            logger.info("Autotuning Motor A: " + this.autoTunerMA + ", Motor B: " + this.autoTunerMB);
+
+            if (this.autoTunerMA.getState() == RelayAutoTuner.State.FINISHED
+             && this.autoTunerMB.getState() == RelayAutoTuner.State.FINISHED)
+            {
+                // Eine gemeinsame Verstaerkung fuer beide Motoren, daher der kleinere Vorschlag...
+                final double suggestion = Math.min(this.autoTunerMA.getSuggestedEnhancement(CIRCUMFERENCE),
+                                                   this.autoTunerMB.getSuggestedEnhancement(CIRCUMFERENCE));
+                final BigDecimal enhancement = RelayAutoTuner.selectEnhancement(suggestion);
+                logger.info("Autotuning: Vorschlag enhancement=" + suggestion + " => " + enhancement);
+                setProperty(Model.ENHANCEMENT_KEY, enhancement);
             }
             else
             {
-                this.gpioPinDigitalInputCyclePin = null;
-                setProperty(Model.DATA_KEY, new Data());                
-                logger.debug(Model.DATA_KEY + " in dataMap mit value=null aufgenommen.");
+                logger.warn("Autotuning ohne Ergebnis, enhancement bleibt " + getEnhancement());
             }
-            //////////////////////////////////////////////////////////////////////////
+            setProperty(Model.AUTO_TUNE_KEY, Boolean.FALSE);
         }
-        
-        //////////////////////////////////////////////////////////////////////////
-        // Output-pins beruecksichtigen...
-        // Wenn Output, dann wird jeder Pin entsprechend konfiguriert
-        // und ein Boolsche Wert (als Datenhaltung) zugeordnet...
-        for (Pin pin: Model.GPIO_PINS)
+    }
+
+    /**
+     * submit(Runnable command) - Kommando eines anderen Threads (z.B. ControlServer)
+     * an der naechsten Taktgrenze ausfuehren...
+     * <p>
+     * Das Kommando laeuft in doCycle() vor der Berechnung des Taktes unter der
+     * Sperre des Model, es aendert den Zustand also nie mitten in einem Takt.
+     * Laeuft kein Takt (seit COMMAND_IDLE_NANOS), wird es sofort unter der
+     * Sperre ausgefuehrt.
+     * </p>
+     * @param command
+     */
+    public void submit(Runnable command)
+    {
+        this.commands.add(Objects.requireNonNull(command, "command must not be null!"));
+        final long last = this.lastCycleNanos;
+        if (last == 0L || System.nanoTime() - last > COMMAND_IDLE_NANOS)
         {
-            final String key = pin.getName();
-            this.dataMap.put(key, Boolean.FALSE);
-            logger.debug(key + " in dataMap aufgenommen.");
-            if (isRaspi)
+            synchronized (this)
             {
-                // Zugriff auf die Pin nur wenn Lauf auf dem Raspi...
-                GpioPinDigitalOutput gpioPin = this.gpioController.provisionDigitalOutputPin(pin, key, PinState.LOW);
-                gpioPin.setShutdownOptions(true, PinState.LOW, PinPullResistance.OFF);
-                this.gpioPinOutputMap.put(key, gpioPin);
-            } 
-            else
+                runCommands();
+            }
+        }
+    }
+
+    /**
+     * runCommands() - wartende Kommandos ausfuehren (unter der Sperre)...
+     */
+    private void runCommands()
+    {
+        Runnable command;
+        while ((command = this.commands.poll()) != null)
+        {
+            try
             {
-                // Der Lauf erfolgt nicht auf dem Raspi...
-                this.gpioPinOutputMap.put(key, null);
+                command.run();
+            }
+            catch (RuntimeException exception)
+            {
+                logger.error(exception.toString(), exception);
             }
         }
-        //////////////////////////////////////////////////////////////////////////
-        
-        // Einige Daten initial setzen...
-        setProperty(DESTINATION_SIMULTAN_KEY, Boolean.FALSE);
-        setProperty(CONTROL_KEY, Boolean.FALSE);
-        setProperty(GUI_STATUS_KEY, GuiStatus.INIT);
     }
-     
+
+    /**
+     * doFailSafe() - Fail-Safe-Aktion des CycleWatchdog (eigener Thread)...
+     * <p>
+     * Der Takt ist mehrfach ausgeblieben (Arduino taktet nicht mehr oder
+     * doCycle() haengt). Die Motoren werden sofort abgeschaltet (ohne die
+     * Sperre, doCycle() kann haengen), alles Weitere erledigt applyFailSafe()
+     * unter der Sperre in doCycle(): am Ende eines nur verzoegerten Taktes
+     * (dessen Ausgabe damit verworfen wird) oder mit dem naechsten Takt.
+     * </p>
+     */
+    void doFailSafe()
+    {
+        // Zuerst vormerken, dann abschalten: ein verzoegerter doCycle() sieht die
+        // Vormerkung nach seiner Ausgabe und schaltet erneut ab...
+        this.isFailSafePending = true;
+        try
+        {
+            setPwmMA(0.0F);
+            setPwmMB(0.0F);
+        }
+        catch (IOException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+    }
+
+    /**
+     * applyFailSafe(long nowNanos) - Fail-Safe in doCycle() (unter der Sperre)...
+     * <p>
+     * Kommunikation auf ERROR und Beginn einer Fehler-Episode (I2CResync),
+     * mit dem naechsten Takt wird der token dann ab INITIAL neu ausgehandelt,
+     * bei Erfolg wird der Lagesollwert erneut auf die Istlage gesetzt. Schon
+     * hier wird der Lagesollwert auf die Istlage gesetzt und die Motoren
+     * bleiben aus, die Regelung holt die Ausfallzeit also nicht nach.
+     * </p>
+     * @param nowNanos - Zeitpunkt des Taktes
+     */
+    private void applyFailSafe(long nowNanos)
+    {
+        this.isFailSafePending = false;
+        if (ArduinoI2C.Status.NOP != this.i2cStatus)
+        {
+            this.i2cStatus = ArduinoI2C.Status.ERROR;
+            this.resync.onError(nowNanos);
+        }
+        this.valueDestinationMA = BigDecimal.valueOf(this.numberMA);
+        this.valueDestinationMB = BigDecimal.valueOf(this.numberMB);
+        this.numberDestinationMA = this.numberMA;
+        this.numberDestinationMB = this.numberMB;
+        this.outputMA = BigDecimal.ZERO.setScale(SCALE_OUTPUT);
+        this.outputMB = BigDecimal.ZERO.setScale(SCALE_OUTPUT);
+        this.controlMA[1] = this.outputMA;
+        this.controlMB[1] = this.outputMB;
+        try
+        {
+            setPwmMA(0.0F);
+            setPwmMB(0.0F);
+        }
+        catch (IOException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+        logger.warn("Fail-Safe (CycleWatchdog): " + this.resync.toString());
+        publishDiagnostics();
+    }
+
+    /**
+     * publishDiagnostics() - Diagnostics nur bei einer Aenderung der Zaehler 
+     * unter DIAGNOSTICS_KEY ablegen...
+     */
+    private void publishDiagnostics()
+    {
+        final Diagnostics diagnostics = new Diagnostics((this.watchdog != null)? this.watchdog.getMissedDeadlines() : 0L,
+                                                        (this.watchdog != null)? this.watchdog.getTrips() : 0L,
+                                                        this.resync.getErrorEpisodes(),
+                                                        this.resync.getRetries(),
+                                                        this.resync.getLastRecoveryNanos(),
+                                                        this.maxCycleJitterNanos,
+                                                        this.maxSyncError,
+                                                        this.edgeCoalescer.getOverruns(),
+                                                        this.edgeCoalescer.getSkipped()
+                                                      + ((this.cycleGenerator != null)? this.cycleGenerator.getSkipped() : 0L));
+        if (!diagnostics.equals(this.dataMap.get(Model.DIAGNOSTICS_KEY)))
+        {
+            setProperty(Model.DIAGNOSTICS_KEY, diagnostics);
+        }
+    }
+    
+    /**
+     * getDiagnostics() - liefert die zuletzt unter DIAGNOSTICS_KEY abgelegten Zaehler...
+     * @return Diagnostics oder null
+     */
+    public Diagnostics getDiagnostics()
+    {
+        final Object diagnostics = this.dataMap.get(Model.DIAGNOSTICS_KEY);
+        return (diagnostics instanceof Diagnostics)? (Diagnostics) diagnostics : null;
+    }
+
+    /**
+     * limit(BigDecimal value, BigDecimal maxValue) - Begrenzung auf +/-maxValue...
+     * @param value
+     * @param maxValue
+     * @return begrenzter Wert mit SCALE_OUTPUT
+     */
+    private static BigDecimal limit(BigDecimal value, BigDecimal maxValue)
+    {
+        final BigDecimal max = maxValue.abs();
+        final BigDecimal result = (value.compareTo(max) > 0)? max
+                                                            : ((value.compareTo(max.negate()) < 0)? max.negate() : value);
+        return result.setScale(SCALE_OUTPUT, BigDecimal.ROUND_FLOOR);
+    }
+
     /**
      * 
      * @param listener
@@ -1256,12 +2486,21 @@ public class Model
                     this.destinationOutputMB = destinationMB.divide(this.outputRelation,
                                                                     SCALE_INTERN, 
                                                                     BigDecimal.ROUND_DOWN);
+                    this.observerMA.setOutputRelation(this.outputRelation.doubleValue());
+                    this.observerMB.setOutputRelation(this.outputRelation.doubleValue());
                     logger.debug("outputRelation=" + newValue);
                     logger.debug("destinationOutputMA=" + this.destinationOutputMA 
                               + " destinationOutputMB=" + this.destinationOutputMB);
                 }
             }
             
+            if (Model.DRIVE_KEY.equals(key))
+            {
+                // Vorgabe und Ende der Vorgabe uebernimmt doCycle() (unter der Sperre)...
+                this.driveCommand = (newValue instanceof DriveCommand)? (DriveCommand) newValue : null;
+                logger.debug("driveCommand=" + this.driveCommand);
+            }
+            
             if (Model.MAX_VALUE_MA_KEY.equals(key))
             {
                 if (newValue instanceof BigDecimal)
@@ -1292,6 +2531,49 @@ public class Model
                 }
             }
             
+            if (Model.OBSERVER_KEY.equals(key))
+            {
+                if (newValue instanceof Boolean)
+                {
+                    this.isObserved = Boolean.TRUE.equals(newValue);
+                    
+                    logger.debug("isObserved=" + this.isObserved);
+                }
+            }
+            
+            if (Model.SYNC_KEY.equals(key))
+            {
+                if (newValue instanceof Boolean)
+                {
+                    this.positionController.setSync(Boolean.TRUE.equals(newValue));
+                    
+                    logger.debug("isSync=" + this.positionController.isSync());
+                }
+            }
+            
+            if (Model.SYNC_ENHANCEMENT_KEY.equals(key))
+            {
+                if (newValue instanceof BigDecimal)
+                {
+                    this.positionController.setSyncEnhancement((BigDecimal) newValue);
+                    
+                    logger.debug("syncEnhancement=" + this.positionController.getSyncEnhancement());
+                }
+            }
+            
+            if (Model.AUTO_TUNE_KEY.equals(key))
+            {
+                if (newValue instanceof Boolean)
+                {
+                    this.isAutoTune = Boolean.TRUE.equals(newValue);
+                    // Relais-Versuch: Relaisamplitude ist die jeweilige Limitierung...
+                    this.autoTunerMA = this.isAutoTune? new RelayAutoTuner(this.maxValueMA.doubleValue()) : null;
+                    this.autoTunerMB = this.isAutoTune? new RelayAutoTuner(this.maxValueMB.doubleValue()) : null;
+                    
+                    logger.debug("isAutoTune=" + this.isAutoTune);
+                }
+            }
+            
             if (Model.ENHANCEMENT_KEY.equals(key))
             {
                 if (newValue instanceof BigDecimal)
@@ -1323,9 +2605,9 @@ public class Model
      */
     public void setPwmMA(float speed) throws IOException
     {
-        if (this.motorDriverHAT != null)
+        if (this.plant != null)
         {
-            this.motorDriverHAT.setPwmMA(speed);
+            this.plant.setPwmMA(speed);
         }
         else
         {
@@ -1340,9 +2622,9 @@ public class Model
      */
     public void setPwmMB(float speed) throws IOException
     {
-        if (this.motorDriverHAT != null)
+        if (this.plant != null)
         {
-            this.motorDriverHAT.setPwmMB(speed);
+            this.plant.setPwmMB(speed);
         }
         else
         {
@@ -1377,6 +2659,35 @@ public class Model
         return this.positionController.getEnhancement();
     }
     
+    /**
+     * getData() - liefert die zuletzt unter DATA_KEY abgelegten Zustandsgroessen...
+     * @return Data oder null
+     */
+    public Data getData()
+    {
+        final Object data = this.dataMap.get(Model.DATA_KEY);
+        return (data instanceof Data)? (Data) data : null;
+    }
+    
+    /**
+     * getProperty(String key) - liefert den zuletzt unter key abgelegten Wert...
+     * @param key
+     * @return Wert oder null
+     */
+    public Object getProperty(String key)
+    {
+        return this.dataMap.get(key);
+    }
+    
+    /**
+     * isAutoTune() - laeuft das Autotuning (Relais-Versuch)?
+     * @return isAutoTune
+     */
+    public boolean isAutoTune()
+    {
+        return this.isAutoTune;
+    }
+    
     /**
      * doStart() - Methode wird beim Start-Button beauftragt 
      * <p>
@@ -1391,6 +2702,11 @@ public class Model
         
         // Kommunikations-Status setzen...
         this.i2cStatus = ArduinoI2C.Status.INITIAL;
+        this.resync.reset();
+        
+        // Start ohne Entscheidung ueber eine vorhandene Sicherung: Kaltstart...
+        this.resumeState = null;
+        this.isCheckpointArmed = true;
         
         // Zustandsgroessen initial in der View setzen...
         setProperty(Model.DATA_KEY, new Data(this.counter, 
@@ -1403,10 +2719,19 @@ public class Model
                                              this.outputMA,
                                              this.outputMB,
                                              this.realValueMA,
-                                             this.realValueMB));
+                                             this.realValueMB,
+                                             BigDecimal.valueOf(this.odometry.getX()),
+                                             BigDecimal.valueOf(this.odometry.getY()),
+                                             BigDecimal.valueOf(Math.toDegrees(this.odometry.getHeading()))));
         
         // Status der GUI setzen..
         setProperty(GUI_STATUS_KEY, GuiStatus.START);        
+        
+        // Taktueberwachung scharf schalten...
+        if (this.watchdog != null)
+        {
+            this.watchdog.arm();
+        }
     }
     
     /**
@@ -1426,7 +2751,7 @@ public class Model
         this.numberDestinationMA = 0L;
         this.numberDestinationMB = 0L;
         
-        for (int index = 0; index < Model.SIZES_DIFF_VALUES; index++)
+        for (int index = 0; index < this.sizesDiffValues; index++)
         {
             this.cycleTimeValues[index] = BigDecimal.ZERO;
             this.diffValuesMA[index] = 0L;
@@ -1434,10 +2759,25 @@ public class Model
         }
         this.realValueMA = BigDecimal.ZERO;
         this.realValueMB = BigDecimal.ZERO;
+        this.speedEstimatorMA.reset();
+        this.speedEstimatorMB.reset();
+        this.observerMA.reset();
+        this.observerMB.reset();
+        this.cycleMeanNanos = 0.0;
+        this.cycleSamples = 0;
+        this.maxSyncError = 0L;
+        this.maxCycleJitterNanos = 0L;
+        this.odometry.reset();
+        publishDiagnostics();
         
         // Zustandsgroessen zuruecksetzen...
         doClear();
         
+        // Kaltstart: der bisherige Stand der Sicherung wird ueberschrieben...
+        this.resumeState = null;
+        this.isCheckpointArmed = true;
+        writeCheckpoint();
+        
         // isControlled: Mit Regelung... 
         this.isControlled = false;
         setProperty(Model.CONTROL_KEY, Boolean.valueOf(this.isControlled));
@@ -1452,7 +2792,10 @@ public class Model
                                              this.outputMA,
                                              this.outputMB,
                                              this.realValueMA,
-                                             this.realValueMB));
+                                             this.realValueMB,
+                                             BigDecimal.valueOf(this.odometry.getX()),
+                                             BigDecimal.valueOf(this.odometry.getY()),
+                                             BigDecimal.valueOf(Math.toDegrees(this.odometry.getHeading()))));
     }
     
     /**
@@ -1465,8 +2808,15 @@ public class Model
         
         // Kommunikations-Status setzen...
         this.i2cStatus = ArduinoI2C.Status.NOP;
+        // Ohne Kommunikation keine Taktueberwachung...
+        if (this.watchdog != null)
+        {
+            this.watchdog.disarm();
+        }
         // Status der GUI setzen...
         setProperty(GUI_STATUS_KEY, GuiStatus.STOP); 
+        // Ein laufendes Autotuning wird abgebrochen...
+        setProperty(AUTO_TUNE_KEY, Boolean.FALSE);
         
         // Zustandsgroessen zuruecksetzen...
         doClear();
@@ -1481,6 +2831,114 @@ public class Model
             logger.error(exception.toString(), exception);
             System.err.println(exception.toString());
         }
+        
+        // Im Stillstand die Sicherung auch auf den Datentraeger...
+        writeCheckpoint();
+        if (this.checkpoint != null)
+        {
+            this.checkpoint.force();
+        }
+    }
+    
+    /**
+     * doResume() - Warmstart aus der Sicherung (ControlCheckpoint)...
+     * <p>
+     * Uebernommen werden die absolute Lage numberMA/numberMB, die
+     * Lagesollwerte valueDestinationMA/valueDestinationMB und die Lage der
+     * Odometrie, ein erneutes Referenzieren entfaellt. Die Beobachter
+     * beginnen mit der uebernommenen Lage im Stillstand. Die Kommunikation
+     * beginnt mit doStart() wie bisher mit INITIAL, der Arduino zaehlt dann
+     * neu, der Zuwachs wird auf die uebernommene Lage addiert. Der gesicherte
+     * token wird daher nicht uebernommen (INITIAL beginnt mit token 0), er
+     * dient nur der Information.
+     * </p>
+     * @return true, wenn ein gesicherter Stand uebernommen wurde
+     */
+    public boolean doResume()
+    {
+        return doResume(this.resumeState);
+    }
+    
+    /**
+     * doResume(ControlCheckpoint.State state) - Warmstart aus dem Stand state
+     * (vgl. doResume())...
+     * @param state - gesicherter Stand oder null
+     * @return true, wenn der Stand uebernommen wurde
+     */
+    boolean doResume(ControlCheckpoint.State state)
+    {
+        if (state == null)
+        {
+            return false;
+        }
+        logger.info("doResume(): " + state);
+        
+        this.numberMA = state.getNumberMA();
+        this.numberMB = state.getNumberMB();
+        
+        this.valueDestinationMA = state.getValueDestinationMA();
+        this.valueDestinationMB = state.getValueDestinationMB();
+        this.numberDestinationMA = this.valueDestinationMA.longValue();
+        this.numberDestinationMB = this.valueDestinationMB.longValue();
+        
+        this.odometry.setPose(state.getPoseX(), state.getPoseY(), state.getHeading());
+        
+        // Die geregelte Lage (mit Beobachter) ist die uebernommene Lage...
+        this.observerMA.reset(this.numberMA);
+        this.observerMB.reset(this.numberMB);
+        
+        // Relative Variablen beginnen neu...
+        doClear();
+        
+        this.resumeState = null;
+        this.isCheckpointArmed = true;
+        
+        setProperty(Model.DATA_KEY, new Data(this.counter, 
+                                             this.cycleTime, 
+                                             this.token,
+                                             this.numberDestinationMA,
+                                             this.numberDestinationMB,
+                                             this.numberMA,
+                                             this.numberMB,
+                                             this.outputMA,
+                                             this.outputMB,
+                                             this.realValueMA,
+                                             this.realValueMB,
+                                             BigDecimal.valueOf(this.odometry.getX()),
+                                             BigDecimal.valueOf(this.odometry.getY()),
+                                             BigDecimal.valueOf(Math.toDegrees(this.odometry.getHeading()))));
+        return true;
+    }
+    
+    /**
+     * getResumeState() - gesicherter Stand, ueber den noch zu entscheiden ist
+     * (nur mit RESTART == ASK)...
+     * @return Stand oder null
+     */
+    public ControlCheckpoint.State getResumeState()
+    {
+        return this.resumeState;
+    }
+    
+    /**
+     * writeCheckpoint() - aktuellen Stand sichern (nur nach der Entscheidung
+     * Warm-/Kaltstart)...
+     */
+    private void writeCheckpoint()
+    {
+        if ((this.checkpoint == null) || !this.isCheckpointArmed)
+        {
+            return;
+        }
+        this.checkpoint.write(new ControlCheckpoint.State(this.token,
+                                                          this.numberMA,
+                                                          this.numberMB,
+                                                          this.valueDestinationMA,
+                                                          this.valueDestinationMB,
+                                                          this.odometry.getX(),
+                                                          this.odometry.getY(),
+                                                          this.odometry.getHeading(),
+                                                          System.currentTimeMillis()));
     }
     
     /**
@@ -1495,8 +2953,52 @@ public class Model
 
         // Kommunikations-Status setzen...
         this.i2cStatus = ArduinoI2C.Status.NOP;
+        
+        if (this.watchdog != null)
+        {
+            this.watchdog.stop();
+        }
+        if (this.cycleGenerator != null)
+        {
+            this.cycleGenerator.stop();
+        }
+        if (this.gpioMemPoller != null)
+        {
+            this.gpioMemPoller.stop();
+        }
+        if (this.encoderPoller != null)
+        {
+            this.encoderPoller.stop();
+        }
+        if (this.telemetryArchive != null)
+        {
+            this.telemetryArchive.stop();
+        }
+        if (this.telemetrySender != null)
+        {
+            this.telemetrySender.close();
+        }
+        if (this.configWatcher != null)
+        {
+            this.configWatcher.stop();
+        }
+        if (this.checkpoint != null)
+        {
+            // Taktquellen sind gestoppt, der letzte Stand unter der Sperre
+            // des Model (kein halber Takt, z.B. eines noch laufenden doCycle())...
+            synchronized (this)
+            {
+                writeCheckpoint();
+            }
+            this.checkpoint.close();
+        }
 
         setProperty(GUI_STATUS_KEY, GuiStatus.END);        
+        // Letzter Stand im Abbild bleibt END (View im eigenen Prozess)...
+        if (this.snapshot != null)
+        {
+            removePropertyChangeListener(this.snapshot);
+        }
 
         try
         {
@@ -1602,4 +3104,23 @@ public class Model
                                       .toString();
         }
     }
+    
+    /**
+     * Restart - Verhalten beim Start mit vorhandener Sicherung (ControlCheckpoint)...
+     */
+    public enum Restart
+    {
+        /**
+         * ASK - Auswahl durch den Bediener (SwingMain, ControlServer RESUME/RESET)
+         */
+        ASK,
+        /**
+         * WARM - Warmstart aus der Sicherung
+         */
+        WARM,
+        /**
+         * COLD - Kaltstart, die Sicherung wird ueberschrieben
+         */
+        COLD
+    }
 }
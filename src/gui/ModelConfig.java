@@ -0,0 +1,607 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ModelConfig - Konfiguration der Regelstrecke und der Auswahllisten des Model.
+ * <p>
+ * Die Werte werden beim Start aus der Datei CONFIG_FILE = "model.properties"
+ * (neben system.properties) gelesen. Mit -Dgui.config=Datei koennen sie
+ * durch eine externe Datei ueberschrieben werden, diese wird im Betrieb
+ * ueberwacht (Watcher). Fehlen Eintraege, gelten die bisherigen Werte.
+ * </p>
+ * <p>
+ * Im Betrieb aenderbar (Uebernahme im naechsten Takt, vgl. Model.doCycle()):
+ * <ul>
+ *  <li>sizesDiffValues - Anzahl der Messwerte zur Drehzahlermittlung</li>
+ *  <li>mdHatFrequency - PWM-Frequenz des MotorDriverHAT</li>
+ *  <li>gainSpeedStep, gainTable - Gain-Scheduling (GainSchedule, leer: aus)</li>
+ *  <li>wheelRadius, trackWidth - Abmessungen des Fahrzeuges (Odometry)</li>
+ * </ul>
+ * Alle anderen Werte erfordern einen Neustart (Warnung im Protokoll).
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public final class ModelConfig
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ModelConfig.class);
+
+    /**
+     * CONFIG_FILE = "model.properties" - Name der Konfigurationsdatei (Ressource neben system.properties)
+     */
+    public final static String CONFIG_FILE = "model.properties";
+
+    /**
+     * EXTERNAL_FILE - externe, im Betrieb ueberwachte Datei, einstellbar ueber -Dgui.config=... (Standard: keine)
+     */
+    public final static String EXTERNAL_FILE = System.getProperty("gui.config");
+
+    /**
+     * Keys der Eintraege...
+     */
+    public final static String CIRCUMFERENCE_KEY = "circumference";
+    public final static String SIZES_DIFF_VALUES_KEY = "sizesDiffValues";
+    public final static String MD_HAT_FREQUENCY_KEY = "mdHatFrequency";
+    public final static String ARDUINO_ADDRESS_KEY = "arduinoAddress";
+    public final static String MD_HAT_ADDRESS_KEY = "mdHatAddress";
+    public final static String DESTINATION_VALUES_KEY = "destinationValues";
+    public final static String OUTPUT_RELATION_VALUES_KEY = "outputRelationValues";
+    public final static String OUTPUT_RELATION_INDEX_KEY = "outputRelationIndex";
+    public final static String GAIN_SPEED_STEP_KEY = "gainSpeedStep";
+    public final static String GAIN_TABLE_KEY = "gainTable";
+    public final static String WHEEL_RADIUS_KEY = "wheelRadius";
+    public final static String TRACK_WIDTH_KEY = "trackWidth";
+
+    /**
+     * DEFAULTS - Vorbelegung, falls CONFIG_FILE fehlt oder unvollstaendig ist
+     */
+    private final static String[][] DEFAULTS = new String[][]
+    {
+        { CIRCUMFERENCE_KEY, "6" },
+        { SIZES_DIFF_VALUES_KEY, "20" },
+        { MD_HAT_FREQUENCY_KEY, "100" },
+        { ARDUINO_ADDRESS_KEY, "0x08" },
+        { MD_HAT_ADDRESS_KEY, "0x40" },
+        { DESTINATION_VALUES_KEY, "120, 110, 100, 90, 80, 70, 60, 50, 40, 30, 20, 10, 0, "
+                                + "-10, -20, -30, -40, -50, -60, -70, -80, -90, -100, -110, -120" },
+        { OUTPUT_RELATION_VALUES_KEY, "200, 190, 180, 170, 160, 150, 140, 130, 120, 110, 100, 90, 80, 70, 60, 50" },
+        { OUTPUT_RELATION_INDEX_KEY, "9" },
+        { GAIN_SPEED_STEP_KEY, "10" },
+        { GAIN_TABLE_KEY, "" },
+        { WHEEL_RADIUS_KEY, "33" },
+        { TRACK_WIDTH_KEY, "140" }
+    };
+
+    /**
+     * STARTUP - die beim Start gelesene Konfiguration
+     */
+    public final static ModelConfig STARTUP = load();
+
+    private final int circumference;
+    private final int sizesDiffValues;
+    private final int mdHatFrequency;
+    private final int arduinoAddress;
+    private final int mdHatAddress;
+    private final BigDecimal[] destinationValues;
+    private final BigDecimal[] outputRelationValues;
+    private final int outputRelationIndex;
+    private final GainSchedule gainSchedule;
+    private final double wheelRadius;
+    private final double trackWidth;
+
+    /**
+     * ModelConfig(Properties properties) - Pruefung aller Eintraege...
+     * @param properties
+     * @throws IllegalArgumentException bei ungueltigen Eintraegen
+     */
+    ModelConfig(Properties properties)
+    {
+        this.circumference = toInt(properties, CIRCUMFERENCE_KEY, 1, 10000);
+        this.sizesDiffValues = toInt(properties, SIZES_DIFF_VALUES_KEY, 1, 1000);
+        // PCA9685: 24 Hz ... 1526 Hz
+        this.mdHatFrequency = toInt(properties, MD_HAT_FREQUENCY_KEY, 24, 1526);
+        this.arduinoAddress = toInt(properties, ARDUINO_ADDRESS_KEY, 0x03, 0x77);
+        this.mdHatAddress = toInt(properties, MD_HAT_ADDRESS_KEY, 0x40, 0x5F);
+        if (this.arduinoAddress == this.mdHatAddress)
+        {
+            throw new IllegalArgumentException(ARDUINO_ADDRESS_KEY + " and " + MD_HAT_ADDRESS_KEY + " must differ!");
+        }
+        this.destinationValues = toValues(properties, DESTINATION_VALUES_KEY, Model.SCALE_DESTINATION, BigDecimal.ROUND_HALF_UP);
+        if (getDestinationIndex() < 0)
+        {
+            throw new IllegalArgumentException(DESTINATION_VALUES_KEY + " must contain 0!");
+        }
+        this.outputRelationValues = toValues(properties, OUTPUT_RELATION_VALUES_KEY, Model.SCALE_OUTPUT_RELATION, BigDecimal.ROUND_DOWN);
+        for (BigDecimal value: this.outputRelationValues)
+        {
+            if (value.signum() <= 0)
+            {
+                throw new IllegalArgumentException(OUTPUT_RELATION_VALUES_KEY + " must be > 0!");
+            }
+        }
+        this.outputRelationIndex = toInt(properties, OUTPUT_RELATION_INDEX_KEY, 0, this.outputRelationValues.length - 1);
+        this.gainSchedule = GainSchedule.parse(properties.getProperty(GAIN_SPEED_STEP_KEY, ""),
+                                               properties.getProperty(GAIN_TABLE_KEY, ""));
+        this.wheelRadius = toDouble(properties, WHEEL_RADIUS_KEY, 1.0, 1000.0);
+        this.trackWidth = toDouble(properties, TRACK_WIDTH_KEY, 1.0, 10000.0);
+    }
+
+    /**
+     * toInt(...) - Eintrag als int (dezimal oder 0x...) im Bereich min ... max...
+     */
+    private static int toInt(Properties properties, String key, int min, int max)
+    {
+        final String text = properties.getProperty(key, "").trim();
+        final int value;
+        try
+        {
+            value = Integer.decode(text).intValue();
+        }
+        catch (NumberFormatException exception)
+        {
+            throw new IllegalArgumentException(key + ": invalid number '" + text + "'!");
+        }
+        if (value < min || value > max)
+        {
+            throw new IllegalArgumentException(key + ": " + value + " out of range " + min + " ... " + max + "!");
+        }
+        return value;
+    }
+
+    /**
+     * toDouble(...) - Eintrag als double im Bereich min ... max...
+     */
+    private static double toDouble(Properties properties, String key, double min, double max)
+    {
+        final String text = properties.getProperty(key, "").trim();
+        final double value;
+        try
+        {
+            value = Double.parseDouble(text);
+        }
+        catch (NumberFormatException exception)
+        {
+            throw new IllegalArgumentException(key + ": invalid number '" + text + "'!");
+        }
+        if (!(value >= min && value <= max))
+        {
+            throw new IllegalArgumentException(key + ": " + value + " out of range " + min + " ... " + max + "!");
+        }
+        return value;
+    }
+
+    /**
+     * toValues(...) - Eintrag als Liste von BigDecimal (durch Komma getrennt)...
+     */
+    private static BigDecimal[] toValues(Properties properties, String key, int scale, int roundingMode)
+    {
+        final String[] texts = properties.getProperty(key, "").split(",");
+        final BigDecimal[] values = new BigDecimal[texts.length];
+        for (int index = 0; index < texts.length; index++)
+        {
+            try
+            {
+                values[index] = new BigDecimal(texts[index].trim()).setScale(scale, roundingMode);
+            }
+            catch (NumberFormatException exception)
+            {
+                throw new IllegalArgumentException(key + ": invalid number '" + texts[index].trim() + "'!");
+            }
+        }
+        return values;
+    }
+
+    /**
+     * load() - Vorbelegung, CONFIG_FILE und evtl. EXTERNAL_FILE...
+     * <p>
+     * Eine ungueltige Konfiguration beim Start wird protokolliert, es gelten
+     * dann CONFIG_FILE bzw. die Vorbelegungen (DEFAULTS).
+     * </p>
+     */
+    private static ModelConfig load()
+    {
+        final Properties defaults = new Properties();
+        for (String[] entry: DEFAULTS)
+        {
+            defaults.setProperty(entry[0], entry[1]);
+        }
+        final Properties properties = new Properties(defaults);
+        try (InputStream inputStream = ModelConfig.class.getResourceAsStream(CONFIG_FILE))
+        {
+            if (inputStream != null)
+            {
+                properties.load(inputStream);
+            }
+            else
+            {
+                logger.warn("Can't read the properties file '" + CONFIG_FILE + "', using defaults!");
+            }
+        }
+        catch (IOException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+        try
+        {
+            if (EXTERNAL_FILE != null)
+            {
+                return read(new File(EXTERNAL_FILE), properties);
+            }
+            return new ModelConfig(properties);
+        }
+        catch (IOException | IllegalArgumentException exception)
+        {
+            logger.error("Invalid configuration: " + exception.toString());
+        }
+        try
+        {
+            return new ModelConfig(properties);
+        }
+        catch (IllegalArgumentException exception)
+        {
+            logger.error("Invalid configuration, using defaults: " + exception.toString());
+            return new ModelConfig(defaults);
+        }
+    }
+
+    /**
+     * read(File file, Properties defaults) - Datei lesen und pruefen...
+     * @param file
+     * @param defaults - Werte fuer fehlende Eintraege
+     * @return die Konfiguration
+     * @throws IOException
+     * @throws IllegalArgumentException bei ungueltigen Eintraegen
+     */
+    static ModelConfig read(File file, Properties defaults) throws IOException
+    {
+        final Properties properties = new Properties(defaults);
+        try (InputStream inputStream = new FileInputStream(file))
+        {
+            properties.load(inputStream);
+        }
+        return new ModelConfig(properties);
+    }
+
+    /**
+     * toProperties() - die Konfiguration als Properties (Vorbelegung beim Neuladen)...
+     */
+    Properties toProperties()
+    {
+        final Properties properties = new Properties();
+        properties.setProperty(CIRCUMFERENCE_KEY, Integer.toString(this.circumference));
+        properties.setProperty(SIZES_DIFF_VALUES_KEY, Integer.toString(this.sizesDiffValues));
+        properties.setProperty(MD_HAT_FREQUENCY_KEY, Integer.toString(this.mdHatFrequency));
+        properties.setProperty(ARDUINO_ADDRESS_KEY, "0x" + Integer.toHexString(this.arduinoAddress));
+        properties.setProperty(MD_HAT_ADDRESS_KEY, "0x" + Integer.toHexString(this.mdHatAddress));
+        properties.setProperty(DESTINATION_VALUES_KEY, join(this.destinationValues));
+        properties.setProperty(OUTPUT_RELATION_VALUES_KEY, join(this.outputRelationValues));
+        properties.setProperty(OUTPUT_RELATION_INDEX_KEY, Integer.toString(this.outputRelationIndex));
+        if (this.gainSchedule != null)
+        {
+            properties.setProperty(GAIN_SPEED_STEP_KEY, Double.toString(this.gainSchedule.getSpeedStep()));
+            properties.setProperty(GAIN_TABLE_KEY, this.gainSchedule.format());
+        }
+        properties.setProperty(WHEEL_RADIUS_KEY, Double.toString(this.wheelRadius));
+        properties.setProperty(TRACK_WIDTH_KEY, Double.toString(this.trackWidth));
+        return properties;
+    }
+
+    private static String join(BigDecimal[] values)
+    {
+        final StringBuilder builder = new StringBuilder();
+        for (BigDecimal value: values)
+        {
+            builder.append((builder.length() > 0)? ", " : "").append(value.toPlainString());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * isRestartRequired(ModelConfig other) - unterscheiden sich Werte, die
+     * nur beim Start uebernommen werden?
+     * @param other
+     * @return true, wenn ein Neustart erforderlich ist
+     */
+    public boolean isRestartRequired(ModelConfig other)
+    {
+        return this.circumference != other.circumference
+            || this.arduinoAddress != other.arduinoAddress
+            || this.mdHatAddress != other.mdHatAddress
+            || !Arrays.equals(this.destinationValues, other.destinationValues)
+            || !Arrays.equals(this.outputRelationValues, other.outputRelationValues)
+            || this.outputRelationIndex != other.outputRelationIndex;
+    }
+
+    /**
+     * @return Tabelle der Verstaerkungen (im Betrieb aenderbar), null: kein Gain-Scheduling
+     */
+    public GainSchedule getGainSchedule()
+    {
+        return this.gainSchedule;
+    }
+
+    /**
+     * @return Radius der Raeder in mm (im Betrieb aenderbar)
+     */
+    public double getWheelRadius()
+    {
+        return this.wheelRadius;
+    }
+
+    /**
+     * @return Spurweite in mm (im Betrieb aenderbar)
+     */
+    public double getTrackWidth()
+    {
+        return this.trackWidth;
+    }
+
+    /**
+     * @return Anzahl der Impulse des Gebers pro Umdrehung
+     */
+    public int getCircumference()
+    {
+        return this.circumference;
+    }
+
+    /**
+     * @return Anzahl der Messwerte zur Drehzahlermittlung (im Betrieb aenderbar)
+     */
+    public int getSizesDiffValues()
+    {
+        return this.sizesDiffValues;
+    }
+
+    /**
+     * @return PWM-Frequenz des MotorDriverHAT (im Betrieb aenderbar)
+     */
+    public int getMdHatFrequency()
+    {
+        return this.mdHatFrequency;
+    }
+
+    /**
+     * @return Bus-Adresse des Arduino
+     */
+    public int getArduinoAddress()
+    {
+        return this.arduinoAddress;
+    }
+
+    /**
+     * @return Bus-Adresse des MotorDriverHAT
+     */
+    public int getMdHatAddress()
+    {
+        return this.mdHatAddress;
+    }
+
+    /**
+     * @return Kopie der Sollwert-Vorgaben
+     */
+    public BigDecimal[] getDestinationValues()
+    {
+        return this.destinationValues.clone();
+    }
+
+    /**
+     * @return Index des Sollwertes 0 in den Sollwert-Vorgaben, -1 wenn nicht enthalten
+     */
+    public int getDestinationIndex()
+    {
+        for (int index = 0; index < this.destinationValues.length; index++)
+        {
+            if (this.destinationValues[index].signum() == 0)
+            {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Kopie der Uebersetzungs-Vorgaben
+     */
+    public BigDecimal[] getOutputRelationValues()
+    {
+        return this.outputRelationValues.clone();
+    }
+
+    /**
+     * @return Index der Vorbelegung in den Uebersetzungs-Vorgaben
+     */
+    public int getOutputRelationIndex()
+    {
+        return this.outputRelationIndex;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.circumference)
+                                  .append(" ")
+                                  .append(this.sizesDiffValues)
+                                  .append(" ")
+                                  .append(this.mdHatFrequency)
+                                  .append(" 0x")
+                                  .append(Integer.toHexString(this.arduinoAddress))
+                                  .append(" 0x")
+                                  .append(Integer.toHexString(this.mdHatAddress))
+                                  .append(" ")
+                                  .append(Arrays.toString(this.destinationValues))
+                                  .append(" ")
+                                  .append(Arrays.toString(this.outputRelationValues))
+                                  .append(" ")
+                                  .append(this.outputRelationIndex)
+                                  .append(" ")
+                                  .append(this.gainSchedule)
+                                  .append(" ")
+                                  .append(this.wheelRadius)
+                                  .append(" ")
+                                  .append(this.trackWidth)
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * Watcher - Ueberwachung der externen Datei (Aenderungszeit und Laenge)...
+     * <p>
+     * Eine geaenderte, gueltige Datei wird als ausstehende Konfiguration
+     * abgelegt und vom Model mit poll() an der Taktgrenze uebernommen. Eine
+     * ungueltige Datei wird protokolliert und verworfen.
+     * </p>
+     */
+    public final static class Watcher implements Runnable
+    {
+        /**
+         * POLL_MILLIS = 1000 - Abstand der Pruefung
+         */
+        public final static long POLL_MILLIS = 1000L;
+
+        /**
+         * file - ueberwachte Datei
+         */
+        private final File file;
+
+        /**
+         * pending - ausstehende Konfiguration (null: keine)
+         */
+        private final AtomicReference<ModelConfig> pending = new AtomicReference<>();
+
+        /**
+         * current - zuletzt gelesene Konfiguration (Vorbelegung fehlender Eintraege)
+         */
+        private ModelConfig current;
+
+        /**
+         * lastModified/length - Stand der Datei
+         */
+        private long lastModified;
+        private long length;
+
+        /**
+         * thread
+         */
+        private Thread thread = null;
+
+        /**
+         * Watcher(File file, ModelConfig current)
+         * @param file - ueberwachte Datei
+         * @param current - aktuelle Konfiguration
+         */
+        public Watcher(File file, ModelConfig current)
+        {
+            this.file = file;
+            this.current = current;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        /**
+         * start() - Thread (Daemon) starten...
+         */
+        public synchronized void start()
+        {
+            if (this.thread == null)
+            {
+                this.thread = new Thread(this, "ModelConfig.Watcher");
+                this.thread.setDaemon(true);
+                this.thread.start();
+            }
+        }
+
+        /**
+         * stop() - Thread beenden...
+         */
+        public synchronized void stop()
+        {
+            if (this.thread != null)
+            {
+                this.thread.interrupt();
+                this.thread = null;
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            while (!Thread.currentThread().isInterrupted())
+            {
+                try
+                {
+                    Thread.sleep(POLL_MILLIS);
+                }
+                catch (InterruptedException exception)
+                {
+                    break;
+                }
+                check();
+            }
+        }
+
+        /**
+         * check() - Datei geaendert? Dann lesen und pruefen...
+         * @return true, wenn eine neue Konfiguration aussteht
+         */
+        boolean check()
+        {
+            final long modified = this.file.lastModified();
+            final long size = this.file.length();
+            if (modified == this.lastModified && size == this.length)
+            {
+                return false;
+            }
+            this.lastModified = modified;
+            this.length = size;
+            try
+            {
+                final ModelConfig config = read(this.file, this.current.toProperties());
+                if (config.isRestartRequired(this.current))
+                {
+                    logger.warn("Konfiguration " + this.file + ": nur sizesDiffValues, mdHatFrequency, die Gain-Tabelle und die Abmessungen werden im Betrieb uebernommen, "
+                              + "uebrige Aenderungen erst nach Neustart!");
+                }
+                this.current = config;
+                this.pending.set(config);
+                logger.info("Konfiguration " + this.file + " neu gelesen: " + config);
+                return true;
+            }
+            catch (IOException | IllegalArgumentException exception)
+            {
+                logger.error("Konfiguration " + this.file + " verworfen: " + exception.toString());
+                return false;
+            }
+        }
+
+        /**
+         * poll() - ausstehende Konfiguration entnehmen (an der Taktgrenze)...
+         * @return neue Konfiguration oder null
+         */
+        public ModelConfig poll()
+        {
+            return this.pending.getAndSet(null);
+        }
+    }
+}
@@ -0,0 +1,571 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pi4j.io.i2c.I2CBus;
+import com.pi4j.io.i2c.I2CDevice;
+
+/**
+ * MotorFanOut - Ausgabe der Stellgroessen mehrerer Motoren auf mehrere
+ * MotorDriverHAT (PCA9685, Adressbereich 0x40 ... 0x5F).
+ * <p>
+ * Jede logische Achse ist einem Paar (Adresse, Kanal A/B) zugeordnet. Die
+ * Stellgroessen werden mit set() nur vorgemerkt (Abbild der Register je
+ * HAT), flush() schreibt alle geaenderten Ausgaben: je HAT hoechstens eine
+ * Transaktion ueber den zusammenhaengenden Bereich der geaenderten Kanaele
+ * (Auto-Increment des PCA9685), unveraenderte HAT werden nicht
+ * angesprochen. Die Puffer stehen vor der ersten Transaktion fest, die
+ * Transaktionen folgen ohne Berechnung direkt aufeinander, der zeitliche
+ * Versatz (skew) der Ausgaben ist damit die Dauer der Transaktionen.
+ * </p>
+ * <p>
+ * Belegung der Kanaele des PCA9685 je HAT (TB6612): Motor A PWM 0, IN1 1,
+ * IN2 2, Motor B IN1 3, IN2 4, PWM 5. Ein Fehler (IOException) eines HAT
+ * laesst dessen Ausgaben vorgemerkt, die uebrigen HAT werden trotzdem
+ * geschrieben.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class MotorFanOut
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(MotorFanOut.class);
+
+    /**
+     * Register des PCA9685...
+     */
+    private final static int MODE1 = 0x00;
+    private final static int MODE2 = 0x01;
+    private final static int LED0_ON_L = 0x06;
+    private final static int PRE_SCALE = 0xFE;
+
+    /**
+     * Bits MODE1/MODE2: SLEEP, AI (Auto-Increment), OUTDRV (Totem-Pole)
+     */
+    private final static int MODE1_SLEEP = 0x10;
+    private final static int MODE1_AI = 0x20;
+    private final static int MODE2_OUTDRV = 0x04;
+
+    /**
+     * FULL = 0x10 - Bit 4 in LEDn_ON_H/LEDn_OFF_H (dauernd an/aus)
+     */
+    private final static int FULL = 0x10;
+
+    /**
+     * OSCILLATOR_HZ = 25 MHz - interner Oszillator des PCA9685
+     */
+    private final static double OSCILLATOR_HZ = 25000000.0;
+
+    /**
+     * CHANNELS = 6 - belegte Kanaele des PCA9685 je HAT
+     */
+    public final static int CHANNELS = 6;
+
+    /**
+     * FLUSH_BYTES = 25 - groesste Transaktion je HAT (Register und 6 * 4 Byte)
+     */
+    public final static int FLUSH_BYTES = 1 + 4 * CHANNELS;
+
+    /**
+     * Channel - Motor A oder B eines HAT mit seinen Kanaelen (PWM, IN1, IN2)...
+     */
+    public enum Channel
+    {
+        A(0, 1, 2),
+        B(5, 3, 4);
+
+        /**
+         * pwm/in1/in2 - Kanaele des PCA9685
+         */
+        private final int pwm;
+        private final int in1;
+        private final int in2;
+
+        private Channel(int pwm, int in1, int in2)
+        {
+            this.pwm = pwm;
+            this.in1 = in1;
+            this.in2 = in2;
+        }
+    }
+
+    /**
+     * Axis - logische Achse, zugeordnet einem Paar (Adresse, Kanal)...
+     */
+    public final static class Axis
+    {
+        /**
+         * address - Adresse des HAT (0x40 ... 0x5F)
+         */
+        private final int address;
+
+        /**
+         * channel - Motor A/B des HAT
+         */
+        private final Channel channel;
+
+        /**
+         * Axis(int address, Channel channel)
+         * @param address - Adresse des HAT (0x40 ... 0x5F)
+         * @param channel - Motor A/B
+         */
+        public Axis(int address, Channel channel)
+        {
+            if (address < MultiModulePlant.MIN_HAT_ADDRESS || address > MultiModulePlant.MAX_HAT_ADDRESS)
+            {
+                throw new IllegalArgumentException("address 0x" + Integer.toHexString(address) + " out of range 0x40 ... 0x5F!");
+            }
+            this.address = address;
+            this.channel = Objects.requireNonNull(channel, "channel must not be null!");
+        }
+
+        /**
+         * parse(String text) - Achse aus "0x41:B"...
+         * @param text - Adresse:Kanal
+         * @return Achse
+         * @throws IllegalArgumentException bei ungueltiger Angabe
+         */
+        public static Axis parse(String text)
+        {
+            final String[] parts = text.trim().split(":");
+            if (parts.length != 2)
+            {
+                throw new IllegalArgumentException("invalid axis " + text + " (address:A|B)");
+            }
+            return new Axis(Integer.decode(parts[0].trim()).intValue(), Channel.valueOf(parts[1].trim().toUpperCase(java.util.Locale.ROOT)));
+        }
+
+        /**
+         * @return Adresse des HAT
+         */
+        public int getAddress()
+        {
+            return this.address;
+        }
+
+        /**
+         * @return Motor A/B
+         */
+        public Channel getChannel()
+        {
+            return this.channel;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (this == object)
+            {
+                return true;
+            }
+            if (!(object instanceof Axis))
+            {
+                return false;
+            }
+            final Axis other = (Axis) object;
+            return (this.address == other.address) && (this.channel == other.channel);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(Integer.valueOf(this.address), this.channel);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "0x" + Integer.toHexString(this.address) + ":" + this.channel;
+        }
+    }
+
+    /**
+     * Bus - Schreibzugriff auf die Register eines Bausteins (z.B. ueber I2CBus, Test)...
+     */
+    public interface Bus
+    {
+        /**
+         * write(...) - size Bytes ab register schreiben (eine Transaktion)...
+         * @param address - Bus-Adresse
+         * @param register - erstes Register
+         * @param buffer - Daten
+         * @param offset - Beginn in buffer
+         * @param size - Anzahl der Bytes
+         * @throws IOException
+         */
+        void write(int address, int register, byte[] buffer, int offset, int size) throws IOException;
+    }
+
+    /**
+     * Hat - ein HAT mit Abbild der Register LED0 ... LED5 und dem
+     * Bereich der geaenderten Kanaele...
+     */
+    private final static class Hat
+    {
+        /**
+         * address - Adresse des HAT
+         */
+        private final int address;
+
+        /**
+         * image - Register LEDn_ON_L ... LEDn_OFF_H der Kanaele 0 ... CHANNELS-1
+         */
+        private final byte[] image = new byte[4 * CHANNELS];
+
+        /**
+         * dirtyFrom/dirtyTo - geaenderte Kanaele (dirtyFrom > dirtyTo: keine)
+         */
+        private int dirtyFrom = CHANNELS;
+        private int dirtyTo = -1;
+
+        private Hat(int address)
+        {
+            this.address = address;
+        }
+
+        /**
+         * put(int channel, int on, int off) - Kanal setzen, bei Aenderung vormerken...
+         */
+        private void put(int channel, int on, int off)
+        {
+            final int offset = 4 * channel;
+            final byte onL = (byte) on;
+            final byte onH = (byte) (on >> 8);
+            final byte offL = (byte) off;
+            final byte offH = (byte) (off >> 8);
+            if (this.image[offset] == onL && this.image[offset + 1] == onH
+             && this.image[offset + 2] == offL && this.image[offset + 3] == offH)
+            {
+                return;
+            }
+            this.image[offset] = onL;
+            this.image[offset + 1] = onH;
+            this.image[offset + 2] = offL;
+            this.image[offset + 3] = offH;
+            markDirty(channel, channel);
+        }
+
+        private void markDirty(int from, int to)
+        {
+            this.dirtyFrom = Math.min(this.dirtyFrom, from);
+            this.dirtyTo = Math.max(this.dirtyTo, to);
+        }
+
+        private boolean isDirty()
+        {
+            return this.dirtyFrom <= this.dirtyTo;
+        }
+
+        private void clean()
+        {
+            this.dirtyFrom = CHANNELS;
+            this.dirtyTo = -1;
+        }
+    }
+
+    /**
+     * bus - Zugriff auf die Register
+     */
+    private final Bus bus;
+
+    /**
+     * axes - die logischen Achsen (Index = Achse)
+     */
+    private final List<Axis> axes;
+
+    /**
+     * axisHats - je Achse der HAT
+     */
+    private final Hat[] axisHats;
+
+    /**
+     * hats - alle HAT in der Reihenfolge der ersten Achse
+     */
+    private final Hat[] hats;
+
+    /**
+     * pending - HAT mit Aenderungen im laufenden flush()
+     */
+    private final Hat[] pending;
+
+    /**
+     * Statistik...
+     */
+    private long flushes = 0L;
+    private long transactions = 0L;
+    private long bytes = 0L;
+    private long errors = 0L;
+    private long maxSkewNanos = 0L;
+
+    /**
+     * MotorFanOut(Bus bus, List&lt;Axis&gt; axes)
+     * @param bus - Zugriff auf die Register
+     * @param axes - die logischen Achsen (Index = Achse)
+     * @throws IllegalArgumentException bei doppelter Zuordnung oder ohne Achsen
+     */
+    public MotorFanOut(Bus bus, List<Axis> axes)
+    {
+        this.bus = Objects.requireNonNull(bus, "bus must not be null!");
+        if (axes == null || axes.isEmpty())
+        {
+            throw new IllegalArgumentException("axes must not be empty!");
+        }
+        this.axes = Collections.unmodifiableList(new ArrayList<>(axes));
+        if (new java.util.HashSet<>(this.axes).size() != this.axes.size())
+        {
+            throw new IllegalArgumentException("duplicate axis in " + this.axes);
+        }
+        final Map<Integer, Hat> hatMap = new LinkedHashMap<>();
+        this.axisHats = new Hat[this.axes.size()];
+        for (int index = 0; index < this.axes.size(); index++)
+        {
+            final int address = this.axes.get(index).getAddress();
+            this.axisHats[index] = hatMap.computeIfAbsent(Integer.valueOf(address), key -> new Hat(address));
+        }
+        this.hats = hatMap.values().toArray(new Hat[hatMap.size()]);
+        this.pending = new Hat[this.hats.length];
+        // Ausgangszustand: alle Kanaele dauernd aus...
+        for (Hat hat: this.hats)
+        {
+            for (int channel = 0; channel < CHANNELS; channel++)
+            {
+                hat.put(channel, 0, FULL << 8);
+            }
+        }
+    }
+
+    /**
+     * toBus(I2CBus i2cBus, List&lt;Axis&gt; axes) - Zugriff ueber pi4j, die
+     * I2CDevice werden vorab angelegt...
+     * @param i2cBus - der I2C-Bus
+     * @param axes - Achsen (Adressen)
+     * @return Bus
+     * @throws IOException
+     */
+    public static Bus toBus(I2CBus i2cBus, List<Axis> axes) throws IOException
+    {
+        final Map<Integer, I2CDevice> devices = new java.util.HashMap<>();
+        for (Axis axis: axes)
+        {
+            if (!devices.containsKey(Integer.valueOf(axis.getAddress())))
+            {
+                devices.put(Integer.valueOf(axis.getAddress()), i2cBus.getDevice(axis.getAddress()));
+            }
+        }
+        return (address, register, buffer, offset, size) -> devices.get(Integer.valueOf(address)).write(register, buffer, offset, size);
+    }
+
+    /**
+     * setPwmFrequency(int frequency) - alle HAT initialisieren (MODE1 mit
+     * Auto-Increment, Frequenz), danach alle Kanaele neu schreiben...
+     * @param frequency - PWM-Frequenz in Hz (24 ... 1526)
+     * @throws IOException
+     */
+    public synchronized void setPwmFrequency(int frequency) throws IOException
+    {
+        final int prescale = (int) Math.round(OSCILLATOR_HZ / (4096.0 * frequency)) - 1;
+        if (prescale < 3 || prescale > 255)
+        {
+            throw new IllegalArgumentException("frequency " + frequency + " out of range!");
+        }
+        for (Hat hat: this.hats)
+        {
+            // PRE_SCALE nur im SLEEP aenderbar...
+            this.bus.write(hat.address, MODE1, new byte[] {(byte) (MODE1_SLEEP | MODE1_AI)}, 0, 1);
+            this.bus.write(hat.address, PRE_SCALE, new byte[] {(byte) prescale}, 0, 1);
+            this.bus.write(hat.address, MODE2, new byte[] {(byte) MODE2_OUTDRV}, 0, 1);
+            this.bus.write(hat.address, MODE1, new byte[] {(byte) MODE1_AI}, 0, 1);
+            hat.markDirty(0, CHANNELS - 1);
+        }
+        // Oszillator nach SLEEP: 500us bis zur Ausgabe...
+        try
+        {
+            Thread.sleep(1L);
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        logger.info("MotorFanOut " + frequency + "Hz: " + this.axes);
+    }
+
+    /**
+     * set(int axis, float speed) - Stellgroesse vormerken, Ausgabe mit flush()...
+     * @param axis - Index der Achse
+     * @param speed - Stellgroesse -1.0 ... +1.0 (Vorzeichen: Drehrichtung)
+     */
+    public synchronized void set(int axis, float speed)
+    {
+        final Channel channel = this.axes.get(axis).getChannel();
+        final Hat hat = this.axisHats[axis];
+        final float value = Float.isNaN(speed)? 0.0F : Math.max(-1.0F, Math.min(1.0F, speed));
+        final int duty = Math.round(Math.abs(value) * 4095.0F);
+        if (duty == 0)
+        {
+            hat.put(channel.pwm, 0, FULL << 8);
+        }
+        else if (duty >= 4095)
+        {
+            hat.put(channel.pwm, FULL << 8, 0);
+        }
+        else
+        {
+            hat.put(channel.pwm, 0, duty);
+        }
+        hat.put(channel.in1, (value > 0.0F)? (FULL << 8) : 0, (value > 0.0F)? 0 : (FULL << 8));
+        hat.put(channel.in2, (value < 0.0F)? (FULL << 8) : 0, (value < 0.0F)? 0 : (FULL << 8));
+    }
+
+    /**
+     * flush() - alle geaenderten Ausgaben schreiben, je HAT eine Transaktion...
+     * @throws IOException - erster Fehler (die uebrigen HAT sind geschrieben)
+     */
+    public synchronized void flush() throws IOException
+    {
+        int count = 0;
+        for (Hat hat: this.hats)
+        {
+            if (hat.isDirty())
+            {
+                this.pending[count++] = hat;
+            }
+        }
+        this.flushes++;
+        if (count == 0)
+        {
+            return;
+        }
+        IOException failure = null;
+        final long start = System.nanoTime();
+        for (int index = 0; index < count; index++)
+        {
+            final Hat hat = this.pending[index];
+            final int from = hat.dirtyFrom;
+            final int size = 4 * (hat.dirtyTo - from + 1);
+            try
+            {
+                this.bus.write(hat.address, LED0_ON_L + 4 * from, hat.image, 4 * from, size);
+                hat.clean();
+                this.transactions++;
+                this.bytes += 1 + size;
+            }
+            catch (IOException exception)
+            {
+                this.errors++;
+                if (failure == null)
+                {
+                    failure = exception;
+                }
+            }
+        }
+        final long skewNanos = System.nanoTime() - start;
+        if (skewNanos > this.maxSkewNanos)
+        {
+            this.maxSkewNanos = skewNanos;
+        }
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    /**
+     * @return die Achsen (Index = Achse)
+     */
+    public List<Axis> getAxes()
+    {
+        return this.axes;
+    }
+
+    /**
+     * @return Adressen der HAT in der Reihenfolge der Ausgabe
+     */
+    public List<Integer> getHatAddresses()
+    {
+        final List<Integer> addresses = new ArrayList<>();
+        for (Hat hat: this.hats)
+        {
+            addresses.add(Integer.valueOf(hat.address));
+        }
+        return addresses;
+    }
+
+    /**
+     * @return Anzahl der flush()
+     */
+    public synchronized long getFlushes()
+    {
+        return this.flushes;
+    }
+
+    /**
+     * @return Anzahl der Transaktionen
+     */
+    public synchronized long getTransactions()
+    {
+        return this.transactions;
+    }
+
+    /**
+     * @return Anzahl der uebertragenen Bytes (einschliesslich Register)
+     */
+    public synchronized long getBytes()
+    {
+        return this.bytes;
+    }
+
+    /**
+     * @return Anzahl der gescheiterten Transaktionen
+     */
+    public synchronized long getErrors()
+    {
+        return this.errors;
+    }
+
+    /**
+     * @return groesster Versatz erste bis letzte Ausgabe eines flush() in ns
+     */
+    public synchronized long getMaxSkewNanos()
+    {
+        return this.maxSkewNanos;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public synchronized String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.axes)
+                                  .append(" ")
+                                  .append(this.flushes)
+                                  .append(" ")
+                                  .append(this.transactions)
+                                  .append(" ")
+                                  .append(this.bytes)
+                                  .append(" ")
+                                  .append(this.errors)
+                                  .append(" ")
+                                  .append(this.maxSkewNanos / 1000L)
+                                  .append("us]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,511 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * MultiModulePlant - Regelstrecke aus mehreren Modulen (je ein Arduino zur
+ * Impulszaehlung und ein MotorDriverHAT) an einem I2C-Bus.
+ * <p>
+ * Modul 0 ist die Regelstrecke des Model (Motor A/B), exchange() und
+ * setPwmMA()/setPwmMB() werden direkt ausgefuehrt und sind im Ablaufplan
+ * des I2CBusScheduler reserviert. Die weiteren Module werden mit endCycle()
+ * nach der Ausgabe von Modul 0 bedient: je Modul Austausch (token,
+ * Impulszaehler) und Ausgabe der zuletzt vorgegebenen Stellgroessen
+ * (CONTROL), danach evtl. angemeldete DIAGNOSTIC-Transaktionen im
+ * verbleibenden Budget.
+ * </p>
+ * <p>
+ * Mit MotorFanOut werden die Stellgroessen aller Module (auch Modul 0)
+ * nur vorgemerkt und am Ende des Taktes gemeinsam ausgegeben (je HAT eine
+ * Transaktion, geringer Versatz zwischen den Motoren). Modul i belegt die
+ * Achsen 2i (Motor A) und 2i+1 (Motor B). Ausserhalb eines Taktes (z.B.
+ * doStop()) und beim Stillsetzen (0.0) wird sofort ausgegeben.
+ * </p>
+ * <p>
+ * Die Konfiguration wird bei der Instanziierung gegen das Budget des Busses
+ * geprueft (IllegalArgumentException).
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class MultiModulePlant implements Plant
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(MultiModulePlant.class);
+
+    /**
+     * EXCHANGE_BYTES = 22 - write() token/Status (5 Byte) und read() DataRequest (17 Byte)
+     */
+    public final static int EXCHANGE_BYTES = 22;
+
+    /**
+     * PWM_BYTES = 15 - je Motor PWM- und zwei Richtungs-Kanaele des PCA9685 (je 5 Byte)
+     */
+    public final static int PWM_BYTES = 15;
+
+    /**
+     * MIN_HAT_ADDRESS/MAX_HAT_ADDRESS - Adressbereich des MotorDriverHAT (0x40 ... 0x5F)
+     */
+    public final static int MIN_HAT_ADDRESS = 0x40;
+    public final static int MAX_HAT_ADDRESS = 0x5F;
+
+    /**
+     * Module - ein Modul (Arduino und MotorDriverHAT)...
+     */
+    public final static class Module
+    {
+        /**
+         * arduinoAddress/hatAddress - Bus-Adressen
+         */
+        private final int arduinoAddress;
+        private final int hatAddress;
+
+        /**
+         * plant - Zugriff auf Arduino und MotorDriverHAT
+         */
+        private final Plant plant;
+
+        /**
+         * token/status - Kommunikation mit dem Arduino (nur weitere Module)
+         */
+        private long token = 0L;
+        private ArduinoI2C.Status status = ArduinoI2C.Status.INITIAL;
+
+        /**
+         * lastMA/lastMB - letzte Zaehlerstaende des Arduino
+         */
+        private int lastMA = 0;
+        private int lastMB = 0;
+
+        /**
+         * numberMA/numberMB - Position (Impulse seit Beginn)
+         */
+        private volatile long numberMA = 0L;
+        private volatile long numberMB = 0L;
+
+        /**
+         * pwmMA/pwmMB - vorgegebene Stellgroessen
+         */
+        private volatile float pwmMA = 0.0F;
+        private volatile float pwmMB = 0.0F;
+
+        /**
+         * errors - Anzahl der gescheiterten Austausche
+         */
+        private volatile long errors = 0L;
+
+        /**
+         * Module(int arduinoAddress, int hatAddress, Plant plant)
+         * @param arduinoAddress - Adresse des Arduino
+         * @param hatAddress - Adresse des MotorDriverHAT (0x40 ... 0x5F)
+         * @param plant - Zugriff (z.B. ArduinoPlant)
+         */
+        public Module(int arduinoAddress, int hatAddress, Plant plant)
+        {
+            if (hatAddress < MIN_HAT_ADDRESS || hatAddress > MAX_HAT_ADDRESS)
+            {
+                throw new IllegalArgumentException("hatAddress 0x" + Integer.toHexString(hatAddress) + " out of range 0x40 ... 0x5F!");
+            }
+            this.arduinoAddress = arduinoAddress;
+            this.hatAddress = hatAddress;
+            this.plant = Objects.requireNonNull(plant, "plant must not be null!");
+        }
+
+        /**
+         * exchange() - Austausch mit dem Arduino (weitere Module)...
+         */
+        private void exchange() throws IOException
+        {
+            final Response response;
+            try
+            {
+                response = this.plant.exchange(this.token, this.status);
+            }
+            catch (IOException exception)
+            {
+                fail();
+                throw exception;
+            }
+            if ((response.getToken() - this.token == 1L) && (ArduinoI2C.Status.SUCCESS == response.getStatus()))
+            {
+                if (this.status != ArduinoI2C.Status.SUCCESS)
+                {
+                    // Nach INITIAL beginnt die Zaehlung auf dem Arduino neu...
+                    this.lastMA = response.getNumberMA();
+                    this.lastMB = response.getNumberMB();
+                }
+                this.numberMA += response.getNumberMA() - this.lastMA;
+                this.numberMB += response.getNumberMB() - this.lastMB;
+                this.lastMA = response.getNumberMA();
+                this.lastMB = response.getNumberMB();
+                this.token = response.getToken();
+                this.status = ArduinoI2C.Status.SUCCESS;
+            }
+            else
+            {
+                fail();
+                throw new IOException("module 0x" + Integer.toHexString(this.arduinoAddress) + ": invalid response " + response);
+            }
+        }
+
+        /**
+         * fail() - Neuaushandlung ab INITIAL, Motoren aus bis zum Erfolg...
+         */
+        private void fail()
+        {
+            this.errors++;
+            this.token = 0L;
+            this.status = ArduinoI2C.Status.INITIAL;
+        }
+
+        /**
+         * output() - Ausgabe der Stellgroessen (weitere Module)...
+         */
+        private void output() throws IOException
+        {
+            final boolean isSynchronized = (this.status == ArduinoI2C.Status.SUCCESS);
+            this.plant.setPwmMA(isSynchronized? this.pwmMA : 0.0F);
+            this.plant.setPwmMB(isSynchronized? this.pwmMB : 0.0F);
+        }
+
+        /**
+         * setPwm(float pwmMA, float pwmMB) - Vorgabe der Stellgroessen, Ausgabe im naechsten Takt...
+         */
+        public void setPwm(float pwmMA, float pwmMB)
+        {
+            this.pwmMA = pwmMA;
+            this.pwmMB = pwmMB;
+        }
+
+        /**
+         * @return Adresse des Arduino
+         */
+        public int getArduinoAddress()
+        {
+            return this.arduinoAddress;
+        }
+
+        /**
+         * @return Adresse des MotorDriverHAT
+         */
+        public int getHatAddress()
+        {
+            return this.hatAddress;
+        }
+
+        /**
+         * @return Position Motor A (Impulse)
+         */
+        public long getNumberMA()
+        {
+            return this.numberMA;
+        }
+
+        /**
+         * @return Position Motor B (Impulse)
+         */
+        public long getNumberMB()
+        {
+            return this.numberMB;
+        }
+
+        /**
+         * @return Anzahl der gescheiterten Austausche
+         */
+        public long getErrors()
+        {
+            return this.errors;
+        }
+
+        /**
+         * toString() - zu Protokollzwecken...
+         */
+        @Override
+        public String toString()
+        {
+            return new StringBuilder().append("[0x")
+                                      .append(Integer.toHexString(this.arduinoAddress))
+                                      .append(" 0x")
+                                      .append(Integer.toHexString(this.hatAddress))
+                                      .append(" ")
+                                      .append(this.numberMA)
+                                      .append(" ")
+                                      .append(this.numberMB)
+                                      .append(" ")
+                                      .append(this.errors)
+                                      .append("]")
+                                      .toString();
+        }
+    }
+
+    /**
+     * scheduler - Ablaufplan des Busses
+     */
+    private final I2CBusScheduler scheduler;
+
+    /**
+     * modules - Modul 0 (Model) und die weiteren Module
+     */
+    private final List<Module> modules;
+
+    /**
+     * fanOut - gemeinsame Ausgabe der Stellgroessen (null: je Modul ueber dessen Plant)
+     */
+    private final MotorFanOut fanOut;
+
+    /**
+     * cycleNanos - Taktzeit (Budget)
+     */
+    private final long cycleNanos;
+
+    /**
+     * startNanos - Beginn der Buszugriffe des Taktes (exchange() von Modul 0)
+     */
+    private long startNanos = 0L;
+
+    /**
+     * isStarted - exchange() von Modul 0 im laufenden Takt erfolgt
+     */
+    private volatile boolean isStarted = false;
+
+    /**
+     * MultiModulePlant(I2CBusScheduler scheduler, List&lt;Module&gt; modules, long cycleNanos)
+     * @param scheduler - Ablaufplan (leer)
+     * @param modules - Modul 0 (Model) und die weiteren Module
+     * @param cycleNanos - Taktzeit
+     * @throws IllegalArgumentException bei doppelten Adressen oder Ueberschreitung des Budgets
+     */
+    public MultiModulePlant(I2CBusScheduler scheduler, List<Module> modules, long cycleNanos)
+    {
+        this(scheduler, modules, cycleNanos, null);
+    }
+
+    /**
+     * MultiModulePlant(I2CBusScheduler scheduler, List&lt;Module&gt; modules, long cycleNanos, MotorFanOut fanOut)
+     * @param scheduler - Ablaufplan (leer)
+     * @param modules - Modul 0 (Model) und die weiteren Module
+     * @param cycleNanos - Taktzeit
+     * @param fanOut - gemeinsame Ausgabe (2 Achsen je Modul) oder null
+     * @throws IllegalArgumentException bei doppelten Adressen, falscher Anzahl
+     * der Achsen oder Ueberschreitung des Budgets
+     */
+    public MultiModulePlant(I2CBusScheduler scheduler, List<Module> modules, long cycleNanos, MotorFanOut fanOut)
+    {
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler must not be null!");
+        if (modules == null || modules.isEmpty())
+        {
+            throw new IllegalArgumentException("modules must not be empty!");
+        }
+        this.modules = Collections.unmodifiableList(new ArrayList<>(modules));
+        this.cycleNanos = cycleNanos;
+        final java.util.Set<Integer> addresses = new java.util.TreeSet<>();
+        for (Module module: this.modules)
+        {
+            if (!addresses.add(module.arduinoAddress) || !addresses.add(module.hatAddress))
+            {
+                throw new IllegalArgumentException("duplicate address in module " + module);
+            }
+        }
+        this.fanOut = fanOut;
+        if ((fanOut != null) && (fanOut.getAxes().size() != 2 * this.modules.size()))
+        {
+            throw new IllegalArgumentException("fanOut: " + fanOut.getAxes().size() + " axes for " + this.modules.size() + " modules!");
+        }
+        // Modul 0: Ausfuehrung durch das Model, nur reserviert...
+        final Module primary = this.modules.get(0);
+        scheduler.reserve("exchange-0", primary.arduinoAddress, I2CBusScheduler.Priority.CONTROL, EXCHANGE_BYTES);
+        if (fanOut == null)
+        {
+            scheduler.reserve("pwmMA-0", primary.hatAddress, I2CBusScheduler.Priority.CONTROL, PWM_BYTES);
+            scheduler.reserve("pwmMB-0", primary.hatAddress, I2CBusScheduler.Priority.CONTROL, PWM_BYTES);
+        }
+        // Weitere Module: Austausch vor Ausgabe...
+        for (int index = 1; index < this.modules.size(); index++)
+        {
+            final Module module = this.modules.get(index);
+            scheduler.add("exchange-" + index, module.arduinoAddress, I2CBusScheduler.Priority.CONTROL, EXCHANGE_BYTES,
+                          module::exchange);
+            if (fanOut == null)
+            {
+                scheduler.add("pwm-" + index, module.hatAddress, I2CBusScheduler.Priority.CONTROL, 2 * PWM_BYTES,
+                              module::output);
+            }
+        }
+        if (fanOut != null)
+        {
+            // Gemeinsame Ausgabe nach allen Austauschen: je HAT eine Transaktion,
+            // ausgefuehrt wird mit der ersten, die weiteren sind reserviert...
+            final List<Integer> hatAddresses = fanOut.getHatAddresses();
+            scheduler.add("outputs", hatAddresses.get(0).intValue(), I2CBusScheduler.Priority.CONTROL, MotorFanOut.FLUSH_BYTES,
+                          this::flushOutputs);
+            for (int index = 1; index < hatAddresses.size(); index++)
+            {
+                scheduler.reserve("outputs-" + index, hatAddresses.get(index).intValue(), I2CBusScheduler.Priority.CONTROL,
+                                  MotorFanOut.FLUSH_BYTES);
+            }
+        }
+        scheduler.checkBudget(cycleNanos);
+        logger.info("MultiModulePlant: " + this.modules + ((fanOut != null)? " " + fanOut.getAxes() : ""));
+    }
+
+    /**
+     * flushOutputs() - Stellgroessen der weiteren Module vormerken, alle ausgeben...
+     */
+    private void flushOutputs() throws IOException
+    {
+        for (int index = 1; index < this.modules.size(); index++)
+        {
+            final Module module = this.modules.get(index);
+            final boolean isSynchronized = (module.status == ArduinoI2C.Status.SUCCESS);
+            this.fanOut.set(2 * index, isSynchronized? module.pwmMA : 0.0F);
+            this.fanOut.set(2 * index + 1, isSynchronized? module.pwmMB : 0.0F);
+        }
+        this.fanOut.flush();
+    }
+
+    /**
+     * exchange(long token, ArduinoI2C.Status status) - Modul 0, Beginn der
+     * Buszugriffe des Taktes...
+     */
+    @Override
+    public Response exchange(long token, ArduinoI2C.Status status) throws IOException
+    {
+        this.startNanos = System.nanoTime();
+        this.isStarted = true;
+        return this.modules.get(0).plant.exchange(token, status);
+    }
+
+    /**
+     * hasEdgeTimes() - wie Modul 0 (exchange())...
+     */
+    @Override
+    public boolean hasEdgeTimes()
+    {
+        return this.modules.get(0).plant.hasEdgeTimes();
+    }
+
+    /**
+     * setPwmMA(float speed) - Modul 0, mit MotorFanOut im Takt nur vormerken
+     * (ausser 0.0)...
+     */
+    @Override
+    public void setPwmMA(float speed) throws IOException
+    {
+        if (this.fanOut == null)
+        {
+            this.modules.get(0).plant.setPwmMA(speed);
+            return;
+        }
+        this.fanOut.set(0, speed);
+        if (!this.isStarted || speed == 0.0F)
+        {
+            this.fanOut.flush();
+        }
+    }
+
+    /**
+     * setPwmMB(float speed) - Modul 0, mit MotorFanOut im Takt nur vormerken
+     * (ausser 0.0)...
+     */
+    @Override
+    public void setPwmMB(float speed) throws IOException
+    {
+        if (this.fanOut == null)
+        {
+            this.modules.get(0).plant.setPwmMB(speed);
+            return;
+        }
+        this.fanOut.set(1, speed);
+        if (!this.isStarted || speed == 0.0F)
+        {
+            this.fanOut.flush();
+        }
+    }
+
+    /**
+     * setPwmFrequency(int frequency) - fuer alle Module (bzw. MotorFanOut)...
+     */
+    @Override
+    public void setPwmFrequency(int frequency) throws IOException
+    {
+        if (this.fanOut != null)
+        {
+            this.fanOut.setPwmFrequency(frequency);
+            return;
+        }
+        for (Module module: this.modules)
+        {
+            module.plant.setPwmFrequency(frequency);
+        }
+    }
+
+    /**
+     * endCycle() - die weiteren Module und die Diagnose im verbleibenden Budget...
+     * <p>
+     * Ohne Austausch mit Modul 0 (z.B. Backoff nach einem Fehler) beginnt
+     * das Budget mit endCycle().
+     * </p>
+     */
+    @Override
+    public void endCycle()
+    {
+        final long start = this.isStarted? this.startNanos : System.nanoTime();
+        this.isStarted = false;
+        this.scheduler.runCycle(start, this.cycleNanos);
+    }
+
+    /**
+     * getModule(int index)
+     * @param index - 0: Model, 1 ...: weitere Module
+     * @return Modul
+     */
+    public Module getModule(int index)
+    {
+        return this.modules.get(index);
+    }
+
+    /**
+     * @return Anzahl der Module
+     */
+    public int getModuleCount()
+    {
+        return this.modules.size();
+    }
+
+    /**
+     * @return die gemeinsame Ausgabe oder null
+     */
+    public MotorFanOut getFanOut()
+    {
+        return this.fanOut;
+    }
+
+    /**
+     * @return der Ablaufplan
+     */
+    public I2CBusScheduler getScheduler()
+    {
+        return this.scheduler;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "gui.MultiModulePlant";
+    }
+}
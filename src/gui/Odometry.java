@@ -0,0 +1,199 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * Odometry - inkrementelle Lageschaetzung (x, y, Richtung) eines Fahrzeuges
+ * mit Differentialantrieb aus den Impulszuwaechsen der Motoren A und B.
+ * <p>
+ * Motor A treibt das linke, Motor B das rechte Rad an, positive Impulse
+ * bedeuten Vorwaertsfahrt. Je Takt werden die Zuwaechse in Wegstrecken
+ * umgerechnet (2*PI*wheelRadius/wheelSteps je Impuls) und die Lage nach
+ * dem Mittelpunktverfahren fortgeschrieben:
+ * </p>
+ * <p>
+ *   s = (sA + sB)/2, dTheta = (sB - sA)/trackWidth<br>
+ *   x += s*cos(theta + dTheta/2), y += s*sin(theta + dTheta/2), theta += dTheta
+ * </p>
+ * <p>
+ * Beginn (und reset()) ist der Ursprung mit Richtung 0 (x-Achse), die
+ * Richtung wird im mathematisch positiven Sinn gezaehlt und auf
+ * -PI ... +PI begrenzt. Der Aufwand pro Takt ist konstant.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class Odometry
+{
+    /**
+     * wheelSteps - Anzahl der Impulse des Gebers pro Radumdrehung
+     */
+    private final int wheelSteps;
+
+    /**
+     * wheelRadius/trackWidth - Radius der Raeder und Spurweite in mm
+     */
+    private double wheelRadius;
+    private double trackWidth;
+
+    /**
+     * x/y - Lage in mm, heading - Richtung in rad
+     */
+    private double x = 0.0;
+    private double y = 0.0;
+    private double heading = 0.0;
+
+    /**
+     * Odometry(int wheelSteps, double wheelRadius, double trackWidth)
+     * @param wheelSteps - Anzahl der Impulse des Gebers pro Radumdrehung
+     * @param wheelRadius - Radius der Raeder in mm (&gt; 0)
+     * @param trackWidth - Spurweite in mm (&gt; 0)
+     * @throws IllegalArgumentException bei ungueltigen Abmessungen
+     */
+    public Odometry(int wheelSteps, double wheelRadius, double trackWidth)
+    {
+        this.wheelSteps = (wheelSteps > 1)? wheelSteps : 1;
+        setGeometry(wheelRadius, trackWidth);
+    }
+
+    /**
+     * setGeometry(double wheelRadius, double trackWidth) - Abmessungen
+     * aendern (z.B. ModelConfig), die bisherige Lage bleibt erhalten...
+     * @param wheelRadius - Radius der Raeder in mm (&gt; 0)
+     * @param trackWidth - Spurweite in mm (&gt; 0)
+     * @throws IllegalArgumentException bei ungueltigen Abmessungen
+     */
+    public void setGeometry(double wheelRadius, double trackWidth)
+    {
+        if (!(wheelRadius > 0.0) || Double.isInfinite(wheelRadius))
+        {
+            throw new IllegalArgumentException("wheelRadius must be > 0!");
+        }
+        if (!(trackWidth > 0.0) || Double.isInfinite(trackWidth))
+        {
+            throw new IllegalArgumentException("trackWidth must be > 0!");
+        }
+        this.wheelRadius = wheelRadius;
+        this.trackWidth = trackWidth;
+    }
+
+    /**
+     * update(long pulsesA, long pulsesB) - ein Takt...
+     * @param pulsesA - Zuwachs Motor A (links) in Impulsen, mit Vorzeichen
+     * @param pulsesB - Zuwachs Motor B (rechts) in Impulsen, mit Vorzeichen
+     */
+    public void update(long pulsesA, long pulsesB)
+    {
+        if (pulsesA == 0L && pulsesB == 0L)
+        {
+            return;
+        }
+        final double step = 2.0 * Math.PI * this.wheelRadius / this.wheelSteps;
+        final double distanceA = pulsesA * step;
+        final double distanceB = pulsesB * step;
+        final double distance = 0.5 * (distanceA + distanceB);
+        final double deltaHeading = (distanceB - distanceA) / this.trackWidth;
+        final double direction = this.heading + 0.5 * deltaHeading;
+        this.x += distance * Math.cos(direction);
+        this.y += distance * Math.sin(direction);
+        this.heading = normalize(this.heading + deltaHeading);
+    }
+
+    /**
+     * normalize(double angle) - Winkel auf -PI ... +PI...
+     */
+    private static double normalize(double angle)
+    {
+        if (angle > Math.PI || angle < -Math.PI)
+        {
+            angle -= 2.0 * Math.PI * Math.floor((angle + Math.PI) / (2.0 * Math.PI));
+        }
+        return angle;
+    }
+
+    /**
+     * reset() - zurueck in den Ursprung...
+     */
+    public void reset()
+    {
+        this.x = 0.0;
+        this.y = 0.0;
+        this.heading = 0.0;
+    }
+
+    /**
+     * setPose(double x, double y, double heading) - Lage vorgeben (Warmstart)...
+     * @param x - Lage x in mm
+     * @param y - Lage y in mm
+     * @param heading - Richtung in rad
+     */
+    public void setPose(double x, double y, double heading)
+    {
+        if (Double.isNaN(x) || Double.isInfinite(x) || Double.isNaN(y) || Double.isInfinite(y)
+         || Double.isNaN(heading) || Double.isInfinite(heading))
+        {
+            throw new IllegalArgumentException("pose must be finite!");
+        }
+        this.x = x;
+        this.y = y;
+        this.heading = normalize(heading);
+    }
+
+    /**
+     * @return Lage x in mm
+     */
+    public double getX()
+    {
+        return this.x;
+    }
+
+    /**
+     * @return Lage y in mm
+     */
+    public double getY()
+    {
+        return this.y;
+    }
+
+    /**
+     * @return Richtung in rad (-PI ... +PI)
+     */
+    public double getHeading()
+    {
+        return this.heading;
+    }
+
+    /**
+     * @return Radius der Raeder in mm
+     */
+    public double getWheelRadius()
+    {
+        return this.wheelRadius;
+    }
+
+    /**
+     * @return Spurweite in mm
+     */
+    public double getTrackWidth()
+    {
+        return this.trackWidth;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.x)
+                                  .append(" ")
+                                  .append(this.y)
+                                  .append(" ")
+                                  .append(Math.toDegrees(this.heading))
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,446 @@
+/**
+ *
+ */
+package gui;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ParameterSweep - Batch-Simulation des geschlossenen Regelkreises ueber
+ * alle Kombinationen der Parameter
+ * <ul>
+ *  <li>enhancement (Model.ENHANCEMENTS)</li>
+ *  <li>outputRelation (Model.OUTPUT_RELATION_VALUES)</li>
+ *  <li>sizesDiffValues (Anzahl der Messwerte zur Drehzahlermittlung)</li>
+ *  <li>maxValueMA/maxValueMB (Model.MX_MAX_VALUES)</li>
+ * </ul>
+ * <p>
+ * Jede Kombination wird als eigenstaendige Simulation (Model an einer
+ * SimulatedPlant, Sollwertsprung der Drehzahl) gerechnet, die Simulationen
+ * werden in einem ForkJoinPool auf alle Prozessorkerne verteilt.
+ * </p>
+ * <p>
+ * Kennwerte je Parametersatz (jeweils der schlechtere Wert von Motor A/Motor B):
+ * <ul>
+ *  <li>IAE - Integral des Betrages der Drehzahlabweichung (1/min * s)</li>
+ *  <li>Ueberschwingen - in % des Sollwertes</li>
+ *  <li>Ausregelzeit - Eintritt in das Band +/-SETTLING_BAND, -1 wenn nicht ausgeregelt</li>
+ *  <li>Messfehler - IAE zwischen gemessener (realValue) und wahrer Drehzahl</li>
+ * </ul>
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class ParameterSweep
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(ParameterSweep.class);
+
+    /**
+     * SIZES_DIFF_VALUES - Varianten der Anzahl der Messwerte zur Drehzahlermittlung
+     */
+    public final static int[] SIZES_DIFF_VALUES = { 5, 10, 20, 40 };
+
+    /**
+     * DEFAULT_DESTINATION - Sollwertsprung der Drehzahl (60 1/min, unabhaengig von ModelConfig)
+     */
+    public final static BigDecimal DEFAULT_DESTINATION = BigDecimal.valueOf(60L).setScale(Model.SCALE_DESTINATION);
+
+    /**
+     * DEFAULT_CYCLES = 250 - Anzahl Takte je Simulation (5s bei 20ms)
+     */
+    public final static int DEFAULT_CYCLES = 250;
+
+    /**
+     * SETTLING_BAND = 0.05 - Toleranzband der Ausregelzeit (5%)
+     */
+    public final static double SETTLING_BAND = 0.05;
+
+    /**
+     * THRESHOLD = 16 - bis zu dieser Anzahl Simulationen keine weitere Aufteilung
+     */
+    private final static int THRESHOLD = 16;
+
+    /**
+     * destination - Sollwertsprung (1/min)
+     */
+    private final BigDecimal destination;
+
+    /**
+     * cycleTime - Taktzeit der Simulationen
+     */
+    private final Duration cycleTime;
+
+    /**
+     * cycles - Anzahl Takte je Simulation
+     */
+    private final int cycles;
+
+    /**
+     * ParameterSweep(BigDecimal destination, Duration cycleTime, int cycles)
+     * @param destination - Sollwertsprung (1/min)
+     * @param cycleTime - Taktzeit
+     * @param cycles - Anzahl Takte je Simulation
+     */
+    public ParameterSweep(BigDecimal destination, Duration cycleTime, int cycles)
+    {
+        this.destination = Objects.requireNonNull(destination, "destination must not be null!");
+        this.cycleTime = Objects.requireNonNull(cycleTime, "cycleTime must not be null!");
+        this.cycles = cycles;
+    }
+
+    /**
+     * parameters() - alle Kombinationen der Parameter (Limitierung 0.0 entfaellt)...
+     * @return List<Parameters>
+     */
+    public static List<Parameters> parameters()
+    {
+        final List<Parameters> result = new ArrayList<>();
+        for (BigDecimal enhancement: Model.ENHANCEMENTS)
+        {
+            for (BigDecimal outputRelation: Model.OUTPUT_RELATION_VALUES)
+            {
+                for (int sizesDiffValues: SIZES_DIFF_VALUES)
+                {
+                    for (BigDecimal maxValue: Model.MX_MAX_VALUES)
+                    {
+                        if (maxValue.signum() != 0)
+                        {
+                            result.add(new Parameters(enhancement, outputRelation, sizesDiffValues, maxValue));
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * run(List<Parameters> parameters) - alle Simulationen im ForkJoinPool...
+     * @param parameters
+     * @return Result[] in der Reihenfolge von parameters
+     */
+    public Result[] run(List<Parameters> parameters)
+    {
+        final Parameters[] input = parameters.toArray(new Parameters[parameters.size()]);
+        final Result[] results = new Result[input.length];
+        final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try
+        {
+            pool.invoke(new SweepAction(input, results, 0, input.length));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    /**
+     * simulate(Parameters parameters) - eine Simulation mit Auswertung...
+     * @param parameters
+     * @return Result
+     */
+    public Result simulate(Parameters parameters)
+    {
+        final Simulation simulation = new Simulation(new SimulatedPlant(), this.cycleTime, parameters.getSizesDiffValues());
+        final Model model = simulation.getModel();
+        final SimulatedPlant plant = simulation.getPlant();
+
+        model.setProperty(Model.OUTPUT_RELATION_KEY, parameters.getOutputRelation());
+        model.setProperty(Model.MAX_VALUE_MA_KEY, parameters.getMaxValue());
+        model.setProperty(Model.MAX_VALUE_MB_KEY, parameters.getMaxValue());
+        model.setProperty(Model.ENHANCEMENT_KEY, parameters.getEnhancement());
+        model.setProperty(Model.CONTROL_KEY, Boolean.TRUE);
+        model.setProperty(Model.DESTINATION_MA_KEY, this.destination);
+        model.setProperty(Model.DESTINATION_MB_KEY, this.destination);
+        model.doStart();
+
+        final double setPoint = this.destination.doubleValue();
+        final double dt = this.cycleTime.toNanos() * 1.0E-9;
+        final Metrics metricsMA = new Metrics(setPoint);
+        final Metrics metricsMB = new Metrics(setPoint);
+        for (int index = 0; index < this.cycles; index++)
+        {
+            simulation.run(1);
+            final Data data = model.getData();
+            metricsMA.add(dt, plant.getRpmMA(), data.getRealValueMA().doubleValue());
+            metricsMB.add(dt, plant.getRpmMB(), data.getRealValueMB().doubleValue());
+        }
+        return new Result(parameters,
+                          Math.max(metricsMA.getIae(), metricsMB.getIae()),
+                          Math.max(metricsMA.getOvershoot(), metricsMB.getOvershoot()),
+                          worse(metricsMA.getSettlingTime(), metricsMB.getSettlingTime()),
+                          Math.max(metricsMA.getMeasurementIae(), metricsMB.getMeasurementIae()));
+    }
+
+    /**
+     * worse(double first, double second) - schlechtere Ausregelzeit (-1 => nicht ausgeregelt)...
+     */
+    private static double worse(double first, double second)
+    {
+        return (first < 0.0 || second < 0.0)? -1.0 : Math.max(first, second);
+    }
+
+    /**
+     * main() - Sweep ueber alle Kombinationen, Ausgabe als CSV (sortiert nach IAE)...
+     * <p>
+     * Optional args[0]: Anzahl Takte je Simulation
+     * </p>
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        final int cycles = (args.length > 0)? Integer.parseInt(args[0]) : DEFAULT_CYCLES;
+        final ParameterSweep sweep = new ParameterSweep(DEFAULT_DESTINATION, Simulation.DEFAULT_CYCLE_TIME, cycles);
+        final List<Parameters> parameters = parameters();
+
+        final long start = System.nanoTime();
+        final Result[] results = sweep.run(parameters);
+        final long duration = System.nanoTime() - start;
+        logger.info(results.length + " Simulationen in " + (duration / 1000000L) + "ms");
+
+        Arrays.sort(results, Comparator.comparingDouble(Result::getIae));
+        System.out.println(Result.HEADER);
+        for (Result result: results)
+        {
+            System.out.println(result.toString());
+        }
+    }
+
+    /**
+     * SweepAction - Aufteilung der Simulationen im ForkJoinPool...
+     */
+    private final class SweepAction extends RecursiveAction
+    {
+        /**
+         * serialVersionUID
+         */
+        private static final long serialVersionUID = 1L;
+
+        private final Parameters[] input;
+        private final Result[] results;
+        private final int from;
+        private final int to;
+
+        SweepAction(Parameters[] input, Result[] results, int from, int to)
+        {
+            this.input = input;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (this.to - this.from <= THRESHOLD)
+            {
+                for (int index = this.from; index < this.to; index++)
+                {
+                    this.results[index] = simulate(this.input[index]);
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new SweepAction(this.input, this.results, this.from, middle),
+                      new SweepAction(this.input, this.results, middle, this.to));
+        }
+    }
+
+    /**
+     * Metrics - Kennwerte der Sprungantwort einer Achse...
+     */
+    private final static class Metrics
+    {
+        private final double setPoint;
+        private double time = 0.0;
+        private double iae = 0.0;
+        private double measurementIae = 0.0;
+        private double peak = 0.0;
+        private double lastOutside = 0.0;
+        private boolean isOutside = true;
+
+        Metrics(double setPoint)
+        {
+            this.setPoint = setPoint;
+        }
+
+        void add(double dt, double rpm, double realValue)
+        {
+            this.time += dt;
+            this.iae += Math.abs(this.setPoint - rpm) * dt;
+            this.measurementIae += Math.abs(realValue - rpm) * dt;
+            // Vorzeichen des Sollwertes beruecksichtigen...
+            this.peak = Math.max(this.peak, Math.signum(this.setPoint) * rpm);
+            this.isOutside = Math.abs(this.setPoint - rpm) > SETTLING_BAND * Math.abs(this.setPoint);
+            if (this.isOutside)
+            {
+                this.lastOutside = this.time;
+            }
+        }
+
+        double getIae()
+        {
+            return this.iae;
+        }
+
+        double getMeasurementIae()
+        {
+            return this.measurementIae;
+        }
+
+        double getOvershoot()
+        {
+            final double reference = Math.abs(this.setPoint);
+            return (reference > 0.0)? Math.max(0.0, 100.0 * (this.peak - reference) / reference) : 0.0;
+        }
+
+        double getSettlingTime()
+        {
+            return this.isOutside? -1.0 : this.lastOutside;
+        }
+    }
+
+    /**
+     * Parameters - ein Parametersatz der Simulation
+     */
+    public final static class Parameters
+    {
+        private final BigDecimal enhancement;
+        private final BigDecimal outputRelation;
+        private final int sizesDiffValues;
+        private final BigDecimal maxValue;
+
+        /**
+         * Parameters() - Konstruktor aus allen Attributen...
+         * @param enhancement - Reglerverstaerkung
+         * @param outputRelation - Normierung (1/min)
+         * @param sizesDiffValues - Anzahl der Messwerte zur Drehzahlermittlung
+         * @param maxValue - Limitierung Motor A und Motor B
+         */
+        public Parameters(BigDecimal enhancement, BigDecimal outputRelation, int sizesDiffValues, BigDecimal maxValue)
+        {
+            this.enhancement = enhancement;
+            this.outputRelation = outputRelation;
+            this.sizesDiffValues = sizesDiffValues;
+            this.maxValue = maxValue;
+        }
+
+        public BigDecimal getEnhancement()
+        {
+            return this.enhancement;
+        }
+
+        public BigDecimal getOutputRelation()
+        {
+            return this.outputRelation;
+        }
+
+        public int getSizesDiffValues()
+        {
+            return this.sizesDiffValues;
+        }
+
+        public BigDecimal getMaxValue()
+        {
+            return this.maxValue;
+        }
+
+        @Override
+        public String toString()
+        {
+            return new StringBuilder().append(this.enhancement)
+                                      .append(";")
+                                      .append(this.outputRelation)
+                                      .append(";")
+                                      .append(this.sizesDiffValues)
+                                      .append(";")
+                                      .append(this.maxValue)
+                                      .toString();
+        }
+    }
+
+    /**
+     * Result - Kennwerte eines Parametersatzes
+     */
+    public final static class Result
+    {
+        /**
+         * HEADER - Kopfzeile der CSV-Ausgabe
+         */
+        public final static String HEADER = "enhancement;outputRelation;sizesDiffValues;maxValue;iae;overshoot;settlingTime;measurementIae";
+
+        private final Parameters parameters;
+        private final double iae;
+        private final double overshoot;
+        private final double settlingTime;
+        private final double measurementIae;
+
+        Result(Parameters parameters, double iae, double overshoot, double settlingTime, double measurementIae)
+        {
+            this.parameters = parameters;
+            this.iae = iae;
+            this.overshoot = overshoot;
+            this.settlingTime = settlingTime;
+            this.measurementIae = measurementIae;
+        }
+
+        public Parameters getParameters()
+        {
+            return this.parameters;
+        }
+
+        public double getIae()
+        {
+            return this.iae;
+        }
+
+        public double getOvershoot()
+        {
+            return this.overshoot;
+        }
+
+        public double getSettlingTime()
+        {
+            return this.settlingTime;
+        }
+
+        public double getMeasurementIae()
+        {
+            return this.measurementIae;
+        }
+
+        /**
+         * toString() - eine Zeile der CSV-Ausgabe...
+         */
+        @Override
+        public String toString()
+        {
+            return new StringBuilder().append(this.parameters)
+                                      .append(";")
+                                      .append(String.format("%.3f", this.iae))
+                                      .append(";")
+                                      .append(String.format("%.2f", this.overshoot))
+                                      .append(";")
+                                      .append(String.format("%.3f", this.settlingTime))
+                                      .append(";")
+                                      .append(String.format("%.3f", this.measurementIae))
+                                      .toString();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * Interface Plant - die Regelstrecke aus Sicht des Model...
+ * <p>
+ * Das Model tauscht pro Takt genau einmal Daten mit der Regelstrecke aus
+ * (token und Impulszaehler) und gibt anschliessend die Stellgroessen
+ * Motor A/Motor B aus.
+ * </p>
+ * <p>
+ * <ul>
+ *  <li>ArduinoPlant - reale Regelstrecke (Arduino ueber I2C und MotorDriverHAT)</li>
+ *  <li>SimulatedPlant - simulierte Regelstrecke (z.B. fuer das Autotuning oder Tests)</li>
+ *  <li>GpioEncoderPlant - Zaehlung der Drehgeber am Raspi (GPIO), Ausgabe ueber eine andere Regelstrecke</li>
+ * </ul>
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public interface Plant
+{
+    /**
+     * exchange(long token, ArduinoI2C.Status status) - Austausch token/Status
+     * mit der Regelstrecke, Rueckgabe der aktuellen Impulszaehler...
+     * @param token - token zur Regelstrecke
+     * @param status - Status der Kommunikation
+     * @return Response
+     * @throws IOException
+     */
+    public Response exchange(long token, ArduinoI2C.Status status) throws IOException;
+
+    /**
+     * setPwmMA(float speed) - Stellgroesse Motor A (-1.0 ... 0.0 ... +1.0)
+     * @param speed
+     * @throws IOException
+     */
+    public void setPwmMA(float speed) throws IOException;
+
+    /**
+     * setPwmMB(float speed) - Stellgroesse Motor B (-1.0 ... 0.0 ... +1.0)
+     * @param speed
+     * @throws IOException
+     */
+    public void setPwmMB(float speed) throws IOException;
+
+    /**
+     * setPwmFrequency(int frequency) - PWM-Frequenz der Ausgabe aendern
+     * (im Betrieb, vgl. ModelConfig), Standard: ohne Wirkung...
+     * @param frequency - Frequenz in Hz
+     * @throws IOException
+     */
+    public default void setPwmFrequency(int frequency) throws IOException
+    {
+    }
+
+    /**
+     * isSigned() - die Zaehlerstaende tragen die Drehrichtung (z.B. Quadratur,
+     * GpioEncoderPlant), Standard: Impulse ohne Richtung, das Model
+     * verwendet das Vorzeichen der Stellgroesse...
+     * @return true bei vorzeichenbehafteter Zaehlung
+     */
+    public default boolean isSigned()
+    {
+        return false;
+    }
+
+    /**
+     * hasEdgeTimes() - die Antwort traegt Zeitstempel der Flanken (edgeAge),
+     * Voraussetzung fuer das M/T-Verfahren (SpeedEstimator), Standard: keine
+     * (Response.NO_EDGE_TIME, z.B. ArduinoPlant)...
+     * @return true, wenn exchange() das Alter der letzten Flanke liefert
+     */
+    public default boolean hasEdgeTimes()
+    {
+        return false;
+    }
+
+    /**
+     * endCycle() - Ende der Buszugriffe des Taktes (nach setPwmMA()/setPwmMB()),
+     * z.B. weitere Module am Bus (MultiModulePlant)...
+     * @throws IOException
+     */
+    public default void endCycle() throws IOException
+    {
+    }
+
+    /**
+     * Response - Antwort der Regelstrecke (vgl. ArduinoI2C.DataRequest)
+     *
+     * @author Detlef Tribius
+     *
+     */
+    public final static class Response
+    {
+        /**
+         * NO_EDGE_TIME = -1L - die Regelstrecke liefert keine Zeitstempel der Flanken
+         */
+        public final static long NO_EDGE_TIME = -1L;
+
+        /**
+         * token - Kennung der Nachricht (im Erfolgsfall token + 1)
+         */
+        private final long token;
+
+        /**
+         * status - Status der Regelstrecke
+         */
+        private final ArduinoI2C.Status status;
+
+        /**
+         * value - 4 Byte-Variante der Daten (ohne weitere Bedeutung)
+         */
+        private final int value;
+
+        /**
+         * numberMA - Impulszaehler Motor A
+         */
+        private final int numberMA;
+
+        /**
+         * numberMB - Impulszaehler Motor B
+         */
+        private final int numberMB;
+
+        /**
+         * edgeAgeMA - Alter der letzten Flanke Motor A in Mikrosekunden
+         * (Zeit zwischen letzter Flanke und Abtastung), sonst NO_EDGE_TIME
+         */
+        private final long edgeAgeMA;
+
+        /**
+         * edgeAgeMB - Alter der letzten Flanke Motor B in Mikrosekunden
+         * (Zeit zwischen letzter Flanke und Abtastung), sonst NO_EDGE_TIME
+         */
+        private final long edgeAgeMB;
+
+        /**
+         * Response() - Konstruktor ohne Zeitstempel der Flanken...
+         * @param token
+         * @param status
+         * @param value
+         * @param numberMA
+         * @param numberMB
+         */
+        public Response(long token, ArduinoI2C.Status status, int value, int numberMA, int numberMB)
+        {
+            this(token, status, value, numberMA, numberMB, NO_EDGE_TIME, NO_EDGE_TIME);
+        }
+
+        /**
+         * Response() - Konstruktor aus allen Attributen...
+         * @param token
+         * @param status
+         * @param value
+         * @param numberMA
+         * @param numberMB
+         * @param edgeAgeMA - Alter der letzten Flanke Motor A (Mikrosekunden)
+         * @param edgeAgeMB - Alter der letzten Flanke Motor B (Mikrosekunden)
+         */
+        public Response(long token, ArduinoI2C.Status status, int value, int numberMA, int numberMB, long edgeAgeMA, long edgeAgeMB)
+        {
+            this.token = token;
+            this.status = status;
+            this.value = value;
+            this.numberMA = numberMA;
+            this.numberMB = numberMB;
+            this.edgeAgeMA = edgeAgeMA;
+            this.edgeAgeMB = edgeAgeMB;
+        }
+
+        /**
+         * @return the token
+         */
+        public final long getToken()
+        {
+            return this.token;
+        }
+
+        /**
+         * @return the status
+         */
+        public final ArduinoI2C.Status getStatus()
+        {
+            return this.status;
+        }
+
+        /**
+         * @return the value
+         */
+        public final int getValue()
+        {
+            return this.value;
+        }
+
+        /**
+         * @return the numberMA
+         */
+        public final int getNumberMA()
+        {
+            return this.numberMA;
+        }
+
+        /**
+         * @return the numberMB
+         */
+        public final int getNumberMB()
+        {
+            return this.numberMB;
+        }
+
+        /**
+         * @return the edgeAgeMA
+         */
+        public final long getEdgeAgeMA()
+        {
+            return this.edgeAgeMA;
+        }
+
+        /**
+         * @return the edgeAgeMB
+         */
+        public final long getEdgeAgeMB()
+        {
+            return this.edgeAgeMB;
+        }
+
+        /**
+         * toString() - zu Protokollzwecken...
+         */
+        @Override
+        public String toString()
+        {
+            return new StringBuilder().append("[")
+                                      .append(this.token)
+                                      .append(" ")
+                                      .append(this.status)
+                                      .append(" ")
+                                      .append(this.value)
+                                      .append(" ")
+                                      .append(this.numberMA)
+                                      .append(" ")
+                                      .append(this.numberMB)
+                                      .append(" ")
+                                      .append(this.edgeAgeMA)
+                                      .append(" ")
+                                      .append(this.edgeAgeMB)
+                                      .append("]")
+                                      .toString();
+        }
+    }
+}
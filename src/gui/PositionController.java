@@ -61,6 +61,28 @@ public class PositionController
      */
     private BigDecimal enhancement;
 
+    /**
+     * gainSchedule - Tabelle der Verstaerkungen ueber Solldrehzahl/Last
+     * (null: enhancement gilt fuer alle Drehzahlen)
+     * <p>
+     * Die Tabelle wird im Betrieb als Ganzes ausgetauscht (ModelConfig,
+     * ControlServer), doControl() verwendet je Takt eine Tabelle.
+     * </p>
+     */
+    private volatile GainSchedule gainSchedule = null;
+
+    /**
+     * isSync - Gleichlaufregelung: die Differenz der Lageabweichungen Motor A
+     * und Motor B wird mit syncEnhancement auf beide Motoren aufgeschaltet
+     * (Motor A +, Motor B -)
+     */
+    private boolean isSync = false;
+
+    /**
+     * syncEnhancement - Verstaerkung der Gleichlaufregelung
+     */
+    private BigDecimal syncEnhancement = BigDecimal.ZERO;
+
     /**
      * wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
      */
@@ -98,7 +120,62 @@ public class PositionController
     }
     
     /**
-     * doControl() - Regelalgorithmus...
+     * setSync(boolean isSync) - Gleichlaufregelung ein-/ausschalten
+     * @param isSync
+     */
+    public void setSync(boolean isSync)
+    {
+        this.isSync = isSync;
+    }
+
+    /**
+     * isSync() - Gleichlaufregelung eingeschaltet?
+     * @return true, wenn eingeschaltet
+     */
+    public boolean isSync()
+    {
+        return this.isSync;
+    }
+
+    /**
+     * setSyncEnhancement(BigDecimal syncEnhancement) - Verstaerkung der Gleichlaufregelung setzen
+     * @param syncEnhancement
+     */
+    public void setSyncEnhancement(BigDecimal syncEnhancement)
+    {
+        this.syncEnhancement = (syncEnhancement != null)? syncEnhancement : BigDecimal.ZERO;
+    }
+
+    /**
+     * getSyncEnhancement() - Verstaerkung der Gleichlaufregelung
+     * @return
+     */
+    public BigDecimal getSyncEnhancement()
+    {
+        return this.syncEnhancement;
+    }
+
+    /**
+     * setGainSchedule(GainSchedule gainSchedule) - Tabelle der Verstaerkungen setzen
+     * @param gainSchedule - Tabelle oder null (enhancement gilt)
+     */
+    public void setGainSchedule(GainSchedule gainSchedule)
+    {
+        this.gainSchedule = gainSchedule;
+    }
+
+    /**
+     * getGainSchedule() - Tabelle der Verstaerkungen
+     * @return Tabelle oder null
+     */
+    public GainSchedule getGainSchedule()
+    {
+        return this.gainSchedule;
+    }
+
+    /**
+     * doControl() - Regelalgorithmus (ohne Solldrehzahl/Last, mit gainSchedule
+     * gilt die Verstaerkung bei Drehzahl 0 und Last 0)...
      * @return Output(output)
      */
     public Output doControl(long numberDestinationMA, long numberMA,        // Soll-Ist Motor A
@@ -107,6 +184,33 @@ public class PositionController
                             BigDecimal destinationOutputMB,                 // Sollwert-Vorgabe Motor B (ohne Regelung)
                             BigDecimal maxValueMA,                          // jeweilige Grenzwerte
                             BigDecimal maxValueMB)                          //  
+    {
+        return doControl(numberDestinationMA, numberMA,
+                         numberDestinationMB, numberMB,
+                         destinationOutputMA,
+                         destinationOutputMB,
+                         maxValueMA,
+                         maxValueMB,
+                         0.0, 0.0,
+                         0.0, 0.0);
+    }
+
+    /**
+     * doControl() - Regelalgorithmus...
+     * <p>
+     * Mit gainSchedule wird die Verstaerkung je Motor aus Solldrehzahl und
+     * Last interpoliert, sonst gilt enhancement.
+     * </p>
+     * @return Output(output)
+     */
+    public Output doControl(long numberDestinationMA, long numberMA,        // Soll-Ist Motor A
+                            long numberDestinationMB, long numberMB,        // Soll-Ist Motor B 
+                            BigDecimal destinationOutputMA,                 // Sollwert-Vorgabe Motor A (ohne Regelung)
+                            BigDecimal destinationOutputMB,                 // Sollwert-Vorgabe Motor B (ohne Regelung)
+                            BigDecimal maxValueMA,                          // jeweilige Grenzwerte
+                            BigDecimal maxValueMB,                          //  
+                            double speedMA, double speedMB,                 // Solldrehzahlen (1/min, Gain-Scheduling)
+                            double loadMA, double loadMB)                   // Last (0.0 ... 1.0, Gain-Scheduling)
     {
         // diffNumber: Lage-Differenz zwischen Soll - Ist...
         
@@ -116,10 +220,27 @@ public class PositionController
         // diffNumberMB: Regel-Differenz fuer Motor B, wird zu outputMB...
         final long diffNumberMB = numberDestinationMB - numberMB;
         
+        // syncError: Gleichlauffehler, Motor A liegt um syncError Impulse mehr
+        // zurueck als Motor B (bei gleichen Sollwerten: numberMB - numberMA)...
+        final long syncError = diffNumberMA - diffNumberMB;
+        
         // Verstarkungsfaktor, hier gehen die Impulse pro Umdrehung mit ein.
-        final BigDecimal p_factor = this.enhancement.divide(BigDecimal.valueOf(this.wheelSteps), SCALE_INTERN, BigDecimal.ROUND_CEILING);
+        // Mit Gain-Scheduling je Motor aus der Tabelle...
+        final GainSchedule schedule = this.gainSchedule;
+        final BigDecimal enhancementMA = (schedule != null)? BigDecimal.valueOf(schedule.getGain(speedMA, loadMA)) : this.enhancement;
+        final BigDecimal enhancementMB = (schedule != null)? BigDecimal.valueOf(schedule.getGain(speedMB, loadMB)) : this.enhancement;
+        final BigDecimal p_factorMA = enhancementMA.divide(BigDecimal.valueOf(this.wheelSteps), SCALE_INTERN, BigDecimal.ROUND_CEILING);
+        final BigDecimal p_factorMB = (schedule != null)? enhancementMB.divide(BigDecimal.valueOf(this.wheelSteps), SCALE_INTERN, BigDecimal.ROUND_CEILING)
+                                                        : p_factorMA;
         
-        final BigDecimal diffOutputMA = BigDecimal.valueOf(diffNumberMA).multiply(p_factor).setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP);
+        // Gleichlaufregelung: Aufschaltung des Gleichlauffehlers im selben Takt...
+        final BigDecimal syncOutput = this.isSync? BigDecimal.valueOf(syncError).multiply(this.syncEnhancement)
+                                                                                .divide(BigDecimal.valueOf(this.wheelSteps), SCALE_INTERN, BigDecimal.ROUND_HALF_UP)
+                                                 : BigDecimal.ZERO;
+        
+        final BigDecimal diffOutputMA = BigDecimal.valueOf(diffNumberMA).multiply(p_factorMA)
+                                                                        .add(syncOutput)
+                                                                        .setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP);
         final BigDecimal valueMA = destinationOutputMA.add(diffOutputMA);
         
         // VZ: -1, 0 oder +1
@@ -127,7 +248,9 @@ public class PositionController
         final boolean isLimitMA = valueMA.abs().compareTo(maxValueMA.abs()) > 0;
         final BigDecimal outputMA = isLimitMA? ((signumMA < 0)? maxValueMA.negate() : maxValueMA.setScale(SCALE_OUTPUT)) : valueMA;
         
-        final BigDecimal diffOutputMB = BigDecimal.valueOf(diffNumberMB).multiply(p_factor).setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP);
+        final BigDecimal diffOutputMB = BigDecimal.valueOf(diffNumberMB).multiply(p_factorMB)
+                                                                        .subtract(syncOutput)
+                                                                        .setScale(SCALE_OUTPUT, BigDecimal.ROUND_HALF_UP);
         final BigDecimal valueMB =  destinationOutputMB.add(diffOutputMB);
         
         // VZ: -1, 0 oder +1
@@ -146,7 +269,8 @@ public class PositionController
                           diffOutputMA,                                             // Reglerausgang zum Motor A
                           diffOutputMB,                                             // Reglerausgang zum Motor B
                           outputMA.setScale(SCALE_OUTPUT, BigDecimal.ROUND_FLOOR),  // Ausgang zum Motor A
-                          outputMB.setScale(SCALE_OUTPUT, BigDecimal.ROUND_FLOOR)); // Ausgang zum Motor B
+                          outputMB.setScale(SCALE_OUTPUT, BigDecimal.ROUND_FLOOR),  // Ausgang zum Motor B
+                          syncError);                                               // Gleichlauffehler
     }
     
     
@@ -194,20 +318,41 @@ public class PositionController
          */
         private final BigDecimal outputMB; 
         
+        /**
+         * syncError - Gleichlauffehler (Lagedifferenz Motor A minus Lagedifferenz Motor B, in Impulse)
+         */
+        private final long syncError;
+        
+        /**
+         * Output() - Konstruktor ohne Gleichlauffehler...
+         */
+        public Output(BigDecimal diffValueMA,
+                      BigDecimal diffValueMB,
+                      BigDecimal diffOutputMA,
+                      BigDecimal diffOutputMB,
+                      BigDecimal outputMA,      
+                      BigDecimal outputMB)
+        {
+            this(diffValueMA, diffValueMB, diffOutputMA, diffOutputMB, outputMA, outputMB, 0L);
+        }
+        
         /**
          * Output() - Konstruktor aus den Attributen...
          * @param diffValueMA - Lagedifferenz Motor A
          * @param diffValueMB - Lagedifferenz Motor B
          * @param outputMA - Sollwert fuer Motor A
          * @param outputMB - Solwert fuer Motor B
+         * @param syncError - Gleichlauffehler (in Impulse)
          */
         public Output(BigDecimal diffValueMA,
                       BigDecimal diffValueMB,
                       BigDecimal diffOutputMA,
                       BigDecimal diffOutputMB,
                       BigDecimal outputMA,      
-                      BigDecimal outputMB)
+                      BigDecimal outputMB,
+                      long syncError)
         {
+            this.syncError = syncError;
             this.diffValueMA = (diffValueMA != null)? diffValueMA : BigDecimal.ZERO.setScale(SCALE_OUTPUT);
             this.diffValueMB = (diffValueMB != null)? diffValueMB : BigDecimal.ZERO.setScale(SCALE_OUTPUT);
             
@@ -268,6 +413,14 @@ public class PositionController
             return this.outputMB;
         }
         
+        /**
+         * @return the syncError (in Impulse)
+         */
+        public final long getSyncError()
+        {
+            return this.syncError;
+        }
+        
         /**
          * String toString() - zu Protokollzwecken...
          */
@@ -286,6 +439,8 @@ public class PositionController
                                       .append(this.outputMA.toString())
                                       .append(" ")
                                       .append(this.outputMB.toString())
+                                      .append(" ")
+                                      .append(this.syncError)
                                       .append("]")
                                       .toString();
         }
@@ -0,0 +1,228 @@
+/**
+ *
+ */
+package gui;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * QuadratureCounter - Zaehler eines Drehgebers mit zwei Spuren A/B
+ * (Quadratur) an GPIO-Eingaengen des Raspi, ohne Sperren (lock-free).
+ * <p>
+ * Aus der Folge der Pegel (A, B) wird die Drehrichtung bestimmt, gezaehlt
+ * wird jede Flanke beider Spuren (vierfache Aufloesung), vorwaerts (A
+ * eilt B voraus) positiv: 00 - 10 - 11 - 01 - 00. Aendern sich beide
+ * Pegel zugleich, wurde mindestens eine Flanke verpasst, die Richtung ist
+ * unbestimmt: nicht gezaehlt, als Fehler (errors) vermerkt.
+ * </p>
+ * <p>
+ * Zaehlerstand und Pegel liegen gemeinsam in einem AtomicLong
+ * ((count &lt;&lt; 2) | state) und werden mit compareAndSet() veraendert.
+ * Flanken koennen damit aus beliebigen Threads gemeldet werden (z.B. je
+ * Spur ein Listener), der Regeltakt liest mit getCount() ohne Warten und
+ * ohne Transaktion am Bus.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class QuadratureCounter
+{
+    /**
+     * INVALID - Kennung im DECODE fuer einen Sprung ueber zwei Zustaende
+     */
+    private final static int INVALID = 2;
+
+    /**
+     * DECODE - Zuwachs je Uebergang [vorher * 4 + nachher], Zustand (A &lt;&lt; 1) | B
+     */
+    private final static int[] DECODE =
+    {
+        //  00        01       10       11      <- nachher
+             0,       -1,       1,  INVALID,    // vorher 00
+             1,        0,  INVALID,      -1,    // vorher 01
+            -1,  INVALID,       0,        1,    // vorher 10
+        INVALID,       1,      -1,        0     // vorher 11
+    };
+
+    /**
+     * pinA/pinB - Bit der Spuren A/B im Level-Register (BCM-Nummer)
+     */
+    private final int pinA;
+    private final int pinB;
+
+    /**
+     * value - (count &lt;&lt; 2) | state
+     */
+    private final AtomicLong value = new AtomicLong();
+
+    /**
+     * errors - Anzahl der Spruenge ueber zwei Zustaende (verpasste Flanken)
+     */
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * QuadratureCounter(int pinA, int pinB)
+     * @param pinA - Spur A in BCM-Nummerierung (0 ... 31)
+     * @param pinB - Spur B in BCM-Nummerierung (0 ... 31)
+     */
+    public QuadratureCounter(int pinA, int pinB)
+    {
+        if (pinA < 0 || pinA > 31 || pinB < 0 || pinB > 31 || pinA == pinB)
+        {
+            throw new IllegalArgumentException("pinA/pinB must be 0 ... 31 and different!");
+        }
+        this.pinA = pinA;
+        this.pinB = pinB;
+    }
+
+    /**
+     * init(int levels) - Pegel uebernehmen, ohne zu zaehlen (Beginn der Abfrage)...
+     * @param levels - Level-Register (GPLEV0)
+     */
+    public void init(int levels)
+    {
+        final int state = toState(levels);
+        long current;
+        do
+        {
+            current = this.value.get();
+        }
+        while (!this.value.compareAndSet(current, (current & ~3L) | state));
+    }
+
+    /**
+     * sample(int levels) - Pegel beider Spuren aus dem Level-Register...
+     * @param levels - Level-Register (GPLEV0)
+     */
+    public void sample(int levels)
+    {
+        update(toState(levels));
+    }
+
+    /**
+     * onA(boolean level) - Flanke der Spur A (z.B. Listener)...
+     * @param level - neuer Pegel der Spur A
+     */
+    public void onA(boolean level)
+    {
+        long current;
+        long next;
+        do
+        {
+            current = this.value.get();
+            next = advance(current, ((int) current & 1) | (level? 2 : 0));
+        }
+        while (current != next && !this.value.compareAndSet(current, next));
+        countError(current, next);
+    }
+
+    /**
+     * onB(boolean level) - Flanke der Spur B (z.B. Listener)...
+     * @param level - neuer Pegel der Spur B
+     */
+    public void onB(boolean level)
+    {
+        long current;
+        long next;
+        do
+        {
+            current = this.value.get();
+            next = advance(current, ((int) current & 2) | (level? 1 : 0));
+        }
+        while (current != next && !this.value.compareAndSet(current, next));
+        countError(current, next);
+    }
+
+    /**
+     * update(int state) - neuer Zustand (A &lt;&lt; 1) | B...
+     */
+    private void update(int state)
+    {
+        long current;
+        long next;
+        do
+        {
+            current = this.value.get();
+            next = advance(current, state);
+        }
+        while (current != next && !this.value.compareAndSet(current, next));
+        countError(current, next);
+    }
+
+    /**
+     * advance(long current, int state) - Folgewert zum neuen Zustand, bei
+     * verpasster Flanke (Richtung unbestimmt) nur der Zustand...
+     */
+    private static long advance(long current, int state)
+    {
+        final int delta = DECODE[(((int) current & 3) << 2) | state];
+        if (delta == INVALID)
+        {
+            return (current & ~3L) | state;
+        }
+        return (((current >> 2) + delta) << 2) | state;
+    }
+
+    /**
+     * countError(long previous, long next) - verpasste Flanke nach erfolgreichem
+     * compareAndSet() zaehlen...
+     */
+    private void countError(long previous, long next)
+    {
+        if (DECODE[(((int) previous & 3) << 2) | ((int) next & 3)] == INVALID)
+        {
+            this.errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * toState(int levels) - Zustand (A &lt;&lt; 1) | B aus dem Level-Register...
+     */
+    private int toState(int levels)
+    {
+        return (((levels >>> this.pinA) & 1) << 1) | ((levels >>> this.pinB) & 1);
+    }
+
+    /**
+     * @return Zaehlerstand (Flanken beider Spuren, mit Vorzeichen)
+     */
+    public long getCount()
+    {
+        return this.value.get() >> 2;
+    }
+
+    /**
+     * @return Anzahl der verpassten Flanken (Spruenge ueber zwei Zustaende)
+     */
+    public long getErrors()
+    {
+        return this.errors.get();
+    }
+
+    /**
+     * @return Maske beider Spuren im Level-Register
+     */
+    public int getMask()
+    {
+        return (1 << this.pinA) | (1 << this.pinB);
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.pinA)
+                                  .append(" ")
+                                  .append(this.pinB)
+                                  .append(" ")
+                                  .append(getCount())
+                                  .append(" ")
+                                  .append(getErrors())
+                                  .append("]")
+                                  .toString();
+    }
+}
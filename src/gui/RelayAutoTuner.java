@@ -0,0 +1,324 @@
+/**
+ *
+ */
+package gui;
+
+import java.math.BigDecimal;
+
+/**
+ * RelayAutoTuner - Relais-Versuch (Aastroem/Haegglund) zur Bestimmung der
+ * kritischen Verstaerkung und der kritischen Periodendauer einer Achse.
+ * <p>
+ * Anstelle des P-Reglers wird die Achse mit einem Zweipunkt-Glied (Relais mit
+ * Hysterese) betrieben. Die Regelabweichung (Lage in Impulsen) schwingt dann
+ * mit der kritischen Periodendauer Pu. Aus der Relaisamplitude d und der
+ * Schwingungsamplitude a folgt die kritische Verstaerkung:
+ * </p>
+ * <p>
+ *   Ku = 4 * d / (PI * sqrt(a*a - h*h))  (h - Hysterese)
+ * </p>
+ * <p>
+ * Der Vorschlag fuer die Reglerverstaerkung (enhancement) folgt nach
+ * Ziegler/Nichols fuer den P-Regler zu 0.5 * Ku. Da im PositionController
+ * die Verstaerkung durch die Anzahl der Impulse pro Umdrehung geteilt wird,
+ * ist dort enhancement = 0.5 * Ku * wheelSteps einzustellen.
+ * </p>
+ * <p>
+ * Der RelayAutoTuner kennt weder Model noch Regelstrecke, er wird pro Takt
+ * mit doCycle() beauftragt und kann daher an der realen wie an der
+ * simulierten Regelstrecke (SimulatedPlant) betrieben werden.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class RelayAutoTuner
+{
+    /**
+     * DEFAULT_HYSTERESIS = 1 - Hysterese des Relais in Impulsen
+     */
+    public final static long DEFAULT_HYSTERESIS = 1L;
+
+    /**
+     * DEFAULT_PERIODS = 4 - Anzahl der auszuwertenden Schwingungsperioden
+     */
+    public final static int DEFAULT_PERIODS = 4;
+
+    /**
+     * DEFAULT_TIMEOUT = 30.0 - maximale Versuchsdauer in s
+     */
+    public final static double DEFAULT_TIMEOUT = 30.0;
+
+    /**
+     * ZIEGLER_NICHOLS_P = 0.5 - Faktor Kp/Ku fuer den P-Regler
+     */
+    public final static double ZIEGLER_NICHOLS_P = 0.5;
+
+    /**
+     * amplitude - Relaisamplitude d (Stellgroesse)
+     */
+    private final double amplitude;
+
+    /**
+     * hysteresis - Hysterese h des Relais (Impulse)
+     */
+    private final long hysteresis;
+
+    /**
+     * periods - Anzahl der auszuwertenden Perioden
+     */
+    private final int periods;
+
+    /**
+     * timeout - maximale Versuchsdauer in s
+     */
+    private final double timeout;
+
+    /**
+     * state - Zustand des Versuchs
+     */
+    private State state = State.RUNNING;
+
+    /**
+     * time - Versuchsdauer in s
+     */
+    private double time = 0.0;
+
+    /**
+     * relay - momentane Relaisstellung (+1/-1)
+     */
+    private int relay = 0;
+
+    /**
+     * lastRise - Zeitpunkt des letzten Umschaltens nach +1
+     */
+    private double lastRise = -1.0;
+
+    /**
+     * rises - Anzahl der Umschaltungen nach +1
+     */
+    private int rises = 0;
+
+    /**
+     * maxDiff/minDiff - Extremwerte der Regelabweichung in der laufenden Periode
+     */
+    private long maxDiff = Long.MIN_VALUE;
+    private long minDiff = Long.MAX_VALUE;
+
+    /**
+     * Summen ueber die ausgewerteten Perioden...
+     */
+    private double summPeriod = 0.0;
+    private double summAmplitude = 0.0;
+    private int count = 0;
+
+    /**
+     * ultimateGain - kritische Verstaerkung Ku (Stellgroesse pro Impuls)
+     */
+    private double ultimateGain = 0.0;
+
+    /**
+     * ultimatePeriod - kritische Periodendauer Pu in s
+     */
+    private double ultimatePeriod = 0.0;
+
+    /**
+     * RelayAutoTuner(double amplitude) - mit den DEFAULT-Parametern...
+     * @param amplitude - Relaisamplitude d (Stellgroesse)
+     */
+    public RelayAutoTuner(double amplitude)
+    {
+        this(amplitude, DEFAULT_HYSTERESIS, DEFAULT_PERIODS, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * RelayAutoTuner(...) - Konstruktor aus allen Parametern...
+     * @param amplitude - Relaisamplitude d (Stellgroesse)
+     * @param hysteresis - Hysterese in Impulsen
+     * @param periods - Anzahl der auszuwertenden Perioden
+     * @param timeout - maximale Versuchsdauer in s
+     */
+    public RelayAutoTuner(double amplitude, long hysteresis, int periods, double timeout)
+    {
+        this.amplitude = Math.abs(amplitude);
+        this.hysteresis = Math.abs(hysteresis);
+        this.periods = (periods > 0)? periods : 1;
+        this.timeout = timeout;
+        if (this.amplitude == 0.0)
+        {
+            // Ohne Relaisamplitude keine Schwingung...
+            this.state = State.FAILED;
+        }
+    }
+
+    /**
+     * doCycle(double cycleTime, long diffNumber) - ein Takt des Relais-Versuchs...
+     * @param cycleTime - Taktzeit in s
+     * @param diffNumber - Regelabweichung (Soll - Ist) in Impulsen
+     * @return Stellgroesse des Relais (ohne Vorsteuerung), 0.0 wenn der Versuch beendet ist
+     */
+    public double doCycle(double cycleTime, long diffNumber)
+    {
+        if (this.state != State.RUNNING)
+        {
+            return 0.0;
+        }
+        this.time += cycleTime;
+        if (this.time > this.timeout)
+        {
+            this.state = State.FAILED;
+            return 0.0;
+        }
+
+        this.maxDiff = Math.max(this.maxDiff, diffNumber);
+        this.minDiff = Math.min(this.minDiff, diffNumber);
+
+        if (this.relay == 0)
+        {
+            this.relay = (diffNumber < 0L)? -1 : +1;
+        }
+        else if (this.relay > 0 && diffNumber < -this.hysteresis)
+        {
+            this.relay = -1;
+        }
+        else if (this.relay < 0 && diffNumber > this.hysteresis)
+        {
+            this.relay = +1;
+            onRise();
+        }
+        return (this.state == State.RUNNING)? this.relay * this.amplitude : 0.0;
+    }
+
+    /**
+     * onRise() - Umschaltung nach +1, eine Periode ist abgeschlossen...
+     * <p>
+     * Die erste vollstaendige Periode wird als Einschwingvorgang verworfen.
+     * </p>
+     */
+    private void onRise()
+    {
+        if (this.lastRise >= 0.0 && this.rises > 1)
+        {
+            this.summPeriod += (this.time - this.lastRise);
+            this.summAmplitude += 0.5 * (this.maxDiff - this.minDiff);
+            this.count++;
+        }
+        this.rises++;
+        this.lastRise = this.time;
+        this.maxDiff = Long.MIN_VALUE;
+        this.minDiff = Long.MAX_VALUE;
+
+        if (this.count >= this.periods)
+        {
+            final double a = this.summAmplitude / this.count;
+            final double h = this.hysteresis;
+            if (a <= h)
+            {
+                this.state = State.FAILED;
+                return;
+            }
+            this.ultimateGain = 4.0 * this.amplitude / (Math.PI * Math.sqrt(a * a - h * h));
+            this.ultimatePeriod = this.summPeriod / this.count;
+            this.state = State.FINISHED;
+        }
+    }
+
+    /**
+     * @return the state
+     */
+    public State getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * isDone() - Versuch beendet (erfolgreich oder nicht)?
+     * @return boolean
+     */
+    public boolean isDone()
+    {
+        return this.state != State.RUNNING;
+    }
+
+    /**
+     * @return kritische Verstaerkung Ku (Stellgroesse pro Impuls)
+     */
+    public double getUltimateGain()
+    {
+        return this.ultimateGain;
+    }
+
+    /**
+     * @return kritische Periodendauer Pu in s
+     */
+    public double getUltimatePeriod()
+    {
+        return this.ultimatePeriod;
+    }
+
+    /**
+     * getSuggestedEnhancement(int wheelSteps) - Vorschlag fuer die
+     * Reglerverstaerkung (enhancement im PositionController)...
+     * @param wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
+     * @return 0.5 * Ku * wheelSteps, 0.0 wenn kein Ergebnis vorliegt
+     */
+    public double getSuggestedEnhancement(int wheelSteps)
+    {
+        return (this.state == State.FINISHED)? ZIEGLER_NICHOLS_P * this.ultimateGain * wheelSteps : 0.0;
+    }
+
+    /**
+     * selectEnhancement(double value) - liefert aus Model.ENHANCEMENTS den
+     * groessten Eintrag, der value nicht uebersteigt (konservative Auswahl,
+     * die ComboBox kann nur Eintraege der Liste darstellen)...
+     * @param value
+     * @return BigDecimal aus Model.ENHANCEMENTS
+     */
+    public static BigDecimal selectEnhancement(double value)
+    {
+        BigDecimal result = Model.ENHANCEMENTS[0];
+        for (BigDecimal enhancement: Model.ENHANCEMENTS)
+        {
+            if (enhancement.doubleValue() <= value && enhancement.compareTo(result) > 0)
+            {
+                result = enhancement;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.state)
+                                  .append(" Ku=")
+                                  .append(this.ultimateGain)
+                                  .append(" Pu=")
+                                  .append(this.ultimatePeriod)
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * State - Zustand des Relais-Versuchs
+     */
+    public enum State
+    {
+        /**
+         * RUNNING - Versuch laeuft
+         */
+        RUNNING,
+        /**
+         * FINISHED - Ku und Pu wurden bestimmt
+         */
+        FINISHED,
+        /**
+         * FAILED - keine auswertbare Schwingung (Timeout, Amplitude 0...)
+         */
+        FAILED
+    }
+}
@@ -0,0 +1,310 @@
+package gui;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * RemoteController - verbindet die View mit dem Model in einem anderen
+ * Prozess (View und Regelung in getrennten JVM).
+ * <p>
+ * Die Zustandsgroessen liest der RemoteController aus dem Abbild
+ * (StateSnapshot) im Takt eines javax.swing.Timer und reicht die
+ * Aenderungen wie das Model als PropertyChangeEvent an die View weiter,
+ * die View wird damit im Event-Dispatch-Thread nachgezogen.
+ * </p>
+ * <p>
+ * Aktionen an der View werden als Kommandos an den ControlServer des
+ * Prozesses der Regelung gesendet (START, STOP, RESET, SET), in einem
+ * eigenen Thread, die View wartet nicht auf die Antwort. Entspricht der
+ * Wert einer Aktion dem Stand im Abbild (die View wurde nur nachgezogen),
+ * wird kein Kommando gesendet. Der Ende-Button beendet nur die View, die
+ * Regelung laeuft weiter.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class RemoteController implements ActionListener
+{
+    /**
+     * logger - Logger, hier slf4j...
+     */
+    private final static Logger logger = LoggerFactory.getLogger(RemoteController.class);
+
+    /**
+     * POLL_MILLIS - Abfrage des Abbildes in ms, einstellbar ueber -Dgui.snapshot.pollMillis=... (Standard 20)
+     */
+    public final static int POLL_MILLIS = Math.max(1, Integer.getInteger("gui.snapshot.pollMillis", 20).intValue());
+
+    /**
+     * TIMEOUT_MILLIS = 2000 - Verbindungsaufbau und Antwort des ControlServer
+     */
+    private final static int TIMEOUT_MILLIS = 2000;
+
+    /**
+     * view - Referenz auf die angemeldete View...
+     */
+    private final View view;
+
+    /**
+     * snapshot - Abbild der Zustandsgroessen (Leser)
+     */
+    private final StateSnapshot snapshot;
+
+    /**
+     * host/port - Adresse des ControlServer
+     */
+    private final String host;
+    private final int port;
+
+    /**
+     * timer - Abfrage des Abbildes im Event-Dispatch-Thread
+     */
+    private final Timer timer;
+
+    /**
+     * sender - Versand der Kommandos (ein Thread, Reihenfolge bleibt erhalten)
+     */
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable ->
+    {
+        final Thread thread = new Thread(runnable, "RemoteController");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * socket/reader/writer - Verbindung zum ControlServer (nur im sender)
+     */
+    private Socket socket = null;
+    private BufferedReader reader = null;
+    private Writer writer = null;
+
+    /**
+     * RemoteController(View view, StateSnapshot snapshot, String host, int port)
+     * @param view - die View
+     * @param snapshot - Abbild der Zustandsgroessen (Leser)
+     * @param host - Adresse des ControlServer
+     * @param port - Port des ControlServer
+     */
+    public RemoteController(View view, StateSnapshot snapshot, String host, int port)
+    {
+        this.view = view;
+        this.view.addActionListener(this);
+        this.snapshot = snapshot;
+        this.host = host;
+        this.port = port;
+        this.timer = new Timer(POLL_MILLIS, event -> this.snapshot.read(this, this.view));
+    }
+
+    /**
+     * start() - Abfrage des Abbildes starten...
+     */
+    public void start()
+    {
+        this.timer.start();
+        logger.info("RemoteController gestartet: " + toString());
+    }
+
+    /**
+     * stop() - Abfrage beenden, Verbindung schliessen...
+     */
+    public void stop()
+    {
+        this.timer.stop();
+        this.sender.execute(this::disconnect);
+        this.sender.shutdown();
+    }
+
+    /**
+     * actionPerformed(ActionEvent event) wird durch das SwingWindow
+     * beauftragt und muss die Aktion an den ControlServer weiterreichen...
+     */
+    @Override
+    public void actionPerformed(ActionEvent event)
+    {
+        final JComponent source = (JComponent)event.getSource();
+        final String name = source.getName();
+        if (source instanceof JButton)
+        {
+            logger.debug("actionPerformed(): " + event.getActionCommand() + " " + name);
+            if (Model.NAME_START_BUTTON.equals(name))
+            {
+                send("START");
+                return;
+            }
+            if (Model.NAME_STOP_BUTTON.equals(name))
+            {
+                send("STOP");
+                return;
+            }
+            if (Model.NAME_RESET_BUTTON.equals(name))
+            {
+                send("RESET");
+                return;
+            }
+            if (Model.NAME_END_BUTTON.equals(name))
+            {
+                // Nur die View beenden...
+                stop();
+                System.exit(0);
+            }
+        }
+        if (source instanceof JComboBox<?>)
+        {
+            final BigDecimal value = (BigDecimal)((JComboBox<?>)source).getSelectedItem();
+            if (value != null && !isKnown(name, value))
+            {
+                send("SET " + name + " " + value.toPlainString());
+            }
+            return;
+        }
+        if (source instanceof JCheckBox)
+        {
+            final Boolean value = Boolean.valueOf(((JCheckBox)source).isSelected());
+            if (!isKnown(name, value))
+            {
+                send("SET " + name + " " + value);
+            }
+            return;
+        }
+    }
+
+    /**
+     * isKnown(String key, Object value) - Wert entspricht dem Abbild (View nur nachgezogen)?
+     */
+    private boolean isKnown(String key, Object value)
+    {
+        final Object known = this.snapshot.getValue(key);
+        if (known instanceof BigDecimal && value instanceof BigDecimal)
+        {
+            return ((BigDecimal) known).compareTo((BigDecimal) value) == 0;
+        }
+        return value.equals(known);
+    }
+
+    /**
+     * send(String command) - Kommando im sender versenden...
+     */
+    private void send(String command)
+    {
+        logger.debug("send(): " + command);
+        this.sender.execute(() -> transmit(command));
+    }
+
+    /**
+     * transmit(String command) - Kommando senden, Antwort pruefen, bei
+     * Fehler der Verbindung einmal neu verbinden...
+     */
+    private void transmit(String command)
+    {
+        for (int attempt = 0; attempt < 2; attempt++)
+        {
+            try
+            {
+                if (this.socket == null)
+                {
+                    connect();
+                }
+                this.writer.write(command);
+                this.writer.write('\n');
+                this.writer.flush();
+                final String response = this.reader.readLine();
+                if (response == null)
+                {
+                    throw new IOException("connection closed by " + this.host + ":" + this.port);
+                }
+                if (!response.startsWith("OK"))
+                {
+                    logger.warn(command + ": " + response);
+                }
+                return;
+            }
+            catch (IOException exception)
+            {
+                logger.error(command + ": " + exception.toString());
+                disconnect();
+            }
+        }
+    }
+
+    /**
+     * connect() - Verbindung zum ControlServer...
+     */
+    private void connect() throws IOException
+    {
+        final Socket socket = new Socket();
+        try
+        {
+            socket.connect(new InetSocketAddress(this.host, this.port), TIMEOUT_MILLIS);
+            socket.setSoTimeout(TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            this.writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+            this.socket = socket;
+        }
+        catch (IOException exception)
+        {
+            socket.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * disconnect() - Verbindung schliessen (naechstes Kommando verbindet neu)...
+     */
+    private void disconnect()
+    {
+        if (this.socket != null)
+        {
+            try
+            {
+                this.socket.close();
+            }
+            catch (IOException exception)
+            {
+                logger.debug(exception.toString());
+            }
+        }
+        this.socket = null;
+        this.reader = null;
+        this.writer = null;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.snapshot)
+                                  .append(" ")
+                                  .append(this.host)
+                                  .append(":")
+                                  .append(this.port)
+                                  .append(" ")
+                                  .append(POLL_MILLIS)
+                                  .append("]")
+                                  .toString();
+    }
+}
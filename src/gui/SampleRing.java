@@ -0,0 +1,274 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * SampleRing - Ringpuffer fester Groesse fuer die Messwerte der Takte.
+ * <p>
+ * Pro Takt wird ein Satz von channels double-Werten und der Taktzaehler
+ * (counter) abgelegt. Die Ablage erfolgt ausschliesslich in primitiven
+ * Arrays, beim Schreiben werden keine Objekte angelegt. Ist der Puffer
+ * voll, wird der aelteste Satz ueberschrieben.
+ * </p>
+ * <p>
+ * Die Saetze werden ueber einen fortlaufenden Index (0, 1, 2, ...)
+ * angesprochen, verfuegbar sind die Indizes getFirst() ... getWritten() - 1.
+ * Geschrieben wird im Takt (Thread des Model), gelesen in der View (EDT),
+ * daher sind die Zugriffe synchronisiert (kurze kritische Abschnitte).
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class SampleRing
+{
+    /**
+     * capacity - Anzahl der Saetze
+     */
+    private final int capacity;
+
+    /**
+     * channels - Anzahl der Werte pro Satz
+     */
+    private final int channels;
+
+    /**
+     * counters - Taktzaehler der Saetze
+     */
+    private final long[] counters;
+
+    /**
+     * values - Werte der Saetze, values[channel][position]
+     */
+    private final double[][] values;
+
+    /**
+     * written - Anzahl der insgesamt geschriebenen Saetze (= naechster Index)
+     */
+    private long written = 0L;
+
+    /**
+     * SampleRing(int capacity, int channels)
+     * @param capacity - Anzahl der Saetze (mind. 1)
+     * @param channels - Anzahl der Werte pro Satz (mind. 1)
+     */
+    public SampleRing(int capacity, int channels)
+    {
+        this.capacity = (capacity > 1)? capacity : 1;
+        this.channels = (channels > 1)? channels : 1;
+        this.counters = new long[this.capacity];
+        this.values = new double[this.channels][this.capacity];
+    }
+
+    /**
+     * add(long counter, double[] sample) - einen Satz ablegen...
+     * @param counter - Taktzaehler
+     * @param sample - Werte (mind. channels Eintraege, wird nicht referenziert)
+     */
+    public synchronized void add(long counter, double[] sample)
+    {
+        final int position = (int) (this.written % this.capacity);
+        this.counters[position] = counter;
+        for (int channel = 0; channel < this.channels; channel++)
+        {
+            this.values[channel][position] = sample[channel];
+        }
+        this.written++;
+    }
+
+    /**
+     * clear() - alle Saetze verwerfen...
+     */
+    public synchronized void clear()
+    {
+        this.written = 0L;
+    }
+
+    /**
+     * @return Anzahl der insgesamt geschriebenen Saetze (Index des naechsten Satzes)
+     */
+    public synchronized long getWritten()
+    {
+        return this.written;
+    }
+
+    /**
+     * @return Index des aeltesten verfuegbaren Satzes
+     */
+    public synchronized long getFirst()
+    {
+        return Math.max(0L, this.written - this.capacity);
+    }
+
+    /**
+     * get(long index, int channel) - ein Wert...
+     * @param index - Index des Satzes
+     * @param channel - Kanal
+     * @return Wert oder Double.NaN, wenn der Satz nicht (mehr) verfuegbar ist
+     */
+    public synchronized double get(long index, int channel)
+    {
+        if (!isAvailable(index))
+        {
+            return Double.NaN;
+        }
+        return this.values[channel][(int) (index % this.capacity)];
+    }
+
+    /**
+     * getCounter(long index) - Taktzaehler eines Satzes...
+     * @param index - Index des Satzes
+     * @return Taktzaehler oder -1L, wenn der Satz nicht (mehr) verfuegbar ist
+     */
+    public synchronized long getCounter(long index)
+    {
+        if (!isAvailable(index))
+        {
+            return -1L;
+        }
+        return this.counters[(int) (index % this.capacity)];
+    }
+
+    /**
+     * get(long index, double[] sample) - einen Satz lesen...
+     * @param index - Index des Satzes
+     * @param sample - nimmt die Werte auf (mind. channels Eintraege)
+     * @return Taktzaehler oder -1L, wenn der Satz nicht (mehr) verfuegbar ist
+     */
+    public synchronized long get(long index, double[] sample)
+    {
+        if (!isAvailable(index))
+        {
+            return -1L;
+        }
+        final int position = (int) (index % this.capacity);
+        for (int channel = 0; channel < this.channels; channel++)
+        {
+            sample[channel] = this.values[channel][position];
+        }
+        return this.counters[position];
+    }
+
+    /**
+     * minMax(long from, long to, int channel, double[] result) - Minimum,
+     * Maximum und letzter Wert der Saetze from ... to - 1...
+     * @param from - erster Index (einschliesslich)
+     * @param to - letzter Index (ausschliesslich)
+     * @param channel - Kanal
+     * @param result - result[0]: Minimum, result[1]: Maximum, result[2]: letzter Wert
+     * @return false, wenn keiner der Saetze verfuegbar ist
+     */
+    public synchronized boolean minMax(long from, long to, int channel, double[] result)
+    {
+        final long start = Math.max(from, Math.max(0L, this.written - this.capacity));
+        final long end = Math.min(to, this.written);
+        if (start >= end)
+        {
+            return false;
+        }
+        final double[] data = this.values[channel];
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double last = Double.NaN;
+        for (long index = start; index < end; index++)
+        {
+            last = data[(int) (index % this.capacity)];
+            if (last < min)
+            {
+                min = last;
+            }
+            if (last > max)
+            {
+                max = last;
+            }
+        }
+        result[0] = min;
+        result[1] = max;
+        result[2] = last;
+        return true;
+    }
+
+    /**
+     * find(long counter) - Index des Satzes mit dem Taktzaehler counter
+     * (binaere Suche, die Taktzaehler sind aufsteigend)...
+     * @param counter - gesuchter Taktzaehler
+     * @return Index des Satzes mit dem kleinsten Taktzaehler &gt;= counter,
+     * -1L wenn kein solcher Satz verfuegbar ist
+     */
+    public synchronized long find(long counter)
+    {
+        long low = Math.max(0L, this.written - this.capacity);
+        long high = this.written - 1L;
+        if (high < low || this.counters[(int) (high % this.capacity)] < counter)
+        {
+            return -1L;
+        }
+        while (low < high)
+        {
+            final long middle = (low + high) >>> 1;
+            if (this.counters[(int) (middle % this.capacity)] < counter)
+            {
+                low = middle + 1L;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * copyTo(SampleRing target) - alle verfuegbaren Saetze in target uebernehmen
+     * (z.B. zum Einfrieren einer Darstellung), target muss die gleiche Groesse
+     * und Anzahl der Werte haben...
+     * <p>
+     * Die Indizes bleiben erhalten, es werden keine Objekte angelegt.
+     * </p>
+     * @param target - Ziel, der bisherige Inhalt wird verworfen
+     */
+    public void copyTo(SampleRing target)
+    {
+        if (target.capacity != this.capacity || target.channels != this.channels)
+        {
+            throw new IllegalArgumentException("target must have the same capacity and channels!");
+        }
+        synchronized (this)
+        {
+            synchronized (target)
+            {
+                System.arraycopy(this.counters, 0, target.counters, 0, this.capacity);
+                for (int channel = 0; channel < this.channels; channel++)
+                {
+                    System.arraycopy(this.values[channel], 0, target.values[channel], 0, this.capacity);
+                }
+                target.written = this.written;
+            }
+        }
+    }
+
+    /**
+     * isAvailable(long index) - ist der Satz (noch) verfuegbar?
+     */
+    private boolean isAvailable(long index)
+    {
+        return (index >= 0L) && (index < this.written) && (index >= this.written - this.capacity);
+    }
+
+    /**
+     * @return Anzahl der Saetze
+     */
+    public int getCapacity()
+    {
+        return this.capacity;
+    }
+
+    /**
+     * @return Anzahl der Werte pro Satz
+     */
+    public int getChannels()
+    {
+        return this.channels;
+    }
+}
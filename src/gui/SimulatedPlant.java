@@ -0,0 +1,266 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * SimulatedPlant - simulierte Regelstrecke (Arduino plus zwei Motoren).
+ * <p>
+ * Jeder Motor wird als Verzoegerungsglied 1. Ordnung (PT1) von der
+ * Stellgroesse auf die Drehzahl nachgebildet:
+ * </p>
+ * <p>
+ *   T * dn/dt + n = MAX_RPM * u  (fuer |u| > Totzone, sonst u = 0)
+ * </p>
+ * <p>
+ * Die Impulse werden wie auf dem Arduino ohne Vorzeichen gezaehlt,
+ * das Vorzeichen ergibt sich im Model aus der Stellgroesse. Der
+ * Arduino-Teil (token + 1, Status SUCCESS) wird ebenfalls nachgebildet,
+ * zusaetzlich wird das Alter der letzten Flanke geliefert (M/T-Verfahren).
+ * </p>
+ * <p>
+ * Die Zeit wird durch den Aufrufer mit advance(double seconds)
+ * weitergeschaltet (virtuelle Uhr), vgl. Simulation.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class SimulatedPlant implements Plant
+{
+    /**
+     * DEFAULT_MAX_RPM = 110.0 - Drehzahl (1/min) bei Stellgroesse 1.0
+     */
+    public final static double DEFAULT_MAX_RPM = 110.0;
+
+    /**
+     * DEFAULT_TIME_CONSTANT = 0.15 - Zeitkonstante T des Motors in s
+     */
+    public final static double DEFAULT_TIME_CONSTANT = 0.15;
+
+    /**
+     * DEFAULT_DEAD_ZONE = 0.05 - Totzone der Stellgroesse (Haftreibung)
+     */
+    public final static double DEFAULT_DEAD_ZONE = 0.05;
+
+    /**
+     * maxRpmMA/maxRpmMB - Drehzahl bei Stellgroesse 1.0 (unterschiedlich
+     * einstellbar, um ungleiche Motoren nachzubilden)
+     */
+    private final double maxRpmMA;
+    private final double maxRpmMB;
+
+    /**
+     * timeConstant - Zeitkonstante T in s
+     */
+    private final double timeConstant;
+
+    /**
+     * deadZone - Totzone der Stellgroesse
+     */
+    private final double deadZone;
+
+    /**
+     * wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
+     */
+    private final int wheelSteps;
+
+    /**
+     * pwmMA/pwmMB - zuletzt ausgegebene Stellgroessen
+     */
+    private float pwmMA = 0.0F;
+    private float pwmMB = 0.0F;
+
+    /**
+     * rpmMA/rpmMB - momentane Drehzahl (1/min, mit Vorzeichen)
+     */
+    private double rpmMA = 0.0;
+    private double rpmMB = 0.0;
+
+    /**
+     * pulsesMA/pulsesMB - zurueckgelegte Impulse (ohne Vorzeichen, wie Arduino)
+     */
+    private double pulsesMA = 0.0;
+    private double pulsesMB = 0.0;
+
+    /**
+     * time - Simulationszeit in s
+     */
+    private double time = 0.0;
+
+    /**
+     * edgeTimeMA/edgeTimeMB - Zeitpunkt der letzten Flanke in s
+     */
+    private double edgeTimeMA = 0.0;
+    private double edgeTimeMB = 0.0;
+
+    /**
+     * SimulatedPlant() - Defaultkonstruktor mit den DEFAULT-Parametern...
+     */
+    public SimulatedPlant()
+    {
+        this(DEFAULT_MAX_RPM, DEFAULT_MAX_RPM, DEFAULT_TIME_CONSTANT, DEFAULT_DEAD_ZONE, Model.CIRCUMFERENCE);
+    }
+
+    /**
+     * SimulatedPlant(...) - Konstruktor aus allen Parametern...
+     * @param maxRpmMA - Drehzahl Motor A bei Stellgroesse 1.0
+     * @param maxRpmMB - Drehzahl Motor B bei Stellgroesse 1.0
+     * @param timeConstant - Zeitkonstante T in s
+     * @param deadZone - Totzone der Stellgroesse
+     * @param wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
+     */
+    public SimulatedPlant(double maxRpmMA, double maxRpmMB, double timeConstant, double deadZone, int wheelSteps)
+    {
+        this.maxRpmMA = maxRpmMA;
+        this.maxRpmMB = maxRpmMB;
+        this.timeConstant = (timeConstant > 0.0)? timeConstant : DEFAULT_TIME_CONSTANT;
+        this.deadZone = Math.abs(deadZone);
+        this.wheelSteps = (wheelSteps > 1)? wheelSteps : 1;
+    }
+
+    /**
+     * advance(double seconds) - Zeit der Simulation weiterschalten...
+     * <p>
+     * Exakte Diskretisierung des PT1-Gliedes, die Stellgroesse ist
+     * ueber das Intervall konstant (Halteglied).
+     * </p>
+     * @param seconds - Zeitschritt in s
+     */
+    public void advance(double seconds)
+    {
+        if (seconds <= 0.0)
+        {
+            return;
+        }
+        final double factor = Math.exp(-seconds / this.timeConstant);
+
+        final double targetMA = this.maxRpmMA * effective(this.pwmMA);
+        final double rpmMAOld = this.rpmMA;
+        this.rpmMA = targetMA + (rpmMAOld - targetMA) * factor;
+        final double pulsesMAOld = this.pulsesMA;
+        this.pulsesMA += Math.abs(0.5 * (rpmMAOld + this.rpmMA)) * seconds / 60.0 * this.wheelSteps;
+        this.edgeTimeMA = edgeTime(pulsesMAOld, this.pulsesMA, seconds, this.edgeTimeMA);
+
+        final double targetMB = this.maxRpmMB * effective(this.pwmMB);
+        final double rpmMBOld = this.rpmMB;
+        this.rpmMB = targetMB + (rpmMBOld - targetMB) * factor;
+        final double pulsesMBOld = this.pulsesMB;
+        this.pulsesMB += Math.abs(0.5 * (rpmMBOld + this.rpmMB)) * seconds / 60.0 * this.wheelSteps;
+        this.edgeTimeMB = edgeTime(pulsesMBOld, this.pulsesMB, seconds, this.edgeTimeMB);
+
+        this.time += seconds;
+    }
+
+    /**
+     * edgeTime(...) - Zeitpunkt der letzten Flanke im Zeitschritt (lineare
+     * Interpolation), unveraendert wenn im Zeitschritt keine Flanke liegt...
+     */
+    private double edgeTime(double pulsesOld, double pulses, double seconds, double edgeTime)
+    {
+        final double edge = Math.floor(pulses);
+        if (edge <= Math.floor(pulsesOld))
+        {
+            return edgeTime;
+        }
+        return this.time + seconds * (edge - pulsesOld) / (pulses - pulsesOld);
+    }
+
+    /**
+     * effective(float pwm) - Stellgroesse nach Totzone und Begrenzung...
+     */
+    private double effective(float pwm)
+    {
+        final double value = Math.max(-1.0, Math.min(1.0, pwm));
+        return (Math.abs(value) <= this.deadZone)? 0.0 : value;
+    }
+
+    /**
+     * exchange(long token, ArduinoI2C.Status status) - Verhalten des Arduino:
+     * <ul>
+     *  <li>INITIAL - Impulszaehler zuruecksetzen, Antwort mit token + 1</li>
+     *  <li>SUCCESS - Antwort mit token + 1</li>
+     *  <li>sonst - Antwort mit unveraendertem token und Status ERROR</li>
+     * </ul>
+     */
+    @Override
+    public Response exchange(long token, ArduinoI2C.Status status) throws IOException
+    {
+        if (ArduinoI2C.Status.INITIAL == status)
+        {
+            this.pulsesMA = 0.0;
+            this.pulsesMB = 0.0;
+        }
+        // Alter der letzten Flanke in Mikrosekunden...
+        final long edgeAgeMA = (long) ((this.time - this.edgeTimeMA) * 1.0E6);
+        final long edgeAgeMB = (long) ((this.time - this.edgeTimeMB) * 1.0E6);
+        if (ArduinoI2C.Status.INITIAL == status || ArduinoI2C.Status.SUCCESS == status)
+        {
+            return new Response(token + 1L, ArduinoI2C.Status.SUCCESS, 0, getNumberMA(), getNumberMB(), edgeAgeMA, edgeAgeMB);
+        }
+        return new Response(token, ArduinoI2C.Status.ERROR, 0, getNumberMA(), getNumberMB(), edgeAgeMA, edgeAgeMB);
+    }
+
+    /**
+     * hasEdgeTimes() - die Simulation liefert das Alter der letzten Flanke...
+     */
+    @Override
+    public boolean hasEdgeTimes()
+    {
+        return true;
+    }
+
+    @Override
+    public void setPwmMA(float speed) throws IOException
+    {
+        this.pwmMA = speed;
+    }
+
+    @Override
+    public void setPwmMB(float speed) throws IOException
+    {
+        this.pwmMB = speed;
+    }
+
+    /**
+     * @return Impulszaehler Motor A (wie auf dem Arduino)
+     */
+    public int getNumberMA()
+    {
+        return (int) this.pulsesMA;
+    }
+
+    /**
+     * @return Impulszaehler Motor B (wie auf dem Arduino)
+     */
+    public int getNumberMB()
+    {
+        return (int) this.pulsesMB;
+    }
+
+    /**
+     * @return momentane Drehzahl Motor A (1/min)
+     */
+    public double getRpmMA()
+    {
+        return this.rpmMA;
+    }
+
+    /**
+     * @return momentane Drehzahl Motor B (1/min)
+     */
+    public double getRpmMB()
+    {
+        return this.rpmMB;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "gui.SimulatedPlant";
+    }
+}
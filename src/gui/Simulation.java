@@ -0,0 +1,181 @@
+/**
+ *
+ */
+package gui;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Simulation - Betrieb des Model an einer simulierten Regelstrecke
+ * (SimulatedPlant) mit virtueller Uhr.
+ * <p>
+ * Anstelle des Taktes durch den Arduino wird pro Takt zuerst die
+ * Regelstrecke um die Taktzeit weitergeschaltet und anschliessend
+ * Model.doCycle(Instant now) mit der virtuellen Zeit beauftragt.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class Simulation
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(Simulation.class);
+
+    /**
+     * DEFAULT_CYCLE_TIME - Taktzeit der Simulation (20ms)
+     */
+    public final static Duration DEFAULT_CYCLE_TIME = Duration.ofMillis(20L);
+
+    /**
+     * MAX_AUTO_TUNE_CYCLES - Abbruch des Autotunings nach dieser Anzahl Takte
+     */
+    public final static int MAX_AUTO_TUNE_CYCLES = 10000;
+
+    /**
+     * plant - die simulierte Regelstrecke
+     */
+    private final SimulatedPlant plant;
+
+    /**
+     * model - das Model, betrieben an der simulierten Regelstrecke
+     */
+    private final Model model;
+
+    /**
+     * cycleTime - Taktzeit der Simulation
+     */
+    private final Duration cycleTime;
+
+    /**
+     * now - virtuelle Uhr
+     */
+    private Instant now = Instant.EPOCH;
+
+    /**
+     * Simulation(SimulatedPlant plant, Duration cycleTime)
+     * @param plant - simulierte Regelstrecke
+     * @param cycleTime - Taktzeit
+     */
+    public Simulation(SimulatedPlant plant, Duration cycleTime)
+    {
+        this(plant, cycleTime, Model.SIZES_DIFF_VALUES);
+    }
+
+    /**
+     * Simulation(SimulatedPlant plant, Duration cycleTime, int sizesDiffValues)
+     * @param plant - simulierte Regelstrecke
+     * @param cycleTime - Taktzeit
+     * @param sizesDiffValues - Anzahl der Messwerte zur Feststellung der Drehzahl
+     */
+    public Simulation(SimulatedPlant plant, Duration cycleTime, int sizesDiffValues)
+    {
+        this.plant = Objects.requireNonNull(plant, "plant must not be null!");
+        this.cycleTime = Objects.requireNonNull(cycleTime, "cycleTime must not be null!");
+        this.model = new Model(plant, sizesDiffValues);
+    }
+
+    /**
+     * run(int cycles) - Anzahl Takte simulieren...
+     * @param cycles
+     */
+    public void run(int cycles)
+    {
+        final double seconds = this.cycleTime.toNanos() * 1.0E-9;
+        for (int index = 0; index < cycles; index++)
+        {
+            this.plant.advance(seconds);
+            this.now = this.now.plus(this.cycleTime);
+            this.model.doCycle(this.now);
+        }
+    }
+
+    /**
+     * pause(Duration gap) - Ausfall des Taktes: die virtuelle Uhr laeuft weiter,
+     * ohne Beauftragung des Model (z.B. Arduino taktet nicht, CycleWatchdog)...
+     * @param gap - Dauer des Ausfalls
+     */
+    public void pause(Duration gap)
+    {
+        this.plant.advance(gap.toNanos() * 1.0E-9);
+        this.now = this.now.plus(gap);
+    }
+
+    /**
+     * @return Taktzeit der Simulation
+     */
+    public Duration getCycleTime()
+    {
+        return this.cycleTime;
+    }
+
+    /**
+     * @return the model
+     */
+    public Model getModel()
+    {
+        return this.model;
+    }
+
+    /**
+     * @return the plant
+     */
+    public SimulatedPlant getPlant()
+    {
+        return this.plant;
+    }
+
+    /**
+     * @return virtuelle Uhr
+     */
+    public Instant getNow()
+    {
+        return this.now;
+    }
+
+    /**
+     * autoTune(BigDecimal maxValue) - Autotuning an der Simulation...
+     * <p>
+     * Ablauf wie an der Oberflaeche: Limitierung setzen, Start,
+     * Autotuning einschalten und warten, bis das Autotuning beendet ist.
+     * </p>
+     * @param maxValue - Limitierung (= Relaisamplitude)
+     * @return vorgeschlagene Reglerverstaerkung
+     */
+    public BigDecimal autoTune(BigDecimal maxValue)
+    {
+        this.model.setProperty(Model.MAX_VALUE_MA_KEY, maxValue);
+        this.model.setProperty(Model.MAX_VALUE_MB_KEY, maxValue);
+        this.model.doStart();
+        this.model.setProperty(Model.AUTO_TUNE_KEY, Boolean.TRUE);
+        int cycles = 0;
+        while (this.model.isAutoTune() && cycles < MAX_AUTO_TUNE_CYCLES)
+        {
+            run(1);
+            cycles++;
+        }
+        this.model.doStop();
+        logger.debug("autoTune(): " + cycles + " Takte, enhancement=" + this.model.getEnhancement());
+        return this.model.getEnhancement();
+    }
+
+    /**
+     * main() - Autotuning an der simulierten Regelstrecke mit den
+     * DEFAULT-Parametern, Ausgabe der vorgeschlagenen Verstaerkung...
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        final Simulation simulation = new Simulation(new SimulatedPlant(), DEFAULT_CYCLE_TIME);
+        final BigDecimal enhancement = simulation.autoTune(Model.MX_MAX_VALUES[5]);
+        System.out.println("enhancement=" + enhancement);
+    }
+}
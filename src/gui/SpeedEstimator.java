@@ -0,0 +1,108 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * SpeedEstimator - Drehzahlermittlung einer Achse nach dem M/T-Verfahren
+ * (Impulszaehlung plus Zeitstempel der Flanken).
+ * <p>
+ * Die Regelstrecke liefert pro Takt die Anzahl der Impulse seit dem letzten
+ * Takt und das Alter der letzten Flanke (Zeit zwischen letzter Flanke und
+ * Abtastzeitpunkt). Damit ist die Zeitdauer zwischen der letzten Flanke des
+ * vorherigen und der letzten Flanke des aktuellen Taktes bekannt, in der genau
+ * die gezaehlten Impulse liegen:
+ * </p>
+ * <p>
+ *   U = Impulse / (t_Flanke[k] - t_Flanke[k-1]) * 60/CIRCUMFERENCE
+ * </p>
+ * <p>
+ * Bei kleiner Drehzahl (kein Impuls im Takt) wird der letzte Wert durch
+ * 1 Impuls / (t - t_Flanke) nach oben begrenzt, die Drehzahl faellt also
+ * ohne weitere Impulse stetig gegen Null. Der Aufwand pro Takt ist konstant.
+ * </p>
+ * <p>
+ * Wie die gemittelte Drehzahl im Model ist das Ergebnis ein Betrag
+ * (der Arduino zaehlt ohne Vorzeichen).
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class SpeedEstimator
+{
+    /**
+     * wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
+     */
+    private final int wheelSteps;
+
+    /**
+     * time - Zeitbasis in s (Summe der Taktzeiten)
+     */
+    private double time = 0.0;
+
+    /**
+     * lastEdgeTime - Zeitpunkt der letzten Flanke in s, NaN wenn unbekannt
+     */
+    private double lastEdgeTime = Double.NaN;
+
+    /**
+     * rpm - zuletzt ermittelte Drehzahl (1/min), NaN wenn unbekannt
+     */
+    private double rpm = Double.NaN;
+
+    /**
+     * SpeedEstimator(int wheelSteps)
+     * @param wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
+     */
+    public SpeedEstimator(int wheelSteps)
+    {
+        this.wheelSteps = (wheelSteps > 1)? wheelSteps : 1;
+    }
+
+    /**
+     * update(double cycleTime, long pulses, long edgeAge) - ein Takt...
+     * @param cycleTime - Taktzeit in s
+     * @param pulses - Anzahl Impulse seit dem letzten Takt
+     * @param edgeAge - Alter der letzten Flanke in Mikrosekunden,
+     *                  Plant.Response.NO_EDGE_TIME wenn nicht verfuegbar
+     * @return Drehzahl (1/min) oder NaN, wenn (noch) keine Aussage moeglich ist
+     */
+    public double update(double cycleTime, long pulses, long edgeAge)
+    {
+        this.time += cycleTime;
+        if (edgeAge < 0L)
+        {
+            // Keine Zeitstempel von der Regelstrecke...
+            this.lastEdgeTime = Double.NaN;
+            this.rpm = Double.NaN;
+            return this.rpm;
+        }
+        if (pulses > 0L)
+        {
+            final double edgeTime = this.time - edgeAge * 1.0E-6;
+            if (!Double.isNaN(this.lastEdgeTime) && (edgeTime > this.lastEdgeTime))
+            {
+                this.rpm = pulses / (edgeTime - this.lastEdgeTime) * 60.0 / this.wheelSteps;
+            }
+            this.lastEdgeTime = edgeTime;
+        }
+        else if (!Double.isNaN(this.lastEdgeTime) && !Double.isNaN(this.rpm))
+        {
+            // Kein Impuls im Takt: die naechste Flanke kommt fruehestens jetzt...
+            final double bound = 60.0 / this.wheelSteps / (this.time - this.lastEdgeTime);
+            this.rpm = Math.min(this.rpm, bound);
+        }
+        return this.rpm;
+    }
+
+    /**
+     * reset() - Zuruecksetzen (z.B. nach doReset())...
+     */
+    public void reset()
+    {
+        this.time = 0.0;
+        this.lastEdgeTime = Double.NaN;
+        this.rpm = Double.NaN;
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ *
+ */
+package gui;
+
+/**
+ * StateObserver - Zustandsbeobachter (Alpha-Beta-Filter mit Stellgroesse)
+ * fuer Lage und Drehzahl einer Achse.
+ * <p>
+ * Modell der Achse: die Drehzahl folgt der Stellgroesse u als PT1-Glied,
+ * die Lage ist das Integral der Drehzahl (Lage/Geschwindigkeit in Impulsen
+ * bzw. Impulsen pro s):
+ * </p>
+ * <p>
+ *   v[k|k-1] = v[k-1] + (K*u - v[k-1]) * (1 - exp(-dt/T))<br>
+ *   x[k|k-1] = x[k-1] + 0.5 * (v[k-1] + v[k|k-1]) * dt
+ * </p>
+ * <p>
+ * Korrektur mit der gemessenen Lage z (Impulse) und dem Residuum r = z - x[k|k-1]:
+ * </p>
+ * <p>
+ *   x[k] = x[k|k-1] + alpha * r<br>
+ *   v[k] = v[k|k-1] + beta/dt * r
+ * </p>
+ * <p>
+ * K ergibt sich aus der Normierung (outputRelation, Drehzahl bei Stellgroesse
+ * 1.0). Die Berechnung erfolgt ausschliesslich mit primitiven Datentypen, pro
+ * Takt werden keine Objekte angelegt.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class StateObserver
+{
+    /**
+     * DEFAULT_ALPHA = 0.1 - Gewicht der Lagekorrektur
+     */
+    public final static double DEFAULT_ALPHA = 0.1;
+
+    /**
+     * DEFAULT_BETA = 0.002 - Gewicht der Geschwindigkeitskorrektur (klein, da die
+     * Lage nur auf ganze Impulse aufgeloest ist)
+     */
+    public final static double DEFAULT_BETA = 0.002;
+
+    /**
+     * DEFAULT_TIME_CONSTANT = 0.15 - angenommene Zeitkonstante T des Motors in s
+     */
+    public final static double DEFAULT_TIME_CONSTANT = 0.15;
+
+    /**
+     * wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
+     */
+    private final int wheelSteps;
+
+    /**
+     * alpha/beta - Gewichte der Korrektur
+     */
+    private final double alpha;
+    private final double beta;
+
+    /**
+     * timeConstant - Zeitkonstante T in s
+     */
+    private final double timeConstant;
+
+    /**
+     * gain - K in Impulse/s bei Stellgroesse 1.0
+     */
+    private double gain;
+
+    /**
+     * position - geschaetzte Lage in Impulsen
+     */
+    private double position = 0.0;
+
+    /**
+     * velocity - geschaetzte Geschwindigkeit in Impulse/s
+     */
+    private double velocity = 0.0;
+
+    /**
+     * StateObserver(int wheelSteps, double outputRelation) - mit den DEFAULT-Parametern...
+     * @param wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
+     * @param outputRelation - Drehzahl (1/min) bei Stellgroesse 1.0
+     */
+    public StateObserver(int wheelSteps, double outputRelation)
+    {
+        this(wheelSteps, outputRelation, DEFAULT_TIME_CONSTANT, DEFAULT_ALPHA, DEFAULT_BETA);
+    }
+
+    /**
+     * StateObserver(...) - Konstruktor aus allen Parametern...
+     * @param wheelSteps - Anzahl der Impulse des Gebers pro Umdrehung
+     * @param outputRelation - Drehzahl (1/min) bei Stellgroesse 1.0
+     * @param timeConstant - Zeitkonstante T in s
+     * @param alpha - Gewicht der Lagekorrektur (0 ... 1)
+     * @param beta - Gewicht der Geschwindigkeitskorrektur (0 ... 2)
+     */
+    public StateObserver(int wheelSteps, double outputRelation, double timeConstant, double alpha, double beta)
+    {
+        this.wheelSteps = (wheelSteps > 1)? wheelSteps : 1;
+        this.timeConstant = (timeConstant > 0.0)? timeConstant : DEFAULT_TIME_CONSTANT;
+        this.alpha = alpha;
+        this.beta = beta;
+        setOutputRelation(outputRelation);
+    }
+
+    /**
+     * setOutputRelation(double outputRelation) - Normierung nachziehen...
+     * @param outputRelation - Drehzahl (1/min) bei Stellgroesse 1.0
+     */
+    public void setOutputRelation(double outputRelation)
+    {
+        this.gain = outputRelation * this.wheelSteps / 60.0;
+    }
+
+    /**
+     * update(double cycleTime, double output, long number) - ein Takt...
+     * @param cycleTime - Taktzeit in s
+     * @param output - im letzten Takt ausgegebene Stellgroesse (-1.0 ... +1.0)
+     * @param number - gemessene Lage in Impulsen
+     */
+    public void update(double cycleTime, double output, long number)
+    {
+        if (cycleTime <= 0.0)
+        {
+            return;
+        }
+        // Praediktion...
+        final double factor = 1.0 - Math.exp(-cycleTime / this.timeConstant);
+        final double velocityPredicted = this.velocity + (this.gain * output - this.velocity) * factor;
+        final double positionPredicted = this.position + 0.5 * (this.velocity + velocityPredicted) * cycleTime;
+
+        // Korrektur...
+        final double residual = number - positionPredicted;
+        this.position = positionPredicted + this.alpha * residual;
+        this.velocity = velocityPredicted + this.beta / cycleTime * residual;
+    }
+
+    /**
+     * @return geschaetzte Lage in Impulsen
+     */
+    public double getPosition()
+    {
+        return this.position;
+    }
+
+    /**
+     * @return geschaetzte Drehzahl in 1/min (mit Vorzeichen)
+     */
+    public double getRpm()
+    {
+        return this.velocity * 60.0 / this.wheelSteps;
+    }
+
+    /**
+     * reset() - Zuruecksetzen (z.B. nach doReset())...
+     */
+    public void reset()
+    {
+        reset(0L);
+    }
+
+    /**
+     * reset(long position) - Lage vorgeben, Stillstand (z.B. Warmstart mit
+     * der gesicherten Lage, doResume())...
+     * @param position - Lage in Impulsen
+     */
+    public void reset(long position)
+    {
+        this.position = position;
+        this.velocity = 0.0;
+    }
+}
@@ -0,0 +1,606 @@
+/**
+ *
+ */
+package gui;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * StateSnapshot - Abbild der Zustandsgroessen des Model (Data, Diagnostics,
+ * GuiStatus, Einstellungen) in einer eingeblendeten Datei (MappedByteBuffer)
+ * fuer eine View in einem eigenen Prozess.
+ * <p>
+ * Der Prozess der Regelung schreibt (Listener am Model, vgl. SNAPSHOT_FILE),
+ * der Prozess der View liest (RemoteController). Geschrieben wird nach dem
+ * Prinzip des seqlock: vor dem Schreiben wird die Nummer (sequence) auf einen
+ * ungeraden Wert gesetzt, danach auf den folgenden geraden. Der Leser
+ * kopiert den Satz und verwirft die Kopie, wenn die Nummer ungerade war oder
+ * sich waehrend des Kopierens geaendert hat. Der Schreiber wartet damit nie
+ * auf den Leser, die View kann die Regelung nicht aufhalten.
+ * </p>
+ * <p>
+ * Je Schluessel (KEYS) traegt der Satz einen Zaehler der Aenderungen
+ * (version), der Leser meldet nur die geaenderten Schluessel als
+ * PropertyChangeEvent weiter, wie das Model selbst.
+ * </p>
+ * <p>
+ * Die Zugriffe auf die Einblendung sind gewoehnliche Zugriffe, das
+ * Java-Speichermodell ordnet sie nicht. Ohne VarHandle (Java 8) werden
+ * Nummer und Satz daher durch fence() getrennt: Schreiben und danach Lesen
+ * eines volatile-Feldes. Das Schreiben (release) haelt vorangehende,
+ * das Lesen (acquire) nachfolgende Zugriffe an ihrem Platz, so liest der
+ * Leser die Nummer vor und nach der Kopie mit acquire-Semantik, der
+ * Schreiber setzt die Nummer vor und nach dem Satz mit release-Semantik.
+ * </p>
+ * <p>
+ * read() legt ohne neuen Satz nichts an, von einem neuen Satz werden nur
+ * die geaenderten Schluessel decodiert, die uebrigen uebersprungen
+ * (Swing-Timer der View).
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class StateSnapshot implements PropertyChangeListener
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(StateSnapshot.class);
+
+    /**
+     * MAGIC = 0x534E4150 ("SNAP") - Kennung der Datei
+     */
+    public final static int MAGIC = 0x534E4150;
+
+    /**
+     * VERSION = 1 - Aufbau der Datei
+     */
+    public final static int VERSION = 1;
+
+    /**
+     * Offsets im Kopf der Datei...
+     */
+    private final static int SEQUENCE = 8;
+    private final static int PUBLISHED_MILLIS = 16;
+
+    /**
+     * HEADER_SIZE = 64 - MAGIC, VERSION, SEQUENCE, PUBLISHED_MILLIS, reserviert
+     */
+    private final static int HEADER_SIZE = 64;
+
+    /**
+     * RECORD_SIZE = 512 - Groesse des Satzes
+     */
+    private final static int RECORD_SIZE = 512;
+
+    /**
+     * FILE_SIZE - Groesse der Datei (Kopf und Satz)
+     */
+    public final static int FILE_SIZE = HEADER_SIZE + RECORD_SIZE;
+
+    /**
+     * READ_ATTEMPTS = 8 - Versuche je read(), wenn der Schreiber gerade schreibt
+     */
+    private final static int READ_ATTEMPTS = 8;
+
+    /**
+     * DECIMAL_SIZE/DATA_SIZE/DIAGNOSTICS_SIZE - Laenge der Werte im Satz
+     * (ohne das fuehrende Byte, vgl. encode())
+     */
+    private final static int DECIMAL_SIZE = 8 + 4;
+    private final static int DATA_SIZE = 6 * 8 + 8 * DECIMAL_SIZE;
+    private final static int DIAGNOSTICS_SIZE = 9 * 8;
+
+    /**
+     * KEYS - die Schluessel des Abbildes (Reihenfolge im Satz)
+     */
+    public final static String[] KEYS =
+    {
+        Model.DATA_KEY,
+        Model.DIAGNOSTICS_KEY,
+        Model.GUI_STATUS_KEY,
+        Model.DESTINATION_MA_KEY,
+        Model.DESTINATION_MB_KEY,
+        Model.OUTPUT_RELATION_KEY,
+        Model.MAX_VALUE_MA_KEY,
+        Model.MAX_VALUE_MB_KEY,
+        Model.ENHANCEMENT_KEY,
+        Model.SYNC_ENHANCEMENT_KEY,
+        Model.DESTINATION_SIMULTAN_KEY,
+        Model.CONTROL_KEY,
+        Model.OBSERVER_KEY,
+        Model.AUTO_TUNE_KEY,
+        Model.SYNC_KEY
+    };
+
+    /**
+     * file - die Datei
+     */
+    private final File file;
+
+    /**
+     * isWriter - Prozess der Regelung (true) oder der View (false)
+     */
+    private final boolean isWriter;
+
+    /**
+     * buffer - die eingeblendete Datei
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * record - Satz in der Einblendung (ab HEADER_SIZE)
+     */
+    private final ByteBuffer record;
+
+    /**
+     * image - Satz im Speicher (Schreiber: vor dem Kopieren, Leser: Kopie)
+     */
+    private final ByteBuffer image = ByteBuffer.allocate(RECORD_SIZE);
+
+    /**
+     * values/versions - letzter Stand je Schluessel
+     */
+    private final Object[] values = new Object[KEYS.length];
+    private final int[] versions = new int[KEYS.length];
+
+    /**
+     * previous/current/isChanged - Leser: Meldung eines Satzes (wiederverwendet)
+     */
+    private final Object[] previous = new Object[KEYS.length];
+    private final Object[] current = new Object[KEYS.length];
+    private final boolean[] isChanged = new boolean[KEYS.length];
+
+    /**
+     * readLock - Leser: ein read() zur Zeit (previous/current/isChanged)
+     */
+    private final Object readLock = new Object();
+
+    /**
+     * sequence - Schreiber: zuletzt geschriebene, Leser: zuletzt gelesene Nummer
+     */
+    private long sequence = 0L;
+
+    /**
+     * publishedMillis - Zeitpunkt des zuletzt geschriebenen/gelesenen Satzes
+     */
+    private volatile long publishedMillis = 0L;
+
+    /**
+     * fence - nur fuer fence() (release/acquire)
+     */
+    private volatile int fence = 0;
+
+    /**
+     * StateSnapshot(File file, boolean isWriter) - Datei oeffnen...
+     * @param file - Datei des Abbildes (z.B. unter /dev/shm)
+     * @param isWriter - true: Prozess der Regelung (Datei wird angelegt),
+     * false: Prozess der View (Datei muss vorhanden sein)
+     * @throws IOException
+     */
+    public StateSnapshot(File file, boolean isWriter) throws IOException
+    {
+        this.file = Objects.requireNonNull(file, "file must not be null!");
+        this.isWriter = isWriter;
+        // Die Einblendung bleibt auch nach dem Schliessen der Datei gueltig...
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, isWriter? "rw" : "r"))
+        {
+            if (!isWriter && randomAccessFile.length() < FILE_SIZE)
+            {
+                throw new IOException(file + " is not a snapshot (size " + randomAccessFile.length() + ")!");
+            }
+            this.buffer = randomAccessFile.getChannel().map(isWriter? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                                                            0L,
+                                                            FILE_SIZE);
+        }
+        this.buffer.position(HEADER_SIZE);
+        this.record = this.buffer.slice();
+        this.buffer.position(0);
+        if (isWriter)
+        {
+            // Kennung zuletzt, erst dann ist die Datei fuer den Leser gueltig...
+            this.buffer.putInt(0, 0);
+            fence();
+            for (int index = 4; index < FILE_SIZE; index++)
+            {
+                this.buffer.put(index, (byte) 0);
+            }
+            this.buffer.putInt(4, VERSION);
+            fence();
+            this.buffer.putInt(0, MAGIC);
+            logger.info("StateSnapshot " + file + " angelegt.");
+        }
+    }
+
+    /**
+     * propertyChange(PropertyChangeEvent event) - Listener am Model (Schreiber)...
+     */
+    @Override
+    public void propertyChange(PropertyChangeEvent event)
+    {
+        put(event.getPropertyName(), event.getNewValue());
+    }
+
+    /**
+     * put(String key, Object value) - Wert uebernehmen und den Satz schreiben
+     * (Schreiber, z.B. auch fuer den Anfangsstand)...
+     * @param key - Schluessel (nur KEYS, andere werden uebergangen)
+     * @param value - Wert
+     */
+    public synchronized void put(String key, Object value)
+    {
+        if (!this.isWriter)
+        {
+            throw new IllegalStateException("StateSnapshot " + this.file + " is read only!");
+        }
+        final int index = indexOf(key);
+        if (index < 0)
+        {
+            return;
+        }
+        this.values[index] = value;
+        this.versions[index]++;
+        // Satz zuerst im Speicher, dann in einem Zug in die Einblendung...
+        this.image.clear();
+        for (int position = 0; position < KEYS.length; position++)
+        {
+            this.image.putInt(this.versions[position]);
+            encode(KEYS[position], this.values[position]);
+        }
+        this.image.flip();
+        this.publishedMillis = System.currentTimeMillis();
+        this.buffer.putLong(SEQUENCE, ++this.sequence);
+        fence();
+        this.record.clear();
+        this.record.put(this.image);
+        this.buffer.putLong(PUBLISHED_MILLIS, this.publishedMillis);
+        fence();
+        this.buffer.putLong(SEQUENCE, ++this.sequence);
+    }
+
+    /**
+     * read(Object source, PropertyChangeListener listener) - neuen Satz lesen,
+     * geaenderte Schluessel an den listener melden (Leser)...
+     * @param source - Quelle der PropertyChangeEvent
+     * @param listener - Empfaenger (z.B. die View)
+     * @return true, wenn ein neuer Satz gelesen wurde
+     */
+    public boolean read(Object source, PropertyChangeListener listener)
+    {
+        synchronized (this.readLock)
+        {
+            synchronized (this)
+            {
+                if (!readRecord())
+                {
+                    return false;
+                }
+                for (int index = 0; index < KEYS.length; index++)
+                {
+                    final int version = this.image.getInt();
+                    this.isChanged[index] = (version != this.versions[index]);
+                    if (!this.isChanged[index])
+                    {
+                        // Unveraendert: Wert behalten, nichts anlegen...
+                        skip(KEYS[index]);
+                        continue;
+                    }
+                    this.previous[index] = this.values[index];
+                    this.current[index] = decode(KEYS[index]);
+                    this.versions[index] = version;
+                    this.values[index] = this.current[index];
+                }
+            }
+            // Meldung ausserhalb der Sperre des Abbildes (die View darf getValue() aufrufen)...
+            for (int index = 0; index < KEYS.length; index++)
+            {
+                if (this.isChanged[index])
+                {
+                    listener.propertyChange(new PropertyChangeEvent(source, KEYS[index], this.previous[index], this.current[index]));
+                    this.previous[index] = null;
+                    this.current[index] = null;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * readRecord() - Satz nach seqlock in image kopieren...
+     * @return true, wenn ein neuer, vollstaendiger Satz kopiert wurde
+     */
+    private boolean readRecord()
+    {
+        for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++)
+        {
+            if (this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != VERSION)
+            {
+                return false;
+            }
+            final long before = this.buffer.getLong(SEQUENCE);
+            // acquire: die Kopie erst nach der Nummer lesen...
+            fence();
+            if (before == this.sequence)
+            {
+                return false;
+            }
+            if ((before & 1L) != 0L)
+            {
+                // Schreiber ist gerade im Satz...
+                Thread.yield();
+                continue;
+            }
+            this.record.clear();
+            this.image.clear();
+            this.image.put(this.record);
+            final long publishedMillis = this.buffer.getLong(PUBLISHED_MILLIS);
+            // ... und die Nummer erst nach der Kopie erneut lesen...
+            fence();
+            if (this.buffer.getLong(SEQUENCE) == before)
+            {
+                this.image.flip();
+                this.sequence = before;
+                this.publishedMillis = publishedMillis;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * encode(String key, Object value) - Wert in image schreiben...
+     */
+    private void encode(String key, Object value)
+    {
+        if (Model.DATA_KEY.equals(key))
+        {
+            final boolean isData = (value instanceof Data);
+            this.image.put((byte) (isData? 1 : 0));
+            if (isData)
+            {
+                final Data data = (Data) value;
+                this.image.putLong(data.getCounter().longValue());
+                putDecimal(data.getCycleTime());
+                this.image.putLong(Long.parseUnsignedLong(data.getToken(), 16));
+                this.image.putLong(data.getNumberDestinationMA().longValue());
+                this.image.putLong(data.getNumberDestinationMB().longValue());
+                this.image.putLong(data.getNumberMA().longValue());
+                this.image.putLong(data.getNumberMB().longValue());
+                putDecimal(data.getOutputMA());
+                putDecimal(data.getOutputMB());
+                putDecimal(data.getRealValueMA());
+                putDecimal(data.getRealValueMB());
+                putDecimal(data.getPoseX());
+                putDecimal(data.getPoseY());
+                putDecimal(data.getHeading());
+            }
+            return;
+        }
+        if (Model.DIAGNOSTICS_KEY.equals(key))
+        {
+            final boolean isDiagnostics = (value instanceof Diagnostics);
+            this.image.put((byte) (isDiagnostics? 1 : 0));
+            if (isDiagnostics)
+            {
+                final Diagnostics diagnostics = (Diagnostics) value;
+                this.image.putLong(diagnostics.getMissedDeadlines().longValue());
+                this.image.putLong(diagnostics.getWatchdogTrips().longValue());
+                this.image.putLong(diagnostics.getErrorEpisodes().longValue());
+                this.image.putLong(diagnostics.getRetries().longValue());
+                this.image.putLong(diagnostics.getRecoveryTime().movePointRight(9).longValue());
+                this.image.putLong(diagnostics.getCycleJitter().longValue() * 1000L);
+                this.image.putLong(diagnostics.getSyncError().longValue());
+                this.image.putLong(diagnostics.getOverruns().longValue());
+                this.image.putLong(diagnostics.getSkippedCycles().longValue());
+            }
+            return;
+        }
+        if (Model.GUI_STATUS_KEY.equals(key))
+        {
+            this.image.put((byte) ((value instanceof Model.GuiStatus)? ((Model.GuiStatus) value).ordinal() : -1));
+            return;
+        }
+        if (value instanceof Boolean)
+        {
+            this.image.put((byte) (((Boolean) value).booleanValue()? 1 : 0));
+            return;
+        }
+        if (value instanceof BigDecimal)
+        {
+            this.image.put((byte) 2);
+            putDecimal((BigDecimal) value);
+            return;
+        }
+        this.image.put((byte) -1);
+    }
+
+    /**
+     * decode(String key) - Wert aus image lesen...
+     */
+    private Object decode(String key)
+    {
+        if (Model.DATA_KEY.equals(key))
+        {
+            if (this.image.get() == 0)
+            {
+                return null;
+            }
+            return new Data(this.image.getLong(),
+                            getDecimal(),
+                            this.image.getLong(),
+                            this.image.getLong(),
+                            this.image.getLong(),
+                            this.image.getLong(),
+                            this.image.getLong(),
+                            getDecimal(),
+                            getDecimal(),
+                            getDecimal(),
+                            getDecimal(),
+                            getDecimal(),
+                            getDecimal(),
+                            getDecimal());
+        }
+        if (Model.DIAGNOSTICS_KEY.equals(key))
+        {
+            if (this.image.get() == 0)
+            {
+                return null;
+            }
+            return new Diagnostics(this.image.getLong(),
+                                   this.image.getLong(),
+                                   this.image.getLong(),
+                                   this.image.getLong(),
+                                   this.image.getLong(),
+                                   this.image.getLong(),
+                                   this.image.getLong(),
+                                   this.image.getLong(),
+                                   this.image.getLong());
+        }
+        final byte type = this.image.get();
+        if (Model.GUI_STATUS_KEY.equals(key))
+        {
+            return (type >= 0 && type < Model.GuiStatus.values().length)? Model.GuiStatus.values()[type] : null;
+        }
+        switch (type)
+        {
+            case 0:
+                return Boolean.FALSE;
+            case 1:
+                return Boolean.TRUE;
+            case 2:
+                return getDecimal();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * skip(String key) - Wert in image ueberspringen (Gegenstueck zu encode())...
+     */
+    private void skip(String key)
+    {
+        final byte type = this.image.get();
+        if (Model.DATA_KEY.equals(key))
+        {
+            advance((type == 0)? 0 : DATA_SIZE);
+            return;
+        }
+        if (Model.DIAGNOSTICS_KEY.equals(key))
+        {
+            advance((type == 0)? 0 : DIAGNOSTICS_SIZE);
+            return;
+        }
+        if (!Model.GUI_STATUS_KEY.equals(key) && type == 2)
+        {
+            advance(DECIMAL_SIZE);
+        }
+    }
+
+    /**
+     * advance(int length) - Position in image weiterruecken...
+     */
+    private void advance(int length)
+    {
+        this.image.position(this.image.position() + length);
+    }
+
+    /**
+     * putDecimal(BigDecimal value) - unscaled (long) und scale (int)...
+     */
+    private void putDecimal(BigDecimal value)
+    {
+        this.image.putLong(value.unscaledValue().longValue());
+        this.image.putInt(value.scale());
+    }
+
+    /**
+     * getDecimal() - Gegenstueck zu putDecimal()...
+     */
+    private BigDecimal getDecimal()
+    {
+        final long unscaled = this.image.getLong();
+        return BigDecimal.valueOf(unscaled, this.image.getInt());
+    }
+
+    /**
+     * indexOf(String key) - Position in KEYS oder -1...
+     */
+    private static int indexOf(String key)
+    {
+        for (int index = 0; index < KEYS.length; index++)
+        {
+            if (KEYS[index].equals(key))
+            {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * fence() - Speicherbarriere: Schreiben (release) und danach Lesen
+     * (acquire) eines volatile-Feldes, vorangehende Zugriffe auf die
+     * Einblendung werden vor nachfolgenden sichtbar...
+     */
+    private int fence()
+    {
+        this.fence = 0;
+        return this.fence;
+    }
+
+    /**
+     * getValue(String key) - zuletzt geschriebener/gelesener Wert...
+     * @param key - Schluessel
+     * @return Wert oder null
+     */
+    public synchronized Object getValue(String key)
+    {
+        final int index = indexOf(key);
+        return (index >= 0)? this.values[index] : null;
+    }
+
+    /**
+     * @return Zeitpunkt (ms) des zuletzt geschriebenen/gelesenen Satzes, 0: noch keiner
+     */
+    public long getPublishedMillis()
+    {
+        return this.publishedMillis;
+    }
+
+    /**
+     * @return Nummer des zuletzt geschriebenen/gelesenen Satzes
+     */
+    public synchronized long getSequence()
+    {
+        return this.sequence;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.file)
+                                  .append(" ")
+                                  .append(this.isWriter? "writer" : "reader")
+                                  .append(" ")
+                                  .append(getSequence())
+                                  .append("]")
+                                  .toString();
+    }
+}
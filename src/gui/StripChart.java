@@ -0,0 +1,478 @@
+/**
+ *
+ */
+package gui;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Stroke;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+import java.math.BigDecimal;
+
+import javax.swing.BorderFactory;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+
+/**
+ * StripChart - laufende Darstellung (Streifenschreiber) von Sollwert, Position
+ * und Drehzahl der Motoren A und B.
+ * <p>
+ * Oben werden Sollwert und Position (Impulse), unten die Drehzahlen (1/min)
+ * dargestellt. Die Werte der Takte werden in einem SampleRing abgelegt
+ * (primitive Arrays, keine Objekte je Takt). Jede Pixelspalte fasst
+ * SAMPLES_PER_COLUMN Takte zusammen und wird als Linie von Minimum bis
+ * Maximum gezeichnet (Dezimierung), so bleiben Spitzen (Ueberschwingen)
+ * auch bei vielen Takten pro Pixel sichtbar.
+ * </p>
+ * <p>
+ * Gezeichnet wird in ein BufferedImage (Back-Buffer). Bei jedem Bild wird
+ * der Inhalt um die Anzahl der neuen Spalten nach links verschoben und nur
+ * die neuen Spalten werden gezeichnet. Erst wenn ein Wert den Wertebereich
+ * verlaesst (oder sich die Groesse aendert), wird vollstaendig neu
+ * gezeichnet. Die Bildrate ist durch den Swing-Timer begrenzt (FRAME_RATE).
+ * </p>
+ * <p>
+ * addData() wird im Takt (Thread des Model) beauftragt, gezeichnet wird
+ * ausschliesslich im EDT.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class StripChart extends JPanel implements ActionListener
+{
+    /**
+     * serialVersionUID = 1L
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * FRAME_RATE = 25 - hoechstens 25 Bilder je Sekunde
+     */
+    public final static int FRAME_RATE = 25;
+
+    /**
+     * SAMPLES_PER_COLUMN - Anzahl der Takte je Pixelspalte
+     */
+    public final static int SAMPLES_PER_COLUMN = Integer.getInteger("gui.chart.samplesPerColumn", 4).intValue();
+
+    /**
+     * CAPACITY = 4096 - Anzahl der Takte im Ringpuffer (reicht fuer 1024 Spalten)
+     */
+    public final static int CAPACITY = 4096;
+
+    /**
+     * Kanaele im SampleRing...
+     */
+    public final static int DESTINATION_MA = 0;
+    public final static int NUMBER_MA = 1;
+    public final static int DESTINATION_MB = 2;
+    public final static int NUMBER_MB = 3;
+    public final static int REAL_VALUE_MA = 4;
+    public final static int REAL_VALUE_MB = 5;
+    public final static int CHANNELS = 6;
+
+    /**
+     * PLOTS - Zuordnung der Kanaele zu den beiden Diagrammen (oben, unten)
+     */
+    private final static int[][] PLOTS = new int[][]
+    {
+        {DESTINATION_MA, NUMBER_MA, DESTINATION_MB, NUMBER_MB},
+        {REAL_VALUE_MA, REAL_VALUE_MB}
+    };
+
+    /**
+     * PLOT_TITLES - Beschriftung der Diagramme
+     */
+    private final static String[] PLOT_TITLES = new String[]
+    {
+        "Soll/Ist (Impulse)",
+        "Drehzahl (1/min)"
+    };
+
+    /**
+     * COLORS - Farben der Kanaele (Motor A blau, Motor B rot, Sollwerte heller)
+     */
+    private final static Color[] COLORS = new Color[]
+    {
+        new Color(140, 170, 255),
+        new Color(0, 0, 200),
+        new Color(255, 150, 150),
+        new Color(200, 0, 0),
+        new Color(0, 0, 200),
+        new Color(200, 0, 0)
+    };
+
+    /**
+     * MARGIN = 0.25 - Zugabe zum Wertebereich (Anteil der Spanne), damit nicht
+     * bei jeder kleinen Ueberschreitung neu gezeichnet werden muss
+     */
+    private final static double MARGIN = 0.25;
+
+    /**
+     * ring - die Werte der Takte
+     */
+    private final SampleRing ring = new SampleRing(CAPACITY, CHANNELS);
+
+    /**
+     * sample - wiederverwendeter Satz fuer addData()
+     */
+    private final double[] sample = new double[CHANNELS];
+
+    /**
+     * minMax - wiederverwendetes Ergebnis von SampleRing.minMax() (nur EDT)
+     */
+    private final double[] minMax = new double[3];
+
+    /**
+     * lower/upper - aktueller Wertebereich der Diagramme (nur EDT)
+     */
+    private final double[] lower = new double[PLOTS.length];
+    private final double[] upper = new double[PLOTS.length];
+
+    /**
+     * timer - begrenzt die Bildrate
+     */
+    private final Timer timer;
+
+    /**
+     * buffer - der Back-Buffer
+     */
+    private BufferedImage buffer = null;
+
+    /**
+     * lastWritten - Stand des SampleRing beim letzten Bild
+     */
+    private long lastWritten = -1L;
+
+    /**
+     * lastColumn - (absolute) Spalte am rechten Rand beim letzten Bild
+     */
+    private long lastColumn = 0L;
+
+    /**
+     * frames/fullFrames - Anzahl der Bilder, davon vollstaendig neu gezeichnet
+     */
+    private long frames = 0L;
+    private long fullFrames = 0L;
+
+    /**
+     * StripChart()
+     */
+    public StripChart()
+    {
+        super();
+        setPreferredSize(new Dimension(400, 300));
+        setBorder(BorderFactory.createLineBorder(Color.GRAY));
+        setBackground(Color.WHITE);
+        this.timer = new Timer(1000 / FRAME_RATE, this);
+        this.timer.start();
+    }
+
+    /**
+     * addData(Data data) - Werte eines Taktes uebernehmen (im Takt)...
+     * @param data
+     */
+    public void addData(Data data)
+    {
+        synchronized (this.sample)
+        {
+            this.sample[DESTINATION_MA] = toDouble(data.getNumberDestinationMA());
+            this.sample[NUMBER_MA] = toDouble(data.getNumberMA());
+            this.sample[DESTINATION_MB] = toDouble(data.getNumberDestinationMB());
+            this.sample[NUMBER_MB] = toDouble(data.getNumberMB());
+            this.sample[REAL_VALUE_MA] = toDouble(data.getRealValueMA());
+            this.sample[REAL_VALUE_MB] = toDouble(data.getRealValueMB());
+            this.ring.add(data.getCounter().longValue(), this.sample);
+        }
+    }
+
+    /**
+     * clear() - Darstellung leeren (z.B. nach Reset)...
+     */
+    public void clear()
+    {
+        this.ring.clear();
+        this.lastWritten = -1L;
+    }
+
+    /**
+     * toDouble(Number value)
+     */
+    private static double toDouble(Number value)
+    {
+        return (value != null)? value.doubleValue() : 0.0;
+    }
+
+    /**
+     * actionPerformed(ActionEvent event) - Timer, naechstes Bild (EDT)...
+     */
+    @Override
+    public void actionPerformed(ActionEvent event)
+    {
+        if (!isShowing())
+        {
+            return;
+        }
+        final long written = this.ring.getWritten();
+        if (written == this.lastWritten && this.buffer != null)
+        {
+            return;
+        }
+        render(written);
+        this.lastWritten = written;
+        repaint();
+    }
+
+    /**
+     * render(long written) - den Back-Buffer nachziehen...
+     * @param written - Stand des SampleRing
+     */
+    private void render(long written)
+    {
+        final int width = getWidth();
+        final int height = getHeight();
+        if (width <= 0 || height <= 0)
+        {
+            return;
+        }
+        boolean isFull = false;
+        if (this.buffer == null || this.buffer.getWidth() != width || this.buffer.getHeight() != height)
+        {
+            this.buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            isFull = true;
+        }
+        // Nur vollstaendige Spalten werden dargestellt...
+        final long column = written / SAMPLES_PER_COLUMN;
+        final long newColumns = column - this.lastColumn;
+        if (newColumns < 0L || newColumns >= width || written < this.lastWritten)
+        {
+            isFull = true;
+        }
+        if (!isFull && newColumns == 0L)
+        {
+            return;
+        }
+        if (!isFull)
+        {
+            // Passen die neuen Spalten in den Wertebereich?
+            for (int plot = 0; plot < PLOTS.length && !isFull; plot++)
+            {
+                for (int channel: PLOTS[plot])
+                {
+                    if (this.ring.minMax((column - newColumns) * SAMPLES_PER_COLUMN,
+                                         column * SAMPLES_PER_COLUMN,
+                                         channel,
+                                         this.minMax)
+                        && (this.minMax[0] < this.lower[plot] || this.minMax[1] > this.upper[plot]))
+                    {
+                        isFull = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        final Graphics2D graphics = this.buffer.createGraphics();
+        try
+        {
+            final int first;
+            if (isFull)
+            {
+                this.fullFrames++;
+                for (int plot = 0; plot < PLOTS.length; plot++)
+                {
+                    updateRange(plot, column - width, column);
+                }
+                graphics.setColor(getBackground());
+                graphics.fillRect(0, 0, width, height);
+                first = 0;
+            }
+            else
+            {
+                // Inhalt nach links schieben, rechts freimachen...
+                final int shift = (int) newColumns;
+                graphics.copyArea(shift, 0, width - shift, height, -shift, 0);
+                graphics.setColor(getBackground());
+                graphics.fillRect(width - shift, 0, shift, height);
+                first = width - shift;
+            }
+            this.frames++;
+            this.lastColumn = column;
+            drawColumns(graphics, width, height, column, first);
+            drawLabels(graphics, width, height);
+        }
+        finally
+        {
+            graphics.dispose();
+        }
+    }
+
+    /**
+     * updateRange(int plot, long fromColumn, long toColumn) - Wertebereich eines
+     * Diagrammes aus den sichtbaren Spalten bestimmen...
+     */
+    private void updateRange(int plot, long fromColumn, long toColumn)
+    {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int channel: PLOTS[plot])
+        {
+            if (this.ring.minMax(Math.max(0L, fromColumn) * SAMPLES_PER_COLUMN,
+                                 toColumn * SAMPLES_PER_COLUMN,
+                                 channel,
+                                 this.minMax))
+            {
+                min = Math.min(min, this.minMax[0]);
+                max = Math.max(max, this.minMax[1]);
+            }
+        }
+        if (min > max)
+        {
+            min = 0.0;
+            max = 1.0;
+        }
+        final double span = Math.max(1.0, max - min);
+        this.lower[plot] = min - MARGIN * span;
+        this.upper[plot] = max + MARGIN * span;
+    }
+
+    /**
+     * drawColumns(...) - Spalten first ... width - 1 zeichnen...
+     * <p>
+     * Je Spalte und Kanal eine senkrechte Linie von Minimum bis Maximum, dabei
+     * einschliesslich des letzten Wertes der vorigen Spalte (Verbindung).
+     * </p>
+     */
+    private void drawColumns(Graphics2D graphics, int width, int height, long column, int first)
+    {
+        final int plotHeight = height / PLOTS.length;
+        for (int plot = 0; plot < PLOTS.length; plot++)
+        {
+            final int top = plot * plotHeight;
+            final double scale = (plotHeight - 1) / (this.upper[plot] - this.lower[plot]);
+            for (int channel: PLOTS[plot])
+            {
+                graphics.setColor(COLORS[channel]);
+                // Spalte am linken Rand von first: absolute Spalte...
+                final long startColumn = column - width + first;
+                double previous = Double.NaN;
+                if (this.ring.minMax((startColumn - 1L) * SAMPLES_PER_COLUMN,
+                                     startColumn * SAMPLES_PER_COLUMN,
+                                     channel,
+                                     this.minMax))
+                {
+                    previous = this.minMax[2];
+                }
+                for (int x = first; x < width; x++)
+                {
+                    final long current = column - width + x;
+                    if (current < 0L
+                     || !this.ring.minMax(current * SAMPLES_PER_COLUMN,
+                                          (current + 1L) * SAMPLES_PER_COLUMN,
+                                          channel,
+                                          this.minMax))
+                    {
+                        previous = Double.NaN;
+                        continue;
+                    }
+                    double min = this.minMax[0];
+                    double max = this.minMax[1];
+                    if (!Double.isNaN(previous))
+                    {
+                        min = Math.min(min, previous);
+                        max = Math.max(max, previous);
+                    }
+                    previous = this.minMax[2];
+                    final int y1 = top + plotHeight - 1 - (int) ((max - this.lower[plot]) * scale);
+                    final int y2 = top + plotHeight - 1 - (int) ((min - this.lower[plot]) * scale);
+                    graphics.drawLine(x, y1, x, y2);
+                }
+            }
+        }
+    }
+
+    /**
+     * drawLabels(...) - Trennlinie, Titel und Wertebereich der Diagramme...
+     * <p>
+     * Die Beschriftung liegt am linken Rand und wird beim Verschieben
+     * mitgenommen, daher wird sie nach jedem Bild neu gezeichnet.
+     * </p>
+     */
+    private void drawLabels(Graphics2D graphics, int width, int height)
+    {
+        final int plotHeight = height / PLOTS.length;
+        final Stroke stroke = graphics.getStroke();
+        final int lineHeight = graphics.getFontMetrics().getHeight();
+        for (int plot = 0; plot < PLOTS.length; plot++)
+        {
+            final int top = plot * plotHeight;
+            graphics.setColor(getBackground());
+            graphics.fillRect(0, top, 160, lineHeight + 2);
+            graphics.fillRect(0, top + plotHeight - lineHeight - 2, 160, lineHeight + 2);
+            graphics.setColor(Color.DARK_GRAY);
+            graphics.drawString(PLOT_TITLES[plot] + " " + format(this.upper[plot]), 2, top + lineHeight - 2);
+            graphics.drawString(format(this.lower[plot]), 2, top + plotHeight - 4);
+            if (plot > 0)
+            {
+                graphics.setStroke(new BasicStroke(1.0f));
+                graphics.drawLine(0, top, width, top);
+            }
+        }
+        graphics.setStroke(stroke);
+    }
+
+    /**
+     * format(double value) - Beschriftung des Wertebereiches...
+     */
+    private static String format(double value)
+    {
+        return new BigDecimal(value).setScale(0, BigDecimal.ROUND_HALF_UP).toPlainString();
+    }
+
+    /**
+     * paintComponent(Graphics graphics) - Back-Buffer ausgeben...
+     */
+    @Override
+    protected void paintComponent(Graphics graphics)
+    {
+        super.paintComponent(graphics);
+        if (this.buffer == null || this.buffer.getWidth() != getWidth() || this.buffer.getHeight() != getHeight())
+        {
+            render(this.ring.getWritten());
+        }
+        if (this.buffer != null)
+        {
+            graphics.drawImage(this.buffer, 0, 0, null);
+        }
+    }
+
+    /**
+     * stop() - Timer anhalten...
+     */
+    public void stop()
+    {
+        this.timer.stop();
+    }
+
+    /**
+     * @return Anzahl der Bilder
+     */
+    public long getFrames()
+    {
+        return this.frames;
+    }
+
+    /**
+     * @return Anzahl der vollstaendig neu gezeichneten Bilder
+     */
+    public long getFullFrames()
+    {
+        return this.fullFrames;
+    }
+}
@@ -41,6 +41,13 @@ public class SwingMain
      */ 
     private final boolean defaultLookAndFeel;
     
+    /**
+     * REMOTE - View in einem eigenen Prozess (-Dgui.remote=true), die Regelung
+     * laeuft in ControlMain, Zustandsgroessen aus dem Abbild (-Dgui.snapshot.file=...),
+     * Kommandos an den ControlServer (-Dgui.control.port=...)
+     */
+    public final static boolean REMOTE = Boolean.getBoolean("gui.remote");
+    
     /** main()-Funktionalitaet... */
     public static void main(String[] args)
     {
@@ -89,8 +96,51 @@ public class SwingMain
         }
         // *** Testausgabe... ***
         // System.out.println( javax.swing.UIManager.getSystemLookAndFeelClassName() );
-        final Model model = new Model();
-        SwingWindow swingWindow = new SwingWindow(model);
+        // View im eigenen Prozess: kein Model, nur das Abbild (StateSnapshot)...
+        StateSnapshot snapshot = null;
+        if (REMOTE)
+        {
+            try
+            {
+                snapshot = new StateSnapshot(new java.io.File(String.valueOf(Model.SNAPSHOT_FILE)), false);
+            }
+            catch (java.io.IOException exception)
+            {
+                System.err.println("Can't read the snapshot file '" + Model.SNAPSHOT_FILE + "'! " + exception.toString());
+                System.exit(0);
+            }
+            if (ControlServer.DEFAULT_PORT < 0)
+            {
+                System.err.println("The remote view requires -Dgui.control.port=...!");
+                System.exit(0);
+            }
+        }
+        final Model model = REMOTE? null : new Model();
+        final SwingWindow swingWindow = REMOTE? new SwingWindow(() -> {}) : new SwingWindow(model);
+        // Vorhandene Sicherung (ControlCheckpoint): Warmstart oder Kaltstart...
+        final ControlCheckpoint.State resumeState = REMOTE? null : model.getResumeState();
+        if (resumeState != null)
+        {
+            final String[] options = {"Warmstart", "Kaltstart"};
+            final int choice = javax.swing.JOptionPane.showOptionDialog(null,
+                                                                        "Gesicherter Zustand vom " + java.time.Instant.ofEpochMilli(resumeState.getSavedMillis())
+                                                                        + "\nLage A/B: " + resumeState.getNumberMA() + "/" + resumeState.getNumberMB()
+                                                                        + "\nWarmstart ohne erneutes Referenzieren?",
+                                                                        "Neustart",
+                                                                        javax.swing.JOptionPane.YES_NO_OPTION,
+                                                                        javax.swing.JOptionPane.QUESTION_MESSAGE,
+                                                                        null,
+                                                                        options,
+                                                                        options[0]);
+            if (choice == 0)
+            {
+                model.doResume();
+            }
+            else
+            {
+                model.doReset();
+            }
+        }
         //
         this.iconImageFile = properties.getProperty(SwingMain.ICON_IMAGE_KEY, "");
         try
@@ -109,7 +159,27 @@ public class SwingMain
         swingWindow.setDefaultCloseOperation(javax.swing.WindowConstants.DO_NOTHING_ON_CLOSE);
         swingWindow.pack();
         swingWindow.setResizable(false);
-        new Controller(swingWindow, model);
+        if (REMOTE)
+        {
+            // Kommandos an den ControlServer des Prozesses der Regelung...
+            new RemoteController(swingWindow, snapshot, ControlServer.DEFAULT_HOST, ControlServer.DEFAULT_PORT).start();
+        }
+        else
+        {
+            new Controller(swingWindow, model);
+        }
+        // Evtl. Bedienung ueber TCP (Skripte), vgl. ControlServer...
+        if (!REMOTE && ControlServer.DEFAULT_PORT >= 0)
+        {
+            try
+            {
+                new ControlServer(model, ControlServer.DEFAULT_PORT).start();
+            }
+            catch (java.io.IOException exception)
+            {
+                System.err.println("Can't start the ControlServer: " + exception.toString());
+            }
+        }
         EventQueue.invokeLater(new Runnable() 
         {
             @Override
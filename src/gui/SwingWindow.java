@@ -27,6 +27,7 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
+import javax.swing.JTabbedPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.text.JTextComponent;
@@ -111,6 +112,15 @@ public class SwingWindow extends JFrame implements View
         {TEXT_FIELD,    Data.COUNTER_KEY,               "Counter"                       },        
         {TEXT_FIELD,    Data.CYCLE_TIME_KEY,            "Zyklusdauer (in s)"            },
         {TEXT_FIELD,    Data.TOKEN_KEY,                 "Token"                         },
+        {TEXT_FIELD,    Diagnostics.MISSED_DEADLINES_KEY, "Verpasste Takte (Watchdog)" },
+        {TEXT_FIELD,    Diagnostics.WATCHDOG_TRIPS_KEY, "Abschaltungen (Watchdog)"      },
+        {TEXT_FIELD,    Diagnostics.ERROR_EPISODES_KEY, "Fehler-Episoden (I2C)"         },
+        {TEXT_FIELD,    Diagnostics.RETRIES_KEY,        "Wiederholungen (I2C)"          },
+        {TEXT_FIELD,    Diagnostics.RECOVERY_TIME_KEY,  "Wiederherstellung (in s)"      },
+        {TEXT_FIELD,    Diagnostics.CYCLE_JITTER_KEY,   "Takt-Jitter max. (in us)"      },
+        {TEXT_FIELD,    Diagnostics.SYNC_ERROR_KEY,     "Gleichlauffehler max. (Impulse)" },
+        {TEXT_FIELD,    Diagnostics.OVERRUNS_KEY,       "Takt-Ueberlaeufe"              },
+        {TEXT_FIELD,    Diagnostics.SKIPPED_CYCLES_KEY, "Verworfene Takte"              },
         {CHECK_BOX,     Model.DESTINATION_SIMULTAN_KEY, "Sollwerte Motor A/B simultan?" },
         {COMBO_BOX,     Model.DESTINATION_MA_KEY,       "Sollwert Motor A (1/min)"      },
         {COMBO_BOX,     Model.DESTINATION_MB_KEY,       "Sollwert Motor B (1/min)"      },
@@ -125,8 +135,15 @@ public class SwingWindow extends JFrame implements View
         {TEXT_FIELD,    Data.OUTPUT_MB_KEY,             "Stellgroesse Motor B"          },
         {TEXT_FIELD,    Data.REAL_VALUE_MA_KEY,         "Messwert Motor A (1/min)"      },
         {TEXT_FIELD,    Data.REAL_VALUE_MB_KEY,         "Messwert Motor B (1/min)"      },
+        {TEXT_FIELD,    Data.POSE_X_KEY,                "Odometrie x (in mm)"           },
+        {TEXT_FIELD,    Data.POSE_Y_KEY,                "Odometrie y (in mm)"           },
+        {TEXT_FIELD,    Data.HEADING_KEY,               "Odometrie Richtung (in Grad)"  },
         {CHECK_BOX,     Model.CONTROL_KEY,              "Mit Regelung?"                 },
-        {COMBO_BOX,     Model.ENHANCEMENT_KEY,          "Verstärkung"                   }
+        {CHECK_BOX,     Model.OBSERVER_KEY,             "Mit Beobachter?"               },
+        {CHECK_BOX,     Model.AUTO_TUNE_KEY,            "Autotuning?"                   },
+        {COMBO_BOX,     Model.ENHANCEMENT_KEY,          "Verstärkung"                   },
+        {CHECK_BOX,     Model.SYNC_KEY,                 "Gleichlaufregelung A/B?"       },
+        {COMBO_BOX,     Model.SYNC_ENHANCEMENT_KEY,     "Verstärkung Gleichlauf"        }
     };
     
     /**
@@ -165,6 +182,16 @@ public class SwingWindow extends JFrame implements View
         endButton
     };
     
+    /**
+     * stripChart - laufende Darstellung von Sollwert, Position und Drehzahl...
+     */
+    private final StripChart stripChart = new StripChart();
+    
+    /**
+     * historyPanel - Tabelle der zurueckliegenden Takte...
+     */
+    private final CycleHistoryPanel historyPanel = new CycleHistoryPanel();
+    
     /**
      * jContentPane - Referenz auf das Haupt-JPanel 
      */
@@ -174,6 +201,16 @@ public class SwingWindow extends JFrame implements View
      * This is the default constructor
      */
     public SwingWindow(Model model)
+    {
+        this(model::shutdown);
+    }
+
+    /**
+     * SwingWindow(Runnable shutdown) - Konstruktor ohne Model im gleichen
+     * Prozess (RemoteController)...
+     * @param shutdown - Nachbereitung beim Schliessen des Fensters
+     */
+    public SwingWindow(Runnable shutdown)
     {
         super();
         initialize();
@@ -183,7 +220,7 @@ public class SwingWindow extends JFrame implements View
             public void windowClosing(WindowEvent event)
             {
                 logger.debug("windowClosing(WindowEvent)...");
-                model.shutdown();
+                shutdown.run();
                 System.exit(0);
             }
         });
@@ -238,8 +275,11 @@ public class SwingWindow extends JFrame implements View
             }
             
             { // EAST
-                // leeres Panel (Platzhalter)...
-                jContentPane.add(new JPanel(), BorderLayout.EAST);
+                // Streifenschreiber Sollwert/Position/Drehzahl und Verlauf der Takte...
+                JTabbedPane tabbedPane = new JTabbedPane();
+                tabbedPane.addTab("Diagramm", this.stripChart);
+                tabbedPane.addTab("Verlauf", this.historyPanel);
+                jContentPane.add(tabbedPane, BorderLayout.EAST);
             }
             
             {   // CENTER
@@ -366,7 +406,8 @@ public class SwingWindow extends JFrame implements View
                             });                            
                         } // end() COMBO_BOX.
                         
-                        if (COMBO_BOX.equals(controlType) && Model.ENHANCEMENT_KEY.equals(controlId))
+                        if (COMBO_BOX.equals(controlType) && Model.ENHANCEMENT_KEY.equals(controlId)
+                         || COMBO_BOX.equals(controlType) && Model.SYNC_ENHANCEMENT_KEY.equals(controlId))
                         {
                             // Jetzt die Combobox mit den moeglichen Regler-Verstaerkungen instanziieren...
                             JComboBox<BigDecimal> comboBox = new JComboBox<>(Model.ENHANCEMENTS);
@@ -395,7 +436,10 @@ public class SwingWindow extends JFrame implements View
                         }
                         
                         if (CHECK_BOX.equals(controlType) && Model.CONTROL_KEY.equals(controlId)
-                         || CHECK_BOX.equals(controlType) && Model.DESTINATION_SIMULTAN_KEY.equals(controlId))
+                         || CHECK_BOX.equals(controlType) && Model.DESTINATION_SIMULTAN_KEY.equals(controlId)
+                         || CHECK_BOX.equals(controlType) && Model.OBSERVER_KEY.equals(controlId)
+                         || CHECK_BOX.equals(controlType) && Model.AUTO_TUNE_KEY.equals(controlId)
+                         || CHECK_BOX.equals(controlType) && Model.SYNC_KEY.equals(controlId))
                         {
                             JCheckBox controlCheckBox = new JCheckBox();
                             controlCheckBox.setName(controlId);
@@ -487,6 +531,8 @@ public class SwingWindow extends JFrame implements View
         if (Model.DATA_KEY.equals(propertyName) && (newValue instanceof Data))
         {
             final Data data = (Data) newValue;
+            this.stripChart.addData(data);
+            this.historyPanel.addData(data);
             for( String key: data.getKeys())
             {
                 if (this.textComponentMap.containsKey(key))
@@ -498,13 +544,28 @@ public class SwingWindow extends JFrame implements View
             }
         }
         
+        if (Model.DIAGNOSTICS_KEY.equals(propertyName) && (newValue instanceof Diagnostics))
+        {
+            final Diagnostics diagnostics = (Diagnostics) newValue;
+            for( String key: diagnostics.getKeys())
+            {
+                if (this.textComponentMap.containsKey(key))
+                {
+                    final JTextComponent textComponent = this.textComponentMap.get(key);
+                    textComponent.setText(diagnostics.getValue(key));
+                    continue;
+                }
+            }
+        }
+        
         // ComboBox...
         if (Model.DESTINATION_MA_KEY.equals(propertyName)
          || Model.DESTINATION_MB_KEY.equals(propertyName)
          || Model.OUTPUT_RELATION_KEY.equals(propertyName)
          || Model.MAX_VALUE_MA_KEY.equals(propertyName) 
          || Model.MAX_VALUE_MB_KEY.equals(propertyName)
-         || Model.ENHANCEMENT_KEY.equals(propertyName))
+         || Model.ENHANCEMENT_KEY.equals(propertyName)
+         || Model.SYNC_ENHANCEMENT_KEY.equals(propertyName))
         {
             // propertyChange vom Model her mit VALUE_MA_KEY oder VALUE_MB_KEY...
             final BigDecimal newData = (BigDecimal) newValue;
@@ -541,7 +602,10 @@ public class SwingWindow extends JFrame implements View
         }
         
         if (Model.DESTINATION_SIMULTAN_KEY.equals(propertyName)
-         || Model.CONTROL_KEY.equals(propertyName))
+         || Model.CONTROL_KEY.equals(propertyName)
+         || Model.OBSERVER_KEY.equals(propertyName)
+         || Model.AUTO_TUNE_KEY.equals(propertyName)
+         || Model.SYNC_KEY.equals(propertyName))
         {
             final boolean isSelected = Boolean.TRUE.equals(newValue);
             
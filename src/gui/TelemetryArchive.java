@@ -0,0 +1,1059 @@
+/**
+ *
+ */
+package gui;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TelemetryArchive - Langzeitaufzeichnung der Takte in rotierenden Segment-Dateien.
+ * <p>
+ * Jeder Takt wird als Satz von COLUMNS long-Werten abgelegt (BigDecimal-Werte
+ * als unskalierter Wert in der Genauigkeit von Data). Pro Spalte wird nur die
+ * Differenz zum vorigen Satz geschrieben, zig-zag-kodiert als varint (7 Bit je
+ * Byte). Zaehler und Positionen aendern sich von Takt zu Takt wenig, ein Satz
+ * belegt so typisch 15 ... 25 Byte.
+ * </p>
+ * <p>
+ * Alle INDEX_INTERVAL Saetze beginnt ein Block, dessen erster Satz absolut
+ * (Differenz zu 0) geschrieben wird. Fuer jeden Block wird in der Index-Datei
+ * (.idx) ein Eintrag (counter, Zeitstempel, Offset) abgelegt (duenner Index).
+ * Der Name eines Segmentes enthaelt neben der laufenden Nummer den counter
+ * und den Zeitstempel des ersten Satzes (telemetry-nummer-counter-zeit.seg).
+ * Die Suche nach einem counter oder Zeitstempel erfolgt binaer ueber die
+ * Segmente (ohne Zugriff auf die Dateien), danach binaer im Index des
+ * gewaehlten Segmentes, zuletzt werden hoechstens INDEX_INTERVAL Saetze
+ * dekodiert.
+ * </p>
+ * <p>
+ * Ein neues Segment wird begonnen, wenn das aktuelle die Groesse oder das
+ * Alter erreicht hat oder der counter kleiner wird (Reset), so ist der counter
+ * innerhalb eines Segmentes aufsteigend. Beim Start, nach jedem Segmentwechsel
+ * und auch ohne neue Saetze spaetestens nach RETENTION_MILLIS werden die
+ * aeltesten Segmente geloescht, solange die Gesamtgroesse oder das Alter die
+ * Vorgaben (Retention) ueberschreiten.
+ * </p>
+ * <p>
+ * Die Aufzeichnung erfolgt als PropertyChangeListener am Model (DATA_KEY). Im
+ * Takt wird der Satz nur in einen Puffer uebernommen, geschrieben wird in
+ * einem eigenen Thread (Daemon). Laeuft der Puffer ueber, werden Saetze
+ * verworfen und gezaehlt.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class TelemetryArchive implements PropertyChangeListener, Runnable
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(TelemetryArchive.class);
+
+    /**
+     * MAGIC - Kennung am Anfang eines Segmentes ("LGTA")
+     */
+    public final static int MAGIC = 0x4C475441;
+
+    /**
+     * VERSION = 2 - Version des Formates (2: mit Odometrie POSE_X, POSE_Y, HEADING)
+     */
+    public final static int VERSION = 2;
+
+    /**
+     * HEADER_SIZE - MAGIC, VERSION, COLUMNS
+     */
+    public final static int HEADER_SIZE = 6;
+
+    /**
+     * Spalten eines Satzes...
+     */
+    public final static int COUNTER = 0;
+    public final static int TIME_MILLIS = 1;
+    public final static int CYCLE_TIME = 2;
+    public final static int TOKEN = 3;
+    public final static int DESTINATION_MA = 4;
+    public final static int DESTINATION_MB = 5;
+    public final static int NUMBER_MA = 6;
+    public final static int NUMBER_MB = 7;
+    public final static int OUTPUT_MA = 8;
+    public final static int OUTPUT_MB = 9;
+    public final static int REAL_VALUE_MA = 10;
+    public final static int REAL_VALUE_MB = 11;
+    public final static int POSE_X = 12;
+    public final static int POSE_Y = 13;
+    public final static int HEADING = 14;
+    public final static int COLUMNS = 15;
+
+    /**
+     * INDEX_INTERVAL = 256 - Saetze je Block (je Eintrag im Index)
+     */
+    public final static int INDEX_INTERVAL = 256;
+
+    /**
+     * INDEX_ENTRY_SIZE = 24 - counter, Zeitstempel, Offset (je 8 Byte)
+     */
+    public final static int INDEX_ENTRY_SIZE = 24;
+
+    /**
+     * SEGMENT_SUFFIX/INDEX_SUFFIX - Endungen der Dateien
+     */
+    public final static String SEGMENT_SUFFIX = ".seg";
+    public final static String INDEX_SUFFIX = ".idx";
+
+    /**
+     * SEGMENT_PREFIX - Anfang der Dateinamen, es folgt die laufende Nummer
+     */
+    public final static String SEGMENT_PREFIX = "telemetry-";
+
+    /**
+     * DEFAULT_SEGMENT_BYTES - Groesse eines Segmentes (4 MiB)
+     */
+    public final static long DEFAULT_SEGMENT_BYTES = Long.getLong("gui.archive.segmentBytes", 4L << 20).longValue();
+
+    /**
+     * DEFAULT_SEGMENT_MILLIS - Alter eines Segmentes (1 h)
+     */
+    public final static long DEFAULT_SEGMENT_MILLIS = Long.getLong("gui.archive.segmentMinutes", 60L).longValue() * 60000L;
+
+    /**
+     * DEFAULT_MAX_BYTES - Gesamtgroesse aller Segmente (256 MiB)
+     */
+    public final static long DEFAULT_MAX_BYTES = Long.getLong("gui.archive.maxBytes", 256L << 20).longValue();
+
+    /**
+     * DEFAULT_MAX_AGE_MILLIS - Alter des aeltesten Segmentes (7 Tage)
+     */
+    public final static long DEFAULT_MAX_AGE_MILLIS = Long.getLong("gui.archive.maxDays", 7L).longValue() * 86400000L;
+
+    /**
+     * QUEUE_CAPACITY = 1024 - Saetze im Puffer zwischen Takt und Schreib-Thread
+     */
+    public final static int QUEUE_CAPACITY = 1024;
+
+    /**
+     * FLUSH_MILLIS = 1000 - spaetestens nach 1s wird auf die Datei geschrieben
+     */
+    public final static long FLUSH_MILLIS = 1000L;
+
+    /**
+     * RETENTION_MILLIS = 60000 - Retention spaetestens nach 1 min (auch ohne Segmentwechsel)
+     */
+    public final static long RETENTION_MILLIS = 60000L;
+
+    /**
+     * directory - Verzeichnis der Segmente
+     */
+    private final File directory;
+
+    /**
+     * Rotation und Retention...
+     */
+    private final long segmentBytes;
+    private final long segmentMillis;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+
+    /**
+     * queue - Puffer der Saetze (QUEUE_CAPACITY * COLUMNS), queueHead/queueSize
+     */
+    private final long[] queue = new long[QUEUE_CAPACITY * COLUMNS];
+    private int queueHead = 0;
+    private int queueSize = 0;
+
+    /**
+     * isRunning - Schreib-Thread laeuft
+     */
+    private volatile boolean isRunning = false;
+
+    /**
+     * thread - Schreib-Thread
+     */
+    private Thread thread = null;
+
+    /**
+     * records/dropped - Anzahl geschriebener/verworfener Saetze
+     */
+    private volatile long records = 0L;
+    private volatile long dropped = 0L;
+
+    /**
+     * Zustand des aktuellen Segmentes (nur Schreib-Thread)...
+     */
+    private OutputStream segmentStream = null;
+    private DataOutputStream indexStream = null;
+    private long segmentSequence = 0L;
+    private long segmentOffset = 0L;
+    private long segmentStartMillis = 0L;
+    private int blockRecords = 0;
+    private final long[] previous = new long[COLUMNS];
+    private final byte[] encoded = new byte[COLUMNS * 10];
+
+    /**
+     * TelemetryArchive(File directory) - mit den DEFAULT-Vorgaben...
+     * @param directory - Verzeichnis der Segmente (wird ggf. angelegt)
+     * @throws IOException
+     */
+    public TelemetryArchive(File directory) throws IOException
+    {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_SEGMENT_MILLIS, DEFAULT_MAX_BYTES, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * TelemetryArchive(...) - Konstruktor aus allen Vorgaben...
+     * @param directory - Verzeichnis der Segmente (wird ggf. angelegt)
+     * @param segmentBytes - Groesse eines Segmentes
+     * @param segmentMillis - Alter eines Segmentes
+     * @param maxBytes - Gesamtgroesse aller Segmente
+     * @param maxAgeMillis - Alter des aeltesten Segmentes
+     * @throws IOException
+     */
+    public TelemetryArchive(File directory, long segmentBytes, long segmentMillis, long maxBytes, long maxAgeMillis) throws IOException
+    {
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Can't create directory " + directory);
+        }
+        this.directory = directory;
+        this.segmentBytes = Math.max(1024L, segmentBytes);
+        this.segmentMillis = Math.max(1000L, segmentMillis);
+        this.maxBytes = Math.max(this.segmentBytes, maxBytes);
+        this.maxAgeMillis = Math.max(this.segmentMillis, maxAgeMillis);
+        final File[] segments = listSegments(directory);
+        this.segmentSequence = (segments.length > 0)? sequenceOf(segments[segments.length - 1]) + 1L : 0L;
+        // Ein Archiv ohne neue Saetze wird beim Start bereinigt...
+        applyRetention(System.currentTimeMillis());
+    }
+
+    /**
+     * start() - Schreib-Thread starten...
+     */
+    public synchronized void start()
+    {
+        if (this.thread != null)
+        {
+            return;
+        }
+        this.isRunning = true;
+        this.thread = new Thread(this, "TelemetryArchive");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * stop() - restliche Saetze schreiben, Segment schliessen...
+     */
+    public void stop()
+    {
+        final Thread thread;
+        synchronized (this)
+        {
+            this.isRunning = false;
+            thread = this.thread;
+            this.thread = null;
+            this.notifyAll();
+        }
+        if (thread != null)
+        {
+            try
+            {
+                thread.join(2000L);
+            }
+            catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * propertyChange(PropertyChangeEvent event) - Satz aus Data uebernehmen (im Takt)...
+     */
+    @Override
+    public void propertyChange(PropertyChangeEvent event)
+    {
+        if (Model.DATA_KEY.equals(event.getPropertyName()) && (event.getNewValue() instanceof Data))
+        {
+            append((Data) event.getNewValue(), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * append(Data data, long timeMillis) - Satz in den Puffer uebernehmen...
+     * @param data
+     * @param timeMillis - Zeitstempel
+     */
+    public synchronized void append(Data data, long timeMillis)
+    {
+        if (this.queueSize >= QUEUE_CAPACITY)
+        {
+            this.dropped++;
+            return;
+        }
+        toRecord(data, timeMillis, this.queue, ((this.queueHead + this.queueSize) % QUEUE_CAPACITY) * COLUMNS);
+        this.queueSize++;
+        if (this.queueSize == 1)
+        {
+            this.notifyAll();
+        }
+    }
+
+    /**
+     * append(long[] record, int offset) - Satz (COLUMNS Werte) in den Puffer uebernehmen...
+     * @param record
+     * @param offset - Beginn des Satzes in record
+     */
+    public synchronized void append(long[] record, int offset)
+    {
+        if (this.queueSize >= QUEUE_CAPACITY)
+        {
+            this.dropped++;
+            return;
+        }
+        System.arraycopy(record, offset, this.queue, ((this.queueHead + this.queueSize) % QUEUE_CAPACITY) * COLUMNS, COLUMNS);
+        this.queueSize++;
+        if (this.queueSize == 1)
+        {
+            this.notifyAll();
+        }
+    }
+
+    /**
+     * toRecord(Data data, long timeMillis, long[] record, int offset) - Data als
+     * Satz von COLUMNS long-Werten (auch fuer TelemetrySender)...
+     * @param data
+     * @param timeMillis - Zeitstempel
+     * @param record - nimmt den Satz auf
+     * @param offset - Beginn des Satzes in record
+     */
+    static void toRecord(Data data, long timeMillis, long[] record, int offset)
+    {
+        record[offset + COUNTER] = toLong(data.getCounter());
+        record[offset + TIME_MILLIS] = timeMillis;
+        record[offset + CYCLE_TIME] = unscaled(data.getCycleTime(), Data.SCALE_CYCLE_TIME);
+        record[offset + TOKEN] = toToken(data.getToken());
+        record[offset + DESTINATION_MA] = toLong(data.getNumberDestinationMA());
+        record[offset + DESTINATION_MB] = toLong(data.getNumberDestinationMB());
+        record[offset + NUMBER_MA] = toLong(data.getNumberMA());
+        record[offset + NUMBER_MB] = toLong(data.getNumberMB());
+        record[offset + OUTPUT_MA] = unscaled(data.getOutputMA(), Data.SCALE_OUTPUT);
+        record[offset + OUTPUT_MB] = unscaled(data.getOutputMB(), Data.SCALE_OUTPUT);
+        record[offset + REAL_VALUE_MA] = unscaled(data.getRealValueMA(), Data.SCALE_REAL_VALUE);
+        record[offset + REAL_VALUE_MB] = unscaled(data.getRealValueMB(), Data.SCALE_REAL_VALUE);
+        record[offset + POSE_X] = unscaled(data.getPoseX(), Data.SCALE_POSE);
+        record[offset + POSE_Y] = unscaled(data.getPoseY(), Data.SCALE_POSE);
+        record[offset + HEADING] = unscaled(data.getHeading(), Data.SCALE_HEADING);
+    }
+
+    /**
+     * toLong(Long value)
+     */
+    private static long toLong(Long value)
+    {
+        return (value != null)? value.longValue() : 0L;
+    }
+
+    /**
+     * unscaled(BigDecimal value, int scale) - Wert in der Genauigkeit scale als long...
+     */
+    private static long unscaled(BigDecimal value, int scale)
+    {
+        return (value != null)? value.setScale(scale, BigDecimal.ROUND_HALF_UP).unscaledValue().longValue() : 0L;
+    }
+
+    /**
+     * toToken(String token) - token (hex-String, vgl. Data.getTokenAsString()) als long...
+     */
+    private static long toToken(String token)
+    {
+        try
+        {
+            return (token != null)? Long.parseLong(token, 16) : 0L;
+        }
+        catch (NumberFormatException exception)
+        {
+            return 0L;
+        }
+    }
+
+    /**
+     * run() - Schreib-Thread...
+     */
+    @Override
+    public void run()
+    {
+        final long[] batch = new long[QUEUE_CAPACITY * COLUMNS];
+        long lastFlushMillis = System.currentTimeMillis();
+        long lastRetentionMillis = lastFlushMillis;
+        try
+        {
+            while (true)
+            {
+                int count;
+                synchronized (this)
+                {
+                    while (this.isRunning && this.queueSize == 0)
+                    {
+                        try
+                        {
+                            this.wait(FLUSH_MILLIS);
+                        }
+                        catch (InterruptedException exception)
+                        {
+                            Thread.currentThread().interrupt();
+                            this.isRunning = false;
+                        }
+                        if (this.queueSize == 0)
+                        {
+                            break;
+                        }
+                    }
+                    count = this.queueSize;
+                    for (int index = 0; index < count; index++)
+                    {
+                        System.arraycopy(this.queue, ((this.queueHead + index) % QUEUE_CAPACITY) * COLUMNS,
+                                         batch, index * COLUMNS, COLUMNS);
+                    }
+                    this.queueHead = (this.queueHead + count) % QUEUE_CAPACITY;
+                    this.queueSize = 0;
+                }
+                for (int index = 0; index < count; index++)
+                {
+                    write(batch, index * COLUMNS);
+                }
+                final long nowMillis = System.currentTimeMillis();
+                if (nowMillis - lastFlushMillis >= FLUSH_MILLIS || (count == 0 && !this.isRunning))
+                {
+                    flush();
+                    lastFlushMillis = nowMillis;
+                }
+                if (nowMillis - lastRetentionMillis >= RETENTION_MILLIS)
+                {
+                    // Auch ohne Segmentwechsel (z.B. Regelung angehalten) bereinigen...
+                    applyRetention(nowMillis);
+                    lastRetentionMillis = nowMillis;
+                }
+                if (count == 0 && !this.isRunning)
+                {
+                    break;
+                }
+            }
+        }
+        catch (IOException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+        finally
+        {
+            closeSegment();
+        }
+    }
+
+    /**
+     * write(long[] record, int offset) - einen Satz schreiben, ggf. Segment wechseln...
+     */
+    private void write(long[] record, int offset) throws IOException
+    {
+        final long counter = record[offset + COUNTER];
+        final long timeMillis = record[offset + TIME_MILLIS];
+        if (this.segmentStream != null
+         && (this.segmentOffset >= this.segmentBytes
+          || timeMillis - this.segmentStartMillis >= this.segmentMillis
+          || counter < this.previous[COUNTER]))
+        {
+            closeSegment();
+            applyRetention(timeMillis);
+        }
+        if (this.segmentStream == null)
+        {
+            openSegment(counter, timeMillis);
+        }
+        if (this.blockRecords == 0)
+        {
+            // Beginn eines Blockes: Index-Eintrag, Satz absolut...
+            this.indexStream.writeLong(counter);
+            this.indexStream.writeLong(timeMillis);
+            this.indexStream.writeLong(this.segmentOffset);
+            Arrays.fill(this.previous, 0L);
+        }
+        int length = 0;
+        for (int column = 0; column < COLUMNS; column++)
+        {
+            final long value = record[offset + column];
+            length = putVarLong(zigZag(value - this.previous[column]), this.encoded, length);
+            this.previous[column] = value;
+        }
+        this.segmentStream.write(this.encoded, 0, length);
+        this.segmentOffset += length;
+        this.blockRecords = (this.blockRecords + 1) % INDEX_INTERVAL;
+        this.records++;
+    }
+
+    /**
+     * openSegment(long counter, long timeMillis) - neues Segment anlegen, counter
+     * und Zeitstempel des ersten Satzes gehen in den Namen ein...
+     */
+    private void openSegment(long counter, long timeMillis) throws IOException
+    {
+        final String name = String.format("%s%08d-%d-%d", SEGMENT_PREFIX, this.segmentSequence++, counter, timeMillis);
+        final DataOutputStream segment = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(new File(this.directory, name + SEGMENT_SUFFIX)), 8192));
+        segment.writeInt(MAGIC);
+        segment.writeByte(VERSION);
+        segment.writeByte(COLUMNS);
+        this.segmentStream = segment;
+        this.indexStream = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(new File(this.directory, name + INDEX_SUFFIX)), 1024));
+        this.segmentOffset = HEADER_SIZE;
+        this.segmentStartMillis = timeMillis;
+        this.blockRecords = 0;
+        logger.debug("Segment " + name);
+    }
+
+    /**
+     * flush() - Puffer auf die Dateien schreiben...
+     */
+    private void flush() throws IOException
+    {
+        if (this.segmentStream != null)
+        {
+            this.segmentStream.flush();
+            this.indexStream.flush();
+        }
+    }
+
+    /**
+     * closeSegment() - aktuelles Segment schliessen...
+     */
+    private void closeSegment()
+    {
+        try
+        {
+            if (this.segmentStream != null)
+            {
+                this.segmentStream.close();
+            }
+            if (this.indexStream != null)
+            {
+                this.indexStream.close();
+            }
+        }
+        catch (IOException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+        this.segmentStream = null;
+        this.indexStream = null;
+    }
+
+    /**
+     * applyRetention(long nowMillis) - aelteste Segmente loeschen, solange
+     * Gesamtgroesse oder Alter ueberschritten sind (das juengste bleibt)...
+     */
+    void applyRetention(long nowMillis)
+    {
+        final File[] segments = listSegments(this.directory);
+        long totalBytes = 0L;
+        for (File segment: segments)
+        {
+            totalBytes += segment.length() + indexOf(segment).length();
+        }
+        for (int index = 0; index < segments.length - 1; index++)
+        {
+            final File segment = segments[index];
+            final boolean isTooOld = nowMillis - segment.lastModified() > this.maxAgeMillis;
+            if (totalBytes <= this.maxBytes && !isTooOld)
+            {
+                break;
+            }
+            final long length = segment.length() + indexOf(segment).length();
+            if (segment.delete())
+            {
+                indexOf(segment).delete();
+                totalBytes -= length;
+                logger.debug("Segment geloescht: " + segment.getName());
+            }
+        }
+    }
+
+    /**
+     * zigZag(long value) - Vorzeichen in das niederwertigste Bit...
+     */
+    static long zigZag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * unZigZag(long value)
+     */
+    static long unZigZag(long value)
+    {
+        return (value >>> 1) ^ -(value & 1L);
+    }
+
+    /**
+     * putVarLong(long value, byte[] buffer, int offset) - 7 Bit je Byte, hoechstes Bit: es folgt ein Byte...
+     * @return neuer offset
+     */
+    static int putVarLong(long value, byte[] buffer, int offset)
+    {
+        while ((value & ~0x7FL) != 0L)
+        {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    /**
+     * getVarLong(InputStream input) - Gegenstueck zu putVarLong()...
+     * @throws EOFException am Ende (auch mitten im Wert, z.B. bei Abbruch des Schreibens)
+     */
+    static long getVarLong(InputStream input) throws IOException
+    {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            final int data = input.read();
+            if (data < 0)
+            {
+                throw new EOFException();
+            }
+            value |= (long) (data & 0x7F) << shift;
+            if ((data & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IOException("varint too long!");
+    }
+
+    /**
+     * listSegments(File directory) - Segmente aufsteigend nach der laufenden Nummer...
+     */
+    static File[] listSegments(File directory)
+    {
+        final File[] segments = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (segments == null)
+        {
+            return new File[0];
+        }
+        Arrays.sort(segments, (first, second) -> Long.compare(sequenceOf(first), sequenceOf(second)));
+        return segments;
+    }
+
+    /**
+     * sequenceOf(File segment) - laufende Nummer aus dem Dateinamen...
+     */
+    static long sequenceOf(File segment)
+    {
+        final String[] fields = fieldsOf(segment);
+        try
+        {
+            return Long.parseLong(fields[0]);
+        }
+        catch (NumberFormatException exception)
+        {
+            return -1L;
+        }
+    }
+
+    /**
+     * firstOf(File segment) - counter und Zeitstempel des ersten Satzes aus
+     * dem Dateinamen, bei Segmenten ohne diese Angaben (aeltere Namen) aus
+     * dem ersten Index-Eintrag...
+     * @return {counter, Zeitstempel}, {Long.MAX_VALUE, Long.MAX_VALUE} bei leerem Segment
+     */
+    static long[] firstOf(File segment) throws IOException
+    {
+        final String[] fields = fieldsOf(segment);
+        if (fields.length == 3)
+        {
+            try
+            {
+                return new long[] {Long.parseLong(fields[1]), Long.parseLong(fields[2])};
+            }
+            catch (NumberFormatException exception)
+            {
+                // weiter mit dem Index...
+            }
+        }
+        try (RandomAccessFile index = new RandomAccessFile(indexOf(segment), "r"))
+        {
+            if (index.length() >= INDEX_ENTRY_SIZE)
+            {
+                return new long[] {index.readLong(), index.readLong()};
+            }
+        }
+        return new long[] {Long.MAX_VALUE, Long.MAX_VALUE};
+    }
+
+    /**
+     * fieldsOf(File segment) - Angaben im Dateinamen (nummer[-counter-zeit])...
+     */
+    private static String[] fieldsOf(File segment)
+    {
+        final String name = segment.getName();
+        return name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()).split("-");
+    }
+
+    /**
+     * indexOf(File segment) - zugehoerige Index-Datei...
+     */
+    static File indexOf(File segment)
+    {
+        final String name = segment.getName();
+        return new File(segment.getParentFile(), name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    /**
+     * @return Anzahl der geschriebenen Saetze
+     */
+    public long getRecords()
+    {
+        return this.records;
+    }
+
+    /**
+     * @return Anzahl der verworfenen Saetze (Puffer voll)
+     */
+    public long getDropped()
+    {
+        return this.dropped;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.directory)
+                                  .append(" ")
+                                  .append(this.records)
+                                  .append(" ")
+                                  .append(this.dropped)
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * Reader - sequentielles Lesen ab einer Suchposition (counter oder Zeitstempel)...
+     * <p>
+     * Die Suche waehlt zuerst binaer das Segment (letztes, dessen erster Satz
+     * nicht hinter dem gesuchten Wert liegt), danach binaer den Block im Index
+     * und dekodiert ab dem Block bis zum gesuchten Satz. Der counter ist nur
+     * zwischen zwei Resets (Lauf) aufsteigend, die Suche nach einem counter
+     * beginnt daher im juengsten Lauf und setzt mit den aelteren fort.
+     * next() setzt ueber die Segmentgrenzen hinweg fort.
+     * </p>
+     */
+    public static class Reader implements AutoCloseable
+    {
+        /**
+         * segments - die Segmente zum Zeitpunkt des Oeffnens
+         */
+        private final File[] segments;
+
+        /**
+         * firstCounters/firstTimes - counter und Zeitstempel des ersten Satzes je Segment
+         */
+        private final long[] firstCounters;
+        private final long[] firstTimes;
+
+        /**
+         * runStarts - erstes Segment des Laufes (counter aufsteigend) je Segment
+         */
+        private final int[] runStarts;
+
+        /**
+         * segmentIndex - aktuelles Segment
+         */
+        private int segmentIndex = -1;
+
+        /**
+         * input - aktuelles Segment ab Leseposition
+         */
+        private InputStream input = null;
+
+        /**
+         * blockRecords - Saetze im aktuellen Block
+         */
+        private int blockRecords = 0;
+
+        /**
+         * previous - letzter dekodierter Satz
+         */
+        private final long[] previous = new long[COLUMNS];
+
+        /**
+         * pending - bei der Suche bereits gelesener Satz fuer next()
+         */
+        private boolean isPending = false;
+
+        /**
+         * record - Satz bei der Suche
+         */
+        private final long[] record = new long[COLUMNS];
+
+        /**
+         * Reader(File directory)
+         * @param directory - Verzeichnis der Segmente
+         * @throws IOException
+         */
+        public Reader(File directory) throws IOException
+        {
+            this.segments = listSegments(directory);
+            this.firstCounters = new long[this.segments.length];
+            this.firstTimes = new long[this.segments.length];
+            this.runStarts = new int[this.segments.length];
+            for (int segment = 0; segment < this.segments.length; segment++)
+            {
+                final long[] first = firstOf(this.segments[segment]);
+                this.firstCounters[segment] = first[0];
+                this.firstTimes[segment] = first[1];
+                // Neuer Lauf, wenn der counter nicht ueber dem des vorigen Segmentes beginnt (Reset)...
+                this.runStarts[segment] = (segment > 0 && first[0] > this.firstCounters[segment - 1])? this.runStarts[segment - 1] : segment;
+            }
+        }
+
+        /**
+         * seekCounter(long counter) - Position auf den ersten Satz mit counter &gt;= counter...
+         * @return false, wenn kein solcher Satz vorhanden ist
+         */
+        public boolean seekCounter(long counter) throws IOException
+        {
+            return seek(COUNTER, 0, counter);
+        }
+
+        /**
+         * seekTime(long timeMillis) - Position auf den ersten Satz mit Zeitstempel &gt;= timeMillis...
+         * @return false, wenn kein solcher Satz vorhanden ist
+         */
+        public boolean seekTime(long timeMillis) throws IOException
+        {
+            return seek(TIME_MILLIS, 1, timeMillis);
+        }
+
+        /**
+         * seek(int column, int entryColumn, long value)...
+         * @param column - Spalte im Satz
+         * @param entryColumn - Spalte im Index-Eintrag
+         * @param value - gesuchter Wert
+         */
+        private boolean seek(int column, int entryColumn, long value) throws IOException
+        {
+            final long[] first = (column == COUNTER)? this.firstCounters : this.firstTimes;
+            int end = this.segments.length;
+            while (end > 0)
+            {
+                // Lauf [start, end): counter aufsteigend, Zeitstempel ueber alle Segmente...
+                final int start = (column == COUNTER)? this.runStarts[end - 1] : 0;
+                if (first[start] > value && start > 0)
+                {
+                    end = start;
+                    continue;
+                }
+                // Letztes Segment, dessen erster Wert <= value ist (binaere Suche)...
+                int low = start;
+                int high = end - 1;
+                while (low < high)
+                {
+                    final int middle = (low + high + 1) >>> 1;
+                    if (first[middle] <= value)
+                    {
+                        low = middle;
+                    }
+                    else
+                    {
+                        high = middle - 1;
+                    }
+                }
+                open(low, findBlock(this.segments[low], entryColumn, value));
+                while (next(this.record))
+                {
+                    if (this.segmentIndex >= end)
+                    {
+                        // Lauf verlassen (Reset), weiter mit den aelteren...
+                        break;
+                    }
+                    if (this.record[column] >= value)
+                    {
+                        // Gefunden (ggf. erster Satz des folgenden Segmentes)...
+                        this.isPending = true;
+                        return true;
+                    }
+                }
+                end = start;
+            }
+            closeInput();
+            return false;
+        }
+
+        /**
+         * next(long[] record) - naechster Satz...
+         * @param record - nimmt die COLUMNS Werte auf
+         * @return false am Ende des Archives
+         */
+        public boolean next(long[] record) throws IOException
+        {
+            if (this.isPending)
+            {
+                this.isPending = false;
+                System.arraycopy(this.previous, 0, record, 0, COLUMNS);
+                return true;
+            }
+            while (true)
+            {
+                if (this.input == null)
+                {
+                    if (this.segmentIndex + 1 >= this.segments.length)
+                    {
+                        return false;
+                    }
+                    open(this.segmentIndex + 1, HEADER_SIZE);
+                }
+                try
+                {
+                    if (this.blockRecords == 0)
+                    {
+                        Arrays.fill(this.previous, 0L);
+                    }
+                    for (int column = 0; column < COLUMNS; column++)
+                    {
+                        record[column] = this.previous[column] + unZigZag(getVarLong(this.input));
+                    }
+                    System.arraycopy(record, 0, this.previous, 0, COLUMNS);
+                    this.blockRecords = (this.blockRecords + 1) % INDEX_INTERVAL;
+                    return true;
+                }
+                catch (EOFException exception)
+                {
+                    // Ende des Segmentes, weiter mit dem naechsten...
+                    closeInput();
+                }
+            }
+        }
+
+        /**
+         * open(int segment, long offset) - Segment ab offset (Blockanfang) oeffnen...
+         */
+        private void open(int segment, long offset) throws IOException
+        {
+            closeInput();
+            this.segmentIndex = segment;
+            final FileInputStream file = new FileInputStream(this.segments[segment]);
+            final DataInputStream header = new DataInputStream(file);
+            if (header.readInt() != MAGIC || header.readUnsignedByte() != VERSION || header.readUnsignedByte() != COLUMNS)
+            {
+                file.close();
+                throw new IOException("Invalid segment " + this.segments[segment]);
+            }
+            file.getChannel().position(offset);
+            this.input = new BufferedInputStream(file, 8192);
+            this.blockRecords = 0;
+            this.isPending = false;
+        }
+
+        /**
+         * findBlock(File segment, int entryColumn, long value) - Offset des letzten
+         * Blockes, dessen erster Wert &lt;= value ist (binaere Suche im Index)...
+         */
+        private static long findBlock(File segment, int entryColumn, long value) throws IOException
+        {
+            try (RandomAccessFile index = new RandomAccessFile(indexOf(segment), "r"))
+            {
+                // Index wird ggf. gerade geschrieben, vorhandene Eintraege genuegen...
+                final long entries = index.length() / INDEX_ENTRY_SIZE;
+                if (entries == 0L)
+                {
+                    return HEADER_SIZE;
+                }
+                long low = 0L;
+                long high = entries - 1L;
+                while (low < high)
+                {
+                    final long middle = (low + high + 1L) >>> 1;
+                    index.seek(middle * INDEX_ENTRY_SIZE + 8L * entryColumn);
+                    if (index.readLong() <= value)
+                    {
+                        low = middle;
+                    }
+                    else
+                    {
+                        high = middle - 1L;
+                    }
+                }
+                index.seek(low * INDEX_ENTRY_SIZE + 16L);
+                return index.readLong();
+            }
+        }
+
+        /**
+         * closeInput()
+         */
+        private void closeInput() throws IOException
+        {
+            if (this.input != null)
+            {
+                this.input.close();
+                this.input = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            closeInput();
+        }
+    }
+
+    /**
+     * main() - Ausgabe des Archives ab einem counter...
+     * <p>
+     * Aufruf: java gui.TelemetryArchive [Verzeichnis] [counter] [Anzahl]
+     * </p>
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception
+    {
+        final File directory = new File((args.length > 0)? args[0] : System.getProperty("gui.archive.dir", "archive"));
+        final long counter = (args.length > 1)? Long.parseLong(args[1]) : 0L;
+        final int count = (args.length > 2)? Integer.parseInt(args[2]) : 20;
+        try (Reader reader = new Reader(directory))
+        {
+            if (!reader.seekCounter(counter))
+            {
+                System.out.println("counter " + counter + " nicht vorhanden!");
+                return;
+            }
+            final long[] record = new long[COLUMNS];
+            for (int index = 0; index < count && reader.next(record); index++)
+            {
+                System.out.println(Arrays.toString(record));
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+
+/**
+ * TelemetryReceiver - Empfang und Dekodierung der Datagramme des TelemetrySender.
+ * <p>
+ * Ueber die Folgenummer werden verlorene Datagramme (Luecken), doppelte und
+ * verspaetete (kleinere Folgenummer) gezaehlt. Ein Neustart des Senders
+ * (Folgenummer 0) wird erkannt und nicht als Verlust gewertet.
+ * </p>
+ * <p>
+ * Aufruf: java gui.TelemetryReceiver [Port] [Archiv-Verzeichnis]<br>
+ * Ohne Verzeichnis werden die Saetze ausgegeben, sonst in einem
+ * TelemetryArchive abgelegt. Alle 5s wird die Statistik ausgegeben.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class TelemetryReceiver
+{
+    /**
+     * STATISTICS_MILLIS = 5000 - Abstand der Ausgabe der Statistik
+     */
+    public final static long STATISTICS_MILLIS = 5000L;
+
+    /**
+     * expected - naechste erwartete Folgenummer (-1L: noch kein Datagramm)
+     */
+    private long expected = -1L;
+
+    /**
+     * datagrams/records/lost/duplicates/invalid - Statistik
+     */
+    private long datagrams = 0L;
+    private long records = 0L;
+    private long lost = 0L;
+    private long late = 0L;
+    private long invalid = 0L;
+
+    /**
+     * RecordHandler - Verarbeitung eines dekodierten Satzes
+     */
+    public interface RecordHandler
+    {
+        /**
+         * record(long[] record) - ein Satz (COLUMNS Werte, wird wiederverwendet)
+         */
+        void record(long[] record);
+    }
+
+    /**
+     * receive(ByteBuffer datagram, long[] record, RecordHandler handler) - ein
+     * Datagramm dekodieren...
+     * @param datagram - Datagramm (position ... limit)
+     * @param record - nimmt die Saetze auf (mind. COLUMNS Werte)
+     * @param handler - Verarbeitung der Saetze
+     * @return true, wenn das Datagramm gueltig war
+     */
+    public boolean receive(ByteBuffer datagram, long[] record, RecordHandler handler)
+    {
+        if (datagram.remaining() < TelemetrySender.HEADER_SIZE
+         || datagram.getInt() != TelemetrySender.MAGIC
+         || datagram.get() != TelemetrySender.VERSION
+         || datagram.get() != TelemetryArchive.COLUMNS)
+        {
+            this.invalid++;
+            return false;
+        }
+        final int count = datagram.getShort() & 0xffff;
+        final long sequence = datagram.getLong();
+        if (this.expected >= 0L && sequence != this.expected)
+        {
+            if (sequence > this.expected)
+            {
+                this.lost += sequence - this.expected;
+            }
+            else if (sequence == 0L)
+            {
+                // Neustart des Senders...
+            }
+            else
+            {
+                // Verspaetet oder doppelt, war bereits als verloren gezaehlt...
+                this.late++;
+                if (this.lost > 0L)
+                {
+                    this.lost--;
+                }
+                return true;
+            }
+        }
+        this.expected = sequence + 1L;
+        this.datagrams++;
+        Arrays.fill(record, 0L);
+        for (int index = 0; index < count; index++)
+        {
+            try
+            {
+                for (int column = 0; column < TelemetryArchive.COLUMNS; column++)
+                {
+                    record[column] += TelemetryArchive.unZigZag(getVarLong(datagram));
+                }
+            }
+            catch (RuntimeException exception)
+            {
+                this.invalid++;
+                return false;
+            }
+            this.records++;
+            handler.record(record);
+        }
+        return true;
+    }
+
+    /**
+     * getVarLong(ByteBuffer buffer) - vgl. TelemetryArchive.putVarLong()...
+     */
+    private static long getVarLong(ByteBuffer buffer)
+    {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            final int data = buffer.get();
+            value |= (long) (data & 0x7F) << shift;
+            if ((data & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IllegalStateException("varint too long!");
+    }
+
+    /**
+     * @return Anzahl der gueltigen Datagramme
+     */
+    public long getDatagrams()
+    {
+        return this.datagrams;
+    }
+
+    /**
+     * @return Anzahl der Saetze
+     */
+    public long getRecords()
+    {
+        return this.records;
+    }
+
+    /**
+     * @return Anzahl der verlorenen Datagramme
+     */
+    public long getLost()
+    {
+        return this.lost;
+    }
+
+    /**
+     * @return Anzahl der verspaeteten/doppelten Datagramme
+     */
+    public long getLate()
+    {
+        return this.late;
+    }
+
+    /**
+     * @return Anzahl der ungueltigen Datagramme
+     */
+    public long getInvalid()
+    {
+        return this.invalid;
+    }
+
+    /**
+     * getLossRate() - Anteil verlorener Datagramme...
+     * @return 0.0 ... 1.0
+     */
+    public double getLossRate()
+    {
+        final long total = this.datagrams + this.lost;
+        return (total > 0L)? (double) this.lost / total : 0.0;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.datagrams)
+                                  .append(" ")
+                                  .append(this.records)
+                                  .append(" ")
+                                  .append(this.lost)
+                                  .append(" ")
+                                  .append(this.late)
+                                  .append(" ")
+                                  .append(this.invalid)
+                                  .append("]")
+                                  .toString();
+    }
+
+    /**
+     * main() - Referenz-Empfaenger...
+     * @param args - [Port] [Archiv-Verzeichnis]
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException
+    {
+        final int port = (args.length > 0)? Integer.parseInt(args[0]) : TelemetrySender.DEFAULT_PORT;
+        final TelemetryArchive archive = (args.length > 1)? new TelemetryArchive(new File(args[1])) : null;
+        final RecordHandler handler;
+        if (archive != null)
+        {
+            archive.start();
+            handler = record -> archive.append(record, 0);
+        }
+        else
+        {
+            handler = record -> System.out.println(Arrays.toString(record));
+        }
+        final TelemetryReceiver receiver = new TelemetryReceiver();
+        final long[] record = new long[TelemetryArchive.COLUMNS];
+        final ByteBuffer datagram = ByteBuffer.allocate(65536);
+        try (DatagramChannel channel = DatagramChannel.open())
+        {
+            channel.bind(new InetSocketAddress(port));
+            System.out.println("Empfang auf Port " + port + "...");
+            long lastMillis = System.currentTimeMillis();
+            while (true)
+            {
+                datagram.clear();
+                channel.receive(datagram);
+                datagram.flip();
+                receiver.receive(datagram, record, handler);
+                final long nowMillis = System.currentTimeMillis();
+                if (nowMillis - lastMillis >= STATISTICS_MILLIS)
+                {
+                    lastMillis = nowMillis;
+                    System.out.println("Datagramme: " + receiver.getDatagrams()
+                                     + ", Saetze: " + receiver.getRecords()
+                                     + ", verloren: " + receiver.getLost()
+                                     + " (" + String.format("%.3f", 100.0 * receiver.getLossRate()) + "%)"
+                                     + ", verspaetet: " + receiver.getLate()
+                                     + ", ungueltig: " + receiver.getInvalid());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/**
+ *
+ */
+package gui;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TelemetrySender - Versand der Takte als binaere UDP-Datagramme (vgl. TelemetryReceiver).
+ * <p>
+ * Die Saetze (Aufbau wie im TelemetryArchive, COLUMNS long-Werte) werden
+ * gesammelt und als ein Datagramm versendet, sobald batchRecords Saetze
+ * vorliegen, das Datagramm voll ist oder der erste Satz MAX_BATCH_MILLIS alt
+ * ist. Der erste Satz eines Datagrammes wird absolut, die folgenden als
+ * Differenz zum vorigen (zig-zag, varint) kodiert, jedes Datagramm ist damit
+ * fuer sich dekodierbar.
+ * </p>
+ * <p>
+ * Aufbau eines Datagrammes (big-endian):
+ * <ul>
+ *  <li>int MAGIC, byte VERSION, byte COLUMNS, short Anzahl der Saetze</li>
+ *  <li>long Folgenummer (fortlaufend ab 0, zur Verlusterkennung)</li>
+ *  <li>Saetze</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Der Versand erfolgt im Takt ueber einen nicht blockierenden, nicht
+ * verbundenen DatagramChannel (kein Fehler, wenn kein Empfaenger laeuft).
+ * Konnte ein Datagramm nicht versendet werden, wird es verworfen und gezaehlt.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class TelemetrySender implements PropertyChangeListener
+{
+    /**
+     * logger
+     */
+    private final static Logger logger = LoggerFactory.getLogger(TelemetrySender.class);
+
+    /**
+     * MAGIC - Kennung am Anfang eines Datagrammes ("LGTU")
+     */
+    public final static int MAGIC = 0x4C475455;
+
+    /**
+     * VERSION = 2 - Version des Formates (2: Satz mit Odometrie, vgl. TelemetryArchive)
+     */
+    public final static int VERSION = 2;
+
+    /**
+     * HEADER_SIZE - MAGIC, VERSION, COLUMNS, Anzahl, Folgenummer
+     */
+    public final static int HEADER_SIZE = 16;
+
+    /**
+     * MAX_DATAGRAM_SIZE = 1400 - Datagramm passt in einen Ethernet-Rahmen
+     */
+    public final static int MAX_DATAGRAM_SIZE = 1400;
+
+    /**
+     * MAX_RECORD_SIZE - groesster kodierter Satz (10 Byte je Wert)
+     */
+    public final static int MAX_RECORD_SIZE = TelemetryArchive.COLUMNS * 10;
+
+    /**
+     * DEFAULT_HOST = "localhost" - Empfaenger, einstellbar ueber -Dgui.telemetry.host=...
+     */
+    public final static String DEFAULT_HOST = System.getProperty("gui.telemetry.host", "localhost");
+
+    /**
+     * DEFAULT_PORT = 47000 - Port des Empfaengers, einstellbar ueber -Dgui.telemetry.port=...
+     */
+    public final static int DEFAULT_PORT = Integer.getInteger("gui.telemetry.port", 47000).intValue();
+
+    /**
+     * DEFAULT_BATCH_RECORDS = 10 - Saetze je Datagramm, einstellbar ueber -Dgui.telemetry.batch=...
+     */
+    public final static int DEFAULT_BATCH_RECORDS = Integer.getInteger("gui.telemetry.batch", 10).intValue();
+
+    /**
+     * MAX_BATCH_MILLIS = 200 - spaetestens nach 200ms wird versendet
+     */
+    public final static long MAX_BATCH_MILLIS = 200L;
+
+    /**
+     * target - Adresse des Empfaengers
+     */
+    private final InetSocketAddress target;
+
+    /**
+     * channel - nicht blockierender DatagramChannel
+     */
+    private final DatagramChannel channel;
+
+    /**
+     * batchRecords - Saetze je Datagramm
+     */
+    private final int batchRecords;
+
+    /**
+     * buffer - das Datagramm im Aufbau
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+
+    /**
+     * record/previous - aktueller und voriger Satz
+     */
+    private final long[] record = new long[TelemetryArchive.COLUMNS];
+    private final long[] previous = new long[TelemetryArchive.COLUMNS];
+
+    /**
+     * encoded - kodierter Satz
+     */
+    private final byte[] encoded = new byte[MAX_RECORD_SIZE];
+
+    /**
+     * count - Saetze im Datagramm, firstMillis - Zeitstempel des ersten Satzes
+     */
+    private int count = 0;
+    private long firstMillis = 0L;
+
+    /**
+     * sequence - Folgenummer des naechsten Datagrammes
+     */
+    private long sequence = 0L;
+
+    /**
+     * datagrams/dropped - Anzahl versendeter/verworfener Datagramme
+     */
+    private volatile long datagrams = 0L;
+    private volatile long dropped = 0L;
+
+    /**
+     * TelemetrySender() - mit DEFAULT_HOST, DEFAULT_PORT und DEFAULT_BATCH_RECORDS...
+     * @throws IOException
+     */
+    public TelemetrySender() throws IOException
+    {
+        this(new InetSocketAddress(DEFAULT_HOST, DEFAULT_PORT), DEFAULT_BATCH_RECORDS);
+    }
+
+    /**
+     * TelemetrySender(InetSocketAddress target, int batchRecords)
+     * @param target - Adresse des Empfaengers
+     * @param batchRecords - Saetze je Datagramm (1 ...)
+     * @throws IOException
+     */
+    public TelemetrySender(InetSocketAddress target, int batchRecords) throws IOException
+    {
+        this.target = target;
+        this.batchRecords = Math.max(1, batchRecords);
+        this.channel = DatagramChannel.open();
+        this.channel.configureBlocking(false);
+    }
+
+    /**
+     * propertyChange(PropertyChangeEvent event) - Satz aus Data uebernehmen (im Takt)...
+     */
+    @Override
+    public void propertyChange(PropertyChangeEvent event)
+    {
+        if (Model.DATA_KEY.equals(event.getPropertyName()) && (event.getNewValue() instanceof Data))
+        {
+            append((Data) event.getNewValue(), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * append(Data data, long timeMillis) - Satz in das Datagramm uebernehmen, ggf. versenden...
+     * @param data
+     * @param timeMillis - Zeitstempel
+     */
+    public synchronized void append(Data data, long timeMillis)
+    {
+        TelemetryArchive.toRecord(data, timeMillis, this.record, 0);
+        if (this.count == 0)
+        {
+            this.buffer.clear();
+            this.buffer.putInt(MAGIC)
+                       .put((byte) VERSION)
+                       .put((byte) TelemetryArchive.COLUMNS)
+                       .putShort((short) 0)
+                       .putLong(this.sequence);
+            java.util.Arrays.fill(this.previous, 0L);
+            this.firstMillis = timeMillis;
+        }
+        int length = 0;
+        for (int column = 0; column < TelemetryArchive.COLUMNS; column++)
+        {
+            length = TelemetryArchive.putVarLong(TelemetryArchive.zigZag(this.record[column] - this.previous[column]),
+                                                 this.encoded,
+                                                 length);
+            this.previous[column] = this.record[column];
+        }
+        this.buffer.put(this.encoded, 0, length);
+        this.count++;
+        if (this.count >= this.batchRecords
+         || this.buffer.remaining() < MAX_RECORD_SIZE
+         || timeMillis - this.firstMillis >= MAX_BATCH_MILLIS)
+        {
+            send();
+        }
+    }
+
+    /**
+     * flush() - angefangenes Datagramm versenden...
+     */
+    public synchronized void flush()
+    {
+        if (this.count > 0)
+        {
+            send();
+        }
+    }
+
+    /**
+     * send() - Datagramm versenden...
+     */
+    private void send()
+    {
+        this.buffer.putShort(6, (short) this.count);
+        this.buffer.flip();
+        try
+        {
+            if (this.channel.send(this.buffer, this.target) > 0)
+            {
+                this.datagrams++;
+            }
+            else
+            {
+                // Sendepuffer des Systems voll...
+                this.dropped++;
+            }
+        }
+        catch (IOException exception)
+        {
+            this.dropped++;
+            if (this.dropped == 1L)
+            {
+                logger.error(exception.toString(), exception);
+            }
+        }
+        this.sequence++;
+        this.count = 0;
+    }
+
+    /**
+     * close() - angefangenes Datagramm versenden, Channel schliessen...
+     */
+    public void close()
+    {
+        flush();
+        try
+        {
+            this.channel.close();
+        }
+        catch (IOException exception)
+        {
+            logger.error(exception.toString(), exception);
+        }
+    }
+
+    /**
+     * @return Anzahl der versendeten Datagramme
+     */
+    public long getDatagrams()
+    {
+        return this.datagrams;
+    }
+
+    /**
+     * @return Anzahl der verworfenen Datagramme
+     */
+    public long getDropped()
+    {
+        return this.dropped;
+    }
+
+    /**
+     * toString() - zu Protokollzwecken...
+     */
+    @Override
+    public String toString()
+    {
+        return new StringBuilder().append("[")
+                                  .append(this.target)
+                                  .append(" ")
+                                  .append(this.batchRecords)
+                                  .append(" ")
+                                  .append(this.datagrams)
+                                  .append(" ")
+                                  .append(this.dropped)
+                                  .append("]")
+                                  .toString();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ControlCheckpointTest - Sicherung und Wiederherstellung der
+ * Zustandsgroessen (Warmstart).
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class ControlCheckpointTest
+{
+    /**
+     * state(long numberMA) - Stand zum Schreiben...
+     */
+    private static ControlCheckpoint.State state(long numberMA)
+    {
+        return new ControlCheckpoint.State(4711L, numberMA, -numberMA,
+                                           new BigDecimal("1234.567891"), new BigDecimal("-0.5"),
+                                           100.25, -3.5, 1.25, 1_000_000L + numberMA);
+    }
+
+    /**
+     * tempFile() - leere Datei, wird beim Ende geloescht...
+     */
+    private static File tempFile() throws IOException
+    {
+        final File file = Files.createTempFile("checkpoint", ".bin").toFile();
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * emptyFile() - neue Datei: keine Sicherung...
+     */
+    @Test
+    public void emptyFile() throws IOException
+    {
+        final ControlCheckpoint checkpoint = new ControlCheckpoint(tempFile());
+        assertNull(checkpoint.read());
+    }
+
+    /**
+     * roundTrip() - der zuletzt geschriebene Stand, auch nach erneutem Oeffnen...
+     */
+    @Test
+    public void roundTrip() throws IOException
+    {
+        final File file = tempFile();
+        try (ControlCheckpoint checkpoint = new ControlCheckpoint(file))
+        {
+            for (long numberMA = 1L; numberMA <= 5L; numberMA++)
+            {
+                checkpoint.write(state(numberMA));
+            }
+        }
+        final ControlCheckpoint.State state = new ControlCheckpoint(file).read();
+        assertNotNull(state);
+        assertEquals(5L, state.getSequence());
+        assertEquals(4711L, state.getToken());
+        assertEquals(5L, state.getNumberMA());
+        assertEquals(-5L, state.getNumberMB());
+        assertEquals(0, new BigDecimal("1234.567891").compareTo(state.getValueDestinationMA()));
+        assertEquals(0, new BigDecimal("-0.5").compareTo(state.getValueDestinationMB()));
+        assertEquals(100.25, state.getPoseX());
+        assertEquals(-3.5, state.getPoseY());
+        assertEquals(1.25, state.getHeading());
+        assertEquals(1_000_005L, state.getSavedMillis());
+    }
+
+    /**
+     * tornWrite() - ein unterbrochen geschriebener Platz wird verworfen,
+     * es bleibt der vorige Stand...
+     */
+    @Test
+    public void tornWrite() throws IOException
+    {
+        final File file = tempFile();
+        final ControlCheckpoint checkpoint = new ControlCheckpoint(file);
+        checkpoint.write(state(1L));
+        checkpoint.write(state(2L));
+        checkpoint.force();
+        // Platz der sequence 2 (slot 0, Offset 16) beschaedigen: numberMA...
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"))
+        {
+            randomAccessFile.seek(16 + 16 + 7);
+            randomAccessFile.write(0x55);
+        }
+        final ControlCheckpoint.State state = new ControlCheckpoint(file).read();
+        assertNotNull(state);
+        assertEquals(1L, state.getSequence());
+        assertEquals(1L, state.getNumberMA());
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ControlServerTest - Kommandos werden an der Taktgrenze unter der Sperre
+ * des Model ausgefuehrt (Model.submit()), nicht im Thread der Verbindung.
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class ControlServerTest
+{
+    /**
+     * commandsAtCycleBoundary() - Kommandos eines anderen Threads wirken mit
+     * dem naechsten Takt, die Pruefung des GuiStatus bleibt erhalten...
+     */
+    @Test
+    public void commandsAtCycleBoundary() throws Exception
+    {
+        final Simulation simulation = new Simulation(new SimulatedPlant(), Simulation.DEFAULT_CYCLE_TIME);
+        final Model model = simulation.getModel();
+        final ControlServer server = new ControlServer(model, 0);
+        try
+        {
+            assertEquals("OK", server.execute("START"));
+            simulation.run(10);
+            assertEquals(Model.GuiStatus.START, model.getProperty(Model.GUI_STATUS_KEY));
+            assertTrue(server.execute("START").startsWith("ERR"));
+            // Aus einem anderen Thread (wie die Verbindung)...
+            final AtomicReference<String> response = new AtomicReference<>();
+            final Thread thread = new Thread(() -> response.set(server.execute("SET destinationMAKey 30")));
+            thread.start();
+            thread.join();
+            assertEquals("OK", response.get());
+            simulation.run(1);
+            assertEquals(0, BigDecimal.valueOf(30L).compareTo((BigDecimal) model.getProperty(Model.DESTINATION_MA_KEY)));
+            assertEquals("OK", server.execute("STOP"));
+            simulation.run(1);
+            assertEquals(Model.GuiStatus.STOP, model.getProperty(Model.GUI_STATUS_KEY));
+            assertTrue(server.execute("STOP").startsWith("ERR"));
+            assertTrue(server.execute("SET destinationMAKey abc").startsWith("ERR"));
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    /**
+     * submitUnderLock() - das Kommando laeuft unter der Sperre des Model...
+     */
+    @Test
+    public void submitUnderLock() throws IOException, InterruptedException
+    {
+        final Simulation simulation = new Simulation(new SimulatedPlant(), Simulation.DEFAULT_CYCLE_TIME);
+        final Model model = simulation.getModel();
+        simulation.run(10);
+        final boolean[] isLocked = {false};
+        final Thread thread = new Thread(() -> model.submit(() -> isLocked[0] = Thread.holdsLock(model)));
+        thread.start();
+        thread.join();
+        simulation.run(1);
+        assertTrue(isLocked[0], "submit() ohne Sperre");
+    }
+
+    /**
+     * driveOff() - DRIVE und DRIVE OFF wirken im Takt, nach DRIVE OFF gelten
+     * wieder die Sollwerte je Motor (hier 0, kein Zuwachs der Solllage)...
+     */
+    @Test
+    public void driveOff() throws Exception
+    {
+        final Simulation simulation = new Simulation(new SimulatedPlant(), Simulation.DEFAULT_CYCLE_TIME);
+        final Model model = simulation.getModel();
+        final AtomicReference<Data> lastData = new AtomicReference<>();
+        model.addPropertyChangeListener(event ->
+        {
+            if (Model.DATA_KEY.equals(event.getPropertyName()) && event.getNewValue() instanceof Data)
+            {
+                lastData.set((Data) event.getNewValue());
+            }
+        });
+        final ControlServer server = new ControlServer(model, 0);
+        try
+        {
+            assertEquals("OK", server.execute("SET destinationMAKey 0"));
+            assertEquals("OK", server.execute("SET destinationMBKey 0"));
+            assertEquals("OK", server.execute("START"));
+            simulation.run(10);
+            final long start = lastData.get().getNumberDestinationMA().longValue();
+            assertEquals("OK", server.execute("DRIVE 100 0"));
+            simulation.run(50);
+            final long driven = lastData.get().getNumberDestinationMA().longValue();
+            assertTrue(driven > start, "keine Fahrt: " + lastData.get());
+            assertEquals("OK", server.execute("DRIVE OFF"));
+            simulation.run(1);
+            final long stopped = lastData.get().getNumberDestinationMA().longValue();
+            simulation.run(10);
+            assertEquals(stopped, lastData.get().getNumberDestinationMA().longValue());
+            assertEquals(null, model.getProperty(Model.DRIVE_KEY));
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+}
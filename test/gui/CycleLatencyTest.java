@@ -0,0 +1,86 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CycleLatencyTest - Rechenzeit eines Taktes (Model.doCycle() an der
+ * Simulation, Regelung und Beobachter aktiv), Abbruch bei Ueberschreitung.
+ * <p>
+ * Nach WARMUP_CYCLES Takten (JIT) wird jeder Takt einzeln gemessen. Die
+ * Grenzen fuer Mittelwert und 99%-Quantil sind einstellbar ueber
+ * -Dgui.test.maxMeanMicros=... und -Dgui.test.maxP99Micros=... (z.B. auf
+ * dem Raspberry Pi hoeher), die Anzahl der Takte ueber -Dgui.test.cycles=...
+ * </p>
+ * <p>
+ * Ausfuehrung mit ant benchmark (Tag "benchmark", nicht in ant test).
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+@Tag("benchmark")
+public class CycleLatencyTest
+{
+    /**
+     * WARMUP_CYCLES = 20000 - Takte vor der Messung
+     */
+    private final static int WARMUP_CYCLES = 20000;
+
+    /**
+     * CYCLES - gemessene Takte
+     */
+    private final static int CYCLES = Integer.getInteger("gui.test.cycles", 50000).intValue();
+
+    /**
+     * MAX_MEAN_MICROS/MAX_P99_MICROS - Grenzen der Rechenzeit eines Taktes in us
+     */
+    private final static long MAX_MEAN_MICROS = Long.getLong("gui.test.maxMeanMicros", 100L).longValue();
+    private final static long MAX_P99_MICROS = Long.getLong("gui.test.maxP99Micros", 500L).longValue();
+
+    /**
+     * cycleLatency() - Mittelwert und 99%-Quantil der Rechenzeit eines Taktes...
+     */
+    @Test
+    public void cycleLatency()
+    {
+        final Simulation simulation = new Simulation(new SimulatedPlant(), Simulation.DEFAULT_CYCLE_TIME);
+        final Model model = simulation.getModel();
+        model.setProperty(Model.MAX_VALUE_MA_KEY, Model.MX_MAX_VALUES[0]);
+        model.setProperty(Model.MAX_VALUE_MB_KEY, Model.MX_MAX_VALUES[0]);
+        model.setProperty(Model.CONTROL_KEY, Boolean.TRUE);
+        model.setProperty(Model.OBSERVER_KEY, Boolean.TRUE);
+        model.setProperty(Model.DESTINATION_MA_KEY, BigDecimal.valueOf(60L).setScale(Model.SCALE_DESTINATION));
+        model.setProperty(Model.DESTINATION_MB_KEY, BigDecimal.valueOf(-60L).setScale(Model.SCALE_DESTINATION));
+        model.doStart();
+        simulation.run(WARMUP_CYCLES);
+
+        final long[] nanos = new long[CYCLES];
+        for (int index = 0; index < CYCLES; index++)
+        {
+            final long start = System.nanoTime();
+            simulation.run(1);
+            nanos[index] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long sum = 0L;
+        for (long value: nanos)
+        {
+            sum += value;
+        }
+        final long meanMicros = sum / CYCLES / 1000L;
+        final long p99Micros = nanos[(int) (CYCLES * 0.99)] / 1000L;
+        final long maxMicros = nanos[CYCLES - 1] / 1000L;
+        System.out.println("CycleLatencyTest: " + CYCLES + " Takte, mean=" + meanMicros + "us p99=" + p99Micros + "us max=" + maxMicros + "us");
+        assertTrue(meanMicros <= MAX_MEAN_MICROS, "Mittelwert " + meanMicros + "us > " + MAX_MEAN_MICROS + "us");
+        assertTrue(p99Micros <= MAX_P99_MICROS, "99%-Quantil " + p99Micros + "us > " + MAX_P99_MICROS + "us");
+    }
+}
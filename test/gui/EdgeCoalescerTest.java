@@ -0,0 +1,221 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * EdgeCoalescerTest - Behandlung des Rueckstaus der Flanken mit virtueller
+ * Uhr (clock), ein Takt dauert busyNanos.
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class EdgeCoalescerTest
+{
+    /**
+     * PERIOD_NANOS = 20ms - Periode des Arduino
+     */
+    private final static long PERIOD_NANOS = 20_000_000L;
+
+    /**
+     * now - virtuelle Uhr in ns
+     */
+    private long now = 0L;
+
+    /**
+     * processed - Zeitpunkte der verarbeiteten Flanken
+     */
+    private final List<Instant> processed = new ArrayList<>();
+
+    /**
+     * edge(long index) - Zeitpunkt der Flanke index...
+     */
+    private static Instant edge(long index)
+    {
+        return Instant.ofEpochSecond(0L, index * PERIOD_NANOS);
+    }
+
+    /**
+     * inTime() - Flanken im Abstand der Periode, Takt kuerzer als die Periode:
+     * jede Flanke wird verarbeitet...
+     */
+    @Test
+    public void inTime()
+    {
+        final EdgeCoalescer coalescer = new EdgeCoalescer(edge ->
+        {
+            this.processed.add(edge);
+            this.now += PERIOD_NANOS / 4L;
+        }, PERIOD_NANOS, () -> this.now);
+        for (long index = 0; index < 100; index++)
+        {
+            this.now = index * PERIOD_NANOS;
+            coalescer.onEdge(edge(index));
+        }
+        assertEquals(100, this.processed.size());
+        assertEquals(100L, coalescer.getCycles());
+        assertEquals(0L, coalescer.getSkipped());
+        assertEquals(0L, coalescer.getOverruns());
+    }
+
+    /**
+     * coalescing() - waehrend eines zu langen Taktes treffen drei Flanken ein,
+     * danach wird nur die neueste verarbeitet...
+     */
+    @Test
+    public void coalescing()
+    {
+        final EdgeCoalescer[] coalescer = new EdgeCoalescer[1];
+        coalescer[0] = new EdgeCoalescer(edge ->
+        {
+            this.processed.add(edge);
+            if (this.processed.size() == 1)
+            {
+                // Flanken waehrend des Taktes (anderer Listener-Thread)...
+                for (long index = 1; index <= 3; index++)
+                {
+                    this.now = index * PERIOD_NANOS;
+                    coalescer[0].onEdge(edge(index));
+                }
+            }
+            this.now += PERIOD_NANOS / 4L;
+        }, PERIOD_NANOS, () -> this.now);
+        coalescer[0].onEdge(edge(0L));
+        assertEquals(2, this.processed.size());
+        assertEquals(edge(3L), this.processed.get(1));
+        assertEquals(2L, coalescer[0].getCoalesced());
+        assertEquals(1L, coalescer[0].getOverruns());
+        assertEquals(4L, coalescer[0].getEdges());
+    }
+
+    /**
+     * stale() - Flanken aus dem Rueckstau direkt nach einem Takt werden verworfen...
+     */
+    @Test
+    public void stale()
+    {
+        final EdgeCoalescer coalescer = new EdgeCoalescer(this.processed::add, PERIOD_NANOS, () -> this.now);
+        coalescer.onEdge(edge(0L));
+        this.now = PERIOD_NANOS / 10L;
+        coalescer.onEdge(edge(1L));
+        this.now = PERIOD_NANOS;
+        coalescer.onEdge(edge(2L));
+        assertEquals(2, this.processed.size());
+        assertEquals(1L, coalescer.getStale());
+        assertEquals(1L, coalescer.getSkipped());
+    }
+
+    /**
+     * measuredPeriod() - der Arduino taktet mit 30ms statt des Ausgangswertes
+     * 20ms: die Periode folgt der Messung, eine Flanke aus dem Rueckstau 12ms
+     * nach dem Takt wird danach als stale erkannt...
+     */
+    @Test
+    public void measuredPeriod()
+    {
+        final long period = 3L * PERIOD_NANOS / 2L;
+        final EdgeCoalescer coalescer = new EdgeCoalescer(this.processed::add, PERIOD_NANOS, () -> this.now);
+        long index = 0L;
+        for (; index < 200L; index++)
+        {
+            this.now = index * period;
+            coalescer.onEdge(Instant.ofEpochSecond(0L, this.now));
+        }
+        assertEquals(period, coalescer.getPeriodNanos(), period / 100L);
+        assertEquals(0L, coalescer.getSkipped());
+        this.now = (index - 1L) * period + 12000000L;
+        coalescer.onEdge(Instant.ofEpochSecond(0L, this.now));
+        assertEquals(1L, coalescer.getStale());
+    }
+
+    /**
+     * noLockIn() - laengere Ueberlaeufe (Flanken waehrend des Taktes werden
+     * zusammengefasst) und eine Pause des Taktes verschieben die Periode
+     * nicht, danach wird wieder jede Flanke verarbeitet...
+     */
+    @Test
+    public void noLockIn()
+    {
+        final long[] busyNanos = {3L * PERIOD_NANOS / 2L};
+        final long[] next = {0L};
+        final long[] limit = {200L};
+        final EdgeCoalescer[] coalescer = new EdgeCoalescer[1];
+        coalescer[0] = new EdgeCoalescer(edge ->
+        {
+            this.processed.add(edge);
+            this.now += busyNanos[0];
+            // Flanken waehrend des Taktes (anderer Listener-Thread)...
+            while (next[0] < limit[0] && next[0] * PERIOD_NANOS <= this.now)
+            {
+                coalescer[0].onEdge(edge(next[0]++));
+            }
+        }, PERIOD_NANOS, () -> this.now);
+        // Ueberlauf: ein Takt dauert 1.5 Perioden...
+        while (next[0] < limit[0])
+        {
+            this.now = Math.max(this.now, next[0] * PERIOD_NANOS);
+            coalescer[0].onEdge(edge(next[0]++));
+        }
+        assertTrue(coalescer[0].getCoalesced() > 0L, "kein Ueberlauf: " + coalescer[0]);
+        assertEquals(PERIOD_NANOS, coalescer[0].getPeriodNanos(), PERIOD_NANOS / 100L);
+        // Pause des Taktes (Arduino angehalten), danach Takte ohne Ueberlauf...
+        next[0] += 500L;
+        limit[0] = next[0] + 100L;
+        busyNanos[0] = PERIOD_NANOS / 4L;
+        final long cycles = coalescer[0].getCycles();
+        while (next[0] < limit[0])
+        {
+            this.now = Math.max(this.now, next[0] * PERIOD_NANOS);
+            coalescer[0].onEdge(edge(next[0]++));
+        }
+        assertEquals(PERIOD_NANOS, coalescer[0].getPeriodNanos(), PERIOD_NANOS / 100L);
+        assertEquals(100L, coalescer[0].getCycles() - cycles);
+    }
+
+    /**
+     * singleOverrun() - ein Takt dauert 1.6 Perioden, danach kurze Takte: die
+     * waehrend des Ueberlaufs vorgemerkte Flanke wird verspaetet verarbeitet,
+     * die folgende puenktliche Flanke nicht als stale verworfen...
+     */
+    @Test
+    public void singleOverrun()
+    {
+        final long[] next = {0L};
+        final long limit = 100L;
+        final EdgeCoalescer[] coalescer = new EdgeCoalescer[1];
+        coalescer[0] = new EdgeCoalescer(edge ->
+        {
+            this.processed.add(edge);
+            final long end = this.now + ((this.processed.size() == 4)? 8L * PERIOD_NANOS / 5L : PERIOD_NANOS / 4L);
+            // Flanken treffen waehrend des Taktes puenktlich ein (anderer Listener-Thread)...
+            while (next[0] < limit && next[0] * PERIOD_NANOS <= end)
+            {
+                this.now = next[0] * PERIOD_NANOS;
+                coalescer[0].onEdge(edge(next[0]++));
+            }
+            this.now = end;
+        }, PERIOD_NANOS, () -> this.now);
+        while (next[0] < limit)
+        {
+            this.now = Math.max(this.now, next[0] * PERIOD_NANOS);
+            coalescer[0].onEdge(edge(next[0]++));
+        }
+        assertEquals(1L, coalescer[0].getOverruns(), coalescer[0].toString());
+        assertEquals(0L, coalescer[0].getStale(), coalescer[0].toString());
+        assertEquals(0L, coalescer[0].getSkipped(), coalescer[0].toString());
+        assertEquals(limit, this.processed.size());
+        for (int index = 0; index < limit; index++)
+        {
+            assertEquals(edge(index), this.processed.get(index));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * EncoderCapacityTest - hoechste Rate der Flanken, die der EncoderPoller
+ * ohne Verlust zaehlt, gemessen mit einem nachgebildeten Drehgeber.
+ * <p>
+ * Der Drehgeber (Flankengenerator) ist eine Funktion der Zeit: im
+ * Schritt floor(t * rate) liegt der Quadratur-Zustand im Level-Register.
+ * Jede Abfrage des EncoderPoller liest damit den aktuellen Zustand, ohne
+ * zweiten Thread (auch auf einem Kern). Je Versuch wird MEASURE_NANOS lang
+ * abgefragt, verlustfrei ist ein Versuch, wenn keine Flanke verpasst wurde
+ * und der Zaehler dem Schritt entspricht. Eine Unterbrechung durch das
+ * Betriebssystem verliert Flanken unabhaengig von der Rate, daher gilt
+ * eine Rate als verlustfrei, wenn einer von ATTEMPTS Versuchen verlustfrei
+ * ist. Die Abfrage der Zeit im Generator kostet zusaetzlich, das Ergebnis
+ * ist also eine untere Grenze.
+ * </p>
+ * <p>
+ * Die Mindestrate ist einstellbar ueber -Dgui.test.minEdgeRate=... (Flanken/s).
+ * Ausfuehrung mit ant benchmark (Tag "benchmark", nicht in ant test).
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+@Tag("benchmark")
+public class EncoderCapacityTest
+{
+    /**
+     * MIN_EDGE_RATE - geforderte Rate ohne Verlust (Flanken/s)
+     */
+    private final static long MIN_EDGE_RATE = Long.getLong("gui.test.minEdgeRate", 10000L).longValue();
+
+    /**
+     * RATES - gemessene Raten (Flanken/s)
+     */
+    private final static long[] RATES = {10000L, 20000L, 50000L, 100000L, 200000L, 500000L, 1000000L, 2000000L, 5000000L};
+
+    /**
+     * MEASURE_NANOS = 20ms - Dauer je Versuch
+     */
+    private final static long MEASURE_NANOS = 20000000L;
+
+    /**
+     * ATTEMPTS - Versuche je Rate
+     */
+    private final static int ATTEMPTS = 5;
+
+    /**
+     * FORWARD - Zustaende (A &lt;&lt; 1) | B vorwaerts: 00 - 10 - 11 - 01
+     */
+    private final static int[] FORWARD = {0, 2, 3, 1};
+
+    /**
+     * measure(long rate) - ein Versuch mit einer Rate...
+     * @return true, wenn verlustfrei
+     */
+    private static boolean measure(long rate)
+    {
+        final long start = System.nanoTime();
+        // Flankengenerator: Pin 0 = B, Pin 1 = A...
+        final QuadratureCounter counter = new QuadratureCounter(1, 0);
+        final EncoderPoller poller = new EncoderPoller(() -> FORWARD[(int) (((System.nanoTime() - start) * rate / 1000000000L) & 3L)],
+                                                       Collections.singletonList(counter));
+        long polls = 0L;
+        long now;
+        while ((now = System.nanoTime()) - start < MEASURE_NANOS)
+        {
+            poller.poll();
+            polls++;
+        }
+        final long steps = (now - start) * rate / 1000000000L;
+        final boolean isLossless = (counter.getErrors() == 0L) && (Math.abs(counter.getCount() - steps) <= 1L);
+        System.out.println("EncoderCapacityTest: " + rate + " Flanken/s, " + polls + " Abfragen, Zaehler "
+                         + counter.getCount() + " von " + steps + ", verpasst " + counter.getErrors()
+                         + (isLossless? "" : " - Verlust"));
+        return isLossless;
+    }
+
+    /**
+     * edgeRateCapacity() - hoechste verlustfreie Rate...
+     */
+    @Test
+    public void edgeRateCapacity()
+    {
+        // Aufwaermen (JIT)...
+        for (int index = 0; index < 10; index++)
+        {
+            measure(RATES[0]);
+        }
+        long capacity = 0L;
+        for (long rate: RATES)
+        {
+            boolean isLossless = false;
+            for (int attempt = 0; attempt < ATTEMPTS && !isLossless; attempt++)
+            {
+                isLossless = measure(rate);
+            }
+            if (!isLossless)
+            {
+                break;
+            }
+            capacity = rate;
+        }
+        System.out.println("EncoderCapacityTest: verlustfrei bis " + capacity + " Flanken/s");
+        assertTrue(capacity >= MIN_EDGE_RATE, "verlustfrei bis " + capacity + " Flanken/s < " + MIN_EDGE_RATE);
+    }
+}
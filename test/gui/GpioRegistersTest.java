@@ -0,0 +1,93 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * GpioRegistersTest - Einblendung des Registerblockes aus einem Geraet
+ * (Groesse 0, wie /dev/gpiomem) und aus der Nachbildung (Datei).
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class GpioRegistersTest
+{
+    /**
+     * DEVICE_PATH = "/dev/zero" - zeichenorientiertes Geraet mit mmap(),
+     * Groesse 0 wie /dev/gpiomem (FileChannel.map() scheitert hier)
+     */
+    private final static Path DEVICE_PATH = Paths.get("/dev/zero");
+
+    /**
+     * device() - ein Geraet der Groesse 0 wird ueber mmap() eingeblendet...
+     */
+    @Test
+    public void device() throws IOException
+    {
+        assumeTrue(Files.exists(DEVICE_PATH), DEVICE_PATH + " not available");
+        final GpioRegisters registers = GpioRegisters.map(DEVICE_PATH);
+        assertTrue(registers.isDevice(), registers.toString());
+        assertEquals(0, registers.getLevels());
+        // Das Level-Register eines Geraetes ist nur lesbar...
+        assertThrows(IllegalStateException.class, () -> registers.setLevels(1));
+    }
+
+    /**
+     * missing() - ein fehlender Pfad scheitert beim Einblenden (keine Datei anlegen)...
+     */
+    @Test
+    public void missing() throws IOException
+    {
+        final Path directory = Files.createTempDirectory("gpiomem");
+        try
+        {
+            final Path path = directory.resolve("gpiomem");
+            assertThrows(NoSuchFileException.class, () -> GpioRegisters.map(path));
+            assertFalse(Files.exists(path));
+        }
+        finally
+        {
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * simulation() - Nachbildung: Pegel ueber setLevels() vorgeben, der
+     * GpioMemPoller und der EncoderPoller lesen denselben Block...
+     */
+    @Test
+    public void simulation() throws IOException
+    {
+        final Path path = Files.createTempFile("gpiomem", ".bin");
+        try
+        {
+            final GpioRegisters registers = GpioRegisters.map(path);
+            assertFalse(registers.isDevice(), registers.toString());
+            assertEquals(GpioRegisters.BLOCK_SIZE, Files.size(path));
+            final GpioMemPoller poller = new GpioMemPoller(path, 23, now -> {});
+            assertFalse(poller.isHigh());
+            registers.setLevels(1 << 23);
+            assertTrue(poller.isHigh());
+            poller.setLevel(false);
+            assertEquals(0, registers.getLevels());
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+}
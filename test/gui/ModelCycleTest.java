@@ -0,0 +1,189 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ModelCycleTest - Invarianten des Taktes (Model.doCycle()) an der
+ * simulierten Regelstrecke mit virtueller Uhr (Simulation).
+ * <p>
+ * Je Test werden CYCLES Takte (20ms, also CYCLES/50 s) simuliert, bei
+ * 60 1/min sind das einige tausend Flanken je Motor.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class ModelCycleTest
+{
+    /**
+     * CYCLES = 20000 - Anzahl der Takte je Test (400 s virtuelle Zeit)
+     */
+    private final static int CYCLES = 20000;
+
+    /**
+     * DESTINATION = 60 1/min - Sollwert beider Motoren
+     */
+    private final static BigDecimal DESTINATION = BigDecimal.valueOf(60L).setScale(Model.SCALE_DESTINATION);
+
+    /**
+     * lastData - zuletzt veroeffentlichte Data
+     */
+    private Data lastData = null;
+
+    /**
+     * start(RecordingPlant plant) - Simulation mit Regelung, Sollwert DESTINATION...
+     */
+    private Simulation start(RecordingPlant plant)
+    {
+        final Simulation simulation = new Simulation(plant, Simulation.DEFAULT_CYCLE_TIME);
+        final Model model = simulation.getModel();
+        model.addPropertyChangeListener(event ->
+        {
+            if (Model.DATA_KEY.equals(event.getPropertyName()) && event.getNewValue() instanceof Data)
+            {
+                this.lastData = (Data) event.getNewValue();
+            }
+        });
+        model.setProperty(Model.MAX_VALUE_MA_KEY, Model.MX_MAX_VALUES[0]);
+        model.setProperty(Model.MAX_VALUE_MB_KEY, Model.MX_MAX_VALUES[0]);
+        model.setProperty(Model.CONTROL_KEY, Boolean.TRUE);
+        model.setProperty(Model.DESTINATION_MA_KEY, DESTINATION);
+        model.setProperty(Model.DESTINATION_MB_KEY, DESTINATION);
+        model.doStart();
+        return simulation;
+    }
+
+    /**
+     * tokenSequence() - ein Austausch je Takt, token-Folge ohne Luecke,
+     * der token der Data folgt dem Austausch...
+     */
+    @Test
+    public void tokenSequence()
+    {
+        final RecordingPlant plant = new RecordingPlant(SimulatedPlant.DEFAULT_MAX_RPM, 0, 0);
+        start(plant).run(CYCLES);
+        assertEquals(0L, plant.getTokenErrors(), plant.getFirstTokenError());
+        assertEquals(CYCLES, plant.getExchanges());
+        assertEquals(1L, plant.getInitials());
+        assertNotNull(this.lastData);
+        // Data zeigt den token nach dem Austausch des vorigen Taktes (INITIAL: 0 -> 1)...
+        assertEquals(Data.getTokenAsString(CYCLES - 1), this.lastData.getToken());
+    }
+
+    /**
+     * numberAccumulation() - numberMA/numberMB ist die Summe der Zuwaechse
+     * der Zaehler des Arduino (Vorwaertsfahrt, keine Impulse verloren)...
+     */
+    @Test
+    public void numberAccumulation()
+    {
+        final RecordingPlant plant = new RecordingPlant(SimulatedPlant.DEFAULT_MAX_RPM, 0, 0);
+        start(plant).run(CYCLES);
+        // Data zeigt die Lage nach dem Austausch des vorigen Taktes...
+        assertEquals(plant.getNumberMA(false), this.lastData.getNumberMA().longValue());
+        assertEquals(plant.getNumberMB(false), this.lastData.getNumberMB().longValue());
+        // Einige tausend Flanken, Istlage folgt der Solllage...
+        assertTrue(this.lastData.getNumberMA().longValue() > 1000L, "numberMA " + this.lastData.getNumberMA());
+        assertTrue(Math.abs(this.lastData.getNumberDestinationMA().longValue() - this.lastData.getNumberMA().longValue()) <= Model.CIRCUMFERENCE,
+                   "Soll/Ist Motor A: " + this.lastData);
+        assertTrue(Math.abs(this.lastData.getNumberDestinationMB().longValue() - this.lastData.getNumberMB().longValue()) <= Model.CIRCUMFERENCE,
+                   "Soll/Ist Motor B: " + this.lastData);
+    }
+
+    /**
+     * resynchronisation() - wiederholt gescheiterte Austausche: token-Folge
+     * ab INITIAL neu, die Lage bleibt monoton und folgt weiter der Solllage...
+     */
+    @Test
+    public void resynchronisation()
+    {
+        // Alle 1000 Austausche scheitern 8 in Folge (Fehler-Episode)...
+        final RecordingPlant plant = new RecordingPlant(SimulatedPlant.DEFAULT_MAX_RPM, 1000, 8);
+        final Simulation simulation = start(plant);
+        long numberMA = 0L;
+        for (int index = 0; index < CYCLES / 100; index++)
+        {
+            simulation.run(100);
+            assertTrue(this.lastData.getNumberMA().longValue() >= numberMA, "numberMA faellt: " + this.lastData);
+            numberMA = this.lastData.getNumberMA().longValue();
+        }
+        assertEquals(0L, plant.getTokenErrors(), plant.getFirstTokenError());
+        assertTrue(plant.getFailures() > 0L, "keine Fehler simuliert");
+        assertTrue(plant.getInitials() > 1L, "keine Resynchronisation: " + plant.getInitials());
+        assertTrue(Math.abs(this.lastData.getNumberDestinationMA().longValue() - this.lastData.getNumberMA().longValue()) <= Model.CIRCUMFERENCE,
+                   "Soll/Ist Motor A: " + this.lastData);
+    }
+
+    /**
+     * failSafe() - nach dem Fail-Safe des CycleWatchdog und einer Ausfallzeit
+     * holt die Regelung die Ausfallzeit nicht nach: Lagesollwert auf der
+     * Istlage, Resynchronisation ab INITIAL...
+     */
+    @Test
+    public void failSafe()
+    {
+        final RecordingPlant plant = new RecordingPlant(SimulatedPlant.DEFAULT_MAX_RPM, 0, 0);
+        final Simulation simulation = start(plant);
+        final Model model = simulation.getModel();
+        simulation.run(500);
+        model.doFailSafe();
+        simulation.pause(java.time.Duration.ofSeconds(5L));
+        // Takt nach der Ausfallzeit: kein Zuwachs des Lagesollwertes...
+        simulation.run(1);
+        assertEquals(this.lastData.getNumberMA(), this.lastData.getNumberDestinationMA(), "Soll/Ist Motor A: " + this.lastData);
+        assertEquals(this.lastData.getNumberMB(), this.lastData.getNumberDestinationMB(), "Soll/Ist Motor B: " + this.lastData);
+        final long initials = plant.getInitials();
+        simulation.run(5);
+        assertTrue(plant.getInitials() > initials, "keine Resynchronisation: " + plant.getInitials());
+        assertTrue(Math.abs(this.lastData.getNumberDestinationMA().longValue() - this.lastData.getNumberMA().longValue()) <= 2L,
+                   "Soll/Ist Motor A: " + this.lastData);
+        assertTrue(Math.abs(this.lastData.getOutputMA().doubleValue()) < Model.MX_MAX_VALUES[0].doubleValue(),
+                   "Stellgroesse Motor A an der Grenze: " + this.lastData);
+        // Danach folgt die Istlage wieder der Solllage...
+        simulation.run(500);
+        assertTrue(Math.abs(this.lastData.getNumberDestinationMA().longValue() - this.lastData.getNumberMA().longValue()) <= Model.CIRCUMFERENCE,
+                   "Soll/Ist Motor A: " + this.lastData);
+    }
+
+    /**
+     * resume() - Warmstart mit Beobachter: die geregelte Lage ist die
+     * uebernommene Lage, im Stillstand keine Stellgroesse, keine Fahrt...
+     */
+    @Test
+    public void resume()
+    {
+        final long number = 5000L;
+        final Simulation simulation = new Simulation(new SimulatedPlant(), Simulation.DEFAULT_CYCLE_TIME);
+        final Model model = simulation.getModel();
+        model.addPropertyChangeListener(event ->
+        {
+            if (Model.DATA_KEY.equals(event.getPropertyName()) && event.getNewValue() instanceof Data)
+            {
+                this.lastData = (Data) event.getNewValue();
+            }
+        });
+        model.setProperty(Model.MAX_VALUE_MA_KEY, Model.MX_MAX_VALUES[0]);
+        model.setProperty(Model.MAX_VALUE_MB_KEY, Model.MX_MAX_VALUES[0]);
+        model.setProperty(Model.ENHANCEMENT_KEY, new BigDecimal("0.400"));
+        model.setProperty(Model.CONTROL_KEY, Boolean.TRUE);
+        model.setProperty(Model.OBSERVER_KEY, Boolean.TRUE);
+        assertTrue(model.doResume(new ControlCheckpoint.State(0L, number, number,
+                                                              BigDecimal.valueOf(number), BigDecimal.valueOf(number),
+                                                              0.0, 0.0, 0.0, System.currentTimeMillis())));
+        model.doStart();
+        simulation.run(30);
+        assertEquals(number, this.lastData.getNumberMA().longValue(), "Motor A: " + this.lastData);
+        assertEquals(number, this.lastData.getNumberMB().longValue(), "Motor B: " + this.lastData);
+        assertEquals(0, BigDecimal.ZERO.compareTo(this.lastData.getOutputMA()), "Stellgroesse Motor A: " + this.lastData);
+        assertEquals(0, BigDecimal.ZERO.compareTo(this.lastData.getOutputMB()), "Stellgroesse Motor B: " + this.lastData);
+    }
+}
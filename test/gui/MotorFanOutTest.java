@@ -0,0 +1,189 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * MotorFanOutTest - Ausgabe der Stellgroessen auf mehrere MotorDriverHAT,
+ * Aufzeichnung der Transaktionen (Bus).
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class MotorFanOutTest
+{
+    /**
+     * AXES - 8 Motoren auf 4 HAT
+     */
+    private final static List<MotorFanOut.Axis> AXES = Arrays.asList(MotorFanOut.Axis.parse("0x40:A"),
+                                                                      MotorFanOut.Axis.parse("0x40:B"),
+                                                                      MotorFanOut.Axis.parse("0x41:A"),
+                                                                      MotorFanOut.Axis.parse("0x41:B"),
+                                                                      MotorFanOut.Axis.parse("0x42:A"),
+                                                                      MotorFanOut.Axis.parse("0x42:B"),
+                                                                      MotorFanOut.Axis.parse("0x5f:A"),
+                                                                      MotorFanOut.Axis.parse("0x5f:B"));
+
+    /**
+     * writes - aufgezeichnete Transaktionen: Adresse, Register, Daten
+     */
+    private final List<int[]> writes = new ArrayList<>();
+
+    /**
+     * failAddress - Adresse, deren Transaktionen scheitern (-1: keine)
+     */
+    private int failAddress = -1;
+
+    /**
+     * bus - Aufzeichnung...
+     */
+    private final MotorFanOut.Bus bus = (address, register, buffer, offset, size) ->
+    {
+        if (address == this.failAddress)
+        {
+            throw new IOException("simulierter Fehler 0x" + Integer.toHexString(address));
+        }
+        final int[] write = new int[2 + size];
+        write[0] = address;
+        write[1] = register;
+        for (int index = 0; index < size; index++)
+        {
+            write[2 + index] = buffer[offset + index] & 0xFF;
+        }
+        this.writes.add(write);
+    };
+
+    /**
+     * minimalTransactions() - je geaendertem HAT eine Transaktion, nur ueber
+     * die geaenderten Kanaele, unveraenderte HAT werden nicht angesprochen...
+     */
+    @Test
+    public void minimalTransactions() throws IOException
+    {
+        final MotorFanOut fanOut = new MotorFanOut(this.bus, AXES);
+        fanOut.flush();
+        // Ausgangszustand: alle 6 Kanaele je HAT...
+        assertEquals(4, this.writes.size());
+        for (int[] write: this.writes)
+        {
+            assertEquals(0x06, write[1]);
+            assertEquals(2 + 24, write.length);
+        }
+        this.writes.clear();
+
+        // Keine Aenderung: keine Transaktion...
+        for (int axis = 0; axis < AXES.size(); axis++)
+        {
+            fanOut.set(axis, 0.0F);
+        }
+        fanOut.flush();
+        assertEquals(0, this.writes.size());
+
+        // Nur Motor A an 0x41 vorwaerts: PWM (Kanal 0) und IN1 (Kanal 1), IN2 bleibt aus...
+        fanOut.set(2, 0.5F);
+        fanOut.flush();
+        assertEquals(1, this.writes.size());
+        assertEquals(0x41, this.writes.get(0)[0]);
+        assertEquals(0x06, this.writes.get(0)[1]);
+        assertEquals(2 + 8, this.writes.get(0).length);
+        this.writes.clear();
+
+        // Alle Motoren: eine Transaktion je HAT...
+        for (int axis = 0; axis < AXES.size(); axis++)
+        {
+            fanOut.set(axis, -0.25F);
+        }
+        fanOut.flush();
+        assertEquals(4, this.writes.size());
+        assertEquals(4L + 1L + 4L, fanOut.getTransactions());
+    }
+
+    /**
+     * encoding() - PWM und Drehrichtung in den Registern des PCA9685...
+     */
+    @Test
+    public void encoding() throws IOException
+    {
+        final MotorFanOut fanOut = new MotorFanOut(this.bus, AXES.subList(0, 2));
+        fanOut.flush();
+        this.writes.clear();
+        // Motor B rueckwaerts 50%: IN1 (Kanal 3) bleibt aus, geschrieben werden
+        // IN2 (Kanal 4) und PWM (Kanal 5)...
+        fanOut.set(1, -0.5F);
+        fanOut.flush();
+        final int[] write = this.writes.get(0);
+        assertEquals(0x06 + 4 * 4, write[1]);
+        assertEquals(2 + 8, write.length);
+        // IN2 dauernd an (LED4_ON_H Bit 4)...
+        assertEquals(0x10, write[2 + 1]);
+        assertEquals(0, write[2 + 3]);
+        // PWM: ON 0, OFF 2048...
+        assertEquals(0, write[2 + 4] | write[2 + 5]);
+        assertEquals(2048, write[2 + 6] | (write[2 + 7] << 8));
+    }
+
+    /**
+     * failure() - ein scheiternder HAT bleibt vorgemerkt, die uebrigen werden geschrieben...
+     */
+    @Test
+    public void failure() throws IOException
+    {
+        final MotorFanOut fanOut = new MotorFanOut(this.bus, AXES);
+        fanOut.flush();
+        this.writes.clear();
+        for (int axis = 0; axis < AXES.size(); axis++)
+        {
+            fanOut.set(axis, 1.0F);
+        }
+        this.failAddress = 0x41;
+        assertThrows(IOException.class, () -> fanOut.flush());
+        assertEquals(3, this.writes.size());
+        this.writes.clear();
+        this.failAddress = -1;
+        fanOut.flush();
+        assertEquals(1, this.writes.size());
+        assertEquals(0x41, this.writes.get(0)[0]);
+        assertEquals(1L, fanOut.getErrors());
+    }
+
+    /**
+     * multiModulePlant() - im Takt wird erst mit endCycle() gemeinsam
+     * ausgegeben, ausserhalb sofort...
+     */
+    @Test
+    public void multiModulePlant() throws IOException
+    {
+        final List<MultiModulePlant.Module> modules = Arrays.asList(new MultiModulePlant.Module(0x08, 0x40, new SimulatedPlant()),
+                                                                    new MultiModulePlant.Module(0x09, 0x41, new SimulatedPlant()));
+        final MotorFanOut fanOut = new MotorFanOut(this.bus, AXES.subList(0, 4));
+        final MultiModulePlant plant = new MultiModulePlant(new I2CBusScheduler(), modules, Simulation.DEFAULT_CYCLE_TIME.toNanos(), fanOut);
+        fanOut.flush();
+        this.writes.clear();
+
+        plant.exchange(0L, ArduinoI2C.Status.INITIAL);
+        plant.setPwmMA(0.5F);
+        plant.setPwmMB(0.5F);
+        modules.get(1).setPwm(0.5F, 0.5F);
+        assertEquals(0, this.writes.size());
+        plant.endCycle();
+        // Modul 1 nach INITIAL synchronisiert: beide HAT in einem Schritt...
+        assertEquals(2, this.writes.size());
+        this.writes.clear();
+
+        // Ausserhalb des Taktes (doStop()): sofort...
+        plant.setPwmMA(0.0F);
+        assertEquals(1, this.writes.size());
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * PositionControllerTest - Begrenzung der Stellgroessen im PositionController.
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class PositionControllerTest
+{
+    /**
+     * ENHANCEMENT = 0.5 - Reglerverstaerkung
+     */
+    private final static BigDecimal ENHANCEMENT = new BigDecimal("0.500");
+
+    /**
+     * controller - Pruefling
+     */
+    private PositionController controller;
+
+    @BeforeEach
+    public void setUp()
+    {
+        this.controller = new PositionController(Model.CIRCUMFERENCE);
+        this.controller.setEnhancement(ENHANCEMENT);
+    }
+
+    /**
+     * limitClamping() - bei beliebiger Regeldifferenz ist der Betrag der
+     * Stellgroesse hoechstens die Limitierung, das Vorzeichen folgt der Regeldifferenz
+     * (ohne Gleichlaufregelung, Limitierung &gt; 0)...
+     */
+    @Test
+    public void limitClamping()
+    {
+        final Random random = new Random(4711L);
+        for (int index = 0; index < 100000; index++)
+        {
+            final BigDecimal maxValueMA = Model.MX_MAX_VALUES[random.nextInt(Model.MX_MAX_VALUES.length)];
+            final BigDecimal maxValueMB = Model.MX_MAX_VALUES[random.nextInt(Model.MX_MAX_VALUES.length)];
+            final long diffMA = random.nextInt(20001) - 10000;
+            final long diffMB = random.nextInt(20001) - 10000;
+            this.controller.setSync(random.nextBoolean());
+            this.controller.setSyncEnhancement(Model.ENHANCEMENTS[random.nextInt(Model.ENHANCEMENTS.length)]);
+            final PositionController.Output output = this.controller.doControl(diffMA, 0L, diffMB, 0L,
+                                                                               BigDecimal.ZERO, BigDecimal.ZERO,
+                                                                               maxValueMA, maxValueMB);
+            assertTrue(output.getOutputMA().abs().compareTo(maxValueMA) <= 0, "Motor A: " + output + " " + maxValueMA);
+            assertTrue(output.getOutputMB().abs().compareTo(maxValueMB) <= 0, "Motor B: " + output + " " + maxValueMB);
+            if (!this.controller.isSync() && Math.abs(diffMA) > Model.CIRCUMFERENCE && maxValueMA.signum() > 0)
+            {
+                assertEquals(Long.signum(diffMA), output.getOutputMA().signum(), "Vorzeichen Motor A: " + output);
+            }
+        }
+    }
+
+    /**
+     * noClampingWithinLimit() - innerhalb der Limitierung gilt Vorgabe plus P-Anteil...
+     */
+    @Test
+    public void noClampingWithinLimit()
+    {
+        final BigDecimal destinationOutput = new BigDecimal("0.500");
+        final PositionController.Output output = this.controller.doControl(2L, 0L, -2L, 0L,
+                                                                           destinationOutput, destinationOutput,
+                                                                           Model.MX_MAX_VALUES[0], Model.MX_MAX_VALUES[0]);
+        assertTrue(output.getOutputMA().compareTo(destinationOutput) > 0, "Motor A: " + output);
+        assertTrue(output.getOutputMB().compareTo(destinationOutput) < 0, "Motor B: " + output);
+        assertEquals(0, output.getOutputMA().add(output.getOutputMB()).compareTo(destinationOutput.add(destinationOutput)),
+                     "symmetrisch: " + output);
+    }
+
+    /**
+     * clampingAtLimit() - die Begrenzung liefert genau die Limitierung...
+     */
+    @Test
+    public void clampingAtLimit()
+    {
+        final BigDecimal maxValue = new BigDecimal("0.50");
+        final PositionController.Output output = this.controller.doControl(10000L, 0L, -10000L, 0L,
+                                                                           BigDecimal.ZERO, BigDecimal.ZERO,
+                                                                           maxValue, maxValue);
+        assertEquals(0, output.getOutputMA().compareTo(maxValue), "Motor A: " + output);
+        assertEquals(0, output.getOutputMB().compareTo(maxValue.negate()), "Motor B: " + output);
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * QuadratureCounterTest - Richtungserkennung und verpasste Flanken.
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class QuadratureCounterTest
+{
+    /**
+     * PIN_A/PIN_B - Spuren im Level-Register
+     */
+    private final static int PIN_A = 5;
+    private final static int PIN_B = 6;
+
+    /**
+     * FORWARD - Zustaende (A, B) vorwaerts: 00 - 10 - 11 - 01
+     */
+    private final static int[][] FORWARD = {{0, 0}, {1, 0}, {1, 1}, {0, 1}};
+
+    /**
+     * levels(int step) - Level-Register im Schritt step (negativ: rueckwaerts)...
+     */
+    private static int levels(long step)
+    {
+        final int[] state = FORWARD[(int) Math.floorMod(step, 4L)];
+        return (state[0] << PIN_A) | (state[1] << PIN_B) | 0x80000001;
+    }
+
+    /**
+     * forwardBackward() - jede Flanke wird mit Richtung gezaehlt...
+     */
+    @Test
+    public void forwardBackward()
+    {
+        final QuadratureCounter counter = new QuadratureCounter(PIN_A, PIN_B);
+        counter.init(levels(0L));
+        for (long step = 1L; step <= 1000L; step++)
+        {
+            counter.sample(levels(step));
+        }
+        assertEquals(1000L, counter.getCount());
+        for (long step = 999L; step >= -250L; step--)
+        {
+            counter.sample(levels(step));
+        }
+        assertEquals(-250L, counter.getCount());
+        assertEquals(0L, counter.getErrors());
+    }
+
+    /**
+     * missedEdge() - Sprung ueber zwei Zustaende wird nicht gezaehlt...
+     */
+    @Test
+    public void missedEdge()
+    {
+        final QuadratureCounter counter = new QuadratureCounter(PIN_A, PIN_B);
+        counter.init(levels(0L));
+        counter.sample(levels(1L));
+        counter.sample(levels(3L));
+        assertEquals(1L, counter.getCount());
+        assertEquals(1L, counter.getErrors());
+        // Danach wieder synchron...
+        counter.sample(levels(4L));
+        assertEquals(2L, counter.getCount());
+    }
+
+    /**
+     * listeners() - Flanken je Spur (onA/onB) wie ueber das Level-Register...
+     */
+    @Test
+    public void listeners()
+    {
+        final QuadratureCounter counter = new QuadratureCounter(PIN_A, PIN_B);
+        for (int index = 0; index < 100; index++)
+        {
+            counter.onA(true);
+            counter.onB(true);
+            counter.onA(false);
+            counter.onB(false);
+        }
+        assertEquals(400L, counter.getCount());
+        // Rueckwaerts: B eilt A voraus...
+        counter.onB(true);
+        counter.onA(true);
+        assertEquals(398L, counter.getCount());
+        // Gleicher Pegel erneut: keine Flanke...
+        counter.onA(true);
+        assertEquals(398L, counter.getCount());
+        assertEquals(0L, counter.getErrors());
+    }
+
+    /**
+     * poller() - EncoderPoller zieht nur die Zaehler der geaenderten Spuren nach...
+     */
+    @Test
+    public void poller()
+    {
+        final long[] step = {0L};
+        final QuadratureCounter counterA = new QuadratureCounter(PIN_A, PIN_B);
+        final QuadratureCounter counterB = new QuadratureCounter(7, 8);
+        final EncoderPoller poller = new EncoderPoller(() -> levels(step[0]), Arrays.asList(counterA, counterB));
+        for (int index = 0; index < 100; index++)
+        {
+            step[0]--;
+            poller.poll();
+            poller.poll();
+        }
+        assertEquals(-100L, counterA.getCount());
+        assertEquals(0L, counterB.getCount());
+        assertEquals(100L, poller.getChanges());
+    }
+
+    /**
+     * gpioMem() - EncoderPoller ueber den eingeblendeten Registerblock
+     * (EncoderPoller.gpioMem(), Nachbildung als Datei und Geraet der Groesse 0)...
+     */
+    @Test
+    public void gpioMem() throws IOException
+    {
+        final Path path = Files.createTempFile("gpiomem", ".bin");
+        try
+        {
+            final GpioRegisters registers = GpioRegisters.map(path);
+            final QuadratureCounter counter = new QuadratureCounter(PIN_A, PIN_B);
+            final EncoderPoller poller = new EncoderPoller(EncoderPoller.gpioMem(path), Arrays.asList(counter));
+            for (long step = 1L; step <= 100L; step++)
+            {
+                registers.setLevels(levels(step));
+                poller.poll();
+            }
+            assertEquals(100L, counter.getCount());
+            assertEquals(0L, counter.getErrors());
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+        // Geraet der Groesse 0 wie /dev/gpiomem (FileChannel.map() scheitert hier)...
+        final Path device = Paths.get("/dev/zero");
+        if (Files.exists(device))
+        {
+            assertEquals(0, EncoderPoller.gpioMem(device).getAsInt());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ *
+ */
+package gui;
+
+import java.io.IOException;
+
+import raspi.hardware.i2c.ArduinoI2C;
+
+/**
+ * RecordingPlant - SimulatedPlant mit Pruefung der token-Folge und
+ * Aufzeichnung der Antworten (Testhilfe).
+ * <p>
+ * Geprueft wird bei jedem exchange(): mit INITIAL muss token 0 gesendet
+ * werden, sonst der token der letzten gueltigen Antwort (auch bei einer
+ * Wiederholung). Mit failEvery/failBurst scheitern wiederholt failBurst
+ * Austausche in Folge (IOException), das Model muss dann ueber die
+ * Resynchronisation (INITIAL) neu beginnen.
+ * </p>
+ *
+ * @author Detlef Tribius
+ *
+ */
+class RecordingPlant extends SimulatedPlant
+{
+    /**
+     * failEvery/failBurst - alle failEvery Austausche scheitern failBurst in Folge (0: nie)
+     */
+    private final int failEvery;
+    private final int failBurst;
+
+    /**
+     * exchanges - Anzahl der Austausche, initials - davon mit INITIAL
+     */
+    private long exchanges = 0L;
+    private long initials = 0L;
+
+    /**
+     * failures - Anzahl der gescheiterten Austausche
+     */
+    private long failures = 0L;
+
+    /**
+     * tokenErrors - Anzahl der Verletzungen der token-Folge, firstTokenError - erste Meldung
+     */
+    private long tokenErrors = 0L;
+    private String firstTokenError = null;
+
+    /**
+     * lastToken - token der letzten gueltigen Antwort, -1: keine
+     */
+    private long lastToken = -1L;
+
+    /**
+     * numberMA/numberMB - Zaehlerstaende der letzten und der vorletzten gueltigen Antwort
+     */
+    private final int[] numberMA = new int[2];
+    private final int[] numberMB = new int[2];
+
+    /**
+     * RecordingPlant(double maxRpm, int failEvery, int failBurst)
+     * @param maxRpm - Drehzahl beider Motoren bei Stellgroesse 1.0
+     * @param failEvery - alle failEvery Austausche ... (0: kein Fehler)
+     * @param failBurst - ... scheitern failBurst Austausche in Folge
+     */
+    RecordingPlant(double maxRpm, int failEvery, int failBurst)
+    {
+        super(maxRpm, maxRpm, DEFAULT_TIME_CONSTANT, DEFAULT_DEAD_ZONE, Model.CIRCUMFERENCE);
+        this.failEvery = failEvery;
+        this.failBurst = failBurst;
+    }
+
+    @Override
+    public Response exchange(long token, ArduinoI2C.Status status) throws IOException
+    {
+        this.exchanges++;
+        if (ArduinoI2C.Status.INITIAL == status)
+        {
+            this.initials++;
+            check(token == 0L, "INITIAL mit token " + token);
+        }
+        else
+        {
+            check(token == this.lastToken, "token " + token + " gesendet, erwartet " + this.lastToken);
+        }
+        if (this.failEvery > 0 && (this.exchanges % this.failEvery) < this.failBurst)
+        {
+            this.failures++;
+            throw new IOException("simulierter Fehler " + this.exchanges);
+        }
+        final Response response = super.exchange(token, status);
+        this.lastToken = response.getToken();
+        this.numberMA[0] = this.numberMA[1];
+        this.numberMB[0] = this.numberMB[1];
+        this.numberMA[1] = response.getNumberMA();
+        this.numberMB[1] = response.getNumberMB();
+        return response;
+    }
+
+    /**
+     * check(boolean condition, String message) - Verletzung der token-Folge zaehlen...
+     */
+    private void check(boolean condition, String message)
+    {
+        if (!condition)
+        {
+            if (this.tokenErrors == 0L)
+            {
+                this.firstTokenError = "Austausch " + this.exchanges + ": " + message;
+            }
+            this.tokenErrors++;
+        }
+    }
+
+    long getExchanges()
+    {
+        return this.exchanges;
+    }
+
+    long getInitials()
+    {
+        return this.initials;
+    }
+
+    long getFailures()
+    {
+        return this.failures;
+    }
+
+    long getTokenErrors()
+    {
+        return this.tokenErrors;
+    }
+
+    String getFirstTokenError()
+    {
+        return this.firstTokenError;
+    }
+
+    /**
+     * @param last - true: letzte, false: vorletzte gueltige Antwort
+     * @return Zaehlerstand Motor A
+     */
+    int getNumberMA(boolean last)
+    {
+        return this.numberMA[last? 1 : 0];
+    }
+
+    /**
+     * @param last - true: letzte, false: vorletzte gueltige Antwort
+     * @return Zaehlerstand Motor B
+     */
+    int getNumberMB(boolean last)
+    {
+        return this.numberMB[last? 1 : 0];
+    }
+}
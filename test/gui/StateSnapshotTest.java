@@ -0,0 +1,165 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * StateSnapshotTest - Abbild der Zustandsgroessen fuer die View in einem
+ * eigenen Prozess (Schreiber und Leser je mit eigener Einblendung).
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class StateSnapshotTest
+{
+    /**
+     * tempFile() - leere Datei, wird beim Ende geloescht...
+     */
+    private static File tempFile() throws IOException
+    {
+        final File file = Files.createTempFile("snapshot", ".bin").toFile();
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * data(long value) - Data mit gleichem Wert in counter, numberMA und numberMB...
+     */
+    private static Data data(long value)
+    {
+        return new Data(value, new BigDecimal("0.020"), value, -value, value + 1L, value, value,
+                        new BigDecimal("0.500"), new BigDecimal("-0.250"), new BigDecimal("12.34"), new BigDecimal("-5.67"),
+                        new BigDecimal("100.5"), new BigDecimal("-20.5"), new BigDecimal("45.0"));
+    }
+
+    /**
+     * roundTrip() - alle Schluessel, danach nur die geaenderten...
+     */
+    @Test
+    public void roundTrip() throws IOException
+    {
+        final File file = tempFile();
+        final StateSnapshot writer = new StateSnapshot(file, true);
+        final StateSnapshot reader = new StateSnapshot(file, false);
+        final List<PropertyChangeEvent> events = new ArrayList<>();
+        assertFalse(reader.read(this, events::add));
+
+        writer.put(Model.DATA_KEY, data(4711L));
+        writer.put(Model.DIAGNOSTICS_KEY, new Diagnostics(1L, 2L, 3L, 4L, 1_500_000_000L, 250_000L, 7L, 8L, 9L));
+        writer.put(Model.GUI_STATUS_KEY, Model.GuiStatus.START);
+        writer.put(Model.DESTINATION_MA_KEY, new BigDecimal("-12.5"));
+        writer.put(Model.CONTROL_KEY, Boolean.TRUE);
+        writer.put("unknownKey", "ignored");
+        assertTrue(reader.read(this, events::add));
+        // Nur die geschriebenen Schluessel...
+        assertEquals(5, events.size());
+
+        final Data data = (Data) reader.getValue(Model.DATA_KEY);
+        final Data expected = data(4711L);
+        for (String key: expected.getKeys())
+        {
+            assertEquals(expected.getValue(key), data.getValue(key), key);
+        }
+        final Diagnostics diagnostics = (Diagnostics) reader.getValue(Model.DIAGNOSTICS_KEY);
+        assertEquals(new BigDecimal("1.500"), diagnostics.getRecoveryTime());
+        assertEquals(250L, diagnostics.getCycleJitter().longValue());
+        assertEquals(9L, diagnostics.getSkippedCycles().longValue());
+        assertEquals(Model.GuiStatus.START, reader.getValue(Model.GUI_STATUS_KEY));
+        assertEquals(new BigDecimal("-12.5"), reader.getValue(Model.DESTINATION_MA_KEY));
+        assertEquals(Boolean.TRUE, reader.getValue(Model.CONTROL_KEY));
+        assertEquals(null, reader.getValue(Model.SYNC_KEY));
+
+        // Ohne neuen Satz keine Meldung, danach nur der geaenderte Schluessel...
+        events.clear();
+        assertFalse(reader.read(this, events::add));
+        writer.put(Model.GUI_STATUS_KEY, Model.GuiStatus.STOP);
+        assertTrue(reader.read(this, events::add));
+        assertEquals(1, events.size());
+        assertEquals(Model.GUI_STATUS_KEY, events.get(0).getPropertyName());
+        assertEquals(Model.GuiStatus.START, events.get(0).getOldValue());
+        assertEquals(Model.GuiStatus.STOP, events.get(0).getNewValue());
+        // Unveraenderte Schluessel werden uebersprungen, nicht neu decodiert...
+        assertSame(data, reader.getValue(Model.DATA_KEY));
+        assertSame(diagnostics, reader.getValue(Model.DIAGNOSTICS_KEY));
+        assertEquals(new BigDecimal("-12.5"), reader.getValue(Model.DESTINATION_MA_KEY));
+        assertEquals(Boolean.TRUE, reader.getValue(Model.CONTROL_KEY));
+        events.clear();
+        writer.put(Model.CONTROL_KEY, Boolean.FALSE);
+        assertTrue(reader.read(this, events::add));
+        assertEquals(1, events.size());
+        assertEquals(Boolean.FALSE, reader.getValue(Model.CONTROL_KEY));
+        assertSame(data, reader.getValue(Model.DATA_KEY));
+    }
+
+    /**
+     * consistency() - der Leser sieht nie einen halb geschriebenen Satz...
+     */
+    @Test
+    public void consistency() throws Exception
+    {
+        final File file = tempFile();
+        final StateSnapshot writer = new StateSnapshot(file, true);
+        final StateSnapshot reader = new StateSnapshot(file, false);
+        final long last = 20000L;
+        final Thread thread = new Thread(() ->
+        {
+            for (long value = 1L; value <= last; value++)
+            {
+                writer.put(Model.DATA_KEY, data(value));
+            }
+        });
+        final long[] seen = {0L, 0L};
+        final PropertyChangeListener listener = event ->
+        {
+            final Data data = (Data) event.getNewValue();
+            final long counter = data.getCounter().longValue();
+            assertEquals(counter, data.getNumberMA().longValue());
+            assertEquals(counter, data.getNumberMB().longValue());
+            assertEquals(-counter, data.getNumberDestinationMA().longValue());
+            assertTrue(counter > seen[0]);
+            seen[0] = counter;
+            seen[1]++;
+        };
+        thread.start();
+        while (thread.isAlive())
+        {
+            reader.read(this, listener);
+        }
+        thread.join();
+        reader.read(this, listener);
+        assertEquals(last, seen[0]);
+        assertTrue(seen[1] > 0L);
+    }
+
+    /**
+     * noSnapshot() - der Leser verlangt eine vorhandene Datei...
+     */
+    @Test
+    public void noSnapshot() throws IOException
+    {
+        final File file = tempFile();
+        assertThrows(IOException.class, () -> new StateSnapshot(file, false));
+        assertThrows(IllegalStateException.class, () ->
+        {
+            new StateSnapshot(file, true);
+            new StateSnapshot(file, false).put(Model.DATA_KEY, data(1L));
+        });
+    }
+}
@@ -0,0 +1,381 @@
+/**
+ *
+ */
+package gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * TelemetryArchiveTest - Kodierung (zig-zag, varint, Differenzen), Suche
+ * an den Grenzen von Block und Segment, Retention ohne Segmentwechsel.
+ *
+ * @author Detlef Tribius
+ *
+ */
+public class TelemetryArchiveTest
+{
+    /**
+     * SEGMENT_BYTES = 8192 - kleine Segmente (einige hundert Saetze, zwei Bloecke)
+     */
+    private final static long SEGMENT_BYTES = 8192L;
+
+    /**
+     * HOUR_MILLIS/DAY_MILLIS
+     */
+    private final static long HOUR_MILLIS = 3600000L;
+    private final static long DAY_MILLIS = 24L * HOUR_MILLIS;
+
+    /**
+     * START_MILLIS - Zeitstempel des ersten Satzes, CYCLE_MILLIS - Abstand der Saetze
+     */
+    private final static long START_MILLIS = 1600000000000L;
+    private final static long CYCLE_MILLIS = 20L;
+
+    /**
+     * COUNT = 4000 - Anzahl der Saetze je Archiv
+     */
+    private final static int COUNT = 4000;
+
+    /**
+     * fill(long[] record, long counter, long timeMillis) - Satz mit
+     * wachsenden, fallenden und wechselnden Werten...
+     */
+    private static long[] fill(long[] record, long counter, long timeMillis)
+    {
+        record[TelemetryArchive.COUNTER] = counter;
+        record[TelemetryArchive.TIME_MILLIS] = timeMillis;
+        record[TelemetryArchive.CYCLE_TIME] = 20000L + counter % 7L;
+        record[TelemetryArchive.TOKEN] = counter & 0xffL;
+        record[TelemetryArchive.DESTINATION_MA] = 3L * counter;
+        record[TelemetryArchive.DESTINATION_MB] = -3L * counter;
+        record[TelemetryArchive.NUMBER_MA] = 3L * counter - counter % 5L;
+        record[TelemetryArchive.NUMBER_MB] = -3L * counter + counter % 5L;
+        record[TelemetryArchive.OUTPUT_MA] = (counter % 200L - 100L) * 1000L;
+        record[TelemetryArchive.OUTPUT_MB] = (100L - counter % 200L) * 1000L;
+        record[TelemetryArchive.REAL_VALUE_MA] = counter % 61L;
+        record[TelemetryArchive.REAL_VALUE_MB] = -(counter % 61L);
+        record[TelemetryArchive.POSE_X] = (long) (1000000.0 * Math.sin(counter / 100.0));
+        record[TelemetryArchive.POSE_Y] = (long) (1000000.0 * Math.cos(counter / 100.0));
+        record[TelemetryArchive.HEADING] = (counter % 2L == 0L)? Long.MAX_VALUE : Long.MIN_VALUE;
+        return record;
+    }
+
+    /**
+     * write(TelemetryArchive archive, long counter, long timeMillis, int count) - count
+     * Saetze ab counter/timeMillis, ohne Ueberlauf des Puffers...
+     */
+    private static void write(TelemetryArchive archive, long counter, long timeMillis, int count) throws InterruptedException
+    {
+        final long[] record = new long[TelemetryArchive.COLUMNS];
+        final long records = archive.getRecords();
+        for (int index = 0; index < count; index++)
+        {
+            archive.append(fill(record, counter + index, timeMillis + index * CYCLE_MILLIS), 0);
+            if ((index + 1) % (TelemetryArchive.QUEUE_CAPACITY / 2) == 0)
+            {
+                while (archive.getRecords() < records + index + 1)
+                {
+                    Thread.sleep(1L);
+                }
+            }
+        }
+        while (archive.getRecords() < records + count)
+        {
+            Thread.sleep(1L);
+        }
+        assertEquals(0L, archive.getDropped());
+    }
+
+    /**
+     * archive(File directory) - COUNT Saetze ab counter 0 und START_MILLIS...
+     */
+    private static void archive(File directory) throws IOException, InterruptedException
+    {
+        final TelemetryArchive archive = new TelemetryArchive(directory, SEGMENT_BYTES, HOUR_MILLIS, Long.MAX_VALUE, Long.MAX_VALUE);
+        archive.start();
+        write(archive, 0L, START_MILLIS, COUNT);
+        archive.stop();
+    }
+
+    /**
+     * directory() - leeres Verzeichnis fuer das Archiv...
+     */
+    private static File directory() throws IOException
+    {
+        final File directory = Files.createTempDirectory("archive").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+
+    /**
+     * delete(File directory) - Archiv entfernen...
+     */
+    private static void delete(File directory)
+    {
+        final File[] files = directory.listFiles();
+        if (files != null)
+        {
+            for (File file: files)
+            {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    /**
+     * assertRecord(long counter, long timeMillis, long[] record)...
+     */
+    private static void assertRecord(long counter, long timeMillis, long[] record)
+    {
+        final long[] expected = fill(new long[TelemetryArchive.COLUMNS], counter, timeMillis);
+        assertTrue(Arrays.equals(expected, record), Arrays.toString(expected) + " != " + Arrays.toString(record));
+    }
+
+    /**
+     * codec() - zig-zag und varint an den Grenzen, Abbruch mitten im Wert...
+     */
+    @Test
+    public void codec() throws IOException
+    {
+        assertEquals(0L, TelemetryArchive.zigZag(0L));
+        assertEquals(1L, TelemetryArchive.zigZag(-1L));
+        assertEquals(2L, TelemetryArchive.zigZag(1L));
+        assertEquals(-1L, TelemetryArchive.zigZag(Long.MIN_VALUE));
+        final long[] values = {0L, 1L, -1L, 63L, -64L, 64L, 127L, 128L, -129L, 1L << 40, -(1L << 40),
+                               Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        final byte[] buffer = new byte[values.length * 10];
+        int length = 0;
+        for (long value: values)
+        {
+            assertEquals(value, TelemetryArchive.unZigZag(TelemetryArchive.zigZag(value)));
+            length = TelemetryArchive.putVarLong(TelemetryArchive.zigZag(value), buffer, length);
+        }
+        final ByteArrayInputStream input = new ByteArrayInputStream(buffer, 0, length);
+        for (long value: values)
+        {
+            assertEquals(value, TelemetryArchive.unZigZag(TelemetryArchive.getVarLong(input)));
+        }
+        assertThrows(EOFException.class, () -> TelemetryArchive.getVarLong(input));
+        // Laenge: 7 Bit je Byte...
+        assertEquals(1, TelemetryArchive.putVarLong(127L, buffer, 0));
+        assertEquals(2, TelemetryArchive.putVarLong(128L, buffer, 0));
+        assertEquals(10, TelemetryArchive.putVarLong(-1L, buffer, 0));
+        // Abbruch mitten im Wert (Schreiben unterbrochen)...
+        final int truncated = TelemetryArchive.putVarLong(1L << 40, buffer, 0) - 1;
+        assertThrows(EOFException.class, () -> TelemetryArchive.getVarLong(new ByteArrayInputStream(buffer, 0, truncated)));
+    }
+
+    /**
+     * roundTrip() - alle Saetze ueber mehrere Segmente und Bloecke zurueck...
+     */
+    @Test
+    public void roundTrip() throws Exception
+    {
+        final File directory = directory();
+        try
+        {
+            archive(directory);
+            assertTrue(TelemetryArchive.listSegments(directory).length > 3, "zu wenige Segmente");
+            try (TelemetryArchive.Reader reader = new TelemetryArchive.Reader(directory))
+            {
+                assertTrue(reader.seekCounter(0L));
+                final long[] record = new long[TelemetryArchive.COLUMNS];
+                for (int counter = 0; counter < COUNT; counter++)
+                {
+                    assertTrue(reader.next(record), "Ende bei " + counter);
+                    assertRecord(counter, START_MILLIS + counter * CYCLE_MILLIS, record);
+                }
+                assertFalse(reader.next(record));
+            }
+        }
+        finally
+        {
+            delete(directory);
+        }
+    }
+
+    /**
+     * seekBoundaries() - Suche am Anfang/Ende des Archives, an Block- und
+     * Segmentgrenzen, Zeitstempel zwischen zwei Saetzen...
+     */
+    @Test
+    public void seekBoundaries() throws Exception
+    {
+        final File directory = directory();
+        try
+        {
+            archive(directory);
+            final long[] record = new long[TelemetryArchive.COLUMNS];
+            try (TelemetryArchive.Reader reader = new TelemetryArchive.Reader(directory))
+            {
+                final long[] counters = {-5L, 0L, 1L, TelemetryArchive.INDEX_INTERVAL - 1L, TelemetryArchive.INDEX_INTERVAL,
+                                         TelemetryArchive.INDEX_INTERVAL + 1L, COUNT - 1L};
+                for (long counter: counters)
+                {
+                    final long expected = Math.max(0L, counter);
+                    assertTrue(reader.seekCounter(counter), "counter " + counter);
+                    assertTrue(reader.next(record));
+                    assertRecord(expected, START_MILLIS + expected * CYCLE_MILLIS, record);
+                }
+                // Erster Satz jedes Segmentes und letzter Satz des vorigen...
+                for (File segment: TelemetryArchive.listSegments(directory))
+                {
+                    final long first = TelemetryArchive.firstOf(segment)[0];
+                    for (long counter = Math.max(0L, first - 1L); counter <= first; counter++)
+                    {
+                        assertTrue(reader.seekCounter(counter), "counter " + counter);
+                        assertTrue(reader.next(record));
+                        assertRecord(counter, START_MILLIS + counter * CYCLE_MILLIS, record);
+                        assertTrue(reader.seekTime(START_MILLIS + counter * CYCLE_MILLIS), "counter " + counter);
+                        assertTrue(reader.next(record));
+                        assertRecord(counter, START_MILLIS + counter * CYCLE_MILLIS, record);
+                    }
+                }
+                // Zeitstempel zwischen zwei Saetzen: der folgende Satz...
+                assertTrue(reader.seekTime(START_MILLIS + 1000L * CYCLE_MILLIS + 1L));
+                assertTrue(reader.next(record));
+                assertRecord(1001L, START_MILLIS + 1001L * CYCLE_MILLIS, record);
+                assertTrue(reader.seekTime(START_MILLIS - 1L));
+                assertTrue(reader.next(record));
+                assertRecord(0L, START_MILLIS, record);
+                // Hinter dem letzten Satz...
+                assertFalse(reader.seekCounter(COUNT));
+                assertFalse(reader.seekTime(START_MILLIS + (COUNT - 1L) * CYCLE_MILLIS + 1L));
+            }
+        }
+        finally
+        {
+            delete(directory);
+        }
+    }
+
+    /**
+     * seekAfterReset() - counter nach einem Reset: Suche zuerst im juengsten
+     * Lauf, dann in den aelteren, die Zeitstempel laufen ueber den Reset...
+     */
+    @Test
+    public void seekAfterReset() throws Exception
+    {
+        final File directory = directory();
+        try
+        {
+            final TelemetryArchive archive = new TelemetryArchive(directory, SEGMENT_BYTES, HOUR_MILLIS, Long.MAX_VALUE, Long.MAX_VALUE);
+            archive.start();
+            write(archive, 0L, START_MILLIS, COUNT);
+            final long resetMillis = START_MILLIS + COUNT * CYCLE_MILLIS;
+            write(archive, 0L, resetMillis, COUNT / 2);
+            archive.stop();
+            final long[] record = new long[TelemetryArchive.COLUMNS];
+            try (TelemetryArchive.Reader reader = new TelemetryArchive.Reader(directory))
+            {
+                // Im juengsten Lauf...
+                assertTrue(reader.seekCounter(500L));
+                assertTrue(reader.next(record));
+                assertRecord(500L, resetMillis + 500L * CYCLE_MILLIS, record);
+                // Nur im aelteren Lauf...
+                assertTrue(reader.seekCounter(COUNT / 2 + 10L));
+                assertTrue(reader.next(record));
+                assertRecord(COUNT / 2 + 10L, START_MILLIS + (COUNT / 2 + 10L) * CYCLE_MILLIS, record);
+                // next() setzt ueber den Reset fort...
+                assertTrue(reader.seekCounter(COUNT - 1L));
+                assertTrue(reader.next(record));
+                assertTrue(reader.next(record));
+                assertRecord(0L, resetMillis, record);
+                assertFalse(reader.seekCounter(COUNT));
+                // Zeitstempel ueber den Reset hinweg...
+                assertTrue(reader.seekTime(resetMillis - 1L));
+                assertTrue(reader.next(record));
+                assertRecord(0L, resetMillis, record);
+            }
+        }
+        finally
+        {
+            delete(directory);
+        }
+    }
+
+    /**
+     * retentionIdle() - ohne neue Saetze (kein Segmentwechsel) werden zu alte
+     * Segmente beim Start und in applyRetention() geloescht, das juengste bleibt...
+     */
+    @Test
+    public void retentionIdle() throws Exception
+    {
+        final File directory = directory();
+        try
+        {
+            archive(directory);
+            final File[] segments = TelemetryArchive.listSegments(directory);
+            assertTrue(segments.length > 3, "zu wenige Segmente");
+            final long nowMillis = System.currentTimeMillis();
+            for (File segment: segments)
+            {
+                assertTrue(segment.setLastModified(nowMillis - 10L * DAY_MILLIS));
+            }
+            // Start des Archives, keine neuen Saetze...
+            new TelemetryArchive(directory, SEGMENT_BYTES, HOUR_MILLIS, Long.MAX_VALUE, DAY_MILLIS);
+            final File[] remaining = TelemetryArchive.listSegments(directory);
+            assertEquals(1, remaining.length);
+            assertEquals(segments[segments.length - 1], remaining[0]);
+            assertEquals(2, directory.listFiles().length);
+        }
+        finally
+        {
+            delete(directory);
+        }
+    }
+
+    /**
+     * retentionSize() - Gesamtgroesse ohne Segmentwechsel begrenzt, die
+     * verbleibenden Segmente bleiben lesbar...
+     */
+    @Test
+    public void retentionSize() throws Exception
+    {
+        final File directory = directory();
+        try
+        {
+            archive(directory);
+            final long maxBytes = 3L * SEGMENT_BYTES;
+            assertTrue(TelemetryArchive.listSegments(directory).length > 3, "zu wenige Segmente");
+            // Start mit kleinerer Vorgabe, Retention ohne neue Saetze...
+            new TelemetryArchive(directory, SEGMENT_BYTES, HOUR_MILLIS, maxBytes, Long.MAX_VALUE);
+            long totalBytes = 0L;
+            for (File segment: TelemetryArchive.listSegments(directory))
+            {
+                totalBytes += segment.length() + TelemetryArchive.indexOf(segment).length();
+            }
+            assertTrue(totalBytes <= maxBytes, "Gesamtgroesse " + totalBytes);
+            // Lesbar ab dem aeltesten verbliebenen Satz bis zum Ende...
+            final long first = TelemetryArchive.firstOf(TelemetryArchive.listSegments(directory)[0])[0];
+            try (TelemetryArchive.Reader reader = new TelemetryArchive.Reader(directory))
+            {
+                assertTrue(reader.seekCounter(0L));
+                final long[] record = new long[TelemetryArchive.COLUMNS];
+                for (long counter = first; counter < COUNT; counter++)
+                {
+                    assertTrue(reader.next(record), "Ende bei " + counter);
+                    assertRecord(counter, START_MILLIS + counter * CYCLE_MILLIS, record);
+                }
+                assertFalse(reader.next(record));
+            }
+        }
+        finally
+        {
+            delete(directory);
+        }
+    }
+}